@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.cloud.plugin;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.kie.cloud.openshift.util.ImagePrePuller;
+import org.kie.cloud.openshift.util.NodeImageReport;
+
+/**
+ * Pulls all configured Kie images on every OpenShift node, so the following test run doesn't measure image pulls.
+ */
+@Mojo(name = "pre-pull-images")
+public class PrePullImages extends AbstractMojo {
+
+    @Parameter(property = "openshift.image.prepull.required", defaultValue = "false")
+    private boolean requireWarmNodes;
+
+    @Override public void execute() throws MojoExecutionException, MojoFailureException {
+        NodeImageReport report = ImagePrePuller.prePull();
+        getLog().info("Image pre-pull report:" + System.lineSeparator() + report);
+
+        if (!report.isWarm() && requireWarmNodes) {
+            throw new MojoFailureException("Images are not pulled on nodes " + report.getColdNodes());
+        }
+    }
+}
@@ -114,4 +114,12 @@ public interface Deployment {
      * @param versionTag to wait for.
      */
     void waitForVersionTag(String versionTag);
+
+    /**
+     * @return True if the deployment was changed after it was deployed by router settings, resources or deleted
+     * instances, so it doesn't match its original configuration anymore.
+     */
+    default boolean isModified() {
+        return false;
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.api.deployment;
+
+import java.time.Duration;
+
+/**
+ * Batch of router settings for routes of several deployments. Settings are only collected until {@link #apply()} is
+ * called, then every route is updated at once and the router reloads its configuration just once.
+ */
+public interface RouterConfiguration {
+
+    /**
+     * Set router timeout for all routes of the deployment.
+     *
+     * @param deployment Deployment whose routes are configured.
+     * @param timeoutValue Timeout value.
+     */
+    RouterConfiguration setTimeout(Deployment deployment, Duration timeoutValue);
+
+    /**
+     * Reset router timeout for all routes of the deployment back to original value.
+     *
+     * @param deployment Deployment whose routes are configured.
+     */
+    RouterConfiguration resetTimeout(Deployment deployment);
+
+    /**
+     * Set router balance strategy for all routes of the deployment.
+     *
+     * @param deployment Deployment whose routes are configured.
+     * @param balance Type of balance (roundrobin, leastconn, source).
+     */
+    RouterConfiguration setBalance(Deployment deployment, String balance);
+
+    /**
+     * Set name of the cookie used by the router for sticky sessions.
+     *
+     * @param deployment Deployment whose routes are configured.
+     * @param cookieName Cookie name.
+     */
+    RouterConfiguration setStickyCookie(Deployment deployment, String cookieName);
+
+    /**
+     * Disable sticky session cookies, so requests are balanced by the balance strategy only.
+     *
+     * @param deployment Deployment whose routes are configured.
+     */
+    RouterConfiguration disableStickyCookies(Deployment deployment);
+
+    /**
+     * Limit rate of HTTP requests from one client IP address.
+     *
+     * @param deployment Deployment whose routes are configured.
+     * @param httpRequestRate Maximal number of HTTP requests within the measuring period of the router.
+     */
+    RouterConfiguration setRateLimit(Deployment deployment, int httpRequestRate);
+
+    /**
+     * Update all routes by collected settings and wait until the router uses them.
+     */
+    void apply();
+}
@@ -19,6 +19,7 @@ import java.util.List;
 import org.kie.cloud.api.deployment.Deployment;
 import org.kie.cloud.api.deployment.DeploymentTimeoutException;
 import org.kie.cloud.api.deployment.MavenRepositoryDeployment;
+import org.kie.cloud.api.deployment.RouterConfiguration;
 
 public interface DeploymentScenario<T extends DeploymentScenario<T>> {
     /**
@@ -38,6 +39,8 @@ public interface DeploymentScenario<T extends DeploymentScenario<T>> {
     /**
      * Configure name of custom folder where the scenario logs will be stored.
      * By default the namespace value is used as log folder.
+     * If the scenario is already deployed, logs collected so far stay in the previous folder and new logs are stored
+     * into the new one.
      *
      * @param logFolderName
      */
@@ -76,4 +79,12 @@ public interface DeploymentScenario<T extends DeploymentScenario<T>> {
      * @return External Maven repository deployment.
      */
     MavenRepositoryDeployment getMavenRepositoryDeployment();
+
+    /**
+     * Start batch of router settings for deployments of this scenario. Settings are applied by
+     * {@link RouterConfiguration#apply()}, so the router reloads its configuration just once.
+     *
+     * @return Empty router configuration.
+     */
+    RouterConfiguration configureRouter();
 }
@@ -22,6 +22,7 @@ import org.kie.cloud.api.deployment.SmartRouterDeployment;
 import org.kie.cloud.api.deployment.WorkbenchDeployment;
 import org.kie.cloud.api.scenario.DeploymentScenario;
 import org.kie.cloud.common.provider.KieServerControllerClientProvider;
+import org.kie.cloud.common.trace.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,7 +38,7 @@ public class WaitForKieServersConnectedWithBusinessCentralAfterLoadScenario impl
         logger.info("Waiting for Kie server to register itself to the Workbench.");
         int totalKieServers = getTotalKieServers(scenario);
         getBusinessCentrals(scenario).forEach(businessCentral -> {
-            KieServerControllerClientProvider.waitForServerTemplateCreation(businessCentral, totalKieServers);
+            Tracer.run("wait for server templates", () -> KieServerControllerClientProvider.waitForServerTemplateCreation(businessCentral, totalKieServers));
         });
     }
 
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.logs;
+
+import java.time.Instant;
+
+/**
+ * Instance log line together with the time it was written.
+ */
+public class InstanceLogLine {
+
+    private final String text;
+    private final Instant time;
+
+    /**
+     * @param text Log line without line separator.
+     * @param time Time the line was written, server timestamp of the line if available.
+     */
+    public InstanceLogLine(String text, Instant time) {
+        this.text = text;
+        this.time = time;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Instant getTime() {
+        return time;
+    }
+}
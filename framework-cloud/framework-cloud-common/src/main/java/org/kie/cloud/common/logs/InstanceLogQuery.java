@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.logs;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Search in instance logs stored in compressed storage mode. Only segments whose time range overlaps the searched
+ * interval and whose Bloom filter might contain all tokens of the searched text are decompressed.
+ *
+ * Time range is tracked per segment, so lines of matching segment logged slightly outside of the interval can be returned.
+ */
+public class InstanceLogQuery {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstanceLogQuery.class);
+
+    private InstanceLogQuery() {
+    }
+
+    /**
+     * Find which instances logged the text in the time interval.
+     *
+     * @param customLogFolderName Name of the folder with instance logs.
+     * @param text Searched text, for example exception class name, either fully qualified or simple, or a message
+     *        like "Connection refused". Words of the text are matched as whole words of the log line.
+     * @param from Start of the time interval.
+     * @param to End of the time interval.
+     * @return All matching log lines.
+     */
+    public static List<Match> find(String customLogFolderName, String text, Instant from, Instant to) {
+        List<Match> matches = new ArrayList<>();
+        File directory = InstanceLogUtil.getLogDirectory(customLogFolderName);
+        File[] indexFiles = directory.listFiles((dir, name) -> name.endsWith(LogSegmentIndex.INDEX_SUFFIX));
+        if (indexFiles == null) {
+            return matches;
+        }
+        for (File indexFile : indexFiles) {
+            String logName = indexFile.getName().substring(0, indexFile.getName().length() - LogSegmentIndex.INDEX_SUFFIX.length());
+            try {
+                for (LogSegmentIndex.Segment segment : LogSegmentIndex.read(indexFile)) {
+                    if (segment.overlaps(from, to) && segment.getTokens().mightContainAll(text)) {
+                        searchSegment(new File(directory, segment.getFileName()), logName, text, matches);
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Error searching instance log " + logName, e);
+            }
+        }
+        return matches;
+    }
+
+    private static void searchSegment(File segmentFile, String logName, String text, List<Match> matches) throws IOException {
+        logger.trace("Searching log segment {}", segmentFile);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(segmentFile)), StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.contains(text)) {
+                    matches.add(new Match(logName, segmentFile.getName(), lineNumber, line));
+                }
+            }
+        }
+    }
+
+    public static class Match {
+
+        private final String logName;
+        private final String segmentName;
+        private final long lineNumber;
+        private final String line;
+
+        private Match(String logName, String segmentName, long lineNumber, String line) {
+            this.logName = logName;
+            this.segmentName = segmentName;
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+
+        /**
+         * @return Name of the log, composed of instance and container name.
+         */
+        public String getLogName() {
+            return logName;
+        }
+
+        public String getSegmentName() {
+            return segmentName;
+        }
+
+        /**
+         * @return Line number within the segment, starting from 1.
+         */
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getLine() {
+            return line;
+        }
+
+        @Override
+        public String toString() {
+            return logName + " (" + segmentName + ":" + lineNumber + "): " + line;
+        }
+    }
+}
@@ -16,7 +16,7 @@
 package org.kie.cloud.common.logs;
 
 import java.io.File;
-import java.util.Collection;
+import java.io.IOException;
 
 import org.apache.commons.io.FileUtils;
 import org.kie.cloud.api.deployment.Instance;
@@ -31,6 +31,11 @@ public class InstanceLogUtil {
     private static final String DEFAULT_LOG_OUTPUT_DIRECTORY = "instances";
     private static final String LOG_SUFFIX = ".log";
 
+    private static final String INSTANCES_LOGS_STORAGE = "instance.logs.storage";
+    private static final String COMPRESSED_STORAGE = "compressed";
+    private static final String INSTANCES_LOGS_SEGMENT_SIZE_IN_MB = "instance.logs.segment.size.mb";
+    private static final String DEFAULT_SEGMENT_SIZE_IN_MB = "16";
+
     public static void writeInstanceLogs(Instance instance, String customLogFolderName) {
         writeInstanceLogs(instance.getName(), customLogFolderName, instance.getLogs());
     }
@@ -44,18 +49,38 @@ public class InstanceLogUtil {
         }
     }
 
-    public static void appendInstanceLogLines(String instanceName, String customLogFolderName, Collection<String> lines) {
-        File logFile = getOutputFile(instanceName, customLogFolderName);
-        try {
-            FileUtils.writeLines(logFile, "UTF-8", lines, true);
-        } catch (Exception e) {
-            logger.error("Error writting instance logs", e);
+    /**
+     * Create writer of streamed instance log. With system property <code>instance.logs.storage=compressed</code> the log is
+     * stored in gzip compressed segments of <code>instance.logs.segment.size.mb</code> uncompressed size (16 MB by default)
+     * with an index searchable by {@link InstanceLogQuery}, otherwise it is stored as plain text file.
+     *
+     * @param instanceName Name of the instance, used as log file name.
+     * @param customLogFolderName Name of the folder the log is stored in.
+     * @return Log writer, has to be closed once the log is complete.
+     */
+    public static InstanceLogWriter createInstanceLogWriter(String instanceName, String customLogFolderName) throws IOException {
+        if (isCompressedStorage()) {
+            long segmentSizeInBytes = Long.parseLong(System.getProperty(INSTANCES_LOGS_SEGMENT_SIZE_IN_MB, DEFAULT_SEGMENT_SIZE_IN_MB)) * 1024 * 1024;
+            return new SegmentedInstanceLogWriter(getLogDirectory(customLogFolderName), instanceName, segmentSizeInBytes);
         }
+        return new PlainInstanceLogWriter(getOutputFile(instanceName, customLogFolderName));
     }
 
-    private static File getOutputFile(String instanceName, String customLogFolderName) {
+    public static boolean isCompressedStorage() {
+        return COMPRESSED_STORAGE.equalsIgnoreCase(System.getProperty(INSTANCES_LOGS_STORAGE));
+    }
+
+    /**
+     * @param customLogFolderName Name of the folder the logs are stored in.
+     * @return Directory with instance logs, created if needed.
+     */
+    public static File getLogDirectory(String customLogFolderName) {
         File outputDirectory = new File(System.getProperty(INSTANCES_LOGS_OUTPUT_DIRECTORY, DEFAULT_LOG_OUTPUT_DIRECTORY), customLogFolderName);
         outputDirectory.mkdirs();
-        return new File(outputDirectory, instanceName + LOG_SUFFIX);
+        return outputDirectory;
+    }
+
+    private static File getOutputFile(String instanceName, String customLogFolderName) {
+        return new File(getLogDirectory(customLogFolderName), instanceName + LOG_SUFFIX);
     }
 }
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.logs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writer of instance log lines into the log storage, see {@link InstanceLogUtil#createInstanceLogWriter(String, String)}.
+ */
+public interface InstanceLogWriter extends Closeable {
+
+    /**
+     * @param lines Log lines in order they were written.
+     */
+    void writeLines(List<InstanceLogLine> lines) throws IOException;
+}
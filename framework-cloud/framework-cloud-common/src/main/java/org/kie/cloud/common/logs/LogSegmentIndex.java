@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.logs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sidecar index of compressed log segments. Every line describes one closed segment:
+ * segment file name, time range of the lines, line count and Bloom filter of the tokens, separated by tabs.
+ */
+class LogSegmentIndex {
+
+    static final String INDEX_SUFFIX = ".index";
+
+    private static final String SEPARATOR = "\t";
+
+    private LogSegmentIndex() {
+    }
+
+    static File getIndexFile(File directory, String logName) {
+        return new File(directory, logName + INDEX_SUFFIX);
+    }
+
+    static void append(File indexFile, Segment segment) throws IOException {
+        String entry = String.join(SEPARATOR,
+                                   segment.getFileName(),
+                                   String.valueOf(segment.getFirstLineTime().toEpochMilli()),
+                                   String.valueOf(segment.getLastLineTime().toEpochMilli()),
+                                   String.valueOf(segment.getLineCount()),
+                                   segment.getTokens().serialize());
+        Files.write(indexFile.toPath(), Collections.singletonList(entry), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    static List<Segment> read(File indexFile) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        if (!indexFile.exists()) {
+            return segments;
+        }
+        for (String entry : Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            String[] fields = entry.split(SEPARATOR);
+            if (fields.length == 5) {
+                segments.add(new Segment(fields[0],
+                                         Instant.ofEpochMilli(Long.parseLong(fields[1])),
+                                         Instant.ofEpochMilli(Long.parseLong(fields[2])),
+                                         Long.parseLong(fields[3]),
+                                         TokenBloomFilter.deserialize(fields[4])));
+            }
+        }
+        return segments;
+    }
+
+    static class Segment {
+
+        private final String fileName;
+        private final Instant firstLineTime;
+        private final Instant lastLineTime;
+        private final long lineCount;
+        private final TokenBloomFilter tokens;
+
+        Segment(String fileName, Instant firstLineTime, Instant lastLineTime, long lineCount, TokenBloomFilter tokens) {
+            this.fileName = fileName;
+            this.firstLineTime = firstLineTime;
+            this.lastLineTime = lastLineTime;
+            this.lineCount = lineCount;
+            this.tokens = tokens;
+        }
+
+        String getFileName() {
+            return fileName;
+        }
+
+        Instant getFirstLineTime() {
+            return firstLineTime;
+        }
+
+        Instant getLastLineTime() {
+            return lastLineTime;
+        }
+
+        long getLineCount() {
+            return lineCount;
+        }
+
+        TokenBloomFilter getTokens() {
+            return tokens;
+        }
+
+        boolean overlaps(Instant from, Instant to) {
+            return !lastLineTime.isBefore(from) && !firstLineTime.isAfter(to);
+        }
+    }
+}
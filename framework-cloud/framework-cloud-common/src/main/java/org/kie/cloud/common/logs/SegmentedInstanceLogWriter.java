@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.logs;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes log lines into gzip compressed segments. Segment is rotated once it contains configured amount of uncompressed
+ * data or once its token Bloom filter is full, every closed segment is recorded in {@link LogSegmentIndex} together with its time range, line count and token
+ * Bloom filter, so the log can be searched by {@link InstanceLogQuery} without decompressing all segments.
+ */
+class SegmentedInstanceLogWriter implements InstanceLogWriter {
+
+    static final String SEGMENT_SUFFIX = ".log.gz";
+
+    // Logs repeat most of their tokens, expect a new distinct token every 64 bytes of uncompressed data
+    private static final int BYTES_PER_DISTINCT_TOKEN = 64;
+
+    private final File directory;
+    private final String logName;
+    private final long segmentSizeInBytes;
+    private final int expectedTokens;
+    private int segmentNumber;
+
+    private BufferedWriter segmentWriter;
+    private String segmentFileName;
+    private long segmentBytes;
+    private long segmentLines;
+    private Instant firstLineTime;
+    private Instant lastLineTime;
+    private TokenBloomFilter segmentTokens;
+
+    SegmentedInstanceLogWriter(File directory, String logName, long segmentSizeInBytes) throws IOException {
+        this.directory = directory;
+        this.logName = logName;
+        this.segmentSizeInBytes = segmentSizeInBytes;
+        this.expectedTokens = (int) Math.min(Integer.MAX_VALUE / 16, Math.max(1, segmentSizeInBytes / BYTES_PER_DISTINCT_TOKEN));
+        // Continue numbering of segments written before
+        this.segmentNumber = LogSegmentIndex.read(LogSegmentIndex.getIndexFile(directory, logName)).size();
+    }
+
+    @Override
+    public void writeLines(List<InstanceLogLine> lines) throws IOException {
+        for (InstanceLogLine line : lines) {
+            if (segmentWriter == null) {
+                openSegment(line.getTime());
+            }
+            segmentWriter.write(line.getText());
+            segmentWriter.newLine();
+            segmentTokens.addLine(line.getText());
+            segmentLines++;
+            segmentBytes += line.getText().length() + 1;
+            // Range covers all lines even if their times are not ordered
+            if (line.getTime().isBefore(firstLineTime)) {
+                firstLineTime = line.getTime();
+            }
+            if (line.getTime().isAfter(lastLineTime)) {
+                lastLineTime = line.getTime();
+            }
+            if (segmentBytes >= segmentSizeInBytes || segmentTokens.isFull()) {
+                closeSegment();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+
+    private void openSegment(Instant time) throws IOException {
+        segmentFileName = String.format("%s.%04d%s", logName, segmentNumber++, SEGMENT_SUFFIX);
+        File segmentFile = new File(directory, segmentFileName);
+        segmentWriter = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(segmentFile)), StandardCharsets.UTF_8));
+        segmentBytes = 0;
+        segmentLines = 0;
+        firstLineTime = time;
+        lastLineTime = time;
+        segmentTokens = new TokenBloomFilter(expectedTokens, TokenBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    private void closeSegment() throws IOException {
+        if (segmentWriter == null) {
+            return;
+        }
+        try {
+            segmentWriter.close();
+        } finally {
+            segmentWriter = null;
+            LogSegmentIndex.append(LogSegmentIndex.getIndexFile(directory, logName),
+                                   new LogSegmentIndex.Segment(segmentFileName, firstLineTime, lastLineTime, segmentLines, segmentTokens));
+        }
+    }
+}
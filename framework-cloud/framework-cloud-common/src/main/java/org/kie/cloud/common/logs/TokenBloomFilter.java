@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.logs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Bloom filter of tokens (words, class names, exception names...) contained in a log segment. Used to skip segments
+ * which certainly don't contain searched token without decompressing them.
+ *
+ * Filter is sized for expected count of distinct tokens, once more tokens are added the false positive rate grows
+ * over the configured one, see {@link #isFull()}.
+ */
+class TokenBloomFilter {
+
+    static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    private static final String FIELD_SEPARATOR = ":";
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^A-Za-z0-9_.$-]+");
+
+    private final BitSet bits;
+    private final int sizeInBits;
+    private final int hashCount;
+    private final int fullBits;
+    private int setBits;
+
+    /**
+     * @param expectedTokens Expected count of distinct tokens.
+     * @param falsePositiveRate Probability that the filter reports a token which wasn't added, once expected count of tokens is added.
+     */
+    TokenBloomFilter(int expectedTokens, double falsePositiveRate) {
+        this(new BitSet(), getSizeInBits(expectedTokens, falsePositiveRate), getHashCount(expectedTokens, falsePositiveRate), expectedTokens);
+    }
+
+    private TokenBloomFilter(BitSet bits, int sizeInBits, int hashCount, int expectedTokens) {
+        this.bits = bits;
+        this.sizeInBits = sizeInBits;
+        this.hashCount = hashCount;
+        // Expected count of set bits once expected count of distinct tokens is added: m * (1 - e^(-k * n / m))
+        this.fullBits = (int) Math.ceil(sizeInBits * (1 - Math.exp(-(double) hashCount * expectedTokens / sizeInBits)));
+        this.setBits = bits.cardinality();
+    }
+
+    // m = -n * ln(p) / ln(2)^2
+    static int getSizeInBits(int expectedTokens, double falsePositiveRate) {
+        return (int) Math.max(64, Math.ceil(-Math.max(1, expectedTokens) * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+    }
+
+    // k = m / n * ln(2)
+    static int getHashCount(int expectedTokens, double falsePositiveRate) {
+        return (int) Math.max(1, Math.round((double) getSizeInBits(expectedTokens, falsePositiveRate) / Math.max(1, expectedTokens) * Math.log(2)));
+    }
+
+    /**
+     * Split text into tokens the same way as log lines are split when added to the filter.
+     */
+    static List<String> tokenize(String text) {
+        return Arrays.stream(TOKEN_SEPARATOR.split(text))
+                     .filter(token -> !token.isEmpty())
+                     .collect(Collectors.toList());
+    }
+
+    /**
+     * Add all tokens of the log line. Dotted tokens are added also by their last part, so exception is found both by
+     * fully qualified and by simple class name.
+     */
+    void addLine(String line) {
+        for (String token : tokenize(line)) {
+            add(token);
+            int lastDot = token.lastIndexOf('.');
+            if (lastDot >= 0 && lastDot < token.length() - 1) {
+                add(token.substring(lastDot + 1));
+            }
+        }
+    }
+
+    /**
+     * @return False if the token certainly wasn't added, true if it might have been added.
+     */
+    boolean mightContain(String token) {
+        int hash1 = hash(token, 0);
+        int hash2 = hash(token, hash1);
+        for (int i = 0; i < hashCount; i++) {
+            if (!bits.get(index(hash1, hash2, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param text Searched text, split into tokens the same way as log lines.
+     * @return False if any token of the text certainly wasn't added, true if all of them might have been added.
+     */
+    boolean mightContainAll(String text) {
+        return tokenize(text).stream().allMatch(this::mightContain);
+    }
+
+    /**
+     * @return True once about expected count of distinct tokens was added, estimated from count of set bits as repeated
+     *         tokens don't set new bits. Further tokens raise false positive rate.
+     */
+    boolean isFull() {
+        return setBits >= fullBits;
+    }
+
+    String serialize() {
+        return sizeInBits + FIELD_SEPARATOR + hashCount + FIELD_SEPARATOR + Base64.getEncoder().encodeToString(bits.toByteArray());
+    }
+
+    static TokenBloomFilter deserialize(String serialized) {
+        String[] fields = serialized.split(FIELD_SEPARATOR);
+        return new TokenBloomFilter(BitSet.valueOf(Base64.getDecoder().decode(fields[2])), Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), 0);
+    }
+
+    private void add(String token) {
+        int hash1 = hash(token, 0);
+        int hash2 = hash(token, hash1);
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(hash1, hash2, i);
+            if (!bits.get(index)) {
+                bits.set(index);
+                setBits++;
+            }
+        }
+    }
+
+    private int index(int hash1, int hash2, int i) {
+        return Math.floorMod(hash1 + i * hash2, sizeInBits);
+    }
+
+    // FNV-1a with seed
+    private static int hash(String token, int seed) {
+        int hash = 0x811c9dc5 ^ seed;
+        for (byte b : token.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+}
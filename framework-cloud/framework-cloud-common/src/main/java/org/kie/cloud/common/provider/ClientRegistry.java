@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.provider;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.kie.server.client.KieServicesClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of shared remote clients. Clients are keyed by their type, URL, credentials, timeout, extra classes and
+ * marshalling format, so every caller asking for the same configuration gets the same client instance and reuses its
+ * marshallers and keep-alive HTTP connections.
+ *
+ * The registry remembers the last URL used for every deployment. Once a deployment URL changes (i.e. its route was
+ * recreated), clients created for the previous URL are evicted. Clients of undeployed deployments have to be evicted
+ * explicitly by {@link #evictDeployment(Object)}, evicted clients are closed.
+ */
+class ClientRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientRegistry.class);
+
+    private final Map<ClientKey, Object> clients = new ConcurrentHashMap<>();
+    private final Map<Object, String> deploymentUrls = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @param deployment Deployment the client connects to, used to detect URL changes.
+     * @param key Client configuration.
+     * @param clientFactory Factory creating the client if there is no client for the key yet.
+     * @return Shared client.
+     */
+    <T> T getClient(Object deployment, ClientKey key, Supplier<T> clientFactory) {
+        String previousUrl = deploymentUrls.put(deployment, key.url);
+        if (previousUrl != null && !previousUrl.equals(key.url)) {
+            logger.info("URL of deployment changed from {} to {}, evicting cached clients.", previousUrl, key.url);
+            evict(previousUrl);
+        }
+        Object client = clients.get(key);
+        if (client == null) {
+            // Client is created outside of the map, its construction may call the remote server
+            T createdClient = clientFactory.get();
+            client = clients.putIfAbsent(key, createdClient);
+            if (client == null) {
+                client = createdClient;
+            } else {
+                close(createdClient);
+            }
+        }
+        return key.clientType.cast(client);
+    }
+
+    /**
+     * Drop and close all clients connecting to the URL.
+     */
+    void evict(String url) {
+        evict(url, Object.class);
+    }
+
+    /**
+     * Drop and close clients of the type connecting to the URL.
+     */
+    void evict(String url, Class<?> clientType) {
+        Iterator<Map.Entry<ClientKey, Object>> iterator = clients.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ClientKey, Object> entry = iterator.next();
+            if (entry.getKey().url.equals(url) && clientType.isAssignableFrom(entry.getKey().clientType)) {
+                iterator.remove();
+                close(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Drop and close all clients connecting to the last URL of the deployment.
+     */
+    void evictDeployment(Object deployment) {
+        String url = deploymentUrls.remove(deployment);
+        if (url != null) {
+            logger.debug("Evicting cached clients of {}.", url);
+            evict(url);
+        }
+    }
+
+    void evictAll() {
+        new HashSet<>(clients.keySet()).forEach(key -> close(clients.remove(key)));
+        deploymentUrls.clear();
+    }
+
+    private static void close(Object client) {
+        try {
+            if (client instanceof AutoCloseable) {
+                ((AutoCloseable) client).close();
+            } else if (client instanceof KieServicesClient) {
+                ((KieServicesClient) client).close();
+            }
+        } catch (Exception e) {
+            logger.warn("Error closing evicted client.", e);
+        }
+    }
+
+    static class ClientKey {
+
+        private final Class<?> clientType;
+        private final String url;
+        private final String username;
+        private final String password;
+        private final long timeout;
+        private final Set<Class<?>> extraClasses;
+        private final String format;
+
+        ClientKey(Class<?> clientType, String url, String username, String password, long timeout, Set<Class<?>> extraClasses, String format) {
+            this.clientType = clientType;
+            this.url = url;
+            this.username = username;
+            this.password = password;
+            this.timeout = timeout;
+            this.extraClasses = Collections.unmodifiableSet(new HashSet<>(extraClasses));
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ClientKey other = (ClientKey) o;
+            return timeout == other.timeout &&
+                    clientType.equals(other.clientType) &&
+                    url.equals(other.url) &&
+                    Objects.equals(username, other.username) &&
+                    Objects.equals(password, other.password) &&
+                    extraClasses.equals(other.extraClasses) &&
+                    Objects.equals(format, other.format);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(clientType, url, username, password, timeout, extraClasses, format);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.provider;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.kie.server.api.commands.CommandScript;
+import org.kie.server.api.jms.JMSConstants;
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallerFactory;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.ServiceResponsesList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous Kie server JMS client. Requests are sent through a pool of sessions on a shared connection, responses
+ * of all requests are received by one consumer of the response queue and matched to requests by correlation ID.
+ * Callers are not blocked while the request is processed, so many requests can be in flight at once.
+ *
+ * Correlation IDs share a prefix unique for the client, the consumer selects just responses to this client, so it
+ * doesn't steal responses of other clients using the same response queue.
+ */
+public class KieServerAsyncJmsClient implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(KieServerAsyncJmsClient.class);
+
+    static final String REQUEST_QUEUE = "queue/KIE.SERVER.REQUEST";
+    static final String RESPONSE_QUEUE = "queue/KIE.SERVER.RESPONSE";
+
+    private static final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kie-server-jms-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String correlationIdPrefix = "kie-cloud-" + UUID.randomUUID() + "-";
+    private final AtomicLong requestCounter = new AtomicLong();
+    private final Map<String, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+
+    private final String username;
+    private final String password;
+    private final long timeoutInMs;
+    private final BlockingQueue<RequestSender> senders;
+    private final Session responseSession;
+    private final Marshaller responseMarshaller;
+
+    private volatile boolean closed;
+
+    /**
+     * @param connection Started JMS connection.
+     * @param username User invoking the requests on Kie server.
+     * @param password Password of the user.
+     * @param extraClasses Classes to be marshalled in addition to Kie server model.
+     * @param timeoutInMs Time to wait for a response before the request fails.
+     * @param sessions Number of sessions used for sending requests.
+     */
+    KieServerAsyncJmsClient(Connection connection, String username, String password, Set<Class<?>> extraClasses, long timeoutInMs, int sessions) throws JMSException {
+        this.username = username;
+        this.password = password;
+        this.timeoutInMs = timeoutInMs;
+
+        senders = new ArrayBlockingQueue<>(sessions);
+        Queue responseQueue = null;
+        for (int i = 0; i < sessions; i++) {
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            responseQueue = session.createQueue(RESPONSE_QUEUE);
+            MessageProducer producer = session.createProducer(session.createQueue(REQUEST_QUEUE));
+            senders.add(new RequestSender(session, producer, responseQueue, newMarshaller(extraClasses)));
+        }
+
+        responseSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        responseMarshaller = newMarshaller(extraClasses);
+        MessageConsumer consumer = responseSession.createConsumer(responseSession.createQueue(RESPONSE_QUEUE),
+                                                                  "JMSCorrelationID LIKE '" + correlationIdPrefix + "%'");
+        consumer.setMessageListener(this::onResponse);
+    }
+
+    private static Marshaller newMarshaller(Set<Class<?>> extraClasses) {
+        return MarshallerFactory.getMarshaller(extraClasses, MarshallingFormat.JSON, KieServerAsyncJmsClient.class.getClassLoader());
+    }
+
+    /**
+     * Send commands to Kie server.
+     *
+     * @param script Commands to be executed.
+     * @return Future completed by Kie server responses, completed exceptionally on timeout or JMS failure.
+     */
+    public CompletableFuture<ServiceResponsesList> executeAsync(CommandScript script) {
+        return executeAsync(script, null, null, null);
+    }
+
+    /**
+     * Send commands to Kie server.
+     *
+     * @param script Commands to be executed.
+     * @param classType Class type handling the commands on server side, null for Kie server commands.
+     * @param targetCapability Target capability (BPM, BRM, ...), null for Kie server commands.
+     * @param containerId Target container, may be null.
+     * @return Future completed by Kie server responses, completed exceptionally on timeout or JMS failure.
+     */
+    public CompletableFuture<ServiceResponsesList> executeAsync(CommandScript script, String classType, String targetCapability, String containerId) {
+        if (closed) {
+            throw new IllegalStateException("Kie server JMS client is closed.");
+        }
+        String correlationId = correlationIdPrefix + requestCounter.incrementAndGet();
+        PendingRequest pendingRequest = new PendingRequest();
+        pendingRequests.put(correlationId, pendingRequest);
+        pendingRequest.timeout = timeoutScheduler.schedule(() -> failRequest(correlationId, new TimeoutException("No response to request " + correlationId + " within " + timeoutInMs + " ms.")),
+                                                           timeoutInMs, TimeUnit.MILLISECONDS);
+
+        RequestSender sender = null;
+        try {
+            sender = senders.take();
+            sender.send(correlationId, script, classType, targetCapability, containerId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failRequest(correlationId, e);
+        } catch (JMSException | RuntimeException e) {
+            failRequest(correlationId, e);
+        } finally {
+            if (sender != null) {
+                senders.add(sender);
+            }
+        }
+        return pendingRequest.future;
+    }
+
+    /**
+     * @return Number of requests waiting for response.
+     */
+    public int getPendingRequests() {
+        return pendingRequests.size();
+    }
+
+    private void onResponse(Message message) {
+        String correlationId = null;
+        try {
+            correlationId = message.getJMSCorrelationID();
+            PendingRequest pendingRequest = pendingRequests.remove(correlationId);
+            if (pendingRequest == null) {
+                logger.warn("Received response to unknown or timed out request {}.", correlationId);
+                return;
+            }
+            pendingRequest.cancelTimeout();
+            String response = ((TextMessage) message).getText();
+            pendingRequest.future.complete(responseMarshaller.unmarshall(response, ServiceResponsesList.class));
+        } catch (JMSException | RuntimeException e) {
+            failRequest(correlationId, e);
+        }
+    }
+
+    private void failRequest(String correlationId, Throwable cause) {
+        if (correlationId == null) {
+            logger.warn("Failed to process Kie server JMS response.", cause);
+            return;
+        }
+        // Request may have been completed in the meantime
+        PendingRequest pendingRequest = pendingRequests.remove(correlationId);
+        if (pendingRequest != null) {
+            pendingRequest.cancelTimeout();
+            pendingRequest.future.completeExceptionally(cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (RequestSender sender : senders) {
+            closeSession(sender.session);
+        }
+        closeSession(responseSession);
+        pendingRequests.keySet().forEach(correlationId -> failRequest(correlationId, new IllegalStateException("Kie server JMS client was closed.")));
+    }
+
+    private static void closeSession(Session session) {
+        try {
+            session.close();
+        } catch (JMSException e) {
+            logger.warn("Error closing JMS session.", e);
+        }
+    }
+
+    private class RequestSender {
+
+        private final Session session;
+        private final MessageProducer producer;
+        private final Queue responseQueue;
+        private final Marshaller marshaller;
+
+        private RequestSender(Session session, MessageProducer producer, Queue responseQueue, Marshaller marshaller) {
+            this.session = session;
+            this.producer = producer;
+            this.responseQueue = responseQueue;
+            this.marshaller = marshaller;
+        }
+
+        private void send(String correlationId, CommandScript script, String classType, String targetCapability, String containerId) throws JMSException {
+            TextMessage message = session.createTextMessage(marshaller.marshall(script));
+            message.setJMSCorrelationID(correlationId);
+            message.setJMSReplyTo(responseQueue);
+            message.setIntProperty(JMSConstants.SERIALIZATION_FORMAT_PROPERTY_NAME, MarshallingFormat.JSON.getId());
+            message.setIntProperty(JMSConstants.INTERACTION_PATTERN_PROPERTY_NAME, JMSConstants.REQUEST_REPLY_PATTERN);
+            setStringProperty(message, JMSConstants.CLASS_TYPE_PROPERTY_NAME, classType);
+            setStringProperty(message, JMSConstants.TARGET_CAPABILITY_PROPERTY_NAME, targetCapability);
+            setStringProperty(message, JMSConstants.CONTAINER_ID_PROPERTY_NAME, containerId);
+            setStringProperty(message, JMSConstants.USER_PROPERTY_NAME, username);
+            setStringProperty(message, JMSConstants.PASSWRD_PROPERTY_NAME, password);
+            producer.send(message);
+        }
+
+        private void setStringProperty(Message message, String name, String value) throws JMSException {
+            if (value != null) {
+                message.setStringProperty(name, value);
+            }
+        }
+    }
+
+    private static class PendingRequest {
+
+        private final CompletableFuture<ServiceResponsesList> future = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> timeout;
+
+        private void cancelTimeout() {
+            ScheduledFuture<?> scheduledTimeout = timeout;
+            if (scheduledTimeout != null) {
+                scheduledTimeout.cancel(false);
+            }
+        }
+    }
+}
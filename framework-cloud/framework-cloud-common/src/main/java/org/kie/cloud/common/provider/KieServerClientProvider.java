@@ -19,15 +19,20 @@ import java.net.URL;
 import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-import javax.jms.Connection;
+import javax.jms.JMSException;
 import javax.jms.Queue;
-import javax.jms.Session;
 
 import org.apache.activemq.ActiveMQSslConnectionFactory;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.kie.cloud.api.deployment.AmqDeployment;
+import org.kie.cloud.api.deployment.Deployment;
 import org.kie.cloud.api.deployment.KieServerDeployment;
 import org.kie.cloud.api.deployment.SmartRouterDeployment;
 import org.kie.cloud.api.deployment.constants.DeploymentConstants;
@@ -44,11 +49,20 @@ import org.kie.server.client.QueryServicesClient;
 import org.kie.server.client.RuleServicesClient;
 import org.kie.server.client.SolverServicesClient;
 import org.kie.server.client.UserTaskServicesClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class KieServerClientProvider {
 
+    private static final Logger logger = LoggerFactory.getLogger(KieServerClientProvider.class);
+
     private static final long KIE_SERVER_TIMEOUT = 300_000L;
 
+    private static final int JMS_SENDING_SESSIONS = 8;
+
+    private static final ClientRegistry clientRegistry = new ClientRegistry();
+    private static final Map<String, SharedJmsConnection> jmsConnections = new ConcurrentHashMap<>();
+
     public static KieServicesClient getKieServerClient(KieServerDeployment kieServerDeployment) {
         return getKieServerClient(kieServerDeployment, KIE_SERVER_TIMEOUT);
     }
@@ -61,13 +75,51 @@ public class KieServerClientProvider {
         return getKieServerClient(kieServerDeployment, extraClasses, KIE_SERVER_TIMEOUT);
     }
 
+    /**
+     * @return Kie Server client shared by all callers using the same deployment URL, credentials, timeout and extra classes.
+     */
     public static KieServicesClient getKieServerClient(KieServerDeployment kieServerDeployment, Set<Class<?>> extraClasses, long clientTimeout) {
-        KieServicesConfiguration configuration = KieServicesFactory.newRestConfiguration(
-                kieServerDeployment.getUrl().toString() + "/services/rest/server", kieServerDeployment.getUsername(),
-                kieServerDeployment.getPassword(), clientTimeout);
-        configuration.addExtraClasses(extraClasses);
-        KieServicesClient kieServerClient = KieServicesFactory.newKieServicesClient(configuration);
-        return kieServerClient;
+        String url = kieServerDeployment.getUrl().toString() + "/services/rest/server";
+        ClientRegistry.ClientKey key = new ClientRegistry.ClientKey(KieServicesClient.class, url, kieServerDeployment.getUsername(),
+                kieServerDeployment.getPassword(), clientTimeout, extraClasses, MarshallingFormat.JAXB.getType());
+        return clientRegistry.getClient(kieServerDeployment, key, () -> {
+            KieServicesConfiguration configuration = KieServicesFactory.newRestConfiguration(url, kieServerDeployment.getUsername(),
+                    kieServerDeployment.getPassword(), clientTimeout);
+            configuration.addExtraClasses(extraClasses);
+            configuration.setMarshallingFormat(MarshallingFormat.JAXB);
+            return KieServicesFactory.newKieServicesClient(configuration);
+        });
+    }
+
+    /**
+     * Drop and close all cached clients, following calls create new ones.
+     */
+    public static void evictClients() {
+        clientRegistry.evictAll();
+        jmsConnections.values().forEach(SharedJmsConnection::close);
+        jmsConnections.clear();
+    }
+
+    /**
+     * Drop and close cached clients of the deployment, to be called once the deployment is undeployed.
+     */
+    public static void evictClients(Deployment deployment) {
+        clientRegistry.evictDeployment(deployment);
+        if (deployment instanceof AmqDeployment) {
+            try {
+                evictJmsClients(((AmqDeployment) deployment).getTcpSslUrl().getHost());
+            } catch (RuntimeException e) {
+                logger.warn("Failed to resolve AMQ host, JMS clients of namespace {} are kept.", deployment.getNamespace(), e);
+            }
+        }
+    }
+
+    private static void evictJmsClients(String amqHost) {
+        clientRegistry.evict(getJmsUrl(amqHost));
+        SharedJmsConnection sharedConnection = jmsConnections.remove(amqHost);
+        if (sharedConnection != null) {
+            sharedConnection.close();
+        }
     }
 
     public static KieServicesClient getKieServerJmsClient(URL amqHost) {
@@ -90,28 +142,68 @@ public class KieServerClientProvider {
         }
     }
 
+    /**
+     * @return Kie Server JMS client shared by all callers using the same AMQ host, timeout and extra classes. All JMS
+     * clients of the AMQ host share one connection.
+     */
     public static KieServicesClient getKieServerJmsClient(URL amqHost, Set<Class<?>> extraClasses, long clientTimeout) throws Exception {
-        ActiveMQSslConnectionFactory connectionFactory = getJmsConnectionFactory(amqHost);
-        Queue sendQueue = null, receiveQueue = null;
-        Connection c = null;
+        SharedJmsConnection sharedConnection = getSharedJmsConnection(amqHost);
+        String url = getJmsUrl(amqHost.getHost());
+        ClientRegistry.ClientKey key = new ClientRegistry.ClientKey(KieServicesClient.class, url, DeploymentConstants.getAmqUsername(),
+                DeploymentConstants.getAmqPassword(), clientTimeout, extraClasses, MarshallingFormat.JSON.getType());
+        return clientRegistry.getClient(url, key, () -> {
+            Queue sendQueue = new ActiveMQQueue(KieServerAsyncJmsClient.REQUEST_QUEUE);
+            Queue receiveQueue = new ActiveMQQueue(KieServerAsyncJmsClient.RESPONSE_QUEUE);
+            KieServicesConfiguration kieServicesConfiguration = KieServicesFactory.newJMSConfiguration(sharedConnection.asConnectionFactory(), sendQueue, receiveQueue,
+                    DeploymentConstants.getAmqUsername(), DeploymentConstants.getAmqPassword());
+            kieServicesConfiguration.setTimeout(clientTimeout);
+            kieServicesConfiguration.addExtraClasses(extraClasses);
+            kieServicesConfiguration.setMarshallingFormat(MarshallingFormat.JSON);
+            return KieServicesFactory.newKieServicesClient(kieServicesConfiguration);
+        });
+    }
+
+    public static KieServerAsyncJmsClient getKieServerAsyncJmsClient(URL amqHost) {
+        return getKieServerAsyncJmsClient(amqHost, new HashSet<>(), KIE_SERVER_TIMEOUT);
+    }
+
+    /**
+     * @return Asynchronous Kie Server JMS client shared by all callers using the same AMQ host, timeout and extra classes.
+     */
+    public static KieServerAsyncJmsClient getKieServerAsyncJmsClient(URL amqHost, Set<Class<?>> extraClasses, long clientTimeout) {
+        SharedJmsConnection sharedConnection = getSharedJmsConnection(amqHost);
+        String url = getJmsUrl(amqHost.getHost());
         try {
-            c = connectionFactory.createConnection();
-            c.start();
-            Session s = c.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            sendQueue = s.createQueue("queue/KIE.SERVER.REQUEST");
-            receiveQueue = s.createQueue("queue/KIE.SERVER.RESPONSE");
-        } finally {
-            if (c != null) {
-                c.close();
-            }
+            // Replaces failed connection, evicting clients with sessions of the failed connection
+            sharedConnection.getConnection();
+        } catch (JMSException e) {
+            throw new RuntimeException("Failed to connect to AMQ " + amqHost.getHost(), e);
         }
-        KieServicesConfiguration kieServicesConfiguration = KieServicesFactory.newJMSConfiguration(connectionFactory, sendQueue, receiveQueue,
-                DeploymentConstants.getAmqUsername(), DeploymentConstants.getAmqPassword());
-        kieServicesConfiguration.setTimeout(clientTimeout);
-        kieServicesConfiguration.addExtraClasses(extraClasses);
-        kieServicesConfiguration.setMarshallingFormat(MarshallingFormat.JSON);
+        ClientRegistry.ClientKey key = new ClientRegistry.ClientKey(KieServerAsyncJmsClient.class, url, DeploymentConstants.getAmqUsername(),
+                DeploymentConstants.getAmqPassword(), clientTimeout, extraClasses, MarshallingFormat.JSON.getType());
+        return clientRegistry.getClient(url, key, () -> {
+            try {
+                return new KieServerAsyncJmsClient(sharedConnection.getConnection(), DeploymentConstants.getAmqUsername(), DeploymentConstants.getAmqPassword(),
+                        extraClasses, clientTimeout, JMS_SENDING_SESSIONS);
+            } catch (JMSException e) {
+                throw new RuntimeException("Failed to create asynchronous Kie Server JMS Client.", e);
+            }
+        });
+    }
+
+    private static SharedJmsConnection getSharedJmsConnection(URL amqHost) {
+        return jmsConnections.computeIfAbsent(amqHost.getHost(), host -> {
+            try {
+                // Asynchronous clients hold sessions of the connection, they have to be recreated once it fails
+                return new SharedJmsConnection(getJmsConnectionFactory(amqHost), () -> clientRegistry.evict(getJmsUrl(host), KieServerAsyncJmsClient.class));
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to create JMS connection factory for " + host, e);
+            }
+        });
+    }
 
-        return KieServicesFactory.newKieServicesClient(kieServicesConfiguration);
+    private static String getJmsUrl(String amqHost) {
+        return "ssl://" + amqHost + ":443";
     }
 
     public static ActiveMQSslConnectionFactory getJmsConnectionFactory(URL amqHost) throws Exception {
@@ -130,17 +222,21 @@ public class KieServerClientProvider {
     }
 
     public static KieServicesClient getSmartRouterClient(SmartRouterDeployment smartRouterDeployment, String userName, String password, long clientTimeout) {
-        KieServicesConfiguration configuration = KieServicesFactory.newRestConfiguration(smartRouterDeployment.getUrl().toString(),
-                userName, password, clientTimeout);
-        List<String> capabilities = Arrays.asList(KieServerConstants.CAPABILITY_BPM,
-                KieServerConstants.CAPABILITY_BPM_UI,
-                KieServerConstants.CAPABILITY_BRM,
-                KieServerConstants.CAPABILITY_BRP,
-                KieServerConstants.CAPABILITY_CASE,
-                KieServerConstants.CAPABILITY_DMN);
-        configuration.setCapabilities(capabilities);
-        KieServicesClient kieServerClient = KieServicesFactory.newKieServicesClient(configuration);
-        return kieServerClient;
+        String url = smartRouterDeployment.getUrl().toString();
+        ClientRegistry.ClientKey key = new ClientRegistry.ClientKey(KieServicesClient.class, url, userName, password, clientTimeout,
+                Collections.emptySet(), MarshallingFormat.JAXB.getType());
+        return clientRegistry.getClient(smartRouterDeployment, key, () -> {
+            KieServicesConfiguration configuration = KieServicesFactory.newRestConfiguration(url, userName, password, clientTimeout);
+            List<String> capabilities = Arrays.asList(KieServerConstants.CAPABILITY_BPM,
+                    KieServerConstants.CAPABILITY_BPM_UI,
+                    KieServerConstants.CAPABILITY_BRM,
+                    KieServerConstants.CAPABILITY_BRP,
+                    KieServerConstants.CAPABILITY_CASE,
+                    KieServerConstants.CAPABILITY_DMN);
+            configuration.setCapabilities(capabilities);
+            configuration.setMarshallingFormat(MarshallingFormat.JAXB);
+            return KieServicesFactory.newKieServicesClient(configuration);
+        });
     }
 
     public static ProcessServicesClient getProcessClient(KieServerDeployment kieServerDeployment) {
@@ -17,10 +17,13 @@ package org.kie.cloud.common.provider;
 
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.stream.Collectors;
 
 import org.kie.cloud.api.deployment.ControllerDeployment;
+import org.kie.cloud.api.deployment.Deployment;
 import org.kie.cloud.api.deployment.WorkbenchDeployment;
+import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.controller.api.model.spec.ServerTemplateKey;
 import org.kie.server.controller.api.model.spec.ServerTemplateList;
 import org.kie.server.controller.client.KieServerControllerClient;
@@ -28,26 +31,47 @@ import org.kie.server.controller.client.KieServerControllerClientFactory;
 
 public class KieServerControllerClientProvider {
 
+    private static final ClientRegistry clientRegistry = new ClientRegistry();
+
     public static KieServerControllerClient getKieServerControllerClient(WorkbenchDeployment workbenchDeployment) {
-        KieServerControllerClient kieServerControllerClient = KieServerControllerClientFactory.newRestClient(workbenchDeployment.getUrl().toString() + "/rest/controller",
+        return getKieServerControllerClient(workbenchDeployment, workbenchDeployment.getUrl().toString() + "/rest/controller",
                 workbenchDeployment.getUsername(), workbenchDeployment.getPassword());
-        return kieServerControllerClient;
     }
 
     public static KieServerControllerClient getKieServerControllerClient(ControllerDeployment controllerDeployment) {
-        KieServerControllerClient kieServerControllerClient = KieServerControllerClientFactory.newRestClient(controllerDeployment.getUrl().toString() + "/rest/controller",
+        return getKieServerControllerClient(controllerDeployment, controllerDeployment.getUrl().toString() + "/rest/controller",
                 controllerDeployment.getUsername(), controllerDeployment.getPassword());
-        return kieServerControllerClient;
+    }
+
+    /**
+     * Drop and close all cached clients, following calls create new ones.
+     */
+    public static void evictClients() {
+        clientRegistry.evictAll();
+    }
+
+    /**
+     * Drop and close cached clients of the deployment, to be called once the deployment is undeployed.
+     */
+    public static void evictClients(Deployment deployment) {
+        clientRegistry.evictDeployment(deployment);
+    }
+
+    private static KieServerControllerClient getKieServerControllerClient(Deployment deployment, String url, String username, String password) {
+        ClientRegistry.ClientKey key = new ClientRegistry.ClientKey(KieServerControllerClient.class, url, username, password, 0L,
+                Collections.emptySet(), MarshallingFormat.JSON.getType());
+        return clientRegistry.getClient(deployment, key, () -> KieServerControllerClientFactory.newRestClient(url, username, password));
     }
 
     /**
      * Wait until server templates are created in controller.
      */
     public static void waitForServerTemplateCreation(WorkbenchDeployment workbenchDeployment, int numberOfServerTemplates) {
+        KieServerControllerClient kieServerControllerClient = getKieServerControllerClient(workbenchDeployment);
         Instant timeoutTime = Instant.now().plusSeconds(120);
         while (Instant.now().isBefore(timeoutTime)) {
 
-            ServerTemplateList serverTemplates = getKieServerControllerClient(workbenchDeployment).listServerTemplates();
+            ServerTemplateList serverTemplates = kieServerControllerClient.listServerTemplates();
             if(serverTemplates.getServerTemplates() != null && serverTemplates.getServerTemplates().length == numberOfServerTemplates) {
                 return;
             }
@@ -59,7 +83,7 @@ public class KieServerControllerClientProvider {
                 throw new RuntimeException("Interrupted while waiting for server template creation.", e);
             }
         }
-        ServerTemplateList serverTemplates = getKieServerControllerClient(workbenchDeployment).listServerTemplates();
+        ServerTemplateList serverTemplates = kieServerControllerClient.listServerTemplates();
         String templates = Arrays.stream(serverTemplates.getServerTemplates()).map(ServerTemplateKey::getId).collect(Collectors.joining(", "));
         throw new RuntimeException("Timeout while waiting for 120 seconds for server template creation. Expected " + numberOfServerTemplates + " templates (" + serverTemplates.getServerTemplates()
                 + "), but got these templates: " + templates);
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.provider;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+
+import org.apache.activemq.ActiveMQConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One started JMS connection to an AMQ deployment shared by all JMS clients, so requests don't pay for a new TLS
+ * connection and authentication. JMS connections are thread safe, every client creates its own sessions on it.
+ *
+ * Once the connection fails (i.e. AMQ was restarted and failover gave up reconnecting), it is dropped and the next
+ * request creates a new connection. Clients holding sessions of the failed connection are notified to be recreated.
+ */
+class SharedJmsConnection implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedJmsConnection.class);
+
+    private final ConnectionFactory connectionFactory;
+    private final Runnable connectionFailureListener;
+    private Connection connection;
+
+    /**
+     * @param connectionFactory Factory of the shared connection.
+     * @param connectionFailureListener Invoked once the shared connection fails, sessions created on it are unusable.
+     */
+    SharedJmsConnection(ConnectionFactory connectionFactory, Runnable connectionFailureListener) {
+        this.connectionFactory = connectionFactory;
+        this.connectionFailureListener = connectionFailureListener;
+    }
+
+    /**
+     * @return Started connection, new connection is created if the previous one failed.
+     */
+    Connection getConnection() throws JMSException {
+        Connection failedConnection;
+        synchronized (this) {
+            if (connection == null || !isFailed(connection)) {
+                if (connection == null) {
+                    connection = createConnection();
+                }
+                return connection;
+            }
+            failedConnection = connection;
+            connection = null;
+        }
+        logger.info("Shared JMS connection failed, reconnecting.");
+        discard(failedConnection);
+        return getConnection();
+    }
+
+    private Connection createConnection() throws JMSException {
+        Connection newConnection = connectionFactory.createConnection();
+        newConnection.setExceptionListener(e -> onException(newConnection, e));
+        newConnection.start();
+        return newConnection;
+    }
+
+    private void onException(Connection failedConnection, JMSException exception) {
+        logger.warn("Shared JMS connection failed, next request creates a new connection.", exception);
+        synchronized (this) {
+            if (connection != failedConnection) {
+                return;
+            }
+            connection = null;
+        }
+        discard(failedConnection);
+    }
+
+    private static boolean isFailed(Connection connection) {
+        if (connection instanceof ActiveMQConnection) {
+            ActiveMQConnection activeMQConnection = (ActiveMQConnection) connection;
+            return activeMQConnection.isClosed() || activeMQConnection.isTransportFailed();
+        }
+        return false;
+    }
+
+    private void discard(Connection failedConnection) {
+        connectionFailureListener.run();
+        closeConnection(failedConnection);
+    }
+
+    /**
+     * @return Connection factory returning the shared connection. Closing the returned connection has no effect, it is
+     * meant for clients which open and close connection for every request.
+     */
+    ConnectionFactory asConnectionFactory() {
+        return (ConnectionFactory) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ConnectionFactory.class}, (proxy, method, args) -> {
+            if (method.getName().equals("createConnection")) {
+                return nonClosingConnection(getConnection());
+            }
+            return invoke(connectionFactory, method, args);
+        });
+    }
+
+    private static Connection nonClosingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(SharedJmsConnection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            if (method.getName().equals("close") || method.getName().equals("stop")) {
+                return null;
+            }
+            return invoke(connection, method, args);
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public void close() {
+        Connection closedConnection;
+        synchronized (this) {
+            closedConnection = connection;
+            connection = null;
+        }
+        if (closedConnection != null) {
+            closeConnection(closedConnection);
+        }
+    }
+
+    private static void closeConnection(Connection connection) {
+        try {
+            connection.close();
+        } catch (JMSException | RuntimeException e) {
+            logger.warn("Error closing shared JMS connection.", e);
+        }
+    }
+}
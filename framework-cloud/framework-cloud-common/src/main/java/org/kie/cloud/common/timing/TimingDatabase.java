@@ -0,0 +1,228 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.timing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.kie.cloud.common.trace.Span;
+import org.kie.cloud.common.trace.Trace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local store of durations measured across test runs. Every day has its own append-only tab separated file, records of
+ * all runs of the day are appended to it. Several JVMs can append to the same file, writes are serialized by file lock.
+ *
+ * Recording is enabled by setting {@link #TIMING_DATABASE_DIRECTORY} to a directory kept between runs. All JVMs of one
+ * build (forks, modules) have to share the run identifier, so it is taken from {@link #TIMING_RUN_ID} or from the CI
+ * build tag ({@value #BUILD_TAG_ENV}). Nothing is recorded without the run identifier.
+ */
+public class TimingDatabase {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingDatabase.class);
+
+    /**
+     * Directory with timing files, recording is disabled if not set.
+     */
+    public static final String TIMING_DATABASE_DIRECTORY = "timing.database.directory";
+    /**
+     * Identifier of the test run, e.g. CI build ID, shared by all JVMs of the run.
+     */
+    public static final String TIMING_RUN_ID = "timing.run.id";
+    /**
+     * Environment variable with unique build identifier set by Jenkins, used if {@link #TIMING_RUN_ID} isn't set.
+     */
+    static final String BUILD_TAG_ENV = "BUILD_TAG";
+
+    static final String HEADER = "run\ttimestamp\tkind\tscenario\tname\tduration_ms\tstatus";
+    private static final String FILE_PREFIX = "timings-";
+    private static final String FILE_SUFFIX = ".tsv";
+    private static final String PHASE_SEPARATOR = " / ";
+    private static final String PROJECT_PLACEHOLDER = "<project>";
+
+    private static final AtomicBoolean missingRunIdReported = new AtomicBoolean();
+
+    private TimingDatabase() {
+        // Util class
+    }
+
+    public static Optional<Path> getDirectory() {
+        return Optional.ofNullable(System.getProperty(TIMING_DATABASE_DIRECTORY)).map(Paths::get);
+    }
+
+    public static Optional<String> getRunId() {
+        String runId = System.getProperty(TIMING_RUN_ID);
+        if (runId == null || runId.trim().isEmpty()) {
+            runId = System.getenv(BUILD_TAG_ENV);
+        }
+        return Optional.ofNullable(runId).map(String::trim).filter(id -> !id.isEmpty());
+    }
+
+    /**
+     * @return Timing directory if the recording is enabled and the run is identified.
+     */
+    private static Optional<Path> getRecordingDirectory() {
+        Optional<Path> directory = getDirectory();
+        if (directory.isPresent() && !getRunId().isPresent()) {
+            if (missingRunIdReported.compareAndSet(false, true)) {
+                logger.warn("Timing records are not stored, {} property or {} environment variable has to identify the test run.", TIMING_RUN_ID, BUILD_TAG_ENV);
+            }
+            return Optional.empty();
+        }
+        return directory;
+    }
+
+    /**
+     * Record single duration.
+     *
+     * @param kind Kind of the measured thing, see {@link TimingRecord}.
+     * @param scenario Scenario or test class name.
+     * @param name Name of the measured thing.
+     * @param durationMillis Duration in milliseconds.
+     * @param status Result of the measured operation.
+     */
+    public static void record(String kind, String scenario, String name, long durationMillis, String status) {
+        getRecordingDirectory().ifPresent(directory -> append(directory, Collections.singletonList(
+                new TimingRecord(getRunId().get(), Instant.now(), kind, scenario, name, durationMillis, status))));
+    }
+
+    /**
+     * Record scenario deployment and its phases.
+     *
+     * @param scenario Scenario name.
+     * @param projectName Project the scenario was deployed to, its name is removed from phase names so phases are
+     * comparable across runs.
+     * @param trace Deployment trace.
+     */
+    public static void recordDeploymentTrace(String scenario, String projectName, Trace trace) {
+        Optional<Path> directory = getRecordingDirectory();
+        if (!directory.isPresent() || trace.getRootSpan() == null) {
+            return;
+        }
+        String runId = getRunId().get();
+        Instant now = Instant.now();
+        List<TimingRecord> records = new ArrayList<>();
+        for (Span span : trace.getSpans()) {
+            String status = span.getError() == null ? TimingRecord.STATUS_OK : TimingRecord.STATUS_FAILED;
+            if (span.getParent() == null) {
+                records.add(new TimingRecord(runId, now, TimingRecord.SCENARIO, scenario, TimingRecord.DEPLOYMENT, span.getDurationMicros() / 1000, status));
+            } else {
+                String phase = getPhasePath(span);
+                if (projectName != null) {
+                    phase = phase.replace(projectName, PROJECT_PLACEHOLDER);
+                }
+                records.add(new TimingRecord(runId, now, TimingRecord.PHASE, scenario, phase, span.getDurationMicros() / 1000, status));
+            }
+        }
+        append(directory.get(), records);
+    }
+
+    /**
+     * @return Path of span names from the child of the root span to the span.
+     */
+    private static String getPhasePath(Span span) {
+        List<String> names = new ArrayList<>();
+        for (Span current = span; current.getParent() != null; current = current.getParent()) {
+            names.add(0, current.getName());
+        }
+        return String.join(PHASE_SEPARATOR, names);
+    }
+
+    static synchronized void append(Path directory, List<TimingRecord> records) {
+        Path file = directory.resolve(FILE_PREFIX + LocalDate.now(ZoneOffset.UTC) + FILE_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                 FileLock lock = channel.lock()) {
+                StringBuilder lines = new StringBuilder();
+                if (channel.size() == 0) {
+                    lines.append(HEADER).append('\n');
+                }
+                records.forEach(record -> lines.append(record.toLine()).append('\n'));
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Error storing timing records to {}", file, e);
+        }
+    }
+
+    /**
+     * Read records of all days since the given day.
+     *
+     * @param directory Directory with timing files.
+     * @param since First day to read.
+     * @return Records ordered by day files, records of one day in order they were appended.
+     */
+    public static List<TimingRecord> read(Path directory, LocalDate since) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Collections.emptyList();
+        }
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(directory)) {
+            files = paths.filter(path -> isTimingFileSince(path, since))
+                         .sorted()
+                         .collect(Collectors.toList());
+        }
+        List<TimingRecord> records = new ArrayList<>();
+        for (Path file : files) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isEmpty() || line.equals(HEADER)) {
+                    continue;
+                }
+                try {
+                    records.add(TimingRecord.parse(line));
+                } catch (RuntimeException e) {
+                    // Line may be truncated by a killed JVM
+                    logger.warn("Skipping invalid timing record in {}: {}", file, line);
+                }
+            }
+        }
+        return records;
+    }
+
+    private static boolean isTimingFileSince(Path path, LocalDate since) {
+        String fileName = path.getFileName().toString();
+        if (!fileName.startsWith(FILE_PREFIX) || !fileName.endsWith(FILE_SUFFIX)) {
+            return false;
+        }
+        String day = fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length());
+        try {
+            return !LocalDate.parse(day).isBefore(since);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.timing;
+
+import java.time.Instant;
+
+/**
+ * One measured duration stored in {@link TimingDatabase}.
+ */
+public class TimingRecord {
+
+    /**
+     * Durations of whole scenarios: deployment and total time the scenario occupied the cluster.
+     */
+    public static final String SCENARIO = "scenario";
+    /**
+     * Durations of deployment phases, see {@link org.kie.cloud.common.trace.Tracer}.
+     */
+    public static final String PHASE = "phase";
+    /**
+     * Durations of test methods.
+     */
+    public static final String TEST = "test";
+
+    /**
+     * Name of scenario record with deployment duration.
+     */
+    public static final String DEPLOYMENT = "deploy";
+    /**
+     * Name of scenario record with time from deployment start to undeployment.
+     */
+    public static final String CLUSTER_TIME = "cluster time";
+
+    public static final String STATUS_OK = "ok";
+    public static final String STATUS_FAILED = "failed";
+    public static final String STATUS_SKIPPED = "skipped";
+
+    private static final String SEPARATOR = "\t";
+
+    private final String runId;
+    private final Instant timestamp;
+    private final String kind;
+    private final String scenario;
+    private final String name;
+    private final long durationMillis;
+    private final String status;
+
+    public TimingRecord(String runId, Instant timestamp, String kind, String scenario, String name, long durationMillis, String status) {
+        this.runId = runId;
+        this.timestamp = timestamp;
+        this.kind = kind;
+        this.scenario = scenario;
+        this.name = name;
+        this.durationMillis = durationMillis;
+        this.status = status;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * @return Key identifying the measured thing across runs.
+     */
+    public String getKey() {
+        return kind + SEPARATOR + scenario + SEPARATOR + name;
+    }
+
+    String toLine() {
+        return String.join(SEPARATOR, sanitize(runId), timestamp.toString(), kind, sanitize(scenario), sanitize(name), String.valueOf(durationMillis), status);
+    }
+
+    static TimingRecord parse(String line) {
+        String[] columns = line.split(SEPARATOR, -1);
+        if (columns.length != 7) {
+            throw new IllegalArgumentException("Invalid timing record: " + line);
+        }
+        return new TimingRecord(columns[0], Instant.parse(columns[1]), columns[2], columns[3], columns[4], Long.parseLong(columns[5]), columns[6]);
+    }
+
+    private static String sanitize(String value) {
+        return value == null ? "" : value.replaceAll("[\\t\\r\\n]", " ");
+    }
+}
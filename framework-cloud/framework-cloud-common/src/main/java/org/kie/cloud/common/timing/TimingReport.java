@@ -0,0 +1,228 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.timing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Generates Markdown report from {@link TimingDatabase}: scenarios ranked by total cluster time in the latest run,
+ * regressed durations and deployment time trends.
+ *
+ * Every duration is checked in the latest run which measured it, so durations missing in the latest run (e.g. of tests
+ * not run in it) are checked too. A duration regressed if its latest run median exceeds the median of its previous runs
+ * by more than {@value #REGRESSION_SIGMAS} robust standard deviations (scaled median absolute deviation), by at least
+ * {@value #MIN_RELATIVE_REGRESSION} of the baseline and at least {@value #MIN_ABSOLUTE_REGRESSION_MILLIS} ms.
+ *
+ * Usage: TimingReport [directory] [days] [output file], directory defaults to {@link TimingDatabase#TIMING_DATABASE_DIRECTORY},
+ * days to {@value #DEFAULT_DAYS}, the report is printed to standard output if no file is given.
+ */
+public class TimingReport {
+
+    private static final int DEFAULT_DAYS = 30;
+    private static final int MIN_HISTORY_RUNS = 5;
+    private static final double REGRESSION_SIGMAS = 3.0;
+    // Scales median absolute deviation to standard deviation of normal distribution
+    private static final double MAD_SCALE = 1.4826;
+    private static final double MIN_RELATIVE_REGRESSION = 0.1;
+    private static final long MIN_ABSOLUTE_REGRESSION_MILLIS = 1000;
+    private static final int TREND_RUNS = 10;
+
+    private final List<String> runs;
+    private final Map<String, Map<String, List<Long>>> durationsByKeyAndRun = new LinkedHashMap<>();
+    private final List<TimingRecord> records;
+
+    public TimingReport(List<TimingRecord> records) {
+        this.records = records;
+        this.runs = records.stream()
+                           .sorted(Comparator.comparing(TimingRecord::getTimestamp))
+                           .map(TimingRecord::getRunId)
+                           .distinct()
+                           .collect(Collectors.toList());
+        records.stream()
+               .filter(record -> TimingRecord.STATUS_OK.equals(record.getStatus()))
+               .forEach(record -> durationsByKeyAndRun.computeIfAbsent(record.getKey(), key -> new LinkedHashMap<>())
+                                                      .computeIfAbsent(record.getRunId(), run -> new ArrayList<>())
+                                                      .add(record.getDurationMillis()));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = args.length > 0 ? Paths.get(args[0]) : TimingDatabase.getDirectory()
+                .orElseThrow(() -> new IllegalArgumentException("Timing database directory not set, use argument or " + TimingDatabase.TIMING_DATABASE_DIRECTORY + " property."));
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DAYS;
+
+        List<TimingRecord> records = TimingDatabase.read(directory, LocalDate.now(ZoneOffset.UTC).minusDays(days));
+        String report = new TimingReport(records).generate();
+        if (args.length > 2) {
+            Files.write(Paths.get(args[2]), report.getBytes(StandardCharsets.UTF_8));
+        } else {
+            System.out.println(report);
+        }
+    }
+
+    public String generate() {
+        StringBuilder report = new StringBuilder("# Deployment timing report\n\n");
+        if (runs.isEmpty()) {
+            return report.append("No timing records found.\n").toString();
+        }
+        report.append("Runs: ").append(runs.size()).append(", latest run: ").append(getLatestRun()).append("\n\n");
+        appendSlowestScenarios(report);
+        appendRegressions(report);
+        appendTrends(report);
+        return report.toString();
+    }
+
+    private String getLatestRun() {
+        return runs.get(runs.size() - 1);
+    }
+
+    private void appendSlowestScenarios(StringBuilder report) {
+        report.append("## Slowest scenarios by total cluster time\n\n")
+              .append("| Scenario | Deployments | Total cluster time [s] | Median deployment [s] |\n")
+              .append("| -------- | ----------- | ---------------------- | --------------------- |\n");
+        Map<String, List<TimingRecord>> latestScenarioRecords = records.stream()
+                                                                       .filter(record -> record.getRunId().equals(getLatestRun()))
+                                                                       .filter(record -> TimingRecord.SCENARIO.equals(record.getKind()))
+                                                                       .collect(Collectors.groupingBy(TimingRecord::getScenario));
+        latestScenarioRecords.entrySet()
+                             .stream()
+                             .sorted(Comparator.comparingLong((Map.Entry<String, List<TimingRecord>> entry) -> sum(entry.getValue(), TimingRecord.CLUSTER_TIME)).reversed())
+                             .forEach(entry -> {
+                                 List<Long> deployments = entry.getValue().stream()
+                                                               .filter(record -> TimingRecord.DEPLOYMENT.equals(record.getName()))
+                                                               .map(TimingRecord::getDurationMillis)
+                                                               .collect(Collectors.toList());
+                                 report.append("| ").append(entry.getKey())
+                                       .append(" | ").append(deployments.size())
+                                       .append(" | ").append(toSeconds(sum(entry.getValue(), TimingRecord.CLUSTER_TIME)))
+                                       .append(" | ").append(deployments.isEmpty() ? "" : toSeconds(median(deployments)))
+                                       .append(" |\n");
+                             });
+        report.append('\n');
+    }
+
+    private void appendRegressions(StringBuilder report) {
+        report.append("## Regressions in the latest run of each duration\n\n")
+              .append("| Kind | Scenario | Name | Run | Baseline [s] | Threshold [s] | Latest [s] | Change |\n")
+              .append("| ---- | -------- | ---- | --- | ------------ | ------------- | ---------- | ------ |\n");
+        int regressions = 0;
+        for (Map.Entry<String, Map<String, List<Long>>> entry : durationsByKeyAndRun.entrySet()) {
+            Regression regression = findRegression(entry.getValue());
+            if (regression != null) {
+                regressions++;
+                String[] key = entry.getKey().split("\t", -1);
+                report.append("| ").append(key[0]).append(" | ").append(key[1]).append(" | ").append(key[2])
+                      .append(" | ").append(regression.run)
+                      .append(" | ").append(toSeconds(regression.baseline))
+                      .append(" | ").append(toSeconds(regression.threshold))
+                      .append(" | ").append(toSeconds(regression.latest))
+                      .append(" | +").append(Math.round(100.0 * (regression.latest - regression.baseline) / Math.max(1, regression.baseline))).append(" %")
+                      .append(" |\n");
+            }
+        }
+        if (regressions == 0) {
+            report.append("| | | No regression found. | | | | | |\n");
+        }
+        report.append('\n');
+    }
+
+    /**
+     * @param durationsByRun Durations of one key per run.
+     * @return Regression of the latest run measuring the key, null if the run didn't regress or there is not enough history.
+     */
+    Regression findRegression(Map<String, List<Long>> durationsByRun) {
+        List<String> keyRuns = runs.stream()
+                                   .filter(durationsByRun::containsKey)
+                                   .collect(Collectors.toList());
+        if (keyRuns.size() <= MIN_HISTORY_RUNS) {
+            return null;
+        }
+        String latestRun = keyRuns.get(keyRuns.size() - 1);
+        List<Long> history = keyRuns.subList(0, keyRuns.size() - 1)
+                                    .stream()
+                                    .map(run -> median(durationsByRun.get(run)))
+                                    .collect(Collectors.toList());
+        long baseline = median(history);
+        long mad = median(history.stream().map(duration -> Math.abs(duration - baseline)).collect(Collectors.toList()));
+        long allowedIncrease = Math.max(Math.round(REGRESSION_SIGMAS * MAD_SCALE * mad),
+                                        Math.max(Math.round(baseline * MIN_RELATIVE_REGRESSION), MIN_ABSOLUTE_REGRESSION_MILLIS));
+        long latest = median(durationsByRun.get(latestRun));
+        return latest > baseline + allowedIncrease ? new Regression(latestRun, baseline, baseline + allowedIncrease, latest) : null;
+    }
+
+    private void appendTrends(StringBuilder report) {
+        List<String> trendRuns = runs.subList(Math.max(0, runs.size() - TREND_RUNS), runs.size());
+        report.append("## Scenario deployment trend (median per run, last ").append(trendRuns.size()).append(" runs) [s]\n\n")
+              .append("| Scenario |");
+        trendRuns.forEach(run -> report.append(' ').append(run).append(" |"));
+        report.append("\n| -------- |");
+        trendRuns.forEach(run -> report.append(" --- |"));
+        report.append('\n');
+        durationsByKeyAndRun.entrySet()
+                            .stream()
+                            .filter(entry -> entry.getKey().startsWith(TimingRecord.SCENARIO + "\t") && entry.getKey().endsWith("\t" + TimingRecord.DEPLOYMENT))
+                            .sorted(Map.Entry.comparingByKey())
+                            .forEach(entry -> {
+                                report.append("| ").append(entry.getKey().split("\t")[1]).append(" |");
+                                trendRuns.forEach(run -> {
+                                    List<Long> durations = entry.getValue().get(run);
+                                    report.append(' ').append(durations == null ? "" : toSeconds(median(durations))).append(" |");
+                                });
+                                report.append('\n');
+                            });
+    }
+
+    private static long sum(List<TimingRecord> records, String name) {
+        return records.stream().filter(record -> name.equals(record.getName())).mapToLong(TimingRecord::getDurationMillis).sum();
+    }
+
+    static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    private static String toSeconds(long millis) {
+        return String.format("%.1f", millis / 1000.0);
+    }
+
+    static class Regression {
+
+        final String run;
+        final long baseline;
+        final long threshold;
+        final long latest;
+
+        private Regression(String run, long baseline, long threshold, long latest) {
+            this.run = run;
+            this.baseline = baseline;
+            this.threshold = threshold;
+            this.latest = latest;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.trace;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timed phase of a traced operation. Span is started by {@link Tracer} and finished by {@link #close()}, spans started
+ * while this span is open on the same thread (or in tasks wrapped by {@link Tracer#wrap(Runnable)}) are its children.
+ */
+public class Span implements AutoCloseable {
+
+    private final Trace trace;
+    private final int id;
+    private final Span parent;
+    private final String name;
+    private final String threadName;
+    private final long startMicros;
+    private final long startNanos = System.nanoTime();
+    private volatile long durationMicros = -1;
+    private volatile String error;
+
+    Span(Trace trace, int id, Span parent, String name) {
+        this.trace = trace;
+        this.id = id;
+        this.parent = parent;
+        this.name = name;
+        this.threadName = Thread.currentThread().getName();
+        this.startMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    }
+
+    public Trace getTrace() {
+        return trace;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return Parent span, null for the root span of the trace.
+     */
+    public Span getParent() {
+        return parent;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * @return Start of the span in microseconds since epoch.
+     */
+    public long getStartMicros() {
+        return startMicros;
+    }
+
+    /**
+     * @return Duration of the span in microseconds, duration until now for spans which are still open.
+     */
+    public long getDurationMicros() {
+        return isFinished() ? durationMicros : TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+    public boolean isFinished() {
+        return durationMicros >= 0;
+    }
+
+    /**
+     * @return Error which failed the phase, null if the phase didn't fail.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Mark the phase as failed.
+     */
+    public void setError(Throwable throwable) {
+        this.error = throwable.getClass().getSimpleName() + ": " + throwable.getMessage();
+    }
+
+    /**
+     * @return Number of ancestors of the span, 0 for the root span.
+     */
+    public int getDepth() {
+        return parent == null ? 0 : parent.getDepth() + 1;
+    }
+
+    @Override
+    public void close() {
+        if (!isFinished()) {
+            durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        }
+        Tracer.finished(this);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Spans recorded during one traced operation, e.g. deployment of a scenario. The trace can be exported in Chrome trace
+ * event format, which can be opened in chrome://tracing or Perfetto UI.
+ */
+public class Trace {
+
+    private static final int PROCESS_ID = 1;
+
+    private final String name;
+    private final AtomicInteger spanIds = new AtomicInteger();
+    private final List<Span> spans = new CopyOnWriteArrayList<>();
+
+    Trace(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    Span startSpan(Span parent, String spanName) {
+        Span span = new Span(this, spanIds.incrementAndGet(), parent, spanName);
+        spans.add(span);
+        return span;
+    }
+
+    /**
+     * @return Root span of the trace, null if the trace contains no span.
+     */
+    public Span getRootSpan() {
+        return spans.isEmpty() ? null : spans.get(0);
+    }
+
+    /**
+     * @return All spans in order of their start.
+     */
+    public List<Span> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    /**
+     * @return Trace in Chrome trace event format.
+     */
+    public String toChromeTraceJson() {
+        Map<String, Integer> threadIds = new LinkedHashMap<>();
+        List<String> events = new ArrayList<>();
+        for (Span span : spans) {
+            Integer threadId = threadIds.computeIfAbsent(span.getThreadName(), threadName -> threadIds.size() + 1);
+            StringBuilder event = new StringBuilder();
+            event.append("{\"name\":").append(quote(span.getName()))
+                 .append(",\"cat\":").append(quote(name))
+                 .append(",\"ph\":\"X\"")
+                 .append(",\"ts\":").append(span.getStartMicros())
+                 .append(",\"dur\":").append(span.getDurationMicros())
+                 .append(",\"pid\":").append(PROCESS_ID)
+                 .append(",\"tid\":").append(threadId)
+                 .append(",\"args\":{\"spanId\":").append(span.getId());
+            if (span.getParent() != null) {
+                event.append(",\"parentId\":").append(span.getParent().getId());
+            }
+            if (!span.isFinished()) {
+                event.append(",\"unfinished\":true");
+            }
+            if (span.getError() != null) {
+                event.append(",\"error\":").append(quote(span.getError()));
+            }
+            event.append("}}");
+            events.add(event.toString());
+        }
+        threadIds.forEach((threadName, threadId) -> events.add("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + PROCESS_ID + ",\"tid\":" + threadId +
+                                                               ",\"args\":{\"name\":" + quote(threadName) + "}}"));
+        events.add("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":" + PROCESS_ID + ",\"args\":{\"name\":" + quote(name) + "}}");
+        return "{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n" + String.join(",\n", events) + "\n]}\n";
+    }
+
+    /**
+     * Write the trace in Chrome trace event format.
+     *
+     * @param file Target file.
+     */
+    public void writeChromeTrace(File file) throws IOException {
+        FileUtils.write(file, toChromeTraceJson(), StandardCharsets.UTF_8);
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
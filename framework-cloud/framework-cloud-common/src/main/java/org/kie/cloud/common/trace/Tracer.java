@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.trace;
+
+import java.util.function.Supplier;
+
+/**
+ * Records nested timing spans of long running operations like scenario deployment.
+ *
+ * A trace is started by {@link #startTrace(String)}, spans started afterwards on the same thread are nested into the
+ * currently open span. Tasks executed on other threads have to be wrapped by {@link #wrap(Runnable)} to keep their
+ * spans in the trace. Spans started outside of any trace are not recorded, so instrumented code doesn't need to care
+ * whether it is traced.
+ */
+public class Tracer {
+
+    private static final ThreadLocal<Span> currentSpan = new ThreadLocal<>();
+
+    private Tracer() {
+        // Util class
+    }
+
+    /**
+     * Start new trace on the current thread.
+     *
+     * @param name Name of the trace.
+     * @return Root span of the trace, closing it finishes the trace.
+     */
+    public static Span startTrace(String name) {
+        Span rootSpan = new Trace(name).startSpan(null, name);
+        currentSpan.set(rootSpan);
+        return rootSpan;
+    }
+
+    /**
+     * Start span nested into the currently open span.
+     *
+     * @param name Name of the span.
+     * @return Started span, has to be closed by the caller. Not recorded if there is no trace in progress.
+     */
+    public static Span startSpan(String name) {
+        Span parent = currentSpan.get();
+        if (parent == null) {
+            return new Span(null, 0, null, name);
+        }
+        Span span = parent.getTrace().startSpan(parent, name);
+        currentSpan.set(span);
+        return span;
+    }
+
+    /**
+     * Execute the runnable within a span.
+     */
+    public static void run(String name, Runnable runnable) {
+        call(name, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Execute the supplier within a span.
+     */
+    public static <T> T call(String name, Supplier<T> supplier) {
+        try (Span span = startSpan(name)) {
+            try {
+                return supplier.get();
+            } catch (RuntimeException | Error e) {
+                span.setError(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Wrap task executed on another thread, so its spans are nested into the span which is open now.
+     */
+    public static Runnable wrap(Runnable runnable) {
+        Span parent = currentSpan.get();
+        if (parent == null) {
+            return runnable;
+        }
+        return () -> {
+            Span previous = currentSpan.get();
+            currentSpan.set(parent);
+            try {
+                runnable.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    static void finished(Span span) {
+        if (span.getTrace() != null && currentSpan.get() == span) {
+            restore(span.getParent());
+        }
+    }
+
+    private static void restore(Span span) {
+        if (span == null) {
+            currentSpan.remove();
+        } else {
+            currentSpan.set(span);
+        }
+    }
+}
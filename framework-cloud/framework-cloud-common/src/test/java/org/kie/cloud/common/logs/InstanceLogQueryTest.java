@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.logs;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstanceLogQueryTest {
+
+    private static final String INSTANCES_LOGS_OUTPUT_DIRECTORY = "instance.logs";
+    private static final String LOG_FOLDER_NAME = "scenario";
+    private static final Instant FIRST_SEGMENT_TIME = Instant.parse("2020-05-04T10:15:30Z");
+    private static final Instant SECOND_SEGMENT_TIME = Instant.parse("2020-05-04T10:20:30Z");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws IOException {
+        System.setProperty(INSTANCES_LOGS_OUTPUT_DIRECTORY, temporaryFolder.getRoot().getAbsolutePath());
+        try (SegmentedInstanceLogWriter writer = new SegmentedInstanceLogWriter(InstanceLogUtil.getLogDirectory(LOG_FOLDER_NAME), "kieserver-kieserver", 1)) {
+            writer.writeLines(lines(FIRST_SEGMENT_TIME,
+                                    "INFO Starting KIE Server",
+                                    "ERROR: java.net.ConnectException: Connection refused"));
+            writer.writeLines(lines(SECOND_SEGMENT_TIME, "WARN Connection pool exhausted"));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(INSTANCES_LOGS_OUTPUT_DIRECTORY);
+    }
+
+    @Test
+    public void multiWordTextIsFound() {
+        List<InstanceLogQuery.Match> matches = InstanceLogQuery.find(LOG_FOLDER_NAME, "Connection refused", FIRST_SEGMENT_TIME, SECOND_SEGMENT_TIME);
+
+        assertThat(matches).extracting(InstanceLogQuery.Match::getLine).containsExactly("ERROR: java.net.ConnectException: Connection refused");
+        assertThat(matches.get(0).getLogName()).isEqualTo("kieserver-kieserver");
+        assertThat(matches.get(0).getSegmentName()).isEqualTo("kieserver-kieserver.0001.log.gz");
+        assertThat(matches.get(0).getLineNumber()).isEqualTo(1);
+    }
+
+    @Test
+    public void textWithSeparatorIsFound() {
+        assertThat(InstanceLogQuery.find(LOG_FOLDER_NAME, "ERROR:", FIRST_SEGMENT_TIME, SECOND_SEGMENT_TIME)).hasSize(1);
+    }
+
+    @Test
+    public void exceptionIsFoundBySimpleName() {
+        assertThat(InstanceLogQuery.find(LOG_FOLDER_NAME, "ConnectException", FIRST_SEGMENT_TIME, SECOND_SEGMENT_TIME)).hasSize(1);
+        assertThat(InstanceLogQuery.find(LOG_FOLDER_NAME, "java.net.ConnectException", FIRST_SEGMENT_TIME, SECOND_SEGMENT_TIME)).hasSize(1);
+    }
+
+    @Test
+    public void segmentsOutsideOfIntervalAreSkipped() {
+        assertThat(InstanceLogQuery.find(LOG_FOLDER_NAME, "Connection", SECOND_SEGMENT_TIME, SECOND_SEGMENT_TIME.plusSeconds(60)))
+                                   .extracting(InstanceLogQuery.Match::getLine)
+                                   .containsExactly("WARN Connection pool exhausted");
+    }
+
+    @Test
+    public void missingTextIsNotFound() {
+        assertThat(InstanceLogQuery.find(LOG_FOLDER_NAME, "Connection timed out", FIRST_SEGMENT_TIME, SECOND_SEGMENT_TIME)).isEmpty();
+        assertThat(InstanceLogQuery.find("missing", "Connection", FIRST_SEGMENT_TIME, SECOND_SEGMENT_TIME)).isEmpty();
+    }
+
+    private static List<InstanceLogLine> lines(Instant time, String... texts) {
+        return Arrays.stream(texts).map(text -> new InstanceLogLine(text, time)).collect(Collectors.toList());
+    }
+}
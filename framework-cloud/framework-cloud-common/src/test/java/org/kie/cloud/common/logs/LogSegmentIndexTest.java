@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.logs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogSegmentIndexTest {
+
+    private static final Instant FIRST_LINE_TIME = Instant.parse("2020-05-04T10:15:30Z");
+    private static final Instant LAST_LINE_TIME = Instant.parse("2020-05-04T10:20:30Z");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void appendedSegmentsAreRead() throws IOException {
+        File indexFile = LogSegmentIndex.getIndexFile(temporaryFolder.getRoot(), "kieserver");
+        TokenBloomFilter tokens = new TokenBloomFilter(100, TokenBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+        tokens.addLine("Started KIE Server");
+
+        LogSegmentIndex.append(indexFile, new LogSegmentIndex.Segment("kieserver.0000.log.gz", FIRST_LINE_TIME, LAST_LINE_TIME, 42, tokens));
+        LogSegmentIndex.append(indexFile, new LogSegmentIndex.Segment("kieserver.0001.log.gz", LAST_LINE_TIME, LAST_LINE_TIME, 1, tokens));
+        // Incomplete entry written by interrupted writer is skipped
+        Files.write(indexFile.toPath(), Collections.singletonList("kieserver.0002.log.gz\t1"), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        List<LogSegmentIndex.Segment> segments = LogSegmentIndex.read(indexFile);
+
+        assertThat(segments).extracting(LogSegmentIndex.Segment::getFileName).containsExactly("kieserver.0000.log.gz", "kieserver.0001.log.gz");
+        LogSegmentIndex.Segment segment = segments.get(0);
+        assertThat(segment.getFirstLineTime()).isEqualTo(FIRST_LINE_TIME);
+        assertThat(segment.getLastLineTime()).isEqualTo(LAST_LINE_TIME);
+        assertThat(segment.getLineCount()).isEqualTo(42);
+        assertThat(segment.getTokens().mightContainAll("KIE Server")).isTrue();
+    }
+
+    @Test
+    public void missingIndexHasNoSegments() throws IOException {
+        assertThat(LogSegmentIndex.read(LogSegmentIndex.getIndexFile(temporaryFolder.getRoot(), "missing"))).isEmpty();
+    }
+
+    @Test
+    public void segmentOverlapsIntervalIncludingBounds() {
+        LogSegmentIndex.Segment segment = new LogSegmentIndex.Segment("kieserver.0000.log.gz", FIRST_LINE_TIME, LAST_LINE_TIME, 1,
+                                                                      new TokenBloomFilter(1, TokenBloomFilter.DEFAULT_FALSE_POSITIVE_RATE));
+
+        assertThat(segment.overlaps(LAST_LINE_TIME, LAST_LINE_TIME.plusSeconds(60))).isTrue();
+        assertThat(segment.overlaps(FIRST_LINE_TIME.minusSeconds(60), FIRST_LINE_TIME)).isTrue();
+        assertThat(segment.overlaps(LAST_LINE_TIME.plusSeconds(1), LAST_LINE_TIME.plusSeconds(60))).isFalse();
+        assertThat(segment.overlaps(FIRST_LINE_TIME.minusSeconds(60), FIRST_LINE_TIME.minusSeconds(1))).isFalse();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.logs;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SegmentedInstanceLogWriterTest {
+
+    private static final String LOG_NAME = "kieserver";
+    private static final Instant FIRST_TIME = Instant.parse("2020-05-04T10:15:30Z");
+    private static final Instant SECOND_TIME = Instant.parse("2020-05-04T10:15:31Z");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void segmentIsRotatedOnceItReachesConfiguredSize() throws IOException {
+        try (SegmentedInstanceLogWriter writer = new SegmentedInstanceLogWriter(temporaryFolder.getRoot(), LOG_NAME, 10)) {
+            writer.writeLines(lines(FIRST_TIME, "first line", "second line"));
+            writer.writeLines(lines(SECOND_TIME, "third"));
+        }
+
+        List<LogSegmentIndex.Segment> segments = readIndex();
+        assertThat(segments).extracting(LogSegmentIndex.Segment::getFileName)
+                            .containsExactly("kieserver.0000.log.gz", "kieserver.0001.log.gz", "kieserver.0002.log.gz");
+        assertThat(segments).extracting(LogSegmentIndex.Segment::getLineCount).containsExactly(1L, 1L, 1L);
+        assertThat(segments.get(2).getFirstLineTime()).isEqualTo(SECOND_TIME);
+        assertThat(readSegment(segments.get(1))).isEqualTo("second line\n");
+        assertThat(segments.get(1).getTokens().mightContainAll("second line")).isTrue();
+    }
+
+    @Test
+    public void linesAreKeptInOneSegmentUntilClosed() throws IOException {
+        try (SegmentedInstanceLogWriter writer = new SegmentedInstanceLogWriter(temporaryFolder.getRoot(), LOG_NAME, 1024 * 1024)) {
+            writer.writeLines(lines(FIRST_TIME, "first line", "second line"));
+            writer.writeLines(lines(SECOND_TIME, "third line"));
+            assertThat(readIndex()).isEmpty();
+        }
+
+        List<LogSegmentIndex.Segment> segments = readIndex();
+        assertThat(segments).hasSize(1);
+        assertThat(segments.get(0).getFirstLineTime()).isEqualTo(FIRST_TIME);
+        assertThat(segments.get(0).getLastLineTime()).isEqualTo(SECOND_TIME);
+        assertThat(segments.get(0).getLineCount()).isEqualTo(3);
+        assertThat(readSegment(segments.get(0))).isEqualTo("first line\nsecond line\nthird line\n");
+    }
+
+    @Test
+    public void segmentTimeRangeComesFromLineTimes() throws IOException {
+        try (SegmentedInstanceLogWriter writer = new SegmentedInstanceLogWriter(temporaryFolder.getRoot(), LOG_NAME, 1024 * 1024)) {
+            // Lines written at different times are received in one batch
+            writer.writeLines(Arrays.asList(new InstanceLogLine("first line", FIRST_TIME), new InstanceLogLine("second line", SECOND_TIME)));
+        }
+
+        List<LogSegmentIndex.Segment> segments = readIndex();
+        assertThat(segments.get(0).getFirstLineTime()).isEqualTo(FIRST_TIME);
+        assertThat(segments.get(0).getLastLineTime()).isEqualTo(SECOND_TIME);
+    }
+
+    @Test
+    public void reopenedWriterContinuesSegmentNumbering() throws IOException {
+        try (SegmentedInstanceLogWriter writer = new SegmentedInstanceLogWriter(temporaryFolder.getRoot(), LOG_NAME, 1024)) {
+            writer.writeLines(lines(FIRST_TIME, "first line"));
+        }
+        try (SegmentedInstanceLogWriter writer = new SegmentedInstanceLogWriter(temporaryFolder.getRoot(), LOG_NAME, 1024)) {
+            writer.writeLines(lines(SECOND_TIME, "second line"));
+        }
+
+        assertThat(readIndex()).extracting(LogSegmentIndex.Segment::getFileName).containsExactly("kieserver.0000.log.gz", "kieserver.0001.log.gz");
+    }
+
+    private List<LogSegmentIndex.Segment> readIndex() throws IOException {
+        return LogSegmentIndex.read(LogSegmentIndex.getIndexFile(temporaryFolder.getRoot(), LOG_NAME));
+    }
+
+    private String readSegment(LogSegmentIndex.Segment segment) throws IOException {
+        File segmentFile = new File(temporaryFolder.getRoot(), segment.getFileName());
+        try (InputStreamReader reader = new InputStreamReader(new GZIPInputStream(new FileInputStream(segmentFile)), StandardCharsets.UTF_8)) {
+            return IOUtils.toString(reader).replace(System.lineSeparator(), "\n");
+        }
+    }
+
+    private static List<InstanceLogLine> lines(Instant time, String... texts) {
+        return Arrays.stream(texts).map(text -> new InstanceLogLine(text, time)).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.logs;
+
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBloomFilterTest {
+
+    private static final int EXPECTED_TOKENS = 50_000;
+
+    @Test
+    public void addedTokensAreFound() {
+        TokenBloomFilter filter = new TokenBloomFilter(100, TokenBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+        filter.addLine("ERROR: java.net.ConnectException: Connection refused");
+
+        assertThat(filter.mightContain("ERROR")).isTrue();
+        assertThat(filter.mightContain("java.net.ConnectException")).isTrue();
+        assertThat(filter.mightContain("ConnectException")).isTrue();
+        assertThat(filter.mightContainAll("Connection refused")).isTrue();
+        assertThat(filter.mightContainAll("ERROR:")).isTrue();
+        assertThat(filter.mightContainAll("Connection accepted")).isFalse();
+    }
+
+    @Test
+    public void falsePositiveRateIsKeptForExpectedTokens() {
+        TokenBloomFilter filter = new TokenBloomFilter(EXPECTED_TOKENS, TokenBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+        IntStream.range(0, EXPECTED_TOKENS).forEach(i -> filter.addLine("token" + i));
+
+        long falsePositives = IntStream.range(0, EXPECTED_TOKENS).filter(i -> filter.mightContain("missing" + i)).count();
+
+        assertThat((double) falsePositives / EXPECTED_TOKENS).isLessThan(2 * TokenBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    @Test
+    public void filterIsFullOnceExpectedDistinctTokensAreAdded() {
+        TokenBloomFilter filter = new TokenBloomFilter(1000, TokenBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+        // Repeated tokens don't fill the filter
+        IntStream.range(0, 5000).forEach(i -> filter.addLine("token" + (i % 900)));
+        assertThat(filter.isFull()).isFalse();
+
+        IntStream.range(900, 1100).forEach(i -> filter.addLine("token" + i));
+        assertThat(filter.isFull()).isTrue();
+    }
+
+    @Test
+    public void sizeIsDerivedFromExpectedTokens() {
+        // m = -n * ln(p) / ln(2)^2 ~ 9.6 bits per token, k = 7 for 1 % false positive rate
+        assertThat(TokenBloomFilter.getSizeInBits(EXPECTED_TOKENS, 0.01)).isBetween(479_000, 480_000);
+        assertThat(TokenBloomFilter.getHashCount(EXPECTED_TOKENS, 0.01)).isEqualTo(7);
+    }
+
+    @Test
+    public void serializedFilterFindsSameTokens() {
+        TokenBloomFilter filter = new TokenBloomFilter(1000, TokenBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+        filter.addLine("org.kie.server.api.KieServicesException: Container not found");
+
+        TokenBloomFilter deserialized = TokenBloomFilter.deserialize(filter.serialize());
+
+        assertThat(deserialized.mightContainAll("KieServicesException: Container not found")).isTrue();
+        assertThat(deserialized.mightContain("NullPointerException")).isFalse();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.provider;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClientRegistryTest {
+
+    private static final String URL = "http://kieserver-namespace.apps";
+    private static final String OTHER_URL = "http://kieserver-other-namespace.apps";
+
+    private final ClientRegistry clientRegistry = new ClientRegistry();
+
+    @Test
+    public void sameConfigurationSharesClient() {
+        Object deployment = new Object();
+
+        TestClient client = clientRegistry.getClient(deployment, key(URL), TestClient::new);
+
+        assertThat(clientRegistry.getClient(deployment, key(URL), TestClient::new)).isSameAs(client);
+    }
+
+    @Test
+    public void evictedDeploymentClientsAreClosed() {
+        Object deployment = new Object();
+        Object otherDeployment = new Object();
+        TestClient client = clientRegistry.getClient(deployment, key(URL), TestClient::new);
+        TestClient otherClient = clientRegistry.getClient(otherDeployment, key(OTHER_URL), TestClient::new);
+
+        clientRegistry.evictDeployment(deployment);
+
+        assertThat(client.closed).isTrue();
+        assertThat(otherClient.closed).isFalse();
+        assertThat(clientRegistry.getClient(deployment, key(URL), TestClient::new)).isNotSameAs(client);
+        assertThat(clientRegistry.getClient(otherDeployment, key(OTHER_URL), TestClient::new)).isSameAs(otherClient);
+    }
+
+    @Test
+    public void changedDeploymentUrlEvictsPreviousClients() {
+        Object deployment = new Object();
+        TestClient client = clientRegistry.getClient(deployment, key(URL), TestClient::new);
+
+        clientRegistry.getClient(deployment, key(OTHER_URL), TestClient::new);
+
+        assertThat(client.closed).isTrue();
+    }
+
+    private static ClientRegistry.ClientKey key(String url) {
+        return new ClientRegistry.ClientKey(TestClient.class, url, "user", "password", 0L, Collections.emptySet(), "JSON");
+    }
+
+    private static class TestClient implements AutoCloseable {
+
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.provider;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.api.commands.CommandScript;
+import org.kie.server.api.marshalling.MarshallerFactory;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.ServiceResponse;
+import org.kie.server.api.model.ServiceResponsesList;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class KieServerAsyncJmsClientTest {
+
+    private static final long TIMEOUT_IN_MS = 200;
+
+    private Connection connection;
+    private Session session;
+    private MessageConsumer consumer;
+    private TextMessage requestMessage;
+
+    @Before
+    public void setUp() throws JMSException {
+        connection = Mockito.mock(Connection.class);
+        session = Mockito.mock(Session.class);
+        consumer = Mockito.mock(MessageConsumer.class);
+        requestMessage = Mockito.mock(TextMessage.class);
+        Mockito.when(connection.createSession(Mockito.anyBoolean(), Mockito.anyInt())).thenReturn(session);
+        Mockito.when(session.createQueue(Mockito.anyString())).thenReturn(Mockito.mock(Queue.class));
+        Mockito.when(session.createProducer(Mockito.any(Queue.class))).thenReturn(Mockito.mock(MessageProducer.class));
+        Mockito.when(session.createConsumer(Mockito.any(Queue.class), Mockito.anyString())).thenReturn(consumer);
+        Mockito.when(session.createTextMessage(Mockito.anyString())).thenReturn(requestMessage);
+    }
+
+    @Test
+    public void responseCompletesRequestWithSameCorrelationId() throws Exception {
+        try (KieServerAsyncJmsClient client = createClient()) {
+            CompletableFuture<ServiceResponsesList> firstResponse = client.executeAsync(new CommandScript(Collections.emptyList()));
+            CompletableFuture<ServiceResponsesList> secondResponse = client.executeAsync(new CommandScript(Collections.emptyList()));
+            ArgumentCaptor<String> correlationIds = ArgumentCaptor.forClass(String.class);
+            Mockito.verify(requestMessage, Mockito.times(2)).setJMSCorrelationID(correlationIds.capture());
+            String secondCorrelationId = correlationIds.getAllValues().get(1);
+
+            getResponseListener().onMessage(response(secondCorrelationId, "second"));
+
+            assertThat(firstResponse).isNotDone();
+            assertThat(secondResponse.get(1, TimeUnit.SECONDS).getResponses()).extracting(ServiceResponse::getMsg).containsExactly("second");
+            assertThat(client.getPendingRequests()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void consumerSelectsOnlyResponsesOfTheClient() throws Exception {
+        try (KieServerAsyncJmsClient client = createClient()) {
+            client.executeAsync(new CommandScript(Collections.emptyList()));
+            ArgumentCaptor<String> correlationId = ArgumentCaptor.forClass(String.class);
+            Mockito.verify(requestMessage).setJMSCorrelationID(correlationId.capture());
+            ArgumentCaptor<String> selector = ArgumentCaptor.forClass(String.class);
+            Mockito.verify(session).createConsumer(Mockito.any(Queue.class), selector.capture());
+
+            String correlationIdPrefix = correlationId.getValue().substring(0, correlationId.getValue().lastIndexOf('-') + 1);
+            assertThat(selector.getValue()).isEqualTo("JMSCorrelationID LIKE '" + correlationIdPrefix + "%'");
+
+            // Response to unknown request is ignored
+            getResponseListener().onMessage(response(correlationIdPrefix + "unknown", "unknown"));
+            assertThat(client.getPendingRequests()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void requestWithoutResponseTimesOut() throws Exception {
+        try (KieServerAsyncJmsClient client = createClient()) {
+            CompletableFuture<ServiceResponsesList> response = client.executeAsync(new CommandScript(Collections.emptyList()));
+
+            try {
+                response.get(5, TimeUnit.SECONDS);
+                fail("Request without response should time out.");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(TimeoutException.class);
+            }
+            assertThat(client.getPendingRequests()).isZero();
+        }
+    }
+
+    @Test
+    public void closeFailsPendingRequests() throws Exception {
+        KieServerAsyncJmsClient client = createClient();
+        CompletableFuture<ServiceResponsesList> response = client.executeAsync(new CommandScript(Collections.emptyList()));
+
+        client.close();
+
+        assertThat(response).isCompletedExceptionally();
+        Mockito.verify(session, Mockito.times(2)).close();
+    }
+
+    private KieServerAsyncJmsClient createClient() throws JMSException {
+        return new KieServerAsyncJmsClient(connection, "user", "password", Collections.emptySet(), TIMEOUT_IN_MS, 1);
+    }
+
+    private MessageListener getResponseListener() throws JMSException {
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        Mockito.verify(consumer).setMessageListener(listener.capture());
+        return listener.getValue();
+    }
+
+    private static TextMessage response(String correlationId, String message) throws JMSException {
+        ServiceResponsesList responses = new ServiceResponsesList(Collections.singletonList(new ServiceResponse<>(ServiceResponse.ResponseType.SUCCESS, message)));
+        TextMessage response = Mockito.mock(TextMessage.class);
+        Mockito.when(response.getJMSCorrelationID()).thenReturn(correlationId);
+        Mockito.when(response.getText()).thenReturn(MarshallerFactory.getMarshaller(MarshallingFormat.JSON, KieServerAsyncJmsClientTest.class.getClassLoader())
+                                                                     .marshall(responses));
+        return response;
+    }
+}
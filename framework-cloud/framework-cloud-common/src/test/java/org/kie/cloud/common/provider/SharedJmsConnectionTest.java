@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.provider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedJmsConnectionTest {
+
+    @Test
+    public void failedConnectionIsReplaced() throws JMSException {
+        Connection failedConnection = Mockito.mock(Connection.class);
+        Connection newConnection = Mockito.mock(Connection.class);
+        ConnectionFactory connectionFactory = Mockito.mock(ConnectionFactory.class);
+        Mockito.when(connectionFactory.createConnection()).thenReturn(failedConnection, newConnection);
+        AtomicInteger failures = new AtomicInteger();
+
+        try (SharedJmsConnection sharedConnection = new SharedJmsConnection(connectionFactory, failures::incrementAndGet)) {
+            assertThat(sharedConnection.getConnection()).isSameAs(failedConnection);
+            assertThat(sharedConnection.getConnection()).isSameAs(failedConnection);
+            Mockito.verify(failedConnection).start();
+
+            ArgumentCaptor<ExceptionListener> exceptionListener = ArgumentCaptor.forClass(ExceptionListener.class);
+            Mockito.verify(failedConnection).setExceptionListener(exceptionListener.capture());
+            exceptionListener.getValue().onException(new JMSException("Connection reset"));
+
+            assertThat(failures.get()).isEqualTo(1);
+            Mockito.verify(failedConnection).close();
+            assertThat(sharedConnection.getConnection()).isSameAs(newConnection);
+            Mockito.verify(newConnection).start();
+        }
+        Mockito.verify(newConnection).close();
+    }
+}
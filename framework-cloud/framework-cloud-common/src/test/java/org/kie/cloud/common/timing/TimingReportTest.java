@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.common.timing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.kie.cloud.common.timing.TimingReport.Regression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingReportTest {
+
+    private static final Instant START = Instant.parse("2020-06-01T10:00:00Z");
+    private static final String SCENARIO = "KieServerScenario";
+
+    @Test
+    public void regressionInLatestRun() {
+        Map<String, List<Long>> durationsByRun = durationsByRun(0, 60_000L, 61_000L, 59_000L, 60_000L, 62_000L, 58_000L, 90_000L);
+
+        Regression regression = createReport(7).findRegression(durationsByRun);
+
+        assertThat(regression).isNotNull();
+        assertThat(regression.run).isEqualTo(run(6));
+        assertThat(regression.baseline).isEqualTo(60_000L);
+        assertThat(regression.latest).isEqualTo(90_000L);
+        assertThat(regression.threshold).isBetween(regression.baseline, regression.latest);
+    }
+
+    @Test
+    public void regressionOfDurationMissingInLatestRun() {
+        Map<String, List<Long>> durationsByRun = durationsByRun(0, 60_000L, 61_000L, 59_000L, 60_000L, 62_000L, 58_000L, 90_000L);
+
+        // The latest run measured other durations only
+        Regression regression = createReport(8).findRegression(durationsByRun);
+
+        assertThat(regression).isNotNull();
+        assertThat(regression.run).isEqualTo(run(6));
+    }
+
+    @Test
+    public void noiseIsNoRegression() {
+        Map<String, List<Long>> durationsByRun = durationsByRun(0, 60_000L, 61_000L, 59_000L, 60_000L, 62_000L, 58_000L, 65_000L);
+
+        assertThat(createReport(7).findRegression(durationsByRun)).isNull();
+    }
+
+    @Test
+    public void shortHistoryIsNoRegression() {
+        Map<String, List<Long>> durationsByRun = durationsByRun(0, 60_000L, 61_000L, 59_000L, 60_000L, 90_000L);
+
+        assertThat(createReport(5).findRegression(durationsByRun)).isNull();
+    }
+
+    @Test
+    public void reportListsRegressionWithItsRun() {
+        List<TimingRecord> records = new ArrayList<>();
+        long[] deployments = {60_000L, 61_000L, 59_000L, 60_000L, 62_000L, 58_000L, 90_000L};
+        for (int i = 0; i < deployments.length; i++) {
+            records.add(new TimingRecord(run(i), START.plusSeconds(3600L * i), TimingRecord.SCENARIO, SCENARIO, TimingRecord.DEPLOYMENT, deployments[i], TimingRecord.STATUS_OK));
+        }
+        records.add(new TimingRecord(run(deployments.length), START.plusSeconds(3600L * deployments.length), TimingRecord.TEST, "OtherTest", "test", 1000, TimingRecord.STATUS_OK));
+
+        String report = new TimingReport(records).generate();
+
+        assertThat(report).contains("| " + TimingRecord.SCENARIO + " | " + SCENARIO + " | " + TimingRecord.DEPLOYMENT + " | " + run(6) + " | 60.0 |");
+    }
+
+    @Test
+    public void medianOfOddCount() {
+        assertThat(TimingReport.median(Arrays.asList(5L, 1L, 3L))).isEqualTo(3L);
+    }
+
+    @Test
+    public void medianOfEvenCount() {
+        assertThat(TimingReport.median(Arrays.asList(4L, 1L, 10L, 2L))).isEqualTo(3L);
+    }
+
+    @Test
+    public void medianOfSingleValue() {
+        assertThat(TimingReport.median(Collections.singletonList(7L))).isEqualTo(7L);
+    }
+
+    /**
+     * @return Report of runs measuring an unrelated test only, the runs define the run order.
+     */
+    private static TimingReport createReport(int runs) {
+        List<TimingRecord> records = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            records.add(new TimingRecord(run(i), START.plusSeconds(3600L * i), TimingRecord.TEST, "OtherTest", "test", 1000, TimingRecord.STATUS_OK));
+        }
+        return new TimingReport(records);
+    }
+
+    private static Map<String, List<Long>> durationsByRun(int firstRun, Long... durations) {
+        Map<String, List<Long>> durationsByRun = new LinkedHashMap<>();
+        for (int i = 0; i < durations.length; i++) {
+            durationsByRun.put(run(firstRun + i), Collections.singletonList(durations[i]));
+        }
+        return durationsByRun;
+    }
+
+    private static String run(int index) {
+        return "run-" + index;
+    }
+}
@@ -66,8 +66,7 @@ public class KieServerOperatorDeployment extends KieServerDeploymentImpl {
 
         waitUntilAllPodsAreReadyAndRunning(replicas);
         if (replicas > 0) {
-            getInsecureUrl().ifPresent(RouterUtil::waitForRouter);
-            getSecureUrl().ifPresent(RouterUtil::waitForRouter);
+            RouterUtil.waitForRouters(getInsecureUrl(), getSecureUrl());
         }
     }
 
@@ -58,8 +58,7 @@ public class WorkbenchRuntimeOperatorDeployment extends WorkbenchRuntimeDeployme
 
         waitUntilAllPodsAreReadyAndRunning(replicas);
         if (replicas > 0) {
-            getInsecureUrl().ifPresent(RouterUtil::waitForRouter);
-            getSecureUrl().ifPresent(RouterUtil::waitForRouter);
+            RouterUtil.waitForRouters(getInsecureUrl(), getSecureUrl());
         }
     }
 }
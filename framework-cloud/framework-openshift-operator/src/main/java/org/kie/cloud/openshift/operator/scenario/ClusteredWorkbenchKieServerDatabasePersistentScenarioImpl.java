@@ -46,6 +46,7 @@ import org.kie.cloud.openshift.operator.model.KieApp;
 import org.kie.cloud.openshift.operator.model.components.Auth;
 import org.kie.cloud.openshift.operator.model.components.Server;
 import org.kie.cloud.openshift.operator.model.components.Sso;
+import org.kie.cloud.openshift.scenario.DeploymentGraph;
 import org.kie.cloud.openshift.scenario.ScenarioRequest;
 import org.kie.cloud.openshift.util.Git;
 import org.kie.cloud.openshift.util.SsoDeployer;
@@ -136,14 +137,10 @@ public class ClusteredWorkbenchKieServerDatabasePersistentScenarioImpl extends O
             throw new RuntimeException("Timeout while deploying application.", e);
         }
 
-        logger.info("Waiting for Database deployment to become ready.");
-        databaseDeployment.waitForScale();
-
-        logger.info("Waiting for Workbench deployment to become ready.");
-        workbenchDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("Database", databaseDeployment)
+                             .addWaitForScale("Workbench", workbenchDeployment)
+                             .addWaitForScale("Kie server", kieServerDeployment, "Database")
+                             .execute();
 
         logNodeNameOfAllInstances();
     }
@@ -47,6 +47,7 @@ import org.kie.cloud.openshift.operator.model.components.Auth;
 import org.kie.cloud.openshift.operator.model.components.Server;
 import org.kie.cloud.openshift.operator.model.components.Sso;
 import org.kie.cloud.openshift.resource.Project;
+import org.kie.cloud.openshift.scenario.DeploymentGraph;
 import org.kie.cloud.openshift.util.SsoDeployer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -119,23 +120,13 @@ public class ClusteredWorkbenchRuntimeSmartRouterTwoKieServersTwoDatabasesScenar
             throw new RuntimeException("Timeout while deploying application.", e);
         }
 
-        logger.info("Waiting for Workbench deployment to become ready.");
-        workbenchRuntimeDeployment.waitForScale();
-
-        logger.info("Waiting for Smart router deployment to become ready.");
-        smartRouterDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server one deployment to become ready.");
-        kieServerOneDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server two deployment to become ready.");
-        kieServerTwoDeployment.waitForScale();
-
-        logger.info("Waiting for Database one deployment to become ready.");
-        databaseOneDeployment.waitForScale();
-
-        logger.info("Waiting for Database two deployment to become ready.");
-        databaseTwoDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("Database one", databaseOneDeployment)
+                             .addWaitForScale("Database two", databaseTwoDeployment)
+                             .addWaitForScale("Workbench", workbenchRuntimeDeployment)
+                             .addWaitForScale("Smart router", smartRouterDeployment)
+                             .addWaitForScale("Kie server one", kieServerOneDeployment, "Database one")
+                             .addWaitForScale("Kie server two", kieServerTwoDeployment, "Database two")
+                             .execute();
 
         logNodeNameOfAllInstances();
     }
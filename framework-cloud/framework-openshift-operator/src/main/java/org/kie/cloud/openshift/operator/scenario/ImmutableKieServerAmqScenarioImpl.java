@@ -43,6 +43,7 @@ import org.kie.cloud.openshift.operator.model.KieApp;
 import org.kie.cloud.openshift.operator.model.components.Auth;
 import org.kie.cloud.openshift.operator.model.components.Server;
 import org.kie.cloud.openshift.operator.model.components.Sso;
+import org.kie.cloud.openshift.scenario.DeploymentGraph;
 import org.kie.cloud.openshift.scenario.ScenarioRequest;
 import org.kie.cloud.openshift.util.AmqImageStreamDeployer;
 import org.kie.cloud.openshift.util.AmqSecretDeployer;
@@ -121,11 +122,9 @@ public class ImmutableKieServerAmqScenarioImpl extends OpenShiftOperatorScenario
             throw new RuntimeException("Timeout while deploying application.", e);
         }
 
-        logger.info("Waiting for AMQ deployment to become ready.");
-        amqDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("AMQ", amqDeployment)
+                             .addWaitForScale("Kie server", kieServerDeployment)
+                             .execute();
 
         logNodeNameOfAllInstances();
     }
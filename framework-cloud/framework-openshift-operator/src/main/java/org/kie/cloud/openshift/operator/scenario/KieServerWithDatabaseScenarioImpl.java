@@ -44,6 +44,7 @@ import org.kie.cloud.openshift.operator.model.KieApp;
 import org.kie.cloud.openshift.operator.model.components.Auth;
 import org.kie.cloud.openshift.operator.model.components.Server;
 import org.kie.cloud.openshift.operator.model.components.Sso;
+import org.kie.cloud.openshift.scenario.DeploymentGraph;
 import org.kie.cloud.openshift.scenario.ScenarioRequest;
 import org.kie.cloud.openshift.util.SsoDeployer;
 import org.slf4j.Logger;
@@ -160,11 +161,9 @@ public class KieServerWithDatabaseScenarioImpl extends OpenShiftOperatorScenario
             throw new RuntimeException("Timeout while deploying application.", e);
         }
 
-        logger.info("Waiting for Database deployment to become ready.");
-        databaseDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("Database", databaseDeployment)
+                             .addWaitForScale("Kie server", kieServerDeployment, "Database")
+                             .execute();
 
         if(request.isDeployProcessMigration()) {
             logger.info("Waiting for Process Migration deployment to become ready.");
@@ -35,6 +35,7 @@ import io.fabric8.openshift.api.model.ImageStream;
 import org.apache.commons.lang3.StringUtils;
 import org.kie.cloud.api.deployment.constants.DeploymentConstants;
 import org.kie.cloud.api.scenario.DeploymentScenario;
+import org.kie.cloud.common.trace.Tracer;
 import org.kie.cloud.openshift.constants.OpenShiftConstants;
 import org.kie.cloud.openshift.deployment.external.ExternalDeployment;
 import org.kie.cloud.openshift.operator.constants.OpenShiftOperatorConstants;
@@ -67,8 +68,8 @@ public abstract class OpenShiftOperatorScenario<T extends DeploymentScenario<T>>
 
     @Override
     protected void deployKieDeployments() {
-        deployOperator();
-        deployCustomResource();
+        Tracer.run("deploy operator", this::deployOperator);
+        Tracer.run("deploy custom resource", this::deployCustomResource);
     }
 
     @Override
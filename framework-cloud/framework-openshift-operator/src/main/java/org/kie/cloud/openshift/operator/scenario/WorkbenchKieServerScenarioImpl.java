@@ -41,6 +41,7 @@ import org.kie.cloud.openshift.deployment.WorkbenchDeploymentImpl;
 import org.kie.cloud.openshift.operator.deployment.KieServerOperatorDeployment;
 import org.kie.cloud.openshift.operator.deployment.WorkbenchOperatorDeployment;
 import org.kie.cloud.openshift.operator.model.KieApp;
+import org.kie.cloud.openshift.scenario.DeploymentGraph;
 import org.kie.cloud.openshift.scenario.ScenarioRequest;
 import org.kie.cloud.openshift.util.Git;
 import org.kie.cloud.openshift.util.PrometheusDeployer;
@@ -93,11 +94,9 @@ public class WorkbenchKieServerScenarioImpl extends OpenShiftOperatorScenario<Wo
             throw new RuntimeException("Timeout while deploying application.", e);
         }
 
-        logger.info("Waiting for Workbench deployment to become ready.");
-        workbenchDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("Workbench", workbenchDeployment)
+                             .addWaitForScale("Kie server", kieServerDeployment)
+                             .execute();
 
         logNodeNameOfAllInstances();
 
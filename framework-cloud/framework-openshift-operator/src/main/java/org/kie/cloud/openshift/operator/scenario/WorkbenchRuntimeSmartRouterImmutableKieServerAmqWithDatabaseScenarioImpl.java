@@ -48,6 +48,7 @@ import org.kie.cloud.openshift.operator.model.KieApp;
 import org.kie.cloud.openshift.operator.model.components.Auth;
 import org.kie.cloud.openshift.operator.model.components.Server;
 import org.kie.cloud.openshift.operator.model.components.Sso;
+import org.kie.cloud.openshift.scenario.DeploymentGraph;
 import org.kie.cloud.openshift.scenario.ScenarioRequest;
 import org.kie.cloud.openshift.util.AmqImageStreamDeployer;
 import org.kie.cloud.openshift.util.AmqSecretDeployer;
@@ -142,20 +143,12 @@ public class WorkbenchRuntimeSmartRouterImmutableKieServerAmqWithDatabaseScenari
             throw new RuntimeException("Timeout while deploying application.", e);
         }
 
-        logger.info("Waiting for AMQ deployment to become ready.");
-        amqDeployment.waitForScale();
-
-        logger.info("Waiting for Workbench deployment to become ready.");
-        workbenchRuntimeDeployment.waitForScale();
-
-        logger.info("Waiting for Smart router deployment to become ready.");
-        smartRouterDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
-
-        logger.info("Waiting for Database deployment to become ready.");
-        databaseDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("Database", databaseDeployment)
+                             .addWaitForScale("AMQ", amqDeployment)
+                             .addWaitForScale("Workbench", workbenchRuntimeDeployment)
+                             .addWaitForScale("Smart router", smartRouterDeployment)
+                             .addWaitForScale("Kie server", kieServerDeployment, "Database")
+                             .execute();
 
         logNodeNameOfAllInstances();
 
@@ -46,6 +46,7 @@ import org.kie.cloud.openshift.operator.model.KieApp;
 import org.kie.cloud.openshift.operator.model.components.Auth;
 import org.kie.cloud.openshift.operator.model.components.Server;
 import org.kie.cloud.openshift.operator.model.components.Sso;
+import org.kie.cloud.openshift.scenario.DeploymentGraph;
 import org.kie.cloud.openshift.scenario.ScenarioRequest;
 import org.kie.cloud.openshift.util.Git;
 import org.kie.cloud.openshift.util.SsoDeployer;
@@ -125,17 +126,11 @@ public class WorkbenchRuntimeSmartRouterImmutableKieServerWithDatabaseScenarioIm
             throw new RuntimeException("Timeout while deploying application.", e);
         }
 
-        logger.info("Waiting for Workbench deployment to become ready.");
-        workbenchRuntimeDeployment.waitForScale();
-
-        logger.info("Waiting for Smart router deployment to become ready.");
-        smartRouterDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
-
-        logger.info("Waiting for Database deployment to become ready.");
-        databaseDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("Database", databaseDeployment)
+                             .addWaitForScale("Workbench", workbenchRuntimeDeployment)
+                             .addWaitForScale("Smart router", smartRouterDeployment)
+                             .addWaitForScale("Kie server", kieServerDeployment, "Database")
+                             .execute();
 
         logNodeNameOfAllInstances();
 
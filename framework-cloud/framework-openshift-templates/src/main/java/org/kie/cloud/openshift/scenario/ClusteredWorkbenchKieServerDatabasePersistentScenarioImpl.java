@@ -116,14 +116,10 @@ public class ClusteredWorkbenchKieServerDatabasePersistentScenarioImpl extends K
 
         databaseDeployment = new DatabaseDeploymentImpl(project);
 
-        logger.info("Waiting for Database deployment to become ready.");
-        databaseDeployment.waitForScale();
-
-        logger.info("Waiting for Workbench deployment to become ready.");
-        workbenchDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("Database", databaseDeployment)
+                             .addWaitForScale("Workbench", workbenchDeployment)
+                             .addWaitForScale("Kie server", kieServerDeployment, "Database")
+                             .execute();
 
         logNodeNameOfAllInstances();
     }
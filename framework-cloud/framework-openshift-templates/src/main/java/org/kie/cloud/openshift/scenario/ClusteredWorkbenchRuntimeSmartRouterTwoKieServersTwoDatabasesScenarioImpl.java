@@ -105,23 +105,13 @@ public class ClusteredWorkbenchRuntimeSmartRouterTwoKieServersTwoDatabasesScenar
         databaseOneDeployment = createDatabaseDeployment(project, "1");
         databaseTwoDeployment = createDatabaseDeployment(project, "2");
 
-        logger.info("Waiting for Database one deployment to become ready.");
-        databaseOneDeployment.waitForScale();
-
-        logger.info("Waiting for Database two deployment to become ready.");
-        databaseTwoDeployment.waitForScale();
-
-        logger.info("Waiting for Workbench deployment to become ready.");
-        workbenchRuntimeDeployment.waitForScale();
-
-        logger.info("Waiting for Smart router deployment to become ready.");
-        smartRouterDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server one deployment to become ready.");
-        kieServerOneDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server two deployment to become ready.");
-        kieServerTwoDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("Database one", databaseOneDeployment)
+                             .addWaitForScale("Database two", databaseTwoDeployment)
+                             .addWaitForScale("Workbench", workbenchRuntimeDeployment)
+                             .addWaitForScale("Smart router", smartRouterDeployment)
+                             .addWaitForScale("Kie server one", kieServerOneDeployment, "Database one")
+                             .addWaitForScale("Kie server two", kieServerTwoDeployment, "Database two")
+                             .execute();
 
         logNodeNameOfAllInstances();
     }
@@ -47,6 +47,7 @@ import org.kie.cloud.api.deployment.Deployment;
 import org.kie.cloud.api.deployment.HACepDeployment;
 import org.kie.cloud.api.deployment.MavenRepositoryDeployment;
 import org.kie.cloud.api.scenario.HACepScenario;
+import org.kie.cloud.common.trace.Tracer;
 import org.kie.cloud.maven.MavenDeployer;
 import org.kie.cloud.openshift.constants.OpenShiftConstants;
 import org.kie.cloud.openshift.deployment.HACepDeploymentImpl;
@@ -167,9 +168,9 @@ public class HACepScenarioImpl extends OpenShiftScenario<HACepScenario> implemen
         project.createResourcesFromYamlAsAdmin(roleBindingYamlFile.getAbsolutePath());
 
         logger.info("Building and deploying kjars");
-        buildAndDeployKjars();
+        Tracer.run("build kjars", this::buildAndDeployKjars);
 
-        final String dockerImageRepository = buildHACEPImage();
+        final String dockerImageRepository = Tracer.call("build HA-CEP image", this::buildHACEPImage);
         final File haCepDeploymentYamlFile = new File(haCepSourcesDir, SOURCES_FILE_HACEP_DEPLOYMENT);
 
         deployHACEPDeployment(haCepDeploymentYamlFile, dockerImageRepository, springDeploymentEnvironmentVariables);
@@ -99,11 +99,9 @@ public class ImmutableKieServerAmqScenarioImpl extends KieCommonScenario<Immutab
         amqDeployment.setUsername(DeploymentConstants.getAmqUsername());
         amqDeployment.setPassword(DeploymentConstants.getAmqPassword());
 
-        logger.info("Waiting for AMQ deployment to become ready.");
-        amqDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("AMQ", amqDeployment)
+                             .addWaitForScale("Kie server", kieServerDeployment)
+                             .execute();
 
         logNodeNameOfAllInstances();
     }
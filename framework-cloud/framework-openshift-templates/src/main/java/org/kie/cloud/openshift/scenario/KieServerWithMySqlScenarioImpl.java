@@ -88,11 +88,9 @@ public class KieServerWithMySqlScenarioImpl extends KieCommonScenario<KieServerW
 
         databaseDeployment = new DatabaseDeploymentImpl(project);
 
-        logger.info("Waiting for Database deployment to become ready.");
-        databaseDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("Database", databaseDeployment)
+                             .addWaitForScale("Kie server", kieServerDeployment, "Database")
+                             .execute();
 
         logNodeNameOfAllInstances();
     }
@@ -88,11 +88,9 @@ public class KieServerWithPostgreSqlScenarioImpl extends KieCommonScenario<KieSe
 
         databaseDeployment = new DatabaseDeploymentImpl(project);
 
-        logger.info("Waiting for Database deployment to become ready.");
-        databaseDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("Database", databaseDeployment)
+                             .addWaitForScale("Kie server", kieServerDeployment, "Database")
+                             .execute();
 
         logNodeNameOfAllInstances();
     }
@@ -78,11 +78,9 @@ public class WorkbenchKieServerScenarioImpl extends KieCommonScenario<WorkbenchK
             gitProvider = Git.createProvider(project, request.getGitSettings());
         }
 
-        logger.info("Waiting for Workbench deployment to become ready.");
-        workbenchDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.waitForScale();
+        new DeploymentGraph().addWaitForScale("Workbench", workbenchDeployment)
+                             .addWaitForScale("Kie server", kieServerDeployment)
+                             .execute();
 
         logNodeNameOfAllInstances();
 
@@ -125,21 +125,17 @@ public class WorkbenchRuntimeSmartRouterImmutableKieServerAmqWithPostgreSqlScena
         databaseDeployment = new DatabaseDeploymentImpl(project);
         amqDeployment = createAmqDeployment(project);
 
-        logger.info("Waiting for AMQ deployment to become ready.");
-        amqDeployment.waitForScale();
-
-        logger.info("Waiting for Database deployment to become ready.");
-        databaseDeployment.waitForScale();
-
-        logger.info("Waiting for Kie server deployment to become ready.");
-        kieServerDeployment.scale(1);
-        kieServerDeployment.waitForScale();
-
-        logger.info("Waiting for Smart router deployment to become ready.");
-        smartRouterDeployment.waitForScale();
-
-        logger.info("Waiting for Workbench runtime deployment to become ready.");
-        workbenchRuntimeDeployment.waitForScale();
+        // Kie server is scaled up once its database and AMQ broker are available
+        new DeploymentGraph().addWaitForScale("AMQ", amqDeployment)
+                             .addWaitForScale("Database", databaseDeployment)
+                             .addStep("Kie server", () -> {
+                                 logger.info("Waiting for Kie server deployment to become ready.");
+                                 kieServerDeployment.scale(1);
+                                 kieServerDeployment.waitForScale();
+                             }, "AMQ", "Database")
+                             .addWaitForScale("Smart router", smartRouterDeployment)
+                             .addWaitForScale("Workbench runtime", workbenchRuntimeDeployment)
+                             .execute();
 
         logNodeNameOfAllInstances();
     }
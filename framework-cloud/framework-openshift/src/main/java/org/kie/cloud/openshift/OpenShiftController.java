@@ -19,8 +19,11 @@ import cz.xtf.core.config.OpenShiftConfig;
 import cz.xtf.core.openshift.OpenShift;
 import cz.xtf.core.openshift.OpenShifts;
 import org.kie.cloud.api.constants.ConfigurationInitializer;
+import org.kie.cloud.openshift.client.ApiClientInstrumentation;
+import org.kie.cloud.openshift.client.ApiPriority;
 import org.kie.cloud.openshift.resource.Project;
 import org.kie.cloud.openshift.resource.impl.ProjectImpl;
+import org.kie.cloud.openshift.util.NamespaceReaper;
 
 /**
  * Utility class for access to OpenShift. It provides basic OpenShift client initialization and basic project handling.
@@ -43,7 +46,16 @@ public class OpenShiftController {
      * @return OpenShift with project namespace configured.
      */
     public static OpenShift getOpenShift(String projectName) {
-        return OpenShifts.master(projectName);
+        return ApiClientInstrumentation.instrument(OpenShifts.master(projectName));
+    }
+
+    /**
+     * @param projectName Namespace to be set to OpenShift.
+     * @param priority Priority of API calls made by the client.
+     * @return OpenShift with project namespace configured.
+     */
+    public static OpenShift getOpenShift(String projectName, ApiPriority priority) {
+        return ApiClientInstrumentation.instrument(OpenShifts.master(projectName), priority);
     }
 
     /**
@@ -58,7 +70,7 @@ public class OpenShiftController {
      * @return OpenShift admin with project namespace configured.
      */
     public static OpenShift getOpenShiftAdmin(String projectName) {
-        return OpenShifts.admin(projectName);
+        return ApiClientInstrumentation.instrument(OpenShifts.admin(projectName));
     }
 
     /**
@@ -69,7 +81,9 @@ public class OpenShiftController {
         try (OpenShift openShift = getOpenShift()) {
             openShift.createProjectRequest(projectName);
 
-            return new ProjectImpl(projectName);
+            Project project = new ProjectImpl(projectName);
+            NamespaceReaper.register(project);
+            return project;
         }
     }
 
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.Histogram;
+import org.kie.cloud.common.logs.InstanceLogUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts and times OpenShift API calls per namespace, verb, resource and caller. Calls are recorded by
+ * {@link ApiMetricsInterceptor}, the summary of a namespace is written next to the instance logs of the scenario.
+ */
+public class ApiCallMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiCallMetrics.class);
+
+    /**
+     * Namespace of calls which don't target any namespace, e.g. listing of nodes.
+     */
+    static final String CLUSTER_SCOPE = "cluster";
+
+    private static final long MAX_TRACKED_LATENCY_IN_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int HISTOGRAM_PRECISION = 2;
+
+    private static final ThreadLocal<CallKind> currentCallKind = ThreadLocal.withInitial(() -> CallKind.REGULAR);
+    private static final Map<String, Map<CallKey, CallStats>> statsByNamespace = new ConcurrentHashMap<>();
+
+    enum CallKind {
+        REGULAR,
+        RETRY,
+        WATCH_RECONNECT
+    }
+
+    private ApiCallMetrics() {
+        // Util class
+    }
+
+    /**
+     * Execute the supplier, its API calls are recorded as retries of a failed call.
+     */
+    public static <T> T callAsRetry(Supplier<T> supplier) {
+        return callAs(CallKind.RETRY, supplier);
+    }
+
+    /**
+     * Execute the supplier, its API calls are recorded as reconnects of a closed watch.
+     */
+    public static <T> T callAsWatchReconnect(Supplier<T> supplier) {
+        return callAs(CallKind.WATCH_RECONNECT, supplier);
+    }
+
+    private static <T> T callAs(CallKind callKind, Supplier<T> supplier) {
+        CallKind previousCallKind = currentCallKind.get();
+        currentCallKind.set(callKind);
+        try {
+            return supplier.get();
+        } finally {
+            currentCallKind.set(previousCallKind);
+        }
+    }
+
+    static CallKind getCurrentCallKind() {
+        return currentCallKind.get();
+    }
+
+    static CallStats getStats(String namespace, String verb, String resource, String caller) {
+        return statsByNamespace.computeIfAbsent(namespace, n -> new ConcurrentHashMap<>())
+                               .computeIfAbsent(new CallKey(verb, resource, caller), key -> new CallStats());
+    }
+
+    /**
+     * @param namespace Project name.
+     * @return Tab separated table of API calls made in the namespace, ordered by total call time.
+     */
+    public static String getSummary(String namespace) {
+        List<Entry<CallKey, CallStats>> entries = new ArrayList<>(statsByNamespace.getOrDefault(namespace, Collections.emptyMap()).entrySet());
+        // Calls may be recorded while sorting, compare snapshot of total times
+        Map<CallKey, Double> totalTimes = new HashMap<>();
+        entries.forEach(entry -> totalTimes.put(entry.getKey(), entry.getValue().getTotalTimeMillis()));
+        entries.sort(Comparator.comparingDouble((Entry<CallKey, CallStats> entry) -> totalTimes.get(entry.getKey())).reversed());
+
+        StringBuilder summary = new StringBuilder();
+        summary.append("VERB\tRESOURCE\tCALLER\tCALLS\tERRORS\tTHROTTLED\tRETRIES\tWATCH RECONNECTS\tTOTAL MS\tP50 MS\tP99 MS\tMAX MS\tBYTES\n");
+        CallStats total = new CallStats();
+        for (Entry<CallKey, CallStats> entry : entries) {
+            CallKey key = entry.getKey();
+            summary.append(key.verb).append('\t').append(key.resource).append('\t').append(key.caller).append('\t');
+            entry.getValue().appendTo(summary);
+            total.add(entry.getValue());
+        }
+        summary.append("TOTAL\t\t\t");
+        total.appendTo(summary);
+        return summary.toString();
+    }
+
+    /**
+     * Write summary of API calls made in the namespace into the log folder.
+     *
+     * @param namespace Project name.
+     * @param logFolderName Log folder of the scenario.
+     */
+    public static void writeSummary(String namespace, String logFolderName) {
+        logger.info("Store OpenShift API calls of project {}", namespace);
+        InstanceLogUtil.writeInstanceLogs(namespace + "-api-calls", logFolderName, getSummary(namespace));
+    }
+
+    /**
+     * Forget calls made in the namespace, e.g. when the project is deleted.
+     */
+    public static void discard(String namespace) {
+        statsByNamespace.remove(namespace);
+    }
+
+    private static class CallKey {
+
+        private final String verb;
+        private final String resource;
+        private final String caller;
+
+        private CallKey(String verb, String resource, String caller) {
+            this.verb = verb;
+            this.resource = resource;
+            this.caller = caller;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CallKey callKey = (CallKey) o;
+            return verb.equals(callKey.verb) && resource.equals(callKey.resource) && caller.equals(callKey.caller);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(verb, resource, caller);
+        }
+    }
+
+    static class CallStats {
+
+        private final Histogram latencies = new Histogram(MAX_TRACKED_LATENCY_IN_MICROS, HISTOGRAM_PRECISION);
+        private final LongAdder bytes = new LongAdder();
+        private long errors;
+        private long throttled;
+        private long retries;
+        private long watchReconnects;
+
+        synchronized void record(long latencyInNanos, boolean error, boolean throttledCall, CallKind callKind) {
+            latencies.recordValue(Math.min(MAX_TRACKED_LATENCY_IN_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyInNanos)));
+            errors += error ? 1 : 0;
+            throttled += throttledCall ? 1 : 0;
+            retries += callKind == CallKind.RETRY ? 1 : 0;
+            watchReconnects += callKind == CallKind.WATCH_RECONNECT ? 1 : 0;
+        }
+
+        void addBytes(long transferredBytes) {
+            bytes.add(transferredBytes);
+        }
+
+        private synchronized double getTotalTimeMillis() {
+            return latencies.getTotalCount() * latencies.getMean() / 1000;
+        }
+
+        private synchronized void add(CallStats other) {
+            synchronized (other) {
+                latencies.add(other.latencies);
+                bytes.add(other.bytes.sum());
+                errors += other.errors;
+                throttled += other.throttled;
+                retries += other.retries;
+                watchReconnects += other.watchReconnects;
+            }
+        }
+
+        private synchronized void appendTo(StringBuilder summary) {
+            summary.append(latencies.getTotalCount()).append('\t')
+                   .append(errors).append('\t')
+                   .append(throttled).append('\t')
+                   .append(retries).append('\t')
+                   .append(watchReconnects).append('\t')
+                   .append(String.format("%.0f", getTotalTimeMillis())).append('\t')
+                   .append(toMillis(latencies.getValueAtPercentile(50))).append('\t')
+                   .append(toMillis(latencies.getValueAtPercentile(99))).append('\t')
+                   .append(toMillis(latencies.getMaxValue())).append('\t')
+                   .append(bytes.sum()).append('\n');
+        }
+
+        private static String toMillis(long micros) {
+            return String.format("%.1f", micros / 1000.0);
+        }
+    }
+}
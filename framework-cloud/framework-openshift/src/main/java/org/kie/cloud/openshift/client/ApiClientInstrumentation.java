@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.client;
+
+import java.lang.reflect.Field;
+
+import io.fabric8.kubernetes.client.BaseClient;
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Installs HTTP interceptors into OpenShift clients: API calls are throttled by {@link ApiThrottlingInterceptor} and
+ * every HTTP request is recorded by {@link ApiMetricsInterceptor}.
+ */
+public class ApiClientInstrumentation {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiClientInstrumentation.class);
+
+    private ApiClientInstrumentation() {
+        // Util class
+    }
+
+    /**
+     * Route all requests of the client through the shared interceptors, requests have deployment priority.
+     *
+     * @param client OpenShift or Kubernetes client.
+     * @return The same client.
+     */
+    public static <T extends BaseClient> T instrument(T client) {
+        return instrument(client, ApiPriority.DEPLOYMENT);
+    }
+
+    /**
+     * Route all requests of the client through the shared interceptors.
+     *
+     * @param client OpenShift or Kubernetes client, its requests shouldn't be marked with priority yet.
+     * @param priority Priority of all requests made by the client, applies to asynchronous calls too.
+     * @return The same client.
+     */
+    public static <T extends BaseClient> T instrument(T client, ApiPriority priority) {
+        try {
+            // The HTTP client is created by xtf, replace it by a copy sharing connection pool and dispatcher
+            Field httpClientField = BaseClient.class.getDeclaredField("httpClient");
+            httpClientField.setAccessible(true);
+            OkHttpClient httpClient = (OkHttpClient) httpClientField.get(client);
+            if (httpClient.interceptors().stream().noneMatch(ApiThrottlingInterceptor.class::isInstance)) {
+                OkHttpClient.Builder builder = httpClient.newBuilder();
+                if (priority != ApiPriority.DEPLOYMENT) {
+                    // Marker is the outer one, so the priority is set before the request is throttled
+                    builder.addInterceptor(priority.marker());
+                }
+                // Metrics interceptor is the inner one, so it records every attempt without the rate limiter wait
+                httpClientField.set(client, builder.addInterceptor(ApiThrottlingInterceptor.getInstance())
+                                                   .addInterceptor(ApiMetricsInterceptor.getInstance())
+                                                   .build());
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("OpenShift client calls can't be throttled and measured.", e);
+        }
+        return client;
+    }
+}
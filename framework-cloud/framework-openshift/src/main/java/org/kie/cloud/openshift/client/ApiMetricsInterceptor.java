@@ -0,0 +1,212 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.client;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.kie.cloud.openshift.client.ApiCallMetrics.CallKind;
+import org.kie.cloud.openshift.client.ApiCallMetrics.CallStats;
+
+/**
+ * HTTP interceptor of OpenShift clients recording every request into {@link ApiCallMetrics}. Requests are classified by
+ * namespace, verb and resource parsed from the request URL, and by the framework class which made the call.
+ */
+class ApiMetricsInterceptor implements Interceptor {
+
+    private static final int HTTP_SWITCHING_PROTOCOLS = 101;
+    private static final int HTTP_BAD_REQUEST = 400;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private static final String UNKNOWN_CALLER = "<async>";
+    // Frames of these packages are client internals, the caller is the first frame outside of them
+    private static final List<String> INTERNAL_PACKAGES = Arrays.asList("java.", "javax.", "sun.", "jdk.", "okhttp3.", "okio.", "io.fabric8.", "cz.xtf.", "rx.",
+                                                                        ApiMetricsInterceptor.class.getPackage().getName() + ".",
+                                                                        "org.kie.cloud.openshift.util.OpenShiftCaller");
+
+    private static final ApiMetricsInterceptor instance = new ApiMetricsInterceptor();
+
+    static ApiMetricsInterceptor getInstance() {
+        return instance;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        ApiCall apiCall = ApiCall.parse(request);
+        CallStats stats = ApiCallMetrics.getStats(apiCall.namespace, apiCall.verb, apiCall.resource, getCaller());
+        CallKind callKind = ApiCallMetrics.getCurrentCallKind();
+        if (request.body() != null && request.body().contentLength() > 0) {
+            stats.addBytes(request.body().contentLength());
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            stats.record(System.nanoTime() - start, true, false, callKind);
+            throw e;
+        }
+        stats.record(System.nanoTime() - start, response.code() >= HTTP_BAD_REQUEST, response.code() == HTTP_TOO_MANY_REQUESTS, callKind);
+
+        if (response.body() == null || response.code() == HTTP_SWITCHING_PROTOCOLS) {
+            return response;
+        }
+        // Bodies are often chunked, count the bytes as they are read
+        return response.newBuilder()
+                       .body(new CountingResponseBody(response.body(), stats))
+                       .build();
+    }
+
+    private static String getCaller() {
+        for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+            String className = element.getClassName();
+            if (INTERNAL_PACKAGES.stream().noneMatch(className::startsWith)) {
+                String simpleClassName = className.substring(className.lastIndexOf('.') + 1);
+                // Lambdas and anonymous classes are attributed to their enclosing class
+                int innerClassIndex = simpleClassName.indexOf('$');
+                if (innerClassIndex > 0) {
+                    simpleClassName = simpleClassName.substring(0, innerClassIndex);
+                }
+                String methodName = element.getMethodName().startsWith("lambda$") ? element.getMethodName().split("\\$")[1] : element.getMethodName();
+                return simpleClassName + "." + methodName;
+            }
+        }
+        // Watches and other asynchronous calls are made from HTTP client threads
+        return UNKNOWN_CALLER;
+    }
+
+    /**
+     * Namespace, verb and resource of an API call, e.g. list of pods in namespace "abc" for GET
+     * /api/v1/namespaces/abc/pods.
+     */
+    static class ApiCall {
+
+        final String namespace;
+        final String verb;
+        final String resource;
+
+        private ApiCall(String namespace, String verb, String resource) {
+            this.namespace = namespace;
+            this.verb = verb;
+            this.resource = resource;
+        }
+
+        static ApiCall parse(Request request) {
+            List<String> segments = request.url().pathSegments();
+            int index;
+            if (segments.get(0).equals("api") || segments.get(0).equals("oapi")) {
+                index = 2; // api/v1/...
+            } else if (segments.get(0).equals("apis")) {
+                index = 3; // apis/group/version/...
+            } else {
+                return new ApiCall(ApiCallMetrics.CLUSTER_SCOPE, request.method().toLowerCase(), "/" + String.join("/", segments));
+            }
+
+            boolean watch = "true".equals(request.url().queryParameter("watch"));
+            if (index < segments.size() && segments.get(index).equals("watch")) {
+                watch = true;
+                index++;
+            }
+
+            String namespace = ApiCallMetrics.CLUSTER_SCOPE;
+            if (index + 2 < segments.size() && segments.get(index).equals("namespaces")) {
+                namespace = segments.get(index + 1);
+                index += 2;
+            }
+            if (index >= segments.size()) {
+                return new ApiCall(namespace, request.method().toLowerCase(), "discovery");
+            }
+
+            String resource = segments.get(index);
+            boolean named = index + 1 < segments.size() && !segments.get(index + 1).isEmpty();
+            if (named && (resource.equals("namespaces") || resource.equals("projects"))) {
+                // Namespace itself belongs to the namespace metrics
+                namespace = segments.get(index + 1);
+            }
+            if (index + 2 < segments.size()) {
+                resource += "/" + segments.get(index + 2);
+            }
+            return new ApiCall(namespace, getVerb(request.method(), named, watch), resource);
+        }
+
+        private static String getVerb(String method, boolean named, boolean watch) {
+            if (watch) {
+                return "watch";
+            }
+            switch (method) {
+                case "GET":
+                    return named ? "get" : "list";
+                case "POST":
+                    return "create";
+                case "PUT":
+                    return "update";
+                case "PATCH":
+                    return "patch";
+                case "DELETE":
+                    return named ? "delete" : "deletecollection";
+                default:
+                    return method.toLowerCase();
+            }
+        }
+    }
+
+    private static class CountingResponseBody extends ResponseBody {
+
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+
+        private CountingResponseBody(ResponseBody delegate, CallStats stats) {
+            this.delegate = delegate;
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read > 0) {
+                        stats.addBytes(read);
+                    }
+                    return read;
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+
+/**
+ * Priority class of OpenShift API calls. The priority is carried by the request, it is set by the OpenShift client the
+ * call is made with, see {@link ApiClientInstrumentation#instrument(io.fabric8.kubernetes.client.BaseClient, ApiPriority)}.
+ * Requests without priority are treated as deployment critical.
+ *
+ * Every priority can use the rate limiter capacity only above its reserved share, so lower priority calls can't
+ * exhaust the capacity needed by higher priority ones.
+ */
+public enum ApiPriority {
+
+    /**
+     * Calls creating and configuring the deployment.
+     */
+    DEPLOYMENT(0.0),
+    /**
+     * Calls checking whether the deployment reached expected state.
+     */
+    WAITER(0.2),
+    /**
+     * Log collection, event recording and other diagnostics.
+     */
+    DIAGNOSTICS(0.5);
+
+    private final double reservedCapacity;
+
+    ApiPriority(double reservedCapacity) {
+        this.reservedCapacity = reservedCapacity;
+    }
+
+    /**
+     * @return Share of the rate limiter capacity which can't be used by calls of this priority.
+     */
+    double getReservedCapacity() {
+        return reservedCapacity;
+    }
+
+    /**
+     * @return Interceptor marking every request of the client with this priority.
+     */
+    Interceptor marker() {
+        return chain -> chain.proceed(chain.request().newBuilder().tag(ApiPriority.class, this).build());
+    }
+
+    /**
+     * @return Priority the request is marked with, deployment priority if the request isn't marked.
+     */
+    static ApiPriority of(Request request) {
+        ApiPriority priority = request.tag(ApiPriority.class);
+        return priority == null ? DEPLOYMENT : priority;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.client;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Token bucket limiting the rate of OpenShift API calls. The bucket is refilled with the configured rate up to the burst
+ * capacity. A call of given priority takes a token only if the bucket keeps at least the capacity reserved for higher
+ * priorities, see {@link ApiPriority}.
+ *
+ * When the API server asks to slow down, all calls are paused until the requested time passes.
+ */
+class ApiRateLimiter {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+    private long pausedUntilNanos = lastRefillNanos;
+
+    /**
+     * @param ratePerSecond Number of calls per second, 0 or less means unlimited rate.
+     * @param burst Maximal number of calls made at once.
+     */
+    ApiRateLimiter(double ratePerSecond, int burst) {
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+    }
+
+    /**
+     * Block until a call of the given priority can be made.
+     */
+    void acquire(ApiPriority priority) {
+        long waitNanos;
+        while ((waitNanos = tryAcquire(priority)) > 0) {
+            LockSupport.parkNanos(waitNanos);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new RuntimeException("Interrupted while waiting for OpenShift API rate limiter.");
+            }
+        }
+    }
+
+    /**
+     * Pause all calls.
+     */
+    synchronized void pause(Duration duration) {
+        pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + duration.toNanos());
+    }
+
+    /**
+     * @return 0 if the token was taken, otherwise nanoseconds to wait before next attempt.
+     */
+    synchronized long tryAcquire(ApiPriority priority) {
+        long now = System.nanoTime();
+        if (now - pausedUntilNanos < 0) {
+            return pausedUntilNanos - now;
+        }
+        if (tokensPerNano <= 0) {
+            return 0;
+        }
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+
+        double reservedTokens = Math.min(capacity - 1, capacity * priority.getReservedCapacity());
+        if (tokens - 1 >= reservedTokens) {
+            tokens--;
+            return 0;
+        }
+        return Math.max(1L, (long) ((reservedTokens + 1 - tokens) / tokensPerNano));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP interceptor of OpenShift clients. Every request waits for the shared {@link ApiRateLimiter} according to the
+ * {@link ApiPriority} the request is marked with. Throttled requests (HTTP 429, or 503 with Retry-After) are retried with
+ * jittered exponential backoff, the Retry-After header pauses all calls.
+ *
+ * Asynchronous calls (watches, log streams) run on the shared OkHttp dispatcher threads, they are never blocked. If the
+ * rate limiter has no capacity for them, they are rejected with HTTP 429 and the caller reconnects later.
+ */
+class ApiThrottlingInterceptor implements Interceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiThrottlingInterceptor.class);
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_SERVICE_UNAVAILABLE = 503;
+    private static final int MAX_RETRIES = 6;
+    private static final Duration BASE_BACKOFF = Duration.ofMillis(250);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+    // OkHttp names the dispatcher thread after the asynchronous call it executes
+    private static final String DISPATCHER_THREAD_PREFIX = "OkHttp ";
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private static final ApiThrottlingInterceptor instance = new ApiThrottlingInterceptor(
+            new ApiRateLimiter(OpenShiftConstants.getApiRateLimit(), OpenShiftConstants.getApiBurst()));
+
+    private final ApiRateLimiter rateLimiter;
+
+    ApiThrottlingInterceptor(ApiRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    static ApiThrottlingInterceptor getInstance() {
+        return instance;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        ApiPriority priority = ApiPriority.of(request);
+        boolean asynchronous = isDispatcherThread();
+        for (int attempt = 0; ; attempt++) {
+            if (asynchronous) {
+                long waitNanos = rateLimiter.tryAcquire(priority);
+                if (waitNanos > 0) {
+                    logger.debug("Asynchronous request {} {} rejected by rate limiter.", request.method(), request.url().encodedPath());
+                    return createThrottledResponse(request, waitNanos);
+                }
+            } else {
+                rateLimiter.acquire(priority);
+            }
+            Response response = chain.proceed(request);
+            Optional<Duration> retryAfter = getRetryAfter(response);
+            boolean throttled = response.code() == HTTP_TOO_MANY_REQUESTS || response.code() == HTTP_SERVICE_UNAVAILABLE && retryAfter.isPresent();
+            if (!throttled) {
+                return response;
+            }
+            retryAfter.ifPresent(rateLimiter::pause);
+            if (asynchronous || attempt >= MAX_RETRIES) {
+                return response;
+            }
+            response.close();
+
+            Duration backoff = getBackoff(attempt);
+            if (retryAfter.isPresent() && backoff.compareTo(retryAfter.get()) < 0) {
+                backoff = retryAfter.get();
+            }
+            logger.debug("Request {} {} throttled with HTTP {}, retrying in {} ms.", request.method(), request.url().encodedPath(), response.code(), backoff.toMillis());
+            sleep(backoff);
+        }
+    }
+
+    private static boolean isDispatcherThread() {
+        return Thread.currentThread().getName().startsWith(DISPATCHER_THREAD_PREFIX);
+    }
+
+    /**
+     * @return Response with Kubernetes status body, so watches and log streams report it as any other API failure.
+     */
+    static Response createThrottledResponse(Request request, long waitNanos) {
+        String message = "Throttled by client rate limiter";
+        String status = "{\"kind\":\"Status\",\"apiVersion\":\"v1\",\"status\":\"Failure\",\"message\":\"" + message +
+                        "\",\"reason\":\"TooManyRequests\",\"code\":" + HTTP_TOO_MANY_REQUESTS + "}";
+        return new Response.Builder().request(request)
+                                     .protocol(Protocol.HTTP_1_1)
+                                     .code(HTTP_TOO_MANY_REQUESTS)
+                                     .message(message)
+                                     .header("Retry-After", String.valueOf(TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1))
+                                     .body(ResponseBody.create(JSON, status))
+                                     .build();
+    }
+
+    /**
+     * @return Exponential backoff with full jitter.
+     */
+    private static Duration getBackoff(int attempt) {
+        long maxBackoffMillis = Math.min(MAX_BACKOFF.toMillis(), BASE_BACKOFF.toMillis() << attempt);
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(BASE_BACKOFF.toMillis(), maxBackoffMillis + 1));
+    }
+
+    private static Optional<Duration> getRetryAfter(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            // HTTP date format isn't used by the API server
+            return Optional.empty();
+        }
+    }
+
+    private static void sleep(Duration duration) throws InterruptedIOException {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for throttled request retry.");
+        }
+    }
+}
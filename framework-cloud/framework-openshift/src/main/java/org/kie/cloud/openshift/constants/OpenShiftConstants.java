@@ -16,6 +16,7 @@
 package org.kie.cloud.openshift.constants;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.Optional;
 
 import cz.xtf.core.config.OpenShiftConfig;
@@ -34,6 +35,44 @@ public class OpenShiftConstants implements Constants {
      * Project name prefix - to simplify identification of projects created in OpenShift.
      */
     public static final String NAMESPACE_PREFIX = "openshift.namespace.prefix";
+
+    /**
+     * Maximal number of deployment steps executed concurrently while deploying a scenario.
+     */
+    public static final String DEPLOYMENT_PARALLELISM = "openshift.deployment.parallelism";
+    private static final int DEFAULT_DEPLOYMENT_PARALLELISM = 4;
+
+    /**
+     * Maximal number of projects provisioned in advance, 0 disables the project pool.
+     */
+    public static final String PROJECT_POOL_SIZE = "openshift.project.pool.size";
+
+    /**
+     * Maximal number of OpenShift API calls per second, 0 means unlimited rate.
+     */
+    public static final String API_RATE_LIMIT = "openshift.api.rate";
+
+    /**
+     * Maximal number of OpenShift API calls made at once, defaults to twice the rate.
+     */
+    public static final String API_BURST = "openshift.api.burst";
+
+    /**
+     * Pull all configured images on every node before the first scenario is deployed.
+     */
+    public static final String IMAGE_PRE_PULL = "openshift.image.prepull";
+
+    /**
+     * Minutes to wait for the images being pulled on all nodes.
+     */
+    public static final String IMAGE_PRE_PULL_TIMEOUT = "openshift.image.prepull.timeout";
+    private static final int DEFAULT_IMAGE_PRE_PULL_TIMEOUT = 30;
+
+    /**
+     * Fail the deployment if some node doesn't have all images pulled.
+     */
+    public static final String IMAGE_PRE_PULL_REQUIRED = "openshift.image.prepull.required";
+
     /**
      * Property name to configure Openshift router timeout.
      */
@@ -42,6 +81,22 @@ public class OpenShiftConstants implements Constants {
      * Property name to configure Openshift router balance.
      */
     public static final String HAPROXY_ROUTER_BALANCE = "haproxy.router.openshift.io/balance";
+    /**
+     * Route annotation with name of the cookie used for sticky sessions.
+     */
+    public static final String ROUTER_COOKIE_NAME = "router.openshift.io/cookie_name";
+    /**
+     * Route annotation disabling sticky session cookies.
+     */
+    public static final String HAPROXY_ROUTER_DISABLE_COOKIES = "haproxy.router.openshift.io/disable_cookies";
+    /**
+     * Route annotation enabling rate limiting of client connections.
+     */
+    public static final String HAPROXY_ROUTER_RATE_LIMIT_CONNECTIONS = "haproxy.router.openshift.io/rate-limit-connections";
+    /**
+     * Route annotation with limit of HTTP requests of one client IP address.
+     */
+    public static final String HAPROXY_ROUTER_RATE_LIMIT_HTTP = "haproxy.router.openshift.io/rate-limit-connections.rate-http";
     /**
      * Used Kie application name. Needed for identification of services within the project.
      */
@@ -196,6 +251,35 @@ public class OpenShiftConstants implements Constants {
         return Optional.ofNullable(System.getProperty(NAMESPACE_PREFIX));
     }
 
+    public static int getDeploymentParallelism() {
+        return Math.max(1, Integer.getInteger(DEPLOYMENT_PARALLELISM, DEFAULT_DEPLOYMENT_PARALLELISM));
+    }
+
+    public static int getProjectPoolSize() {
+        return Math.max(0, Integer.getInteger(PROJECT_POOL_SIZE, 0));
+    }
+
+    public static boolean isImagePrePullEnabled() {
+        return Boolean.getBoolean(IMAGE_PRE_PULL);
+    }
+
+    public static Duration getImagePrePullTimeout() {
+        return Duration.ofMinutes(Math.max(1, Integer.getInteger(IMAGE_PRE_PULL_TIMEOUT, DEFAULT_IMAGE_PRE_PULL_TIMEOUT)));
+    }
+
+    public static boolean isImagePrePullRequired() {
+        return Boolean.getBoolean(IMAGE_PRE_PULL_REQUIRED);
+    }
+
+    public static double getApiRateLimit() {
+        return Double.parseDouble(System.getProperty(API_RATE_LIMIT, "0"));
+    }
+
+    public static int getApiBurst() {
+        int defaultBurst = (int) Math.ceil(2 * getApiRateLimit());
+        return Math.max(1, Integer.getInteger(API_BURST, defaultBurst));
+    }
+
     public static String getTrustedKeystoreFile() {
         return System.getProperty(TRUSTED_KEYSTORE_FILE);
     }
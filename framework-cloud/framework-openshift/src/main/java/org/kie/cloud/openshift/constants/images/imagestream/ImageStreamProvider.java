@@ -16,18 +16,45 @@
 
 package org.kie.cloud.openshift.constants.images.imagestream;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import cz.xtf.core.waiting.SimpleWaiter;
-import io.fabric8.kubernetes.api.model.ObjectReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.xtf.core.openshift.OpenShift;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.openshift.api.model.ImageStream;
 import io.fabric8.openshift.api.model.ImageStreamBuilder;
+import io.fabric8.openshift.api.model.NamedTagEventList;
+import io.fabric8.openshift.api.model.TagEventCondition;
 import io.fabric8.openshift.api.model.TagReference;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.kie.cloud.common.trace.Tracer;
 import org.kie.cloud.openshift.constants.OpenShiftConstants;
 import org.kie.cloud.openshift.constants.images.Image;
 import org.kie.cloud.openshift.resource.Project;
+import org.kie.cloud.openshift.scenario.DeploymentGraph;
 import org.kie.cloud.openshift.template.ProjectProfile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +66,10 @@ public class ImageStreamProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(ImageStreamProvider.class);
 
+    private static final Duration IMAGE_STREAM_TAGS_RESOLUTION_TIMEOUT = Duration.ofMinutes(5);
+    private static final MediaType JSON = MediaType.parse("application/json");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     /**
      * Creates image streams in project which will be used by OpenShift template.
      * In case image stream URL is passed as system property then it is used, otherwise image streams are generated from image tag system properties.
@@ -70,64 +101,201 @@ public class ImageStreamProvider {
 
     private static void replaceImagesFromImageStreamTags(Project project) {
         logger.info("Replacing image streams tags.");
-        Stream.of(Image.values())
-              .filter(image -> image.getTag().isPresent())
-              .forEach(image -> createImageStreamForImage(project, image));
+        createImageStreams(project, Stream.of(Image.values())
+                                          .filter(image -> image.getTag().isPresent())
+                                          .collect(Collectors.toList()));
     }
 
     private static void createImagesFromImageStreamTags(Project project) {
         ProjectProfile projectProfile = ProjectProfile.fromSystemProperty();
         logger.info("Creating image streams for {} project.", projectProfile);
         if (projectProfile == ProjectProfile.DROOLS) {
-            createImageStreamForImage(project, Image.WORKBENCH);
-            createImageStreamForImage(project, Image.KIE_SERVER);
-            createImageStreamForImage(project, Image.CONTROLLER);
-            createImageStreamForImage(project, Image.WORKBENCH_INDEXING);
+            createImageStreams(project, Arrays.asList(Image.WORKBENCH, Image.KIE_SERVER, Image.CONTROLLER, Image.WORKBENCH_INDEXING));
         } else if (projectProfile == ProjectProfile.JBPM) {
-            createImageStreamForImage(project, Image.AMQ);
-            createImageStreamForImage(project, Image.CONSOLE);
-            createImageStreamForImage(project, Image.CONTROLLER);
-            createImageStreamForImage(project, Image.KIE_SERVER);
-            createImageStreamForImage(project, Image.MYSQL);
-            createImageStreamForImage(project, Image.POSTGRESQL);
-            createImageStreamForImage(project, Image.SMARTROUTER);
-            createImageStreamForImage(project, Image.WORKBENCH);
-            createImageStreamForImage(project, Image.WORKBENCH_INDEXING);
+            createImageStreams(project, Arrays.asList(Image.AMQ, Image.CONSOLE, Image.CONTROLLER, Image.KIE_SERVER, Image.MYSQL, Image.POSTGRESQL,
+                                                      Image.SMARTROUTER, Image.WORKBENCH, Image.WORKBENCH_INDEXING));
         }
     }
 
-    private static void createImageStreamForImage(Project project, Image image) {
-        if (!image.getTag().isPresent()) {
-            throw new RuntimeException("System property for image tag '" + image.getSystemPropertyForImageTag() + "' is not defined.");
+    /**
+     * Create or retag image streams of all images concurrently, import their tags eagerly and wait until all tags are
+     * resolved, so pods don't wait for lazy import and invalid image references fail before templates are processed.
+     */
+    private static void createImageStreams(Project project, List<Image> images) {
+        for (Image image : images) {
+            if (!image.getTag().isPresent()) {
+                throw new RuntimeException("System property for image tag '" + image.getSystemPropertyForImageTag() + "' is not defined.");
+            }
+        }
+
+        Map<String, String> importedTags = new ConcurrentHashMap<>();
+        DeploymentGraph imageStreamsGraph = new DeploymentGraph();
+        for (Image image : images) {
+            imageStreamsGraph.addStep("image stream " + getImageStreamNaming(image.getImageName()),
+                                      () -> importedTags.put(getImageStreamNaming(image.getImageName()), createImageStreamForImage(project, image)));
         }
+        imageStreamsGraph.execute();
+
+        Tracer.run("wait for image stream tags", () -> waitForImageStreamTags(project, importedTags));
+    }
 
+    /**
+     * @return Name of the image stream tag the image was imported to.
+     */
+    private static String createImageStreamForImage(Project project, Image image) {
         logger.info("Creating image stream for {} image from DockerImage {}", image.toString(), image.getTag().get());
 
-        ImageStream existingImageStream = project.getOpenShiftAdmin().getImageStream(getImageStreamNaming(image.getImageName()));
+        String imageStreamName = getImageStreamNaming(image.getImageName());
+        ImageStream existingImageStream = project.getOpenShiftAdmin().getImageStream(imageStreamName);
 
+        String tagName;
         if (existingImageStream != null) {
-            logger.debug("Found already existing image stream for {}. Replacing it with custom tag.", getImageStreamNaming(image.getImageName()));
-            project.runOcCommandAsAdmin("tag", "--source=docker", "--insecure=true", image.getTag().get(), existingImageStream.getMetadata().getName()+":"+existingImageStream.getSpec().getTags().get(0).getName());
-
-            new SimpleWaiter(() -> isImageStreamTagChange(project, image))
-                            .timeout(TimeUnit.SECONDS, 30)
-                            .reason("Old ImageStream not replaced yet, waiting for new ImageStream tag.")
-                            .waitFor();
+            logger.debug("Found already existing image stream for {}. Replacing it with custom tag.", imageStreamName);
+            tagName = existingImageStream.getSpec().getTags().get(0).getName();
         } else {
             logger.debug("ImageStream for {} do not exists. Creating new image stream.", image.getImageName());
             project.getOpenShiftAdmin().createImageStream(createNewImageStream(image));
+            tagName = image.getImageVersion();
+        }
+        importImage(project.getOpenShiftAdmin(), imageStreamName, tagName, image.getTag().get());
+        return tagName;
+    }
+
+    /**
+     * Import image into image stream tag by ImageStreamImport, which also points the tag to the image. The import is
+     * synchronous, its result is returned in the response.
+     */
+    private static void importImage(OpenShift openShift, String imageStreamName, String tagName, String dockerImage) {
+        Map<String, Object> imageImport = new LinkedHashMap<>();
+        imageImport.put("from", map("kind", "DockerImage", "name", dockerImage));
+        imageImport.put("to", map("name", tagName));
+        imageImport.put("importPolicy", map("insecure", Boolean.TRUE));
+        imageImport.put("referencePolicy", map("type", "Source"));
+        Map<String, Object> spec = new LinkedHashMap<>();
+        spec.put("import", Boolean.TRUE);
+        spec.put("images", Collections.singletonList(imageImport));
+        Map<String, Object> imageStreamImport = new LinkedHashMap<>();
+        imageStreamImport.put("apiVersion", "image.openshift.io/v1");
+        imageStreamImport.put("kind", "ImageStreamImport");
+        imageStreamImport.put("metadata", map("name", imageStreamName));
+        imageStreamImport.put("spec", spec);
+
+        String url = openShift.getMasterUrl().toString().replaceAll("/$", "") +
+                     "/apis/image.openshift.io/v1/namespaces/" + openShift.getNamespace() + "/imagestreamimports";
+        try {
+            Request request = new Request.Builder().url(url)
+                                                   .post(RequestBody.create(JSON, OBJECT_MAPPER.writeValueAsString(imageStreamImport)))
+                                                   .build();
+            try (Response response = openShift.getHttpClient().newCall(request).execute()) {
+                String body = response.body() == null ? "" : response.body().string();
+                if (!response.isSuccessful()) {
+                    throw new RuntimeException("Error importing image " + dockerImage + " to " + imageStreamName + ":" + tagName + ": " + response.code() + " " + body);
+                }
+                JsonNode importStatus = OBJECT_MAPPER.readTree(body).path("status").path("images").path(0).path("status");
+                if (!"Success".equals(importStatus.path("status").asText())) {
+                    throw new RuntimeException("Import of image " + dockerImage + " to " + imageStreamName + ":" + tagName + " failed: " + importStatus.path("message").asText());
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error importing image " + dockerImage + " to " + imageStreamName + ":" + tagName, e);
+        }
+    }
+
+    private static Map<String, Object> map(Object... keysAndValues) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    /**
+     * Wait until status of all image stream tags reflects their current spec, watching image streams of the project.
+     *
+     * @param tagsByImageStream Image stream tag names by image stream name.
+     */
+    private static void waitForImageStreamTags(Project project, Map<String, String> tagsByImageStream) {
+        Set<String> unresolvedTags = ConcurrentHashMap.newKeySet();
+        tagsByImageStream.forEach((imageStream, tag) -> unresolvedTags.add(imageStream + ":" + tag));
+        CompletableFuture<Void> tagsResolved = new CompletableFuture<>();
+        Consumer<ImageStream> checkImageStream = imageStream -> {
+            String imageStreamName = imageStream.getMetadata().getName();
+            String tagName = tagsByImageStream.get(imageStreamName);
+            if (tagName == null) {
+                return;
+            }
+            try {
+                if (isTagResolved(imageStream, tagName)) {
+                    unresolvedTags.remove(imageStreamName + ":" + tagName);
+                    if (unresolvedTags.isEmpty()) {
+                        tagsResolved.complete(null);
+                    }
+                }
+            } catch (RuntimeException e) {
+                tagsResolved.completeExceptionally(e);
+            }
+        };
+
+        // List after the watch is started, so no change is missed
+        try (Watch watch = project.getOpenShiftAdmin().imageStreams().watch(new Watcher<ImageStream>() {
+
+            @Override
+            public void eventReceived(Action action, ImageStream imageStream) {
+                checkImageStream.accept(imageStream);
+            }
+
+            @Override
+            public void onClose(KubernetesClientException cause) {
+                if (cause != null) {
+                    logger.debug("Image stream watch closed.", cause);
+                }
+            }
+        })) {
+            project.getOpenShiftAdmin().imageStreams().list().getItems().forEach(checkImageStream);
+            if (unresolvedTags.isEmpty()) {
+                return;
+            }
+            tagsResolved.get(IMAGE_STREAM_TAGS_RESOLUTION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Image stream tags " + unresolvedTags + " were not resolved within " + IMAGE_STREAM_TAGS_RESOLUTION_TIMEOUT.toMinutes() + " minutes.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for image stream tags.", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause().getMessage(), e.getCause());
         }
     }
 
-    private static boolean isImageStreamTagChange(Project project, Image image) {
-        return project.getOpenShiftAdmin()
-                      .getImageStream(getImageStreamNaming(image.getImageName()))
-                      .getSpec()
-                      .getTags()
-                      .stream()
-                      .map(TagReference::getFrom)
-                      .map(ObjectReference::getName)
-                      .anyMatch(image.getTag().get()::equals);
+    /**
+     * @return True if the newest tag status belongs to the current tag spec.
+     * @throws RuntimeException If the import of the current tag spec failed.
+     */
+    private static boolean isTagResolved(ImageStream imageStream, String tagName) {
+        Long specGeneration = imageStream.getSpec().getTags()
+                                         .stream()
+                                         .filter(tag -> tagName.equals(tag.getName()))
+                                         .map(TagReference::getGeneration)
+                                         .filter(Objects::nonNull)
+                                         .findAny()
+                                         .orElse(0L);
+        if (imageStream.getStatus() == null || imageStream.getStatus().getTags() == null) {
+            return false;
+        }
+        for (NamedTagEventList tagStatus : imageStream.getStatus().getTags()) {
+            if (!tagName.equals(tagStatus.getTag())) {
+                continue;
+            }
+            for (TagEventCondition condition : tagStatus.getConditions()) {
+                if ("ImportSuccess".equals(condition.getType()) && "False".equals(condition.getStatus()) &&
+                    condition.getGeneration() != null && condition.getGeneration() >= specGeneration) {
+                    throw new RuntimeException("Import of image stream tag " + imageStream.getMetadata().getName() + ":" + tagName + " failed: " + condition.getMessage());
+                }
+            }
+            return !tagStatus.getItems().isEmpty() &&
+                   tagStatus.getItems().get(0).getGeneration() != null &&
+                   tagStatus.getItems().get(0).getGeneration() >= specGeneration;
+        }
+        return false;
     }
 
     private static ImageStream createNewImageStream(Image image) {
@@ -157,7 +325,7 @@ public class ImageStreamProvider {
                                        .build();
     }
 
-    private static String getImageStreamNaming(String imageName) {
+    public static String getImageStreamNaming(String imageName) {
         // We need to adjust image name from the OSBS build full name to the new naming policy since 7.5.1
         // rhpam-7-rhpam-businesscentral-rhel8 -> rhpam-businesscentral-rhel8
         return imageName.replaceFirst("^rhpam-7-", "");
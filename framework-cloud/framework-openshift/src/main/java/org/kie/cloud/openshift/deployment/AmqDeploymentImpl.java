@@ -45,21 +45,21 @@ public class AmqDeploymentImpl extends OpenShiftDeployment implements AmqDeploym
     @Override
     public String getDeploymentConfigName() {
         if (deploymentConfigName == null) {
-            deploymentConfigName = getDeploymentConfigName(getOpenShift(), AMQ_DEPLOYMENT_CONFIG_REGEXP);
+            deploymentConfigName = getDeploymentConfigName(AMQ_DEPLOYMENT_CONFIG_REGEXP);
         }
         return deploymentConfigName;
     }
 
     private String getAmqJolokiaServiceName() {
         if (amqJolokiaServiceName == null) {
-            amqJolokiaServiceName = ServiceUtil.getAmqJolokiaServiceName(getOpenShift());
+            amqJolokiaServiceName = ServiceUtil.getAmqJolokiaServiceName(getTopology());
         }
         return amqJolokiaServiceName;
     }
 
     private String getAmqTcpSslServiceName() {
         if (tcpServiceName == null) {
-            tcpServiceName = ServiceUtil.getAmqTcpSslServiceName(getOpenShift());
+            tcpServiceName = ServiceUtil.getAmqTcpSslServiceName(getTopology());
         }
         return tcpServiceName;
     }
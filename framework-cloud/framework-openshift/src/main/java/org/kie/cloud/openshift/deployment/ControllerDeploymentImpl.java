@@ -76,7 +76,7 @@ public class ControllerDeploymentImpl extends OpenShiftDeployment implements Con
     @Override
     public String getServiceName() {
         if (serviceName == null) {
-            serviceName = ServiceUtil.getControllerServiceName(getOpenShift());
+            serviceName = ServiceUtil.getControllerServiceName(getTopology());
         }
         return serviceName;
     }
@@ -77,7 +77,7 @@ public class DatabaseDeploymentImpl extends OpenShiftDeployment implements Datab
     @Override
     public String getServiceName() {
         if (serviceName == null) {
-            serviceName = ServiceUtil.getDatabaseServiceName(getOpenShift(), serviceSuffix);
+            serviceName = ServiceUtil.getDatabaseServiceName(getTopology(), serviceSuffix);
         }
         return serviceName;
     }
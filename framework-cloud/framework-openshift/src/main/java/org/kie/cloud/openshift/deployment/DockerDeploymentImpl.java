@@ -32,7 +32,7 @@ public class DockerDeploymentImpl extends OpenShiftDeployment implements DockerD
     @Override
     public String getServiceName() {
         if (serviceName == null) {
-            serviceName = ServiceUtil.getDockerServiceName(getOpenShift());
+            serviceName = ServiceUtil.getDockerServiceName(getTopology());
         }
         return serviceName;
     }
@@ -1,14 +1,12 @@
 package org.kie.cloud.openshift.deployment;
 
 import java.net.URL;
-import java.util.regex.Pattern;
 
 import org.kie.cloud.api.deployment.EmployeeRosteringDeployment;
 import org.kie.cloud.openshift.resource.Project;
 
 public class EmployeeRosteringDeploymentImpl extends OpenShiftDeployment implements EmployeeRosteringDeployment {
 
-    private static final Pattern PATTERN = Pattern.compile(".*-optaweb-employee-rostering");
     private URL url;
 
     public EmployeeRosteringDeploymentImpl(final Project project) {
@@ -25,6 +23,6 @@ public class EmployeeRosteringDeploymentImpl extends OpenShiftDeployment impleme
 
     @Override
     public String getServiceName() {
-        return ServiceUtil.getServiceName(getOpenShift(), PATTERN);
+        return ServiceUtil.getEmployeeRosteringServiceName(getTopology());
     }
 }
@@ -35,7 +35,7 @@ public class GogsDeploymentImpl extends OpenShiftDeployment implements GogsDeplo
     @Override
     public String getServiceName() {
         if (serviceName == null) {
-            serviceName = ServiceUtil.getGogsServiceName(getOpenShift());
+            serviceName = ServiceUtil.getGogsServiceName(getTopology());
         }
 
         return serviceName;
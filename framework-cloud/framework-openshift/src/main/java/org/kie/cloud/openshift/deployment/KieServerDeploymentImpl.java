@@ -18,13 +18,12 @@ package org.kie.cloud.openshift.deployment;
 import java.net.URL;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
+import java.util.function.BooleanSupplier;
 
-import cz.xtf.core.waiting.SimpleWaiter;
 import io.fabric8.kubernetes.api.model.ConfigMap;
 import org.kie.cloud.api.deployment.KieServerDeployment;
 import org.kie.cloud.openshift.resource.Project;
-import org.kie.cloud.openshift.util.OpenShiftCaller;
+import org.kie.cloud.openshift.watch.CacheWaiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -88,7 +87,7 @@ public class KieServerDeploymentImpl extends OpenShiftDeployment implements KieS
     @Override
     public String getServiceName() {
         if (serviceName == null) {
-            serviceName = ServiceUtil.getKieServerServiceName(getOpenShift(), serviceSuffix);
+            serviceName = ServiceUtil.getKieServerServiceName(getTopology(), serviceSuffix);
         }
         return serviceName;
     }
@@ -96,8 +95,7 @@ public class KieServerDeploymentImpl extends OpenShiftDeployment implements KieS
     @Override public void waitForScale() {
         super.waitForScale();
         if (!getInstances().isEmpty()) {
-            getInsecureUrl().ifPresent(RouterUtil::waitForRouter);
-            getSecureUrl().ifPresent(RouterUtil::waitForRouter);
+            RouterUtil.waitForRouters(getInsecureUrl(), getSecureUrl());
         }
     }
 
@@ -130,11 +128,10 @@ public class KieServerDeploymentImpl extends OpenShiftDeployment implements KieS
      * @param rolloutInProgressConfigMapName
      */
     private void waitForRolloutStart(String rolloutInProgressConfigMapName) {
-        if (getOpenShift().getConfigMap(rolloutInProgressConfigMapName) == null) {
-            new SimpleWaiter(() -> getOpenShift().getConfigMap(rolloutInProgressConfigMapName) != null).timeout(TimeUnit.MINUTES, 1)
-                                                                                                       .reason("Temporary rollout config map not found yet, waiting for rollout to start.")
-                                                                                                       .waitFor();
-        }
+        BooleanSupplier rolloutStarted = () -> getResourceCache().getConfigMap(rolloutInProgressConfigMapName).isPresent();
+        new CacheWaiter(getResourceCache(), rolloutStarted).timeout(TimeUnit.MINUTES, 1)
+                                                           .reason("Temporary rollout config map not found yet, waiting for rollout to start.")
+                                                           .waitFor();
     }
 
     /**
@@ -143,12 +140,10 @@ public class KieServerDeploymentImpl extends OpenShiftDeployment implements KieS
      * @param rolloutInProgressConfigMapName
      */
     private void waitForRolloutFinish(String rolloutInProgressConfigMapName) {
-        if (getOpenShift().getConfigMap(rolloutInProgressConfigMapName) != null) {
-            Supplier<ConfigMap> getConfigMap = () -> getOpenShift().getConfigMap(rolloutInProgressConfigMapName);
-            new SimpleWaiter(() -> OpenShiftCaller.repeatableCall(getConfigMap) == null).timeout(TimeUnit.MINUTES, 5)
-                                                                                        .reason("Temporary rollout config map found, waiting for rollout to finish.")
-                                                                                        .waitFor();
-        }
+        BooleanSupplier rolloutFinished = () -> !getResourceCache().getConfigMap(rolloutInProgressConfigMapName).isPresent();
+        new CacheWaiter(getResourceCache(), rolloutFinished).timeout(TimeUnit.MINUTES, 5)
+                                                            .reason("Temporary rollout config map found, waiting for rollout to finish.")
+                                                            .waitFor();
     }
 
     /**
@@ -156,8 +151,8 @@ public class KieServerDeploymentImpl extends OpenShiftDeployment implements KieS
      */
     private Optional<ConfigMap> getKieServerConfigMap() {
         // Expecting the config map to be owned by deployment config with same name as its service. Needs to be adjusted in case this changes!!!!
-        return getOpenShift().getConfigMaps().stream().filter(cm -> !cm.getMetadata().getOwnerReferences().isEmpty())
-                                                      .filter(cm -> cm.getMetadata().getOwnerReferences().get(0).getName().equals(getServiceName()))
-                                                      .findAny();
+        return getResourceCache().getConfigMaps().stream().filter(cm -> !cm.getMetadata().getOwnerReferences().isEmpty())
+                                                          .filter(cm -> cm.getMetadata().getOwnerReferences().get(0).getName().equals(getServiceName()))
+                                                          .findAny();
     }
 }
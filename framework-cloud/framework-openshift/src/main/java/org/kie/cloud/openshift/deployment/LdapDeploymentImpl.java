@@ -28,7 +28,7 @@ public class LdapDeploymentImpl extends OpenShiftDeployment implements LdapDeplo
 
     public LdapDeploymentImpl(Project project) {
         super(project);
-        Service ldapService = ServiceUtil.getLdapService(getOpenShift());
+        Service ldapService = ServiceUtil.getLdapService(getTopology());
         this.serviceName = ldapService.getMetadata().getName();
         this.host = getHostByService(ldapService);
     }
@@ -38,7 +38,7 @@ public class MavenNexusRepositoryDeploymentImpl extends OpenShiftDeployment impl
     @Override
     public String getServiceName() {
         if (serviceName == null) {
-            serviceName = ServiceUtil.getMavenNexusServiceName(getOpenShift());
+            serviceName = ServiceUtil.getMavenNexusServiceName(getTopology());
         }
         return serviceName;
     }
@@ -21,17 +21,19 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.time.Duration;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import cz.xtf.core.openshift.OpenShift;
-import cz.xtf.core.waiting.SimpleWaiter;
+import io.fabric8.kubernetes.api.model.Container;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.Quantity;
 import io.fabric8.kubernetes.api.model.Service;
@@ -39,17 +41,19 @@ import io.fabric8.openshift.api.model.DeploymentConfig;
 import io.fabric8.openshift.api.model.ImageStreamTag;
 import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.api.model.RouteList;
+import io.fabric8.openshift.api.model.RouteListBuilder;
 import org.apache.commons.lang3.StringUtils;
 import org.kie.cloud.api.deployment.Deployment;
-import org.kie.cloud.api.deployment.DeploymentTimeoutException;
 import org.kie.cloud.api.deployment.Instance;
 import org.kie.cloud.api.deployment.constants.DeploymentConstants;
 import org.kie.cloud.api.protocol.Protocol;
-import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.kie.cloud.common.trace.Tracer;
 import org.kie.cloud.openshift.resource.OpenShiftResourceConstants;
 import org.kie.cloud.openshift.resource.Project;
-import org.kie.cloud.openshift.util.OpenShiftCaller;
 import org.kie.cloud.openshift.util.OpenshiftInstanceUtil;
+import org.kie.cloud.openshift.watch.CacheWaiter;
+import org.kie.cloud.openshift.watch.ProjectResourceCache;
+import org.kie.cloud.openshift.watch.ProjectTopology;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,6 +66,7 @@ public abstract class OpenShiftDeployment implements Deployment {
 
     private OpenShift openShift;
     private Project project;
+    private volatile boolean modified;
 
     public OpenShiftDeployment(Project project) {
         this.project = project;
@@ -81,25 +86,53 @@ public abstract class OpenShiftDeployment implements Deployment {
         return project.getName();
     }
 
+    protected Project getProject() {
+        return project;
+    }
+
+    /**
+     * @return Watch based cache of project resources, used for all reads of pods, deployment configs, services and routes.
+     */
+    protected ProjectResourceCache getResourceCache() {
+        return project.getResourceCache();
+    }
+
+    /**
+     * @return Index of project services by role, used to resolve service names without API calls.
+     */
+    protected ProjectTopology getTopology() {
+        return project.getTopology();
+    }
+
     @Override
     public void deleteInstances() {
+        markModified();
         getInstances().forEach(this::deleteInstance);
     }
 
+    @Override
+    public boolean isModified() {
+        return modified;
+    }
+
+    void markModified() {
+        modified = true;
+    }
+
     public abstract String getServiceName();
 
     public String getDeploymentConfigName() {
         return getServiceName();
     }
 
-    protected String getDeploymentConfigName(OpenShift openShift, Pattern regexp) {
-        // Try to find deployment config name from all available deployment configs
-        List<DeploymentConfig> foundDeploymentConfigs = openShift.getDeploymentConfigs()
-                                                                 .stream()
-                                                                 .filter(deploymentConfig -> regexp.matcher(deploymentConfig.getMetadata().getName()).matches())
-                                                                 .collect(Collectors.toList());
+    protected String getDeploymentConfigName(Pattern regexp) {
+        // Try to find deployment config name from all cached deployment configs
+        List<DeploymentConfig> foundDeploymentConfigs = getResourceCache().getDeploymentConfigs()
+                                                                          .stream()
+                                                                          .filter(deploymentConfig -> regexp.matcher(deploymentConfig.getMetadata().getName()).matches())
+                                                                          .collect(Collectors.toList());
         if (foundDeploymentConfigs.isEmpty()) {
-            String deploymentConfigNames = openShift.getDeploymentConfigs().stream().map(s -> s.getMetadata().getName()).collect(Collectors.joining(", "));
+            String deploymentConfigNames = getResourceCache().getDeploymentConfigs().stream().map(s -> s.getMetadata().getName()).collect(Collectors.joining(", "));
             throw new RuntimeException("Deployment config defined by regexp " + regexp.toString() + " not found. Available deployment configs: " + deploymentConfigNames);
         } else if (foundDeploymentConfigs.size() > 1) {
             String deploymentConfigNames = foundDeploymentConfigs.stream().map(s -> s.getMetadata().getName()).collect(Collectors.joining(", "));
@@ -116,9 +149,8 @@ public abstract class OpenShiftDeployment implements Deployment {
     @Override
     public boolean isReady() {
         try {
-            Service service = openShift.getService(getServiceName());
-            DeploymentConfig deploymentConfig = openShift.getDeploymentConfig(getDeploymentConfigName());
-            return service != null && deploymentConfig != null;
+            return getResourceCache().getService(getServiceName()).isPresent() &&
+                   getResourceCache().getDeploymentConfig(getDeploymentConfigName()).isPresent();
         } catch (Exception e) {
             return false;
         }
@@ -129,14 +161,10 @@ public abstract class OpenShiftDeployment implements Deployment {
         if (isReady() && getReplicas() > 0) {
             String deploymentConfigName = getDeploymentConfigName();
 
-            return OpenShiftCaller.repeatableCall(() -> openShift.getPods()
-                                                                 .stream()
-                                                                 .filter(pod -> {
-                                                                     String podsDeploymentConfigName = pod.getMetadata().getLabels().get(OpenShiftResourceConstants.DEPLOYMENT_CONFIG_LABEL);
-                                                                     return deploymentConfigName.equals(podsDeploymentConfigName);
-                                                                 })
-                                                                 .map(pod -> OpenshiftInstanceUtil.createInstance(openShift, getNamespace(), pod))
-                                                                 .collect(toList()));
+            return getResourceCache().getPods(deploymentConfigName)
+                                     .stream()
+                                     .map(pod -> OpenshiftInstanceUtil.createInstance(openShift, getNamespace(), pod))
+                                     .collect(toList());
         }
 
         return Collections.emptyList();
@@ -144,7 +172,7 @@ public abstract class OpenShiftDeployment implements Deployment {
 
     @Override
     public void waitForScale() {
-        waitUntilAllPodsAreReadyAndRunning(getReplicas());
+        Tracer.run("wait for pods " + getDeploymentConfigName(), () -> waitUntilAllPodsAreReadyAndRunning(getReplicas()));
     }
 
     @Override
@@ -152,18 +180,25 @@ public abstract class OpenShiftDeployment implements Deployment {
         waitUntilAllPodsAreReady(getReplicas());
     }
 
+    /**
+     * Asynchronous variant of {@link #waitForScale()} waiting just for the pods, completed as soon as the watch reports
+     * all pods ready and running.
+     *
+     * @return Future completed when all pods are ready and running.
+     */
+    public CompletableFuture<Void> waitForScaleAsync() {
+        return waitUntilAllPodsAreReadyAndRunningAsync(getReplicas());
+    }
+
     @Override
     public void waitForVersionTag(String versionTag) {
-        try {
-            Supplier<Boolean> checkNewVersionTag = () -> deploymentConfig().getSpec().getTemplate().getSpec().getContainers().stream().anyMatch(c -> checkImageVersion(c.getImage(), versionTag));
+        // Image stream tags are resolved before waiting, the condition is evaluated on the watch thread and reads just the cache
+        Map<String, String> versionTagReferences = resolveVersionTagReferences(versionTag);
+        BooleanSupplier checkNewVersionTag = () -> deploymentConfig().getSpec().getTemplate().getSpec().getContainers().stream().anyMatch(c -> checkImageVersion(c.getImage(), versionTag, versionTagReferences));
 
-            new SimpleWaiter(() -> OpenShiftCaller.repeatableCall(checkNewVersionTag)).timeout(OpenShiftResourceConstants.DEPLOYMENT_NEW_VERSION_TIMEOUT)
-                                                                                      .reason("The deployment " + getDeploymentConfigName() + " was not restarted using the version tag " + versionTag)
-                                                                                      .waitFor();
-
-        } catch (AssertionError e) {
-            throw new DeploymentTimeoutException("Timeout while waiting for pods to be ready.");
-        }
+        new CacheWaiter(getResourceCache(), checkNewVersionTag).timeout(OpenShiftResourceConstants.DEPLOYMENT_NEW_VERSION_TIMEOUT)
+                                                               .reason("The deployment " + getDeploymentConfigName() + " was not restarted using the version tag " + versionTag)
+                                                               .waitFor();
     }
 
     @Override
@@ -176,77 +211,62 @@ public abstract class OpenShiftDeployment implements Deployment {
         waitUntilAllPodsAreRunning(expectedPods);
     }
 
+    protected CompletableFuture<Void> waitUntilAllPodsAreReadyAndRunningAsync(int expectedPods) {
+        String deploymentConfigName = getDeploymentConfigName();
+        BooleanSupplier allPodsReadyAndRunning = () -> countPods(deploymentConfigName, OpenshiftInstanceUtil::isPodReady) == expectedPods &&
+                                                       countPods(deploymentConfigName, OpenshiftInstanceUtil::isPodRunning) == expectedPods;
+
+        return new CacheWaiter(getResourceCache(), allPodsReadyAndRunning).timeout(OpenShiftResourceConstants.PODS_START_TO_READY_TIMEOUT)
+                                                                          .reason("Waiting for " + expectedPods + " pods of deployment config " + deploymentConfigName + " to become ready and running.")
+                                                                          .waitAsync();
+    }
+
     protected void waitUntilAllPodsAreReady(int expectedPods) {
-        try {
-            OpenShiftCaller.repeatableCall(() -> openShift.waiters()
-                                                          .areExactlyNPodsReady(expectedPods, OpenShiftResourceConstants.DEPLOYMENT_CONFIG_LABEL, getDeploymentConfigName())
-                                                          .timeout(OpenShiftResourceConstants.PODS_START_TO_READY_TIMEOUT)
-                                                          .reason("Waiting for " + expectedPods + " pods of deployment config " + getDeploymentConfigName() + " to become ready.")
-                                                          .waitFor());
-        } catch (AssertionError e) {
-            throw new DeploymentTimeoutException("Timeout while waiting for pods to be ready.");
-        }
+        String deploymentConfigName = getDeploymentConfigName();
+        BooleanSupplier allPodsReady = () -> countPods(deploymentConfigName, OpenshiftInstanceUtil::isPodReady) == expectedPods;
+
+        new CacheWaiter(getResourceCache(), allPodsReady).timeout(OpenShiftResourceConstants.PODS_START_TO_READY_TIMEOUT)
+                                                         .reason("Waiting for " + expectedPods + " pods of deployment config " + deploymentConfigName + " to become ready.")
+                                                         .waitFor();
     }
 
     protected void waitUntilAllPodsAreRunning(int expectedPods) {
-        try {
-            OpenShiftCaller.repeatableCall(() -> openShift.waiters()
-                                                          .areExactlyNPodsRunning(expectedPods, OpenShiftResourceConstants.DEPLOYMENT_CONFIG_LABEL, getDeploymentConfigName())
-                                                          .timeout(OpenShiftResourceConstants.PODS_START_TO_READY_TIMEOUT)
-                                                          .reason("Waiting for " + expectedPods + " pods of deployment config " + getDeploymentConfigName() + " to become runnning.")
-                                                          .waitFor());
-        } catch (AssertionError e) {
-            throw new DeploymentTimeoutException("Timeout while waiting for pods to start.");
-        }
+        String deploymentConfigName = getDeploymentConfigName();
+        BooleanSupplier allPodsRunning = () -> countPods(deploymentConfigName, OpenshiftInstanceUtil::isPodRunning) == expectedPods;
+
+        new CacheWaiter(getResourceCache(), allPodsRunning).timeout(OpenShiftResourceConstants.PODS_START_TO_READY_TIMEOUT)
+                                                           .reason("Waiting for " + expectedPods + " pods of deployment config " + deploymentConfigName + " to become runnning.")
+                                                           .waitFor();
+    }
+
+    private long countPods(String deploymentConfigName, Predicate<Pod> podPredicate) {
+        return getResourceCache().getPods(deploymentConfigName).stream().filter(podPredicate).count();
     }
 
     @Override
     public void setRouterTimeout(Duration timeoutValue) {
-        RouteList list = getRoutes();
-        for (Route r : list.getItems()) {
-            openShift
-                     .routes()
-                     .withName(r.getMetadata().getName())
-                     .edit()
-                     .editMetadata()
-                     .addToAnnotations(OpenShiftConstants.HAPROXY_ROUTER_TIMEOUT, timeoutValue.getSeconds() + "s")
-                     .endMetadata()
-                     .done();
-        }
+        RouteConfigurationTransaction transaction = new RouteConfigurationTransaction();
+        transaction.setTimeout(this, timeoutValue);
+        transaction.applyWithoutWaiting();
     }
 
     @Override
     public void resetRouterTimeout() {
-        RouteList list = getRoutes();
-        for (Route r : list.getItems()) {
-            openShift
-                     .routes()
-                     .withName(r.getMetadata().getName())
-                     .edit()
-                     .editMetadata()
-                     .removeFromAnnotations(OpenShiftConstants.HAPROXY_ROUTER_TIMEOUT)
-                     .endMetadata()
-                     .done();
-        }
+        RouteConfigurationTransaction transaction = new RouteConfigurationTransaction();
+        transaction.resetTimeout(this);
+        transaction.applyWithoutWaiting();
     }
 
     @Override
     public void setRouterBalance(String balance) {
-        RouteList list = getRoutes();
-        for (Route r : list.getItems()) {
-            openShift
-                     .routes()
-                     .withName(r.getMetadata().getName())
-                     .edit()
-                     .editMetadata()
-                     .addToAnnotations(OpenShiftConstants.HAPROXY_ROUTER_BALANCE, balance)
-                     .endMetadata()
-                     .done();
-        }
+        RouteConfigurationTransaction transaction = new RouteConfigurationTransaction();
+        transaction.setBalance(this, balance);
+        transaction.applyWithoutWaiting();
     }
 
     @Override
     public void setResources(Map<String, String> requests, Map<String, String> limits) {
+        markModified();
         openShift
                  .deploymentConfigs()
                  .withName(getDeploymentConfigName())
@@ -279,36 +299,40 @@ public abstract class OpenShiftDeployment implements Deployment {
     }
 
     protected RouteList getRoutes() {
-        return openShift
-                        .routes()
-                        .withLabel("service", getServiceName())
-                        .list();
+        String serviceName = getServiceName();
+        List<Route> routes = getResourceCache().getRoutes()
+                                               .stream()
+                                               .filter(route -> route.getMetadata().getLabels() != null)
+                                               .filter(route -> serviceName.equals(route.getMetadata().getLabels().get("service")))
+                                               .collect(toList());
+        return new RouteListBuilder().withItems(routes).build();
     }
 
     private DeploymentConfig deploymentConfig() {
-        return openShift.getDeploymentConfig(getDeploymentConfigName());
+        return getResourceCache().getDeploymentConfig(getDeploymentConfigName())
+                                 .orElseThrow(() -> new RuntimeException("Deployment config " + getDeploymentConfigName() + " not found."));
     }
 
     private Optional<String> getRoute(Protocol protocol, String serviceName) {
-        Service service = openShift.getService(serviceName);
+        Optional<Service> service = getResourceCache().getService(serviceName);
         Predicate<Route> httpsPredicate = n -> n.getSpec().getTls() != null;
         Predicate<Route> httpPredicate = n -> n.getSpec().getTls() == null;
 
         String routeHost = null;
-        if (service == null) {
+        if (!service.isPresent()) {
             // Service doesn't exist, create URL using default subdomain
             String defaultRoutingSubdomain = DeploymentConstants.getDefaultDomainSuffix();
             routeHost = getServiceName() + "-" + getNamespace() + defaultRoutingSubdomain;
         } else {
-            List<Route> routes = openShift.getRoutes();
-            Optional<Route> route = routes.stream()
-                                          .filter(protocol == Protocol.https ? httpsPredicate : httpPredicate)
-                                          .filter(n -> n.getSpec().getTo().getName().equals(serviceName))
-                                          .findAny();
+            Optional<Route> route = getResourceCache().getRoutes(serviceName)
+                                                      .stream()
+                                                      .filter(protocol == Protocol.https ? httpsPredicate : httpPredicate)
+                                                      .findAny();
             if (route.isPresent()) {
                 routeHost = route.get().getSpec().getHost();
             } else {
-                String routeNames = routes.stream()
+                String routeNames = getResourceCache().getRoutes()
+                                                      .stream()
                                           .map(n -> n.getMetadata().getName())
                                           .collect(Collectors.joining(", "));
                 logger.warn(protocol + " route leading to service " + serviceName + " not found. Available routes " + routeNames);
@@ -332,14 +356,33 @@ public abstract class OpenShiftDeployment implements Deployment {
         }
     }
 
-    private boolean checkImageVersion(String image, String versionTag) {
-        if (StringUtils.contains(image, SHA_TAG)) {
-            String actualReference = StringUtils.substringAfterLast(image, SHA_TAG);
-
-            String imageName = image.substring(image.lastIndexOf("/") + 1, image.lastIndexOf(SHA_TAG));
+    /**
+     * @return Docker image references of the version tag by image stream name, for all images used by the deployment.
+     */
+    private Map<String, String> resolveVersionTagReferences(String versionTag) {
+        Map<String, String> versionTagReferences = new HashMap<>();
+        for (Container container : deploymentConfig().getSpec().getTemplate().getSpec().getContainers()) {
+            String imageName = getImageStreamName(container.getImage());
             ImageStreamTag imageTag = openShift.imageStreamTags().withName(String.format("%s:%s", imageName, versionTag)).get();
+            if (imageTag != null && imageTag.getImage() != null) {
+                versionTagReferences.put(imageName, imageTag.getImage().getDockerImageReference());
+            }
+        }
+        return versionTagReferences;
+    }
 
-            return StringUtils.endsWith(imageTag.getImage().getDockerImageReference(), actualReference);
+    private static String getImageStreamName(String image) {
+        String imageName = image.substring(image.lastIndexOf("/") + 1);
+        if (imageName.contains(SHA_TAG)) {
+            return imageName.substring(0, imageName.lastIndexOf(SHA_TAG));
+        }
+        return imageName.contains(":") ? imageName.substring(0, imageName.lastIndexOf(':')) : imageName;
+    }
+
+    private static boolean checkImageVersion(String image, String versionTag, Map<String, String> versionTagReferences) {
+        if (StringUtils.contains(image, SHA_TAG)) {
+            String actualReference = StringUtils.substringAfterLast(image, SHA_TAG);
+            return StringUtils.endsWith(versionTagReferences.get(getImageStreamName(image)), actualReference);
         }
 
         return StringUtils.endsWith(image, versionTag);
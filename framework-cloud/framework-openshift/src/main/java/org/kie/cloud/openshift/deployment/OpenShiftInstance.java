@@ -15,14 +15,12 @@
  */
 package org.kie.cloud.openshift.deployment;
 
-import java.io.InputStreamReader;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import cz.xtf.core.openshift.OpenShift;
@@ -33,8 +31,6 @@ import io.fabric8.kubernetes.api.model.PodSpec;
 import io.fabric8.kubernetes.client.dsl.LogWatch;
 import org.kie.cloud.api.deployment.CommandExecutionResult;
 import org.kie.cloud.api.deployment.Instance;
-import rx.Observable;
-import rx.observables.StringObservable;
 
 import static org.kie.cloud.openshift.util.CommandUtil.runCommandImpl;
 
@@ -104,17 +100,6 @@ public class OpenShiftInstance implements Instance {
                                       .orElse(null));
     }
 
-    /**
-     * Return a map (containerName/logs) of all containers logs from the pod
-     * @return
-     */
-    public Map<String, String> getAllContainerLogs() {
-        return getContainers()
-                              .stream()
-                              .map(Container::getName)
-                              .collect(Collectors.toMap(Function.identity(), this::getLogs));
-    }
-
     /**
      * Return logs from a specific container of the pod
      * @param containerName
@@ -128,25 +113,32 @@ public class OpenShiftInstance implements Instance {
         }
     }
 
-    private List<Container> getContainers() {
-        return Optional.ofNullable(openshift.getPod(name))
-                       .map(Pod::getSpec)
-                       .map(PodSpec::getContainers)
-                       .orElse(new ArrayList<>());
-    }
-
-    public Map<String, Observable<String>> observeAllContainersLogs() {
+    /**
+     * @return Names of all containers of the pod.
+     */
+    public List<String> getContainerNames() {
         return getContainers().stream()
                               .map(Container::getName)
-                              .collect(Collectors.toMap(Function.identity(), this::observeContainerLogs));
+                              .collect(Collectors.toList());
     }
 
-    public Observable<String> observeContainerLogs(String containerName) {
-        if (Objects.nonNull(containerName)) {
-            LogWatch watcher = openshift.pods().withName(name).inContainer(containerName).watchLog();
-            return StringObservable.byLine(StringObservable.from(new InputStreamReader(watcher.getOutput())));
-        } else {
-            return openshift.observePodLog(openshift.getPod(name));
+    /**
+     * Watch log of a specific container of the pod. Every line is prefixed with its RFC3339 server timestamp and a space.
+     * @param containerName
+     * @param sinceTime Only log lines written at or after this time, truncated to seconds, are streamed, null to stream the whole log.
+     * @return Log watch, has to be closed by the caller.
+     */
+    public LogWatch watchContainerLog(String containerName, Instant sinceTime) {
+        if (Objects.isNull(sinceTime)) {
+            return openshift.pods().withName(name).inContainer(containerName).usingTimestamps().watchLog();
         }
+        return openshift.pods().withName(name).inContainer(containerName).usingTimestamps().sinceTime(sinceTime.truncatedTo(ChronoUnit.SECONDS).toString()).watchLog();
+    }
+
+    private List<Container> getContainers() {
+        return Optional.ofNullable(openshift.getPod(name))
+                       .map(Pod::getSpec)
+                       .map(PodSpec::getContainers)
+                       .orElse(new ArrayList<>());
     }
 }
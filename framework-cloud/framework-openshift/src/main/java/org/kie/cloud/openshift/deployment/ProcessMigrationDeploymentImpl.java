@@ -55,7 +55,7 @@ public class ProcessMigrationDeploymentImpl extends OpenShiftDeployment implemen
     @Override
     public String getServiceName() {
         if (serviceName == null) {
-            serviceName = ServiceUtil.getProcessMigrationServiceName(getOpenShift());
+            serviceName = ServiceUtil.getProcessMigrationServiceName(getTopology());
         }
         return serviceName;
     }
@@ -64,8 +64,7 @@ public class ProcessMigrationDeploymentImpl extends OpenShiftDeployment implemen
     public void waitForScale() {
         super.waitForScale();
         if (!getInstances().isEmpty()) {
-            getInsecureUrl().ifPresent(RouterUtil::waitForRouter);
-            getSecureUrl().ifPresent(RouterUtil::waitForRouter);
+            RouterUtil.waitForRouters(getInsecureUrl(), getSecureUrl());
         }
     }
 
@@ -32,7 +32,7 @@ public class PrometheusDeploymentImpl extends OpenShiftDeployment implements Pro
     @Override
     public String getServiceName() {
         if (serviceName == null) {
-            serviceName = ServiceUtil.getPrometheusServiceName(getOpenShift());
+            serviceName = ServiceUtil.getPrometheusServiceName(getTopology());
         }
         return serviceName;
     }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.deployment;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.xtf.core.openshift.OpenShift;
+import io.fabric8.openshift.api.model.Route;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.kie.cloud.api.deployment.Deployment;
+import org.kie.cloud.api.deployment.RouterConfiguration;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.kie.cloud.openshift.watch.CacheWaiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects route annotations of several deployments and applies them together. Every route is updated by a single
+ * JSON merge patch, without reading it first, and the router reload is awaited just once for all routes.
+ */
+public class RouteConfigurationTransaction implements RouterConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteConfigurationTransaction.class);
+
+    private static final MediaType MERGE_PATCH = MediaType.parse("application/merge-patch+json");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final long ROUTES_UPDATE_TIMEOUT_IN_MS = 60_000L;
+    // Default RELOAD_INTERVAL of OpenShift router, route changes are picked up by the next reload
+    private static final Duration ROUTER_RELOAD_INTERVAL = Duration.ofSeconds(5);
+
+    // Null annotation value removes the annotation
+    private final Map<OpenShiftDeployment, Map<String, String>> annotationsByDeployment = new LinkedHashMap<>();
+
+    @Override
+    public RouterConfiguration setTimeout(Deployment deployment, Duration timeoutValue) {
+        return annotate(deployment, OpenShiftConstants.HAPROXY_ROUTER_TIMEOUT, timeoutValue.getSeconds() + "s");
+    }
+
+    @Override
+    public RouterConfiguration resetTimeout(Deployment deployment) {
+        return annotate(deployment, OpenShiftConstants.HAPROXY_ROUTER_TIMEOUT, null);
+    }
+
+    @Override
+    public RouterConfiguration setBalance(Deployment deployment, String balance) {
+        return annotate(deployment, OpenShiftConstants.HAPROXY_ROUTER_BALANCE, balance);
+    }
+
+    @Override
+    public RouterConfiguration setStickyCookie(Deployment deployment, String cookieName) {
+        annotate(deployment, OpenShiftConstants.HAPROXY_ROUTER_DISABLE_COOKIES, null);
+        return annotate(deployment, OpenShiftConstants.ROUTER_COOKIE_NAME, cookieName);
+    }
+
+    @Override
+    public RouterConfiguration disableStickyCookies(Deployment deployment) {
+        annotate(deployment, OpenShiftConstants.ROUTER_COOKIE_NAME, null);
+        return annotate(deployment, OpenShiftConstants.HAPROXY_ROUTER_DISABLE_COOKIES, "true");
+    }
+
+    @Override
+    public RouterConfiguration setRateLimit(Deployment deployment, int httpRequestRate) {
+        annotate(deployment, OpenShiftConstants.HAPROXY_ROUTER_RATE_LIMIT_CONNECTIONS, "true");
+        return annotate(deployment, OpenShiftConstants.HAPROXY_ROUTER_RATE_LIMIT_HTTP, String.valueOf(httpRequestRate));
+    }
+
+    private synchronized RouterConfiguration annotate(Deployment deployment, String annotation, String value) {
+        if (!(deployment instanceof OpenShiftDeployment)) {
+            throw new IllegalArgumentException("Router can be configured just for OpenShift deployments, got " + deployment);
+        }
+        annotationsByDeployment.computeIfAbsent((OpenShiftDeployment) deployment, d -> new LinkedHashMap<>()).put(annotation, value);
+        return this;
+    }
+
+    @Override
+    public synchronized void apply() {
+        List<CacheWaiter> waiters = patchRoutes();
+        if (waiters.isEmpty()) {
+            return;
+        }
+        waiters.forEach(CacheWaiter::waitFor);
+        waitForRouterReload();
+    }
+
+    /**
+     * Patch the routes without waiting until the router picks the changes up.
+     */
+    synchronized void applyWithoutWaiting() {
+        patchRoutes();
+    }
+
+    /**
+     * @return Waiters for the patched routes to be updated in the resource cache.
+     */
+    private List<CacheWaiter> patchRoutes() {
+        List<CacheWaiter> waiters = new ArrayList<>();
+        annotationsByDeployment.forEach((deployment, annotations) -> {
+            deployment.markModified();
+            List<String> routeNames = new ArrayList<>();
+            for (Route route : deployment.getRoutes().getItems()) {
+                String routeName = route.getMetadata().getName();
+                patchAnnotations(deployment.getOpenShift(), routeName, annotations);
+                routeNames.add(routeName);
+            }
+            BooleanSupplier routesUpdated = () -> routeNames.stream().allMatch(routeName -> hasAnnotations(deployment, routeName, annotations));
+            waiters.add(new CacheWaiter(deployment.getResourceCache(), routesUpdated).timeout(ROUTES_UPDATE_TIMEOUT_IN_MS)
+                                                                                     .reason("Waiting for routes " + routeNames + " to be updated."));
+        });
+        annotationsByDeployment.clear();
+        return waiters;
+    }
+
+    private static void patchAnnotations(OpenShift openShift, String routeName, Map<String, String> annotations) {
+        String url = openShift.getMasterUrl().toString().replaceAll("/$", "") +
+                     "/apis/route.openshift.io/v1/namespaces/" + openShift.getNamespace() + "/routes/" + routeName;
+        Request request = new Request.Builder().url(url)
+                                               .patch(RequestBody.create(MERGE_PATCH, toMergePatch(annotations)))
+                                               .build();
+        logger.debug("Patching annotations of route {}: {}", routeName, annotations);
+        try (Response response = openShift.getHttpClient().newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new RuntimeException("Error patching route " + routeName + ": " + response.code() + " " + response.message());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error patching route " + routeName, e);
+        }
+    }
+
+    static String toMergePatch(Map<String, String> annotations) {
+        Map<String, Object> metadata = Collections.singletonMap("annotations", annotations);
+        try {
+            return OBJECT_MAPPER.writeValueAsString(Collections.singletonMap("metadata", metadata));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing route annotations " + annotations, e);
+        }
+    }
+
+    private static boolean hasAnnotations(OpenShiftDeployment deployment, String routeName, Map<String, String> annotations) {
+        return deployment.getResourceCache().getRoute(routeName).map(route -> {
+            Map<String, String> current = route.getMetadata().getAnnotations() == null ? Collections.emptyMap() : route.getMetadata().getAnnotations();
+            return annotations.entrySet().stream().allMatch(entry -> Objects.equals(current.get(entry.getKey()), entry.getValue()));
+        }).orElse(true);
+    }
+
+    private static void waitForRouterReload() {
+        try {
+            Thread.sleep(ROUTER_RELOAD_INTERVAL.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for router reload.", e);
+        }
+    }
+}
@@ -15,52 +15,194 @@
 
 package org.kie.cloud.openshift.deployment;
 
+import java.io.IOException;
 import java.net.URL;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
-import cz.xtf.core.http.Https;
-import cz.xtf.core.http.HttpsException;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.kie.cloud.common.trace.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Waits until the OpenShift router exposes routes. Routes are probed asynchronously by one shared HTTP client which
+ * reuses connections, so waiting for all routes of a scenario takes as long as the slowest route.
+ */
 public class RouterUtil {
 
     private static final int ROUTER_SERVICE_UNAVAILABLE_CODE = 503;
-    private static final long ROUTER_WAIT_ITERATION_TIME = 250;
     private static final Duration ROUTER_WAIT_TIME = Duration.ofMinutes(5);
+    private static final Duration INITIAL_PROBE_DELAY = Duration.ofMillis(100);
+    // Connection failures (DNS not propagated yet, TLS handshake with router default certificate) take longer to resolve
+    private static final Duration CONNECTION_FAILURE_PROBE_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_PROBE_DELAY = Duration.ofSeconds(2);
+    private static final double PROBE_DELAY_MULTIPLIER = 1.5;
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(10);
 
     private static final Logger logger = LoggerFactory.getLogger(RouterUtil.class);
 
+    private static final OkHttpClient httpClient = createHttpClient();
+    private static final ScheduledExecutorService probeScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "router-probe-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public static void waitForRouter(URL url) {
-        Instant endTime = Instant.now().plus(ROUTER_WAIT_TIME);
+        waitForRouters(Collections.singletonList(url));
+    }
 
-        String urlString = url.toString();
-        logger.info("Waiting for router to expose url: {}", urlString);
+    /**
+     * Wait concurrently until the router exposes all present URLs, typically insecure and secure URL of a deployment.
+     */
+    @SafeVarargs
+    public static void waitForRouters(Optional<URL>... urls) {
+        waitForRouters(Arrays.stream(urls)
+                             .filter(Optional::isPresent)
+                             .map(Optional::get)
+                             .collect(Collectors.toList()));
+    }
 
-        while (Instant.now().isBefore(endTime)) {
+    /**
+     * Wait concurrently until the router exposes all URLs.
+     */
+    public static void waitForRouters(List<URL> urls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        String routes = urls.stream().map(url -> url.getProtocol() + "://" + url.getHost()).collect(Collectors.joining(", "));
+        Tracer.run("wait for router " + routes, () -> {
+            CompletableFuture<?>[] futures = urls.stream().map(RouterUtil::waitForRouterAsync).toArray(CompletableFuture<?>[]::new);
             try {
-                if (Https.getCode(urlString) != ROUTER_SERVICE_UNAVAILABLE_CODE) {
-                    return;
-                }
+                CompletableFuture.allOf(futures).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for route to become available.", e);
+            } catch (ExecutionException e) {
+                logger.error("Error waiting for router", e.getCause());
+                throw new RuntimeException("Error waiting for router", e.getCause());
+            }
+        });
+    }
+
+    /**
+     * Probe the URL until the router stops responding with 503 Service Unavailable. Probes are scheduled with
+     * jittered exponential backoff.
+     *
+     * @return Future completed once the router exposes the URL. It is completed normally also on timeout, as the URL
+     * may still be usable by tests, the timeout is just logged.
+     */
+    public static CompletableFuture<Void> waitForRouterAsync(URL url) {
+        logger.info("Waiting for router to expose url: {}", url);
+        RouteProbe probe = new RouteProbe(url);
+        probe.probe();
+        return probe.future;
+    }
+
+    private static class RouteProbe implements Callback {
+
+        private final URL url;
+        private final Request request;
+        private final Instant endTime = Instant.now().plus(ROUTER_WAIT_TIME);
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private Duration delay = INITIAL_PROBE_DELAY;
+
+        private RouteProbe(URL url) {
+            this.url = url;
+            this.request = new Request.Builder().url(url).get().build();
+        }
+
+        private void probe() {
+            httpClient.newCall(request).enqueue(this);
+        }
 
-                Thread.sleep(ROUTER_WAIT_ITERATION_TIME);
-            } catch (HttpsException e) {
-                logger.debug("SSLHandshakeException: " + e.getMessage());
-                logger.debug("Wait for a while and try to execute request again.");
-                try {
-                    Thread.sleep(Duration.ofSeconds(1).toMillis());
-                } catch (InterruptedException e1) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Interrupted while waiting for route to become available.", e1);
+        @Override
+        public void onResponse(Call call, Response response) {
+            try (Response closedResponse = response) {
+                if (closedResponse.code() != ROUTER_SERVICE_UNAVAILABLE_CODE) {
+                    future.complete(null);
+                } else {
+                    scheduleNextProbe(INITIAL_PROBE_DELAY);
                 }
-                continue;
-            } catch (Exception e) {
-                logger.error("Error waiting for router", e);
-                throw new RuntimeException("Error waiting for router", e);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            logger.debug("Request to {} failed: {}", url, e.getMessage());
+            logger.debug("Wait for a while and try to execute request again.");
+            scheduleNextProbe(CONNECTION_FAILURE_PROBE_DELAY);
+        }
+
+        private void scheduleNextProbe(Duration minimalDelay) {
+            if (!Instant.now().isBefore(endTime)) {
+                logger.warn("Timeout while waiting for router to expose url: {}. The URL is unreachable.", url);
+                future.complete(null);
+                return;
             }
+            if (delay.compareTo(minimalDelay) < 0) {
+                delay = minimalDelay;
+            }
+            long delayMillis = ThreadLocalRandom.current().nextLong(delay.toMillis() / 2, delay.toMillis() + 1);
+            delay = Duration.ofMillis(Math.min((long) (delay.toMillis() * PROBE_DELAY_MULTIPLIER), MAX_PROBE_DELAY.toMillis()));
+            probeScheduler.schedule(this::probe, delayMillis, TimeUnit.MILLISECONDS);
         }
+    }
 
-        logger.warn("Timeout while waiting for router to expose url: {}. The URL is unreachable.", urlString);
+    /**
+     * @return Client trusting all certificates, routes use router default or self signed certificates.
+     */
+    private static OkHttpClient createHttpClient() {
+        X509TrustManager trustAllManager = new X509TrustManager() {
+
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        };
+        try {
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[]{trustAllManager}, new SecureRandom());
+            return new OkHttpClient.Builder().sslSocketFactory(sslContext.getSocketFactory(), trustAllManager)
+                                             .hostnameVerifier((hostname, session) -> true)
+                                             .connectTimeout(PROBE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                                             .readTimeout(PROBE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                                             .build();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Error creating HTTP client for router probes", e);
+        }
     }
 }
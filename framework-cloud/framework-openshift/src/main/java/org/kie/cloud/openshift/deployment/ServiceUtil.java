@@ -15,110 +15,77 @@
 
 package org.kie.cloud.openshift.deployment;
 
-import java.util.List;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-
-import cz.xtf.core.openshift.OpenShift;
 import io.fabric8.kubernetes.api.model.Service;
+import org.kie.cloud.openshift.watch.ProjectTopology;
+import org.kie.cloud.openshift.watch.ServiceRole;
 
 public class ServiceUtil {
 
-    //TODO: regex patterns should be rather moved into the Deployment? classes responsible for individual applications
-    private static final Pattern CONTROLLER_REGEXP = Pattern.compile("(?!secure-).*-controller");
-    private static final Pattern WORKBENCH_REGEXP = Pattern.compile("(?!secure-).*(-rhpamcentr|-rhdmcentr)");
-    private static final Pattern WORKBENCH_MONITORING_REGEXP = Pattern.compile("(?!secure-).*-rhpamcentrmon");
-    private static final Pattern KIE_SERVER_REGEXP = Pattern.compile("(?!secure-).*(-execserv|-kieserver)");
-    private static final Pattern SMART_ROUTER_REGEXP = Pattern.compile("(?!secure-).*-smartrouter");
-    private static final Pattern DATABASE_REGEXP = Pattern.compile("(.*-mysql|.*-postgresql)");
-    private static final Pattern SSO_REGEXP = Pattern.compile("(?!secure-).*sso");
-    private static final Pattern SECURE_SSO_REGEXP = Pattern.compile("secure-sso");
-    private static final Pattern AMQ_JOLOKIA_REGEXP = Pattern.compile("(?!secure-).*amq-jolokia");
-    private static final Pattern AMQ_TCP_SSL_REGEXP = Pattern.compile("(?!secure-).*amq-tcp-ssl");
-    private static final Pattern DOCKER_REGEXP = Pattern.compile("registry");
-    private static final Pattern MAVEN_NEXUS_REPOSITORY_REGEXP = Pattern.compile("nexus");
-    private static final Pattern LDAP_REGEXP = Pattern.compile(".*ldap.*");
-    private static final Pattern GOGS_REGEXP = Pattern.compile(".*gogs.*");
-    private static final Pattern PROMETHEUS_REGEXP = Pattern.compile("prometheus-operated");
-    private static final Pattern PROCESS_MIGRATION_REGEXP = Pattern.compile("(?!secure-).*-process-migration");
-
-    public static String getControllerServiceName(OpenShift openShift) {
-        return getServiceName(openShift, CONTROLLER_REGEXP);
-    }
-
-    public static String getSsoServiceName(OpenShift openShift) {
-        return getServiceName(openShift, SSO_REGEXP);
+    public static String getControllerServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.CONTROLLER);
     }
 
-    public static String getSecureSsoServiceName(OpenShift openShift) {
-        return getServiceName(openShift, SECURE_SSO_REGEXP);
+    public static String getSsoServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.SSO);
     }
 
-    public static String getAmqJolokiaServiceName(OpenShift openShift) {
-        return getServiceName(openShift, AMQ_JOLOKIA_REGEXP);
+    public static String getSecureSsoServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.SECURE_SSO);
     }
 
-    public static String getAmqTcpSslServiceName(OpenShift openShift) {
-        return getServiceName(openShift, AMQ_TCP_SSL_REGEXP);
+    public static String getAmqJolokiaServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.AMQ_JOLOKIA);
     }
 
-    public static String getWorkbenchServiceName(OpenShift openShift) {
-        return getServiceName(openShift, WORKBENCH_REGEXP);
+    public static String getAmqTcpSslServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.AMQ_TCP_SSL);
     }
 
-    public static String getWorkbenchMonitoringServiceName(OpenShift openShift) {
-        return getServiceName(openShift, WORKBENCH_MONITORING_REGEXP);
+    public static String getWorkbenchServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.WORKBENCH);
     }
 
-    public static String getKieServerServiceName(OpenShift openShift, String suffix) {
-        return getServiceName(openShift, Pattern.compile(KIE_SERVER_REGEXP.pattern() + suffix));
+    public static String getWorkbenchMonitoringServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.WORKBENCH_MONITORING);
     }
 
-    public static String getSmartRouterServiceName(OpenShift openShift) {
-        return getServiceName(openShift, SMART_ROUTER_REGEXP);
+    public static String getKieServerServiceName(ProjectTopology topology, String suffix) {
+        return topology.getServiceName(ServiceRole.KIE_SERVER, suffix);
     }
 
-    public static String getDatabaseServiceName(OpenShift openShift, String suffix) {
-        return getServiceName(openShift, Pattern.compile(DATABASE_REGEXP.pattern() + suffix));
+    public static String getSmartRouterServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.SMART_ROUTER);
     }
 
-    public static String getDockerServiceName(OpenShift openShift) {
-        return getServiceName(openShift, DOCKER_REGEXP);
+    public static String getDatabaseServiceName(ProjectTopology topology, String suffix) {
+        return topology.getServiceName(ServiceRole.DATABASE, suffix);
     }
 
-    public static String getGogsServiceName(OpenShift openShift) {
-        return getServiceName(openShift, GOGS_REGEXP);
+    public static String getDockerServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.DOCKER_REGISTRY);
     }
 
-    public static String getMavenNexusServiceName(OpenShift openShift) {
-        return getServiceName(openShift, MAVEN_NEXUS_REPOSITORY_REGEXP);
+    public static String getGogsServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.GOGS);
     }
 
-    public static Service getLdapService(OpenShift openShift) {
-        return getService(openShift, LDAP_REGEXP);
+    public static String getMavenNexusServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.MAVEN_NEXUS);
     }
 
-    public static String getPrometheusServiceName(OpenShift openShift) {
-        return getServiceName(openShift, PROMETHEUS_REGEXP);
+    public static Service getLdapService(ProjectTopology topology) {
+        return topology.getService(ServiceRole.LDAP);
     }
 
-    public static String getProcessMigrationServiceName(OpenShift openShift) {
-        return getServiceName(openShift, PROCESS_MIGRATION_REGEXP);
+    public static String getPrometheusServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.PROMETHEUS);
     }
 
-    public static String getServiceName(OpenShift openShift, Pattern regexp) {
-        return getService(openShift, regexp).getMetadata().getName();
+    public static String getProcessMigrationServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.PROCESS_MIGRATION);
     }
 
-    public static Service getService(OpenShift openShift, Pattern regexp) {
-        // Try to find service from all available services
-        List<Service> services = openShift.getServices();
-        for (Service service : services) {
-            if (regexp.matcher(service.getMetadata().getName()).matches()) {
-                return service;
-            }
-        }
-        String serviceNames = services.stream().map(s -> s.getMetadata().getName()).collect(Collectors.joining(", "));
-        throw new RuntimeException("Service defined by regexp " + regexp.toString() + " not found. Available services: " + serviceNames);
+    public static String getEmployeeRosteringServiceName(ProjectTopology topology) {
+        return topology.getServiceName(ServiceRole.EMPLOYEE_ROSTERING);
     }
 }
@@ -56,7 +56,7 @@ public class SmartRouterDeploymentImpl extends OpenShiftDeployment implements Sm
     @Override
     public String getServiceName() {
         if(serviceName == null) {
-            serviceName = ServiceUtil.getSmartRouterServiceName(getOpenShift());
+            serviceName = ServiceUtil.getSmartRouterServiceName(getTopology());
         }
         return serviceName;
     }
@@ -37,14 +37,14 @@ public class SsoDeploymentImpl extends OpenShiftDeployment implements SsoDeploym
     @Override
     public String getServiceName() {
         if (serviceName == null) {
-            serviceName = ServiceUtil.getSsoServiceName(getOpenShift());
+            serviceName = ServiceUtil.getSsoServiceName(getTopology());
         }
         return serviceName;
     }
 
     public String getSecureServiceName() {
         if (secureServiceName == null) {
-            secureServiceName = ServiceUtil.getSecureSsoServiceName(getOpenShift());
+            secureServiceName = ServiceUtil.getSecureSsoServiceName(getTopology());
         }
         return secureServiceName;
     }
@@ -92,8 +92,7 @@ public class SsoDeploymentImpl extends OpenShiftDeployment implements SsoDeploym
     public void waitForScale() {
         super.waitForScale();
         if (!getInstances().isEmpty()) {
-            getInsecureUrl().ifPresent(RouterUtil::waitForRouter);
-            getSecureUrl().ifPresent(RouterUtil::waitForRouter);
+            RouterUtil.waitForRouters(getInsecureUrl(), getSecureUrl());
         }
     }
 }
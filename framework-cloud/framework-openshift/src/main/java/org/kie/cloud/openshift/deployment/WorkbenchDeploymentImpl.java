@@ -83,7 +83,7 @@ public class WorkbenchDeploymentImpl extends OpenShiftDeployment implements Work
     @Override
     public String getServiceName() {
         if (serviceName == null) {
-            serviceName = ServiceUtil.getWorkbenchServiceName(getOpenShift());
+            serviceName = ServiceUtil.getWorkbenchServiceName(getTopology());
         }
         return serviceName;
     }
@@ -91,8 +91,7 @@ public class WorkbenchDeploymentImpl extends OpenShiftDeployment implements Work
     @Override public void waitForScale() {
         super.waitForScale();
         if (!getInstances().isEmpty()) {
-            getInsecureUrl().ifPresent(RouterUtil::waitForRouter);
-            getSecureUrl().ifPresent(RouterUtil::waitForRouter);
+            RouterUtil.waitForRouters(getInsecureUrl(), getSecureUrl());
         }
     }
 }
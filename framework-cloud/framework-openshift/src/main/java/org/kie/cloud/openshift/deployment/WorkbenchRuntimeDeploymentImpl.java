@@ -83,7 +83,7 @@ public class WorkbenchRuntimeDeploymentImpl extends OpenShiftDeployment implemen
     @Override
     public String getServiceName() {
         if (serviceName == null) {
-            serviceName = ServiceUtil.getWorkbenchMonitoringServiceName(getOpenShift());
+            serviceName = ServiceUtil.getWorkbenchMonitoringServiceName(getTopology());
         }
         return serviceName;
     }
@@ -95,8 +95,7 @@ public class WorkbenchRuntimeDeploymentImpl extends OpenShiftDeployment implemen
     @Override public void waitForScale() {
         super.waitForScale();
         if (!getInstances().isEmpty()) {
-            getInsecureUrl().ifPresent(RouterUtil::waitForRouter);
-            getSecureUrl().ifPresent(RouterUtil::waitForRouter);
+            RouterUtil.waitForRouters(getInsecureUrl(), getSecureUrl());
         }
     }
 }
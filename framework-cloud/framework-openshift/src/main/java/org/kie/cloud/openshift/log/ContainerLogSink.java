@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.log;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.kie.cloud.common.logs.InstanceLogLine;
+import org.kie.cloud.common.logs.InstanceLogUtil;
+import org.kie.cloud.common.logs.InstanceLogWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous file sink of one container log. Lines are put into a bounded buffer, appending blocks when the buffer is
+ * full so a slow disk slows down reading of the log stream instead of growing memory. Buffered lines are written in
+ * batches by the writer executor into a single {@link InstanceLogWriter} kept open for the whole sink lifetime.
+ * The writer is created on first written line.
+ */
+class ContainerLogSink implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContainerLogSink.class);
+
+    private static final int BUFFER_CAPACITY_IN_LINES = 10_000;
+    private static final int MAX_BATCH_SIZE_IN_LINES = 1_000;
+
+    private final String logName;
+    private final String logFolderName;
+    private final Executor writerExecutor;
+    private final BlockingQueue<InstanceLogLine> buffer = new ArrayBlockingQueue<>(BUFFER_CAPACITY_IN_LINES);
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private InstanceLogWriter logWriter;
+    private volatile boolean closed;
+
+    ContainerLogSink(String logName, String logFolderName, Executor writerExecutor) {
+        this.logName = logName;
+        this.logFolderName = logFolderName;
+        this.writerExecutor = writerExecutor;
+    }
+
+    /**
+     * Append line to the log, blocks while the buffer is full.
+     *
+     * @param line Log line without line separator.
+     * @param time Time the line was written, used for the time range of stored log segments.
+     * @throws InterruptedException If interrupted while waiting for free space in the buffer.
+     */
+    void append(String line, Instant time) throws InterruptedException {
+        if (closed) {
+            logger.trace("Ignoring line for closed log {}", logName);
+            return;
+        }
+        buffer.put(new InstanceLogLine(line, time));
+        scheduleDrain();
+    }
+
+    /**
+     * Write all buffered lines and close the file.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        writeBufferedLines();
+        if (logWriter != null) {
+            try {
+                logWriter.close();
+            } catch (IOException e) {
+                logger.error("Error closing instance log " + logName, e);
+            }
+            logWriter = null;
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            writerExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            writeBufferedLinesIfOpen();
+        } finally {
+            drainScheduled.set(false);
+            if (!buffer.isEmpty() && !closed) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private synchronized void writeBufferedLinesIfOpen() {
+        // Remaining lines of closed sink are written by close()
+        if (!closed) {
+            writeBufferedLines();
+        }
+    }
+
+    private synchronized void writeBufferedLines() {
+        List<InstanceLogLine> lines = new ArrayList<>(MAX_BATCH_SIZE_IN_LINES);
+        try {
+            while (buffer.drainTo(lines, MAX_BATCH_SIZE_IN_LINES) > 0) {
+                getLogWriter().writeLines(lines);
+                lines.clear();
+            }
+        } catch (IOException e) {
+            logger.error("Error writting instance logs", e);
+        }
+    }
+
+    private InstanceLogWriter getLogWriter() throws IOException {
+        if (logWriter == null) {
+            logWriter = InstanceLogUtil.createInstanceLogWriter(logName, logFolderName);
+        }
+        return logWriter;
+    }
+}
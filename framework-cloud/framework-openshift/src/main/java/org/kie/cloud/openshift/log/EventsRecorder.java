@@ -1,9 +1,8 @@
 /*
- * Copyright 2019 JBoss by Red Hat.
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
  *
  *      http://www.apache.org/licenses/LICENSE-2.0
  *
@@ -15,62 +14,386 @@
  */
 package org.kie.cloud.openshift.log;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import cz.xtf.core.openshift.OpenShift;
+import io.fabric8.kubernetes.api.model.ContainerState;
+import io.fabric8.kubernetes.api.model.ContainerStatus;
 import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.openshift.api.model.DeploymentConfig;
 import org.kie.cloud.common.logs.InstanceLogUtil;
+import org.kie.cloud.common.trace.Span;
+import org.kie.cloud.common.trace.Trace;
+import org.kie.cloud.openshift.client.ApiPriority;
 import org.kie.cloud.openshift.resource.Project;
+import org.kie.cloud.openshift.watch.ResourceEventListener;
+import org.kie.cloud.openshift.watch.ResourceStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Copy of https://github.com/xtf-cz/xtf/blob/xtf_0.12/junit5/src/main/java/cz/xtf/junit5/listeners/EventsRecorder.java.
- * The class cannot be used directly in this module as it depends on JUnit 5, this module is using JUnit 4.
+ * Records project events, pod and deployment config changes and instance log milestones while the project lives.
+ * Events are watched from the moment the recorder is started, so events expired by the API before teardown aren't
+ * lost. When the event watch is closed (e.g. with 410 Gone) the events are listed again and a new watch is opened,
+ * events replayed by the list are recorded only once. Every record is appended to a compact tab separated file as it
+ * arrives.
+ *
+ * At teardown the records are merged with phase spans of the scenario deployment into one chronological timeline.
  */
-public class EventsRecorder {
-
-    public static void recordProjectEvents(Project project, String logFolderName) {
-        StringBuffer writer = new StringBuffer();
-        writer.append("LAST SEEN");
-        writer.append('\t');
-        writer.append("FIRST SEEN");
-        writer.append('\t');
-        writer.append("COUNT");
-        writer.append('\t');
-        writer.append("NAME");
-        writer.append('\t');
-        writer.append("KIND");
-        writer.append('\t');
-        writer.append("SUBOBJECT");
-        writer.append('\t');
-        writer.append("TYPE");
-        writer.append('\t');
-        writer.append("REASON");
-        writer.append('\t');
-        writer.append("SOURCE");
-        writer.append('\t');
-        writer.append("MESSAGE");
-        writer.append('\n');
-
-        for (Event event : project.getOpenShift().getEvents()) {
-            writer.append(event.getLastTimestamp());
-            writer.append('\t');
-            writer.append(event.getFirstTimestamp());
-            writer.append('\t');
-            writer.append("" + event.getCount());
-            writer.append('\t');
-            writer.append(event.getMetadata().getName());
-            writer.append('\t');
-            writer.append(event.getKind());
-            writer.append('\t');
-            writer.append(event.getInvolvedObject().getFieldPath());
-            writer.append('\t');
-            writer.append(event.getType());
-            writer.append('\t');
-            writer.append(event.getReason());
-            writer.append('\t');
-            writer.append(event.getSource().getComponent());
-            writer.append('\t');
-            writer.append(event.getMessage());
-            writer.append('\n');
-        }
-
-        InstanceLogUtil.writeInstanceLogs(project.getName() + "-events", logFolderName, writer.toString());
+public class EventsRecorder implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventsRecorder.class);
+
+    static final String SOURCE_EVENT = "event";
+    static final String SOURCE_POD = "pod";
+    static final String SOURCE_DEPLOYMENT_CONFIG = "deploymentConfig";
+    static final String SOURCE_LOG = "log";
+    static final String SOURCE_PHASE = "phase";
+
+    private static final long RECONNECT_DELAY_IN_SECONDS = 1L;
+
+    private static final String EVENTS_FILE_SUFFIX = "-events.tsv";
+    private static final String TIMELINE_FILE_SUFFIX = "-timeline.json";
+    // WildFly starting, started, started with errors and stopped messages
+    private static final List<String> LOG_MILESTONES = Arrays.asList("WFLYSRV0049", "WFLYSRV0025", "WFLYSRV0026", "WFLYSRV0050");
+
+    private final Project project;
+    private final File eventsFile;
+    private final File timelineFile;
+    private final ResourceEventListener<Event> eventListener = this::onEvent;
+    private final ResourceEventListener<Pod> podListener = this::onPodEvent;
+    private final ResourceEventListener<DeploymentConfig> deploymentConfigListener = this::onDeploymentConfigEvent;
+    // Last recorded state per resource, so resync and unrelated changes don't duplicate records
+    private final Map<String, String> lastStates = new ConcurrentHashMap<>();
+    private final Set<String> recordedEvents = ConcurrentHashMap.newKeySet();
+    private final Set<String> startedLogs = ConcurrentHashMap.newKeySet();
+
+    private BufferedWriter writer;
+    private volatile ScheduledExecutorService reconnectExecutor;
+    private volatile ResourceStore<Event> eventStore;
+
+    public EventsRecorder(Project project, String logFolderName) {
+        this.project = project;
+        File logDirectory = InstanceLogUtil.getLogDirectory(logFolderName);
+        this.eventsFile = new File(logDirectory, project.getName() + EVENTS_FILE_SUFFIX);
+        this.timelineFile = new File(logDirectory, project.getName() + TIMELINE_FILE_SUFFIX);
+    }
+
+    /**
+     * Start watching the project. Events, pods and deployment configs existing at start are recorded too.
+     */
+    public synchronized void start() {
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(eventsFile.toPath()), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Error creating events file " + eventsFile.getAbsolutePath(), e);
+        }
+        OpenShift openShift = project.getOpenShift(ApiPriority.DIAGNOSTICS);
+        reconnectExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "events-recorder-" + project.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        eventStore = new ResourceStore<>("Event",
+                                         () -> openShift.events().list(),
+                                         (resourceVersion, watcher) -> openShift.events().withResourceVersion(resourceVersion).watch(watcher),
+                                         event -> null,
+                                         reconnectExecutor);
+        eventStore.addListener(eventListener);
+        startEventStore();
+        project.getResourceCache().addPodListener(podListener);
+        project.getResourceCache().addDeploymentConfigListener(deploymentConfigListener);
+        project.getResourceCache().getPods().forEach(pod -> onPodEvent(Action.ADDED, pod));
+        project.getResourceCache().getDeploymentConfigs().forEach(deploymentConfig -> onDeploymentConfigEvent(Action.ADDED, deploymentConfig));
+    }
+
+    private void startEventStore() {
+        try {
+            eventStore.start();
+        } catch (RuntimeException e) {
+            if (reconnectExecutor.isShutdown()) {
+                return;
+            }
+            logger.debug("Event watch of project {} can't be started, retrying.", project.getName(), e);
+            reconnectExecutor.schedule(this::startEventStore, RECONNECT_DELAY_IN_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Record instance log line if it is a milestone, i.e. the first line of the log or a server start or stop.
+     *
+     * @param logName Name of the log, composed of instance and container name.
+     * @param line Log line.
+     * @param time Server time the line was written.
+     */
+    void recordLogLine(String logName, String line, Instant time) {
+        if (startedLogs.add(logName)) {
+            record(time, SOURCE_LOG, logName, "first line: " + line);
+        } else if (LOG_MILESTONES.stream().anyMatch(line::contains)) {
+            record(time, SOURCE_LOG, logName, line);
+        }
+    }
+
+    private void onEvent(Action action, Event event) {
+        // Expired events are removed from the store, they were recorded already
+        if (action == Action.DELETED) {
+            return;
+        }
+        // Re-list after watch reconnect replays existing events, count distinguishes repeated occurrences
+        if (!recordedEvents.add(event.getMetadata().getUid() + ":" + event.getCount())) {
+            return;
+        }
+        String object = event.getInvolvedObject().getKind() + "/" + event.getInvolvedObject().getName();
+        String message = event.getType() + " " + event.getReason() + ": " + event.getMessage();
+        if (event.getCount() != null && event.getCount() > 1) {
+            message += " (x" + event.getCount() + ")";
+        }
+        record(getEventTime(event), SOURCE_EVENT, object, message);
+    }
+
+    private static Instant getEventTime(Event event) {
+        for (String timestamp : Arrays.asList(event.getLastTimestamp(), event.getFirstTimestamp(), event.getMetadata().getCreationTimestamp())) {
+            if (timestamp != null) {
+                try {
+                    return Instant.parse(timestamp);
+                } catch (DateTimeParseException e) {
+                    logger.trace("Unparsable event timestamp {}", timestamp);
+                }
+            }
+        }
+        return Instant.now();
+    }
+
+    private void onPodEvent(Action action, Pod pod) {
+        String state = action == Action.DELETED ? "deleted" : getPodState(pod);
+        recordChange(SOURCE_POD, pod.getMetadata().getName(), state);
+    }
+
+    static String getPodState(Pod pod) {
+        if (pod.getStatus() == null) {
+            return "unknown";
+        }
+        StringBuilder state = new StringBuilder(String.valueOf(pod.getStatus().getPhase()));
+        if (pod.getSpec() != null && pod.getSpec().getNodeName() != null) {
+            state.append(" on ").append(pod.getSpec().getNodeName());
+        }
+        if (pod.getStatus().getContainerStatuses() != null) {
+            for (ContainerStatus containerStatus : pod.getStatus().getContainerStatuses()) {
+                state.append(", ").append(containerStatus.getName()).append(' ').append(getContainerState(containerStatus.getState()));
+                if (Boolean.TRUE.equals(containerStatus.getReady())) {
+                    state.append(" ready");
+                }
+            }
+        }
+        return state.toString();
+    }
+
+    private static String getContainerState(ContainerState containerState) {
+        if (containerState == null) {
+            return "unknown";
+        } else if (containerState.getRunning() != null) {
+            return "running";
+        } else if (containerState.getTerminated() != null) {
+            return "terminated " + containerState.getTerminated().getReason();
+        } else if (containerState.getWaiting() != null) {
+            return "waiting " + containerState.getWaiting().getReason();
+        }
+        return "unknown";
+    }
+
+    private void onDeploymentConfigEvent(Action action, DeploymentConfig deploymentConfig) {
+        String state = action == Action.DELETED ? "deleted" : getDeploymentConfigState(deploymentConfig);
+        recordChange(SOURCE_DEPLOYMENT_CONFIG, deploymentConfig.getMetadata().getName(), state);
+    }
+
+    private static String getDeploymentConfigState(DeploymentConfig deploymentConfig) {
+        if (deploymentConfig.getStatus() == null) {
+            return "replicas " + deploymentConfig.getSpec().getReplicas();
+        }
+        return "version " + deploymentConfig.getStatus().getLatestVersion() +
+               ", replicas " + deploymentConfig.getSpec().getReplicas() +
+               ", ready " + deploymentConfig.getStatus().getReadyReplicas() +
+               ", available " + deploymentConfig.getStatus().getAvailableReplicas();
+    }
+
+    private void recordChange(String source, String object, String state) {
+        String previousState = lastStates.put(source + "/" + object, state);
+        if (!state.equals(previousState)) {
+            record(Instant.now(), source, object, state);
+        }
+    }
+
+    private synchronized void record(Instant time, String source, String object, String message) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(new TimelineEntry(time, source, object, message).toLine());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            logger.error("Error recording event of project {}", project.getName(), e);
+        }
+    }
+
+    /**
+     * Stop watching the project and close the events file.
+     */
+    @Override
+    public void close() {
+        project.getResourceCache().removePodListener(podListener);
+        project.getResourceCache().removeDeploymentConfigListener(deploymentConfigListener);
+        // Event store notifies the recorder under its own lock, so it is closed without holding the recorder lock
+        if (eventStore != null) {
+            eventStore.close();
+        }
+        if (reconnectExecutor != null) {
+            reconnectExecutor.shutdownNow();
+        }
+        closeWriter();
+    }
+
+    private synchronized void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.error("Error closing events file {}", eventsFile.getAbsolutePath(), e);
+            }
+            writer = null;
+        }
+    }
+
+    /**
+     * Merge recorded events with deployment phases into chronological timeline file.
+     *
+     * @param deploymentTrace Trace of the scenario deployment, may be null.
+     */
+    public void writeTimeline(Trace deploymentTrace) {
+        try {
+            List<TimelineEntry> timeline = mergeTimeline(readEntries(eventsFile), deploymentTrace);
+            List<Map<String, Object>> json = timeline.stream().map(TimelineEntry::toJson).collect(Collectors.toList());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(timelineFile, json);
+            logger.info("Timeline of project {} stored in {}", project.getName(), timelineFile.getAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Error storing timeline of project {}", project.getName(), e);
+        }
+    }
+
+    static List<TimelineEntry> readEntries(File eventsFile) throws IOException {
+        List<TimelineEntry> entries = new ArrayList<>();
+        if (!eventsFile.isFile()) {
+            return entries;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(eventsFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                TimelineEntry entry = TimelineEntry.fromLine(line);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    static List<TimelineEntry> mergeTimeline(List<TimelineEntry> entries, Trace deploymentTrace) {
+        List<TimelineEntry> timeline = new ArrayList<>(entries);
+        if (deploymentTrace != null) {
+            for (Span span : deploymentTrace.getSpans()) {
+                long durationInMs = TimeUnit.MICROSECONDS.toMillis(span.getDurationMicros());
+                String message = "took " + durationInMs + " ms" + (span.getError() == null ? "" : ", failed: " + span.getError());
+                TimelineEntry entry = new TimelineEntry(Instant.ofEpochMilli(TimeUnit.MICROSECONDS.toMillis(span.getStartMicros())), SOURCE_PHASE, span.getName(), message);
+                entry.durationInMs = durationInMs;
+                timeline.add(entry);
+            }
+        }
+        // Stable sort keeps the order of records received at the same time
+        timeline.sort(Comparator.comparing(entry -> entry.time));
+        return timeline;
+    }
+
+    static class TimelineEntry {
+
+        private final Instant time;
+        private final String source;
+        private final String object;
+        private final String message;
+        private Long durationInMs;
+
+        TimelineEntry(Instant time, String source, String object, String message) {
+            this.time = time;
+            this.source = source;
+            this.object = object;
+            this.message = message;
+        }
+
+        Instant getTime() {
+            return time;
+        }
+
+        String getSource() {
+            return source;
+        }
+
+        String getObject() {
+            return object;
+        }
+
+        String getMessage() {
+            return message;
+        }
+
+        private String toLine() {
+            return time.toEpochMilli() + "\t" + source + "\t" + escape(object) + "\t" + escape(message);
+        }
+
+        private static TimelineEntry fromLine(String line) {
+            String[] fields = line.split("\t", 4);
+            if (fields.length < 4) {
+                return null;
+            }
+            return new TimelineEntry(Instant.ofEpochMilli(Long.parseLong(fields[0])), fields[1], fields[2], fields[3]);
+        }
+
+        private static String escape(String value) {
+            return String.valueOf(value).replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        }
+
+        private Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("time", time.toString());
+            json.put("source", source);
+            json.put("object", object);
+            json.put("message", message);
+            if (durationInMs != null) {
+                json.put("durationMs", durationInMs);
+            }
+            return json;
+        }
     }
 }
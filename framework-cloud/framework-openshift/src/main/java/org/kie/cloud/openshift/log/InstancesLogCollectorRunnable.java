@@ -1,45 +1,83 @@
 package org.kie.cloud.openshift.log;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import io.fabric8.kubernetes.client.dsl.LogWatch;
 import org.kie.cloud.api.deployment.Instance;
-import org.kie.cloud.common.logs.InstanceLogUtil;
+import org.kie.cloud.openshift.client.ApiPriority;
 import org.kie.cloud.openshift.deployment.OpenShiftInstance;
 import org.kie.cloud.openshift.resource.Project;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Streams logs of all project containers into files. Every container log is read by its own task and written through
+ * {@link ContainerLogSink}, the log stream is resumed from the last received line if the connection is closed while the
+ * instance is still running.
+ */
 public class InstancesLogCollectorRunnable implements Runnable {
 
     private static final Logger logger = LoggerFactory.getLogger(InstancesLogCollectorRunnable.class);
 
-    private static final Integer DEFAULT_OBERVABLE_BUFFER_IN_SECONDS = 5;
+    private static final long RECONNECT_DELAY_IN_MS = 1000L;
 
     private Project project;
     private String logFolderName;
+    private EventsRecorder eventsRecorder;
+    private Instant collectSince;
 
     protected ExecutorService executorService = Executors.newCachedThreadPool();
     protected Set<OpenShiftInstance> observedInstances = Collections.synchronizedSet(new HashSet<>());
 
+    private final ExecutorService writerExecutorService = Executors.newSingleThreadExecutor();
+    private final Map<String, ContainerLogSink> sinks = new ConcurrentHashMap<>();
+    // Time of last received line per container, so observing the instance again doesn't duplicate the log
+    private final Map<String, Instant> lastLineTimes = new ConcurrentHashMap<>();
+    private final Set<LogWatch> openLogWatches = ConcurrentHashMap.newKeySet();
+    private volatile boolean closing;
+
     public InstancesLogCollectorRunnable(Project project, String logFolderName) {
+        this(project, logFolderName, null);
+    }
+
+    /**
+     * @param eventsRecorder Recorder of log milestones, may be null.
+     */
+    public InstancesLogCollectorRunnable(Project project, String logFolderName, EventsRecorder eventsRecorder) {
+        this(project, logFolderName, eventsRecorder, null);
+    }
+
+    /**
+     * @param eventsRecorder Recorder of log milestones, may be null.
+     * @param collectSince Time logs are collected from, null to collect whole logs.
+     */
+    public InstancesLogCollectorRunnable(Project project, String logFolderName, EventsRecorder eventsRecorder, Instant collectSince) {
         super();
         this.project = project;
         this.logFolderName = logFolderName;
+        this.eventsRecorder = eventsRecorder;
+        this.collectSince = collectSince;
     }
 
     @Override
     public void run() {
         // Check for new instances and observe on them
-        project.getAllInstances()
+        project.getAllInstances(ApiPriority.DIAGNOSTICS)
                .stream()
                .filter(instance -> instance instanceof OpenShiftInstance)
                .map(instance -> (OpenShiftInstance) instance)
@@ -50,8 +88,9 @@ public class InstancesLogCollectorRunnable implements Runnable {
     }
 
     public void closeAndFlushRemainingInstanceCollectors(int waitForCompletionInMs) {
-        // Make a copy before stopping collector threads
-        List<OpenShiftInstance> instances = new ArrayList<>(observedInstances);
+        closing = true;
+        // Closing the watches unblocks collector threads waiting for next log line
+        openLogWatches.forEach(LogWatch::close);
 
         // Stop all collectors
         executorService.shutdown(); // Disable new tasks from being submitted
@@ -74,55 +113,105 @@ public class InstancesLogCollectorRunnable implements Runnable {
             // Preserve interrupt status
             Thread.currentThread().interrupt();
         } finally {
-            // Finally, flush logs to be sure we have the last state of running pods
-            instances.forEach(this::flushInstanceLogs);
+            // Finally, write lines which are still buffered
+            sinks.values().forEach(ContainerLogSink::close);
+            writerExecutorService.shutdown();
         }
     }
 
     private void observeInstanceLog(OpenShiftInstance instance) {
-        Future<?> future = executorService.submit(() -> {
-            try {
-                instance.observeAllContainersLogs()
-                        .entrySet()
-                        .forEach(entry -> {
-                            entry.getValue().buffer(DEFAULT_OBERVABLE_BUFFER_IN_SECONDS, TimeUnit.SECONDS)
-                                 .subscribe(logLines -> instanceLogLines(instance, entry.getKey(), logLines), error -> {
-                                     throw new RuntimeException(error);
-                                 });
-                        });
-
-            } catch (Exception e) {
-                logger.error("Problem observing logs for instance " + instance.getName(), e);
-            } finally {
-                removeInstanceObserved(instance);
+        setInstanceAsObserved(instance);
+        try {
+            List<String> containerNames = instance.getContainerNames();
+            CompletableFuture<?>[] containerCollectors = new CompletableFuture<?>[containerNames.size()];
+            for (int i = 0; i < containerNames.size(); i++) {
+                String containerName = containerNames.get(i);
+                containerCollectors[i] = CompletableFuture.runAsync(() -> collectContainerLog(instance, containerName), executorService);
             }
-        });
-        setInstanceAsObserved(instance, future);
+            CompletableFuture.allOf(containerCollectors).whenComplete((result, error) -> removeInstanceObserved(instance));
+        } catch (Exception e) {
+            logger.error("Problem observing logs for instance " + instance.getName(), e);
+            removeInstanceObserved(instance);
+        }
     }
 
-    private void instanceLogLines(OpenShiftInstance instance, String containerName, Collection<String> logLines) {
-        logger.trace("Write log lines {}", logLines);
-        InstanceLogUtil.appendInstanceLogLines(getName(instance, containerName), logFolderName, logLines);
+    private void collectContainerLog(OpenShiftInstance instance, String containerName) {
+        String logName = getName(instance, containerName);
+        ContainerLogSink sink = sinks.computeIfAbsent(logName, name -> new ContainerLogSink(name, logFolderName, writerExecutorService));
+        try {
+            while (!closing) {
+                try {
+                    streamContainerLog(instance, containerName, sink);
+                } catch (IOException e) {
+                    // Connection dropped, the stream is resumed as if it was closed
+                    if (closing) {
+                        break;
+                    }
+                    logger.debug("Log stream of {} failed.", logName, e);
+                }
+                if (closing || !instance.isRunning()) {
+                    break;
+                }
+                logger.debug("Log stream of {} was closed, resuming.", logName);
+                Thread.sleep(RECONNECT_DELAY_IN_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (!closing) {
+                logger.error("Problem observing logs for instance " + instance.getName(), e);
+            }
+        }
     }
 
-    private void flushInstanceLogs(OpenShiftInstance instance) {
-        logger.trace("Flushing logs from {}", instance.getName());
-        if (instance.exists()) {
-            logger.trace("Flush logs from {}", instance.getName());
-            instance.getAllContainerLogs()
-                    .entrySet()
-                    .forEach(entry -> {
-                        writeInstanceLogs(instance, entry.getKey(), entry.getValue());
-                    });
-
-        } else {
-            logger.trace("Ignoring instance {} as not running", instance.getName());
+    /**
+     * Stream the container log from the last line received before. Server time of every received line is stored right
+     * away, so the next stream resumes after it even if this stream fails.
+     */
+    private void streamContainerLog(OpenShiftInstance instance, String containerName, ContainerLogSink sink) throws IOException, InterruptedException {
+        String logName = getName(instance, containerName);
+        Instant sinceTime = lastLineTimes.getOrDefault(logName, collectSince);
+        LogWatch logWatch = instance.watchContainerLog(containerName, sinceTime);
+        openLogWatches.add(logWatch);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(logWatch.getOutput(), StandardCharsets.UTF_8))) {
+            String timestampedLine;
+            while ((timestampedLine = reader.readLine()) != null) {
+                Instant lineTime = parseTimestamp(timestampedLine);
+                // Since time is inclusive and has second precision, lines received before are streamed again
+                if (lineTime != null && sinceTime != null && !lineTime.isAfter(sinceTime)) {
+                    continue;
+                }
+                String line = lineTime == null ? timestampedLine : timestampedLine.substring(timestampedLine.indexOf(' ') + 1);
+                logger.trace("Write log line {}", line);
+                // Line without timestamp continues the previous one
+                Instant time = lineTime != null ? lineTime : lastLineTimes.getOrDefault(logName, Instant.now());
+                sink.append(line, time);
+                if (eventsRecorder != null) {
+                    eventsRecorder.recordLogLine(logName, line, time);
+                }
+                if (lineTime != null) {
+                    lastLineTimes.put(logName, lineTime);
+                }
+            }
+        } finally {
+            openLogWatches.remove(logWatch);
+            logWatch.close();
         }
     }
 
-    private void writeInstanceLogs(OpenShiftInstance instance, String containerName, String logs) {
-        logger.trace("Write log lines {}", logs);
-        InstanceLogUtil.writeInstanceLogs(getName(instance, containerName), logFolderName, logs);
+    /**
+     * @return Server timestamp the line is prefixed with, null if the line has no timestamp.
+     */
+    static Instant parseTimestamp(String timestampedLine) {
+        int separator = timestampedLine.indexOf(' ');
+        if (separator <= 0) {
+            return null;
+        }
+        try {
+            return Instant.parse(timestampedLine.substring(0, separator));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
 
     private boolean isInstanceObserved(OpenShiftInstance instance) {
@@ -132,7 +221,7 @@ public class InstancesLogCollectorRunnable implements Runnable {
         }
     }
 
-    private void setInstanceAsObserved(OpenShiftInstance instance, Future<?> future) {
+    private void setInstanceAsObserved(OpenShiftInstance instance) {
         logger.trace("Observe instance {}", instance.getName());
         this.observedInstances.add(instance);
     }
@@ -22,6 +22,9 @@ import java.util.Map;
 
 import cz.xtf.core.openshift.OpenShift;
 import org.kie.cloud.api.deployment.Instance;
+import org.kie.cloud.openshift.client.ApiPriority;
+import org.kie.cloud.openshift.watch.ProjectResourceCache;
+import org.kie.cloud.openshift.watch.ProjectTopology;
 
 /**
  * Project representation.
@@ -43,11 +46,28 @@ public interface Project extends AutoCloseable {
      */
     public OpenShift getOpenShift();
 
+    /**
+     * @param priority Priority of API calls made by the client.
+     * @return OpenShift client, closed together with the project.
+     */
+    public OpenShift getOpenShift(ApiPriority priority);
+
     /**
      * @return OpenShift admin client.
      */
     public OpenShift getOpenShiftAdmin();
 
+    /**
+     * @return Cache of project resources kept up to date by watches.
+     * @throws IllegalStateException If the project is deleted.
+     */
+    public ProjectResourceCache getResourceCache();
+
+    /**
+     * @return Index of project services, routes and deployment configs by their role.
+     */
+    public ProjectTopology getTopology();
+
     /**
      * Process template and create all resources defined there.
      *
@@ -153,4 +173,13 @@ public interface Project extends AutoCloseable {
      * @see Instance
      */
     public List<Instance> getAllInstances();
+
+    /**
+     * Return list of all scheduled instances in the project.
+     *
+     * @param priority Priority of API calls made by the instances.
+     * @return List of Instances
+     * @see Instance
+     */
+    public List<Instance> getAllInstances(ApiPriority priority);
 }
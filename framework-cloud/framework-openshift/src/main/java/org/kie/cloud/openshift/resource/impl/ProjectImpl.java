@@ -21,29 +21,33 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Files;
-import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.BooleanSupplier;
 
 import cz.xtf.builder.builders.ImageStreamBuilder;
 import cz.xtf.builder.builders.ImageStreamBuilder.TagReferencePolicyType;
 import cz.xtf.builder.builders.SecretBuilder;
 import cz.xtf.core.openshift.OpenShift;
-import cz.xtf.core.openshift.OpenShiftBinary;
-import cz.xtf.core.openshift.OpenShifts;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesList;
+import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.openshift.api.model.ImageStream;
 import org.kie.cloud.api.deployment.Instance;
+import org.kie.cloud.common.trace.Tracer;
 import org.kie.cloud.openshift.OpenShiftController;
-import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.kie.cloud.openshift.client.ApiPriority;
+import org.kie.cloud.openshift.resource.OpenShiftResourceConstants;
 import org.kie.cloud.openshift.resource.Project;
+import org.kie.cloud.openshift.template.LocalTemplateProcessor;
+import org.kie.cloud.openshift.util.OpenShiftBinaryPool;
 import org.kie.cloud.openshift.util.OpenshiftInstanceUtil;
-import org.kie.cloud.openshift.util.ProcessExecutor;
+import org.kie.cloud.openshift.watch.CacheWaiter;
+import org.kie.cloud.openshift.watch.ProjectResourceCache;
+import org.kie.cloud.openshift.watch.ProjectTopology;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,6 +62,11 @@ public class ProjectImpl implements Project {
     private String projectName;
     private OpenShift openShift;
     private OpenShift openShiftAdmin;
+    // Clients of non deployment priorities, created on demand
+    private final Map<ApiPriority, OpenShift> priorityOpenShifts = new EnumMap<>(ApiPriority.class);
+    private ProjectResourceCache resourceCache;
+    private ProjectTopology topology;
+    private boolean deleted;
 
     public ProjectImpl(String projectName) {
         this.projectName = projectName;
@@ -75,49 +84,81 @@ public class ProjectImpl implements Project {
         return openShift;
     }
 
+    @Override
+    public synchronized OpenShift getOpenShift(ApiPriority priority) {
+        if (priority == ApiPriority.DEPLOYMENT) {
+            return openShift;
+        }
+        return priorityOpenShifts.computeIfAbsent(priority, p -> OpenShiftController.getOpenShift(projectName, p));
+    }
+
     @Override
     public OpenShift getOpenShiftAdmin() {
         return openShiftAdmin;
     }
 
+    @Override
+    public synchronized ProjectResourceCache getResourceCache() {
+        if (deleted) {
+            throw new IllegalStateException("Project " + projectName + " is deleted, its resources can't be cached.");
+        }
+        if (resourceCache == null) {
+            resourceCache = new ProjectResourceCache(getOpenShift(ApiPriority.WAITER));
+        }
+        return resourceCache;
+    }
+
+    @Override
+    public synchronized ProjectTopology getTopology() {
+        if (topology == null) {
+            topology = new ProjectTopology(getResourceCache());
+        }
+        return topology;
+    }
+
     @Override
     public void delete() {
+        synchronized (this) {
+            deleted = true;
+        }
+        closeResourceCache();
         openShift.deleteProject();
+        OpenShiftBinaryPool.release(getName());
     }
 
     @Override
     public void processTemplateAndCreateResources(URL templateUrl, Map<String, String> envVariables) {
-        boolean templateIsFile = templateUrl.getProtocol().equals("file");
-
-        // Used to log into OpenShift
-        OpenShiftBinary oc = getOpenShiftBinary(getName());
-
-        List<String> commandParameters = new ArrayList<>();
-        commandParameters.add(getOpenShiftBinaryPath());
-        commandParameters.add("process");
-        commandParameters.add("-f");
-        commandParameters.add(templateIsFile ? templateUrl.getPath() : templateUrl.toExternalForm());
-        commandParameters.add("--local");
-        commandParameters.add("--ignore-unknown-parameters=true");
-        commandParameters.add("-o");
-        commandParameters.add("yaml");
-        for (Entry<String, String> envVariable : envVariables.entrySet()) {
-            commandParameters.add("-p");
-            commandParameters.add(envVariable.getKey() + "=" + envVariable.getValue());
-        }
-        String completeProcessingCommand = commandParameters.stream().collect(Collectors.joining(" "));
+        String templateName = templateUrl.getPath().substring(templateUrl.getPath().lastIndexOf('/') + 1);
+        Tracer.run("process template " + templateName, () -> {
+            List<HasMetadata> resources = new LocalTemplateProcessor().process(templateUrl, envVariables);
+            openShift.lists().inNamespace(projectName).create(new KubernetesListBuilder().withItems(resources).build());
+            Tracer.run("wait for template resources", () -> waitUntilResourcesAreAvailable(resources));
+        });
+    }
 
-        try (ProcessExecutor executor = new ProcessExecutor()) {
-            File processedTemplate = executor.executeProcessCommandToTempFile(completeProcessingCommand);
-            oc.execute("create", "-n", getName(), "-f", processedTemplate.getAbsolutePath());
-        }
-        // TODO: Temporary workaround to wait until scenario is completely initialized as there is a delay between finishing template creation command
-        // and actual creation of resources on OpenShift. This should be removed when deployments won't be scaled in the beginning and will contain availability check.
-        try {
-            TimeUnit.SECONDS.sleep(10L);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupted while waiting for scenario to be initialized.", e);
+    /**
+     * Wait until all deployment configs, services and routes from the list are visible through the API.
+     *
+     * @param resources Created resources.
+     */
+    private void waitUntilResourcesAreAvailable(List<HasMetadata> resources) {
+        BooleanSupplier allResourcesAvailable = () -> resources.stream().allMatch(this::isAvailable);
+        new CacheWaiter(getResourceCache(), allResourcesAvailable).timeout(OpenShiftResourceConstants.DEPLOYMENT_CONFIG_CREATION_TIMEOUT)
+                                                                  .reason("Waiting for resources created from template to become available.")
+                                                                  .waitFor();
+    }
+
+    private boolean isAvailable(HasMetadata resource) {
+        String name = resource.getMetadata().getName();
+        switch (resource.getKind()) {
+            case "DeploymentConfig":
+                return getResourceCache().getDeploymentConfig(name).isPresent();
+            case "Service":
+                return getResourceCache().getService(name).isPresent();
+            case "Route":
+                return getResourceCache().getRoute(name).isPresent();
+            default:
+                return true;
         }
     }
 
@@ -143,15 +184,14 @@ public class ProjectImpl implements Project {
 
     @Override
     public void createResourcesFromYaml(String yamlUrl) {
-        final String output = openShiftBinaryClient().execute("create", "-f", yamlUrl);
+        final String output = OpenShiftBinaryPool.execute(getName(), "create", "-f", yamlUrl);
         logger.info("Yaml resources from file {} were created by oc client. Output = {}", yamlUrl, output);
     }
 
     @Override
     public void createResourcesFromYaml(List<String> yamlUrls) {
-        final OpenShiftBinary oc = openShiftBinaryClient();
         for (String url : yamlUrls) {
-            final String output = oc.execute("create", "-f", url);
+            final String output = OpenShiftBinaryPool.execute(getName(), "create", "-f", url);
             logger.info("Yaml resources from file {} were created by oc client. Output = {}", url, output);
         }
     }
@@ -161,7 +201,7 @@ public class ProjectImpl implements Project {
         try {
             final File tmpYamlFile = File.createTempFile("openshift-resource-",".yaml");
             Files.write(tmpYamlFile.toPath(), yamlString.getBytes("UTF-8"));
-            final String output = openShiftBinaryClient().execute("create", "-f", tmpYamlFile.getAbsolutePath());
+            final String output = OpenShiftBinaryPool.execute(getName(), "create", "-f", tmpYamlFile.getAbsolutePath());
             logger.info("Yaml resources from string was created by oc client. Output = {}", output);
         } catch (IOException e) {
             throw new RuntimeException("Error creating resource from string", e);
@@ -170,15 +210,14 @@ public class ProjectImpl implements Project {
 
     @Override
     public void createResourcesFromYamlAsAdmin(String yamlUrl) {
-        final String output = openShiftBinaryClientAsAdmin().execute("create", "-f", yamlUrl);
+        final String output = OpenShiftBinaryPool.executeAsAdmin(getName(), "create", "-f", yamlUrl);
         logger.info("Yaml resources from file {} were created by oc client. Output = {}", yamlUrl, output);
     }
 
     @Override
     public void createResourcesFromYamlAsAdmin(List<String> yamlUrls) {
-        final OpenShiftBinary oc = openShiftBinaryClientAsAdmin();
         for (String url : yamlUrls) {
-            final String output = oc.execute("create", "-f", url);
+            final String output = OpenShiftBinaryPool.executeAsAdmin(getName(), "create", "-f", url);
             logger.info("Yaml resources from file {} were created by oc client. Output = {}", url, output);
         }
     }
@@ -188,34 +227,13 @@ public class ProjectImpl implements Project {
         try {
             final File tmpYamlFile = File.createTempFile("openshift-resource-",".yaml");
             Files.write(tmpYamlFile.toPath(), yamlString.getBytes("UTF-8"));
-            final String output = openShiftBinaryClientAsAdmin().execute("create", "-f", tmpYamlFile.getAbsolutePath());
+            final String output = OpenShiftBinaryPool.executeAsAdmin(getName(), "create", "-f", tmpYamlFile.getAbsolutePath());
             logger.info("Yaml resources from string was created by oc client. Output = {}", output);
         } catch (IOException e) {
             throw new RuntimeException("Error creating resource from string", e);
         }
     }
 
-    private OpenShiftBinary openShiftBinaryClient() {
-        Optional<OpenShiftBinary> oc;
-        synchronized (ProjectImpl.class) {
-            oc = Optional.of(OpenShifts.masterBinary(this.getName()));
-            oc.get().login(OpenShiftConstants.getOpenShiftUrl(), OpenShiftConstants.getOpenShiftUserName(),
-                           OpenShiftConstants.getOpenShiftPassword());
-        }
-        return oc.orElseThrow(RuntimeException::new);
-    }
-
-    private OpenShiftBinary openShiftBinaryClientAsAdmin() {
-        Optional<OpenShiftBinary> oc;
-        synchronized (ProjectImpl.class) {
-            oc = Optional.of(OpenShifts.masterBinary(this.getName()));
-            oc.get().login(OpenShiftConstants.getOpenShiftUrl(), OpenShiftConstants.getOpenShiftAdminUserName(),
-                           OpenShiftConstants.getOpenShiftAdminPassword());
-        }
-
-        return oc.orElseThrow(RuntimeException::new);
-    }
-
     @Override
     public void createResources(InputStream inputStream) {
         KubernetesList resourceList = openShift.lists().inNamespace(projectName).load(inputStream).get();
@@ -239,42 +257,61 @@ public class ProjectImpl implements Project {
 
     @Override
     public String runOcCommand(String... args) {
-        final String output = openShiftBinaryClient().execute(args);
+        final String output = OpenShiftBinaryPool.execute(getName(), args);
 
         return output;
     }
 
     @Override
     public String runOcCommandAsAdmin(String... args) {
-        final String output = openShiftBinaryClientAsAdmin().execute(args);
+        final String output = OpenShiftBinaryPool.executeAsAdmin(getName(), args);
 
         return output;
     }
 
     @Override
     public void close() {
+        closeResourceCache();
         try {
             openShift.close();
         } catch (Exception e) {
             logger.warn("Exception while closing OpenShift client.", e);
         }
+        closePriorityClients();
     }
 
-    private static synchronized OpenShiftBinary getOpenShiftBinary(String namespace) {
-        return OpenShifts.masterBinary(namespace);
+    private synchronized void closePriorityClients() {
+        for (OpenShift priorityOpenShift : priorityOpenShifts.values()) {
+            try {
+                priorityOpenShift.close();
+            } catch (Exception e) {
+                logger.warn("Exception while closing OpenShift client.", e);
+            }
+        }
+        priorityOpenShifts.clear();
     }
 
-    private static synchronized String getOpenShiftBinaryPath() {
-        return OpenShifts.getBinaryPath();
+    private synchronized void closeResourceCache() {
+        if (resourceCache != null) {
+            resourceCache.close();
+            resourceCache = null;
+            topology = null;
+        }
     }
 
     @Override
     public List<Instance> getAllInstances() {
-        return openShift
+        return getAllInstances(ApiPriority.DEPLOYMENT);
+    }
+
+    @Override
+    public List<Instance> getAllInstances(ApiPriority priority) {
+        OpenShift priorityOpenShift = getOpenShift(priority);
+        return priorityOpenShift
                 .getPods()
                 .stream()
                 .filter(this::isScheduledPod)
-                .map(pod -> OpenshiftInstanceUtil.createInstance(openShift, getName(), pod))
+                .map(pod -> OpenshiftInstanceUtil.createInstance(priorityOpenShift, getName(), pod))
                 .collect(toList());
     }
 
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.scenario;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kie.cloud.api.deployment.Deployment;
+import org.kie.cloud.common.trace.Tracer;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dependency graph of deployment steps. Every step starts as soon as all steps it depends on are finished, independent
+ * steps run concurrently on a bounded executor (see {@link OpenShiftConstants#getDeploymentParallelism()}).
+ *
+ * Steps have to be added after the steps they depend on, so the graph can't contain cycles. Every step is traced as a
+ * span nested into the span open when the graph is executed, see {@link Tracer}.
+ */
+public class DeploymentGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeploymentGraph.class);
+
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+
+    /**
+     * Add step to the graph.
+     *
+     * @param name Unique name of the step.
+     * @param action Action executed by the step.
+     * @param dependencies Names of the steps which have to finish before this step starts.
+     * @return This graph.
+     */
+    public DeploymentGraph addStep(String name, Runnable action, String... dependencies) {
+        if (steps.containsKey(name)) {
+            throw new IllegalArgumentException("Deployment step " + name + " is already defined.");
+        }
+        for (String dependency : dependencies) {
+            if (!steps.containsKey(dependency)) {
+                throw new IllegalArgumentException("Deployment step " + name + " depends on step " + dependency + " which isn't defined yet.");
+            }
+        }
+        steps.put(name, new Step(action, dependencies));
+        return this;
+    }
+
+    /**
+     * Add step waiting until deployment is scaled.
+     *
+     * @param name Unique name of the step, used in log messages.
+     * @param deployment Deployment to wait for, null deployments are skipped.
+     * @param dependencies Names of the steps which have to finish before this step starts.
+     * @return This graph.
+     */
+    public DeploymentGraph addWaitForScale(String name, Deployment deployment, String... dependencies) {
+        return addStep(name, () -> {
+            if (deployment != null) {
+                logger.info("Waiting for {} deployment to become ready.", name);
+                deployment.waitForScale();
+            }
+        }, dependencies);
+    }
+
+    /**
+     * Execute all steps and wait until they are finished. If any step fails then the failure is rethrown once all
+     * running steps are finished, steps depending on the failed step are not started.
+     */
+    public void execute() {
+        if (steps.isEmpty()) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(steps.size(), OpenShiftConstants.getDeploymentParallelism()), new StepThreadFactory());
+        try {
+            Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+            steps.forEach((name, step) -> {
+                CompletableFuture<?>[] dependencyFutures = new CompletableFuture<?>[step.dependencies.length];
+                for (int i = 0; i < step.dependencies.length; i++) {
+                    dependencyFutures[i] = futures.get(step.dependencies[i]);
+                }
+                Runnable tracedAction = Tracer.wrap(() -> Tracer.run(name, step.action));
+                futures.put(name, CompletableFuture.allOf(dependencyFutures).thenRunAsync(tracedAction, executor));
+            });
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[futures.size()])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Error while executing deployment steps.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class Step {
+
+        private final Runnable action;
+        private final String[] dependencies;
+
+        private Step(Runnable action, String[] dependencies) {
+            this.action = action;
+            this.dependencies = dependencies;
+        }
+    }
+
+    private static class StepThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "deployment-step-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -15,15 +15,20 @@
 
 package org.kie.cloud.openshift.scenario;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -33,18 +38,32 @@ import io.fabric8.kubernetes.api.model.Pod;
 import org.apache.commons.codec.binary.Base64;
 import org.kie.cloud.api.deployment.Deployment;
 import org.kie.cloud.api.deployment.MavenRepositoryDeployment;
+import org.kie.cloud.api.deployment.RouterConfiguration;
 import org.kie.cloud.api.deployment.constants.DeploymentConstants;
 import org.kie.cloud.api.scenario.DeploymentScenario;
 import org.kie.cloud.api.scenario.DeploymentScenarioListener;
 import org.kie.cloud.common.after.AfterLoadScenario;
+import org.kie.cloud.common.logs.InstanceLogUtil;
+import org.kie.cloud.common.provider.KieServerClientProvider;
+import org.kie.cloud.common.provider.KieServerControllerClientProvider;
+import org.kie.cloud.common.timing.TimingDatabase;
+import org.kie.cloud.common.timing.TimingRecord;
+import org.kie.cloud.common.trace.Span;
+import org.kie.cloud.common.trace.Trace;
+import org.kie.cloud.common.trace.Tracer;
 import org.kie.cloud.openshift.OpenShiftController;
+import org.kie.cloud.openshift.client.ApiCallMetrics;
 import org.kie.cloud.openshift.constants.OpenShiftConstants;
 import org.kie.cloud.openshift.constants.images.imagestream.ImageStreamProvider;
+import org.kie.cloud.openshift.deployment.RouteConfigurationTransaction;
 import org.kie.cloud.openshift.deployment.external.ExternalDeployment;
 import org.kie.cloud.openshift.deployment.external.ExternalDeployment.ExternalDeploymentID;
 import org.kie.cloud.openshift.log.EventsRecorder;
 import org.kie.cloud.openshift.log.InstancesLogCollectorRunnable;
 import org.kie.cloud.openshift.resource.Project;
+import org.kie.cloud.openshift.util.ImagePrePuller;
+import org.kie.cloud.openshift.util.NamespaceReaper;
+import org.kie.cloud.openshift.util.NodeImageReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,12 +76,16 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
     protected Project project;
     private String logFolderName;
     private boolean createImageStreams;
+    private Trace deploymentTrace;
+    private Instant deploymentStart;
 
     private ScheduledExecutorService logCollectorExecutorService;
     private InstancesLogCollectorRunnable instancesLogCollectorRunnable;
+    private EventsRecorder eventsRecorder;
 
     private List<DeploymentScenarioListener<T>> deploymentScenarioListeners = new ArrayList<>();
     protected List<ExternalDeployment<?, ?>> externalDeployments = new ArrayList<>();
+    private Set<ExternalDeployment<?, ?>> synchronizedExternalDeployments = new HashSet<>();
 
     private final ServiceLoader<AfterLoadScenario> afterLoadActions;
 
@@ -90,12 +113,84 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
 
     @Override
     public void setLogFolderName(String logFolderName) {
+        String previousLogFolderName = getLogFolderName();
         this.logFolderName = logFolderName;
+        if (instancesLogCollectorRunnable != null && !Objects.equals(previousLogFolderName, getLogFolderName())) {
+            switchLogCollectors(previousLogFolderName);
+        }
     }
 
     @Override
     public final void deploy() {
+        deploymentStart = Instant.now();
+        Span deploymentSpan = Tracer.startTrace("deploy " + getClass().getSimpleName());
+        try {
+            if (OpenShiftConstants.isImagePrePullEnabled()) {
+                Tracer.run("image pre-pull", this::prePullImages);
+            }
+
+            Tracer.run("project", () -> {
+                // Pre-provisioned projects contain image streams
+                project = createImageStreams ? ProjectPool.claim() : null;
+                if (project == null) {
+                    createProject();
+                } else {
+                    projectName = project.getName();
+                    logger.info("Launch instances log collector on project {}", projectName);
+                    initLogCollectors();
+                }
+            });
+
+            Tracer.run("external deployments", this::deployExternalDeployments);
+
+            Tracer.run("deployment scenario listeners", () -> {
+                for (DeploymentScenarioListener<T> deploymentScenarioListener : deploymentScenarioListeners) {
+                    deploymentScenarioListener.beforeDeploymentStarted((T) this);
+                }
+            });
+
+            Tracer.run("kie deployments", this::deployKieDeployments);
+            Tracer.run("after load actions", this::runOnAfterActions);
+        } catch (RuntimeException | Error e) {
+            deploymentSpan.setError(e);
+            throw e;
+        } finally {
+            deploymentSpan.close();
+            deploymentTrace = deploymentSpan.getTrace();
+            writeDeploymentTrace();
+            TimingDatabase.recordDeploymentTrace(getClass().getSimpleName(), projectName, deploymentTrace);
+        }
+    }
+
+    /**
+     * @return Timing spans of the last scenario deployment, null if the scenario wasn't deployed yet.
+     */
+    public Trace getDeploymentTrace() {
+        return deploymentTrace;
+    }
+
+    private void writeDeploymentTrace() {
+        if (projectName == null) {
+            logger.warn("Scenario project wasn't created, deployment trace isn't stored.");
+            return;
+        }
+        File traceFile = new File(InstanceLogUtil.getLogDirectory(getLogFolderName()), projectName + "-deployment-trace.json");
+        try {
+            deploymentTrace.writeChromeTrace(traceFile);
+            logger.info("Deployment trace stored in {}", traceFile.getAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Error storing deployment trace", e);
+        }
+    }
 
+    private void prePullImages() {
+        NodeImageReport report = ImagePrePuller.prePullOnce();
+        if (!report.isWarm() && OpenShiftConstants.isImagePrePullRequired()) {
+            throw new RuntimeException("Images are not pulled on nodes " + report.getColdNodes() + ":" + System.lineSeparator() + report);
+        }
+    }
+
+    private void createProject() {
         // OpenShift restriction: Hostname must be shorter than 63 characters
         projectName = UUID.randomUUID().toString().substring(0, 4);
         OpenShiftConstants.getNamespacePrefix().ifPresent(p -> projectName = p + "-" + projectName);
@@ -103,26 +198,23 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
         logger.info("Generated project name is " + projectName);
 
         logger.info("Creating project " + projectName);
-        project = OpenShiftController.createProject(projectName);
-
-        // Init the log collector
-        logger.info("Launch instances log collector on project {}", projectName);
-        initLogCollectors();
-
-        deploySecretConfig();
-        deploySecretAppUser();
+        project = Tracer.call("create project", () -> OpenShiftController.createProject(projectName));
 
+        // Project setup steps are independent of each other
+        DeploymentGraph projectSetup = new DeploymentGraph();
+        projectSetup.addStep("log collector", () -> {
+            logger.info("Launch instances log collector on project {}", projectName);
+            initLogCollectors();
+        });
+        projectSetup.addStep("config secret", () -> deploySecretConfig(project));
+        projectSetup.addStep("app user secret", () -> deploySecretAppUser(project));
         if (createImageStreams) {
-            logger.info("Creating image streams.");
-            ImageStreamProvider.createImageStreamsInProject(project);
-        }
-
-        for (DeploymentScenarioListener<T> deploymentScenarioListener : deploymentScenarioListeners) {
-            deploymentScenarioListener.beforeDeploymentStarted((T) this);
+            projectSetup.addStep("image streams", () -> {
+                logger.info("Creating image streams.");
+                ImageStreamProvider.createImageStreamsInProject(project);
+            });
         }
-
-        deployKieDeployments();
-        runOnAfterActions();
+        projectSetup.execute();
     }
 
     /**
@@ -145,18 +237,51 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
             deploymentScenarioListener.afterScenarioFinished((T) this);
         }
 
-        try {
-            logger.info("Release log collector(s)");
-            releaseLogCollectors();
+        if (deploymentStart != null) {
+            TimingDatabase.record(TimingRecord.SCENARIO, getClass().getSimpleName(), TimingRecord.CLUSTER_TIME,
+                                  Duration.between(deploymentStart, Instant.now()).toMillis(), TimingRecord.STATUS_OK);
+            deploymentStart = null;
+        }
 
-            logger.info("Store project events.");
-            EventsRecorder.recordProjectEvents(project, getLogFolderName());
+        if (project == null) {
+            logger.warn("Scenario project wasn't created, nothing to undeploy.");
+            return;
+        }
 
-            project.delete();
-            project.close();
-        } catch (Exception e) {
-            logger.error("Error undeploy", e);
-            throw new RuntimeException("Error while undeploying scenario.", e);
+        evictClients();
+
+        // Logs, events and the project itself are handled in background while the next scenario is deployed
+        Project undeployedProject = project;
+        String undeployedLogFolderName = getLogFolderName();
+        ScheduledExecutorService undeployedLogCollectorExecutorService = logCollectorExecutorService;
+        InstancesLogCollectorRunnable undeployedInstancesLogCollectorRunnable = instancesLogCollectorRunnable;
+        EventsRecorder undeployedEventsRecorder = eventsRecorder;
+        Trace undeployedDeploymentTrace = deploymentTrace;
+        logCollectorExecutorService = null;
+        instancesLogCollectorRunnable = null;
+        eventsRecorder = null;
+
+        NamespaceReaper.reap(undeployedProject, () -> {
+            logger.info("Release log collector(s) of project {}", undeployedProject.getName());
+            releaseLogCollectors(undeployedLogCollectorExecutorService, undeployedInstancesLogCollectorRunnable);
+
+            if (undeployedEventsRecorder != null) {
+                logger.info("Store timeline of project {}", undeployedProject.getName());
+                undeployedEventsRecorder.close();
+                undeployedEventsRecorder.writeTimeline(undeployedDeploymentTrace);
+            }
+
+            ApiCallMetrics.writeSummary(undeployedProject.getName(), undeployedLogFolderName);
+        });
+    }
+
+    /**
+     * Drop cached clients of all scenario deployments, so their marshallers and connections don't outlive the scenario.
+     */
+    private void evictClients() {
+        for (Deployment deployment : getDeployments()) {
+            KieServerClientProvider.evictClients(deployment);
+            KieServerControllerClientProvider.evictClients(deployment);
         }
     }
 
@@ -171,21 +296,72 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
         }
     }
 
+    /**
+     * Deploy all external deployments concurrently, then configure the scenario with them in the order they were added.
+     */
+    private void deployExternalDeployments() {
+        DeploymentGraph externalDeploymentsGraph = new DeploymentGraph();
+        for (int i = 0; i < externalDeployments.size(); i++) {
+            ExternalDeployment<?, ?> externalDeployment = externalDeployments.get(i);
+            externalDeploymentsGraph.addStep(externalDeployment.getKey() + "-" + i, () -> {
+                Deployment deployment = externalDeployment.deploy(project);
+                if (synchronizedExternalDeployments.contains(externalDeployment)) {
+                    deployment.waitForScale();
+                } else {
+                    deployment.waitForScheduled();
+                }
+            });
+        }
+        externalDeploymentsGraph.execute();
+
+        externalDeployments.forEach(this::configureWithExternalDeployment);
+    }
+
     private void runOnAfterActions() {
-        afterLoadActions.forEach(action -> action.after(this));
+        afterLoadActions.forEach(action -> Tracer.run(action.getClass().getSimpleName(), () -> action.after(this)));
     }
 
     private void initLogCollectors() {
+        initLogCollectors(null);
+    }
+
+    /**
+     * @param collectSince Time instance logs are collected from, null to collect whole logs.
+     */
+    private void initLogCollectors(Instant collectSince) {
+        try {
+            eventsRecorder = new EventsRecorder(project, getLogFolderName());
+            eventsRecorder.start();
+        } catch (RuntimeException e) {
+            logger.error("Error starting events recorder of project {}", projectName, e);
+            eventsRecorder = null;
+        }
         logCollectorExecutorService = Executors.newScheduledThreadPool(1);
-        instancesLogCollectorRunnable = new InstancesLogCollectorRunnable(project, getLogFolderName());
+        instancesLogCollectorRunnable = new InstancesLogCollectorRunnable(project, getLogFolderName(), eventsRecorder, collectSince);
         logCollectorExecutorService.scheduleWithFixedDelay(instancesLogCollectorRunnable, 0, DEFAULT_SCHEDULED_FIX_RATE_LOG_COLLECTOR_IN_SECONDS, TimeUnit.SECONDS);
     }
 
-    private void releaseLogCollectors() {
+    /**
+     * Store logs, events and API calls collected so far into the previous log folder, then collect them into the current
+     * log folder from now on. Used when deployed scenario is handed over to another test.
+     */
+    private void switchLogCollectors(String previousLogFolderName) {
+        logger.info("Log folder of project {} changed from {} to {}", projectName, previousLogFolderName, getLogFolderName());
+        Instant switchTime = Instant.now();
+        releaseLogCollectors(logCollectorExecutorService, instancesLogCollectorRunnable);
+        if (eventsRecorder != null) {
+            eventsRecorder.close();
+            eventsRecorder.writeTimeline(deploymentTrace);
+        }
+        ApiCallMetrics.writeSummary(projectName, previousLogFolderName);
+        ApiCallMetrics.discard(projectName);
+        initLogCollectors(switchTime);
+    }
+
+    private static void releaseLogCollectors(ScheduledExecutorService logCollectorExecutorService, InstancesLogCollectorRunnable instancesLogCollectorRunnable) {
         try {
             if (Objects.nonNull(logCollectorExecutorService)) {
                 logCollectorExecutorService.shutdownNow();
-                logCollectorExecutorService = null;
             }
             if (Objects.nonNull(instancesLogCollectorRunnable)) {
                 instancesLogCollectorRunnable.closeAndFlushRemainingInstanceCollectors(5000);
@@ -204,7 +380,7 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
      * Add an external deployment to be executed before the specific scenario deployments are done
      * and undeployed when scenario is over.
      *
-     * This implements and add a deployment scenario listener to the scenario to be launched accordingly.
+     * External deployments are deployed concurrently before deployment scenario listeners are invoked.
      *
      * <b>Note that the deployment does NOT wait for the deployment to be ready.</b>
      *
@@ -212,21 +388,7 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
      */
     public void addExtraDeployment(ExternalDeployment<?, ?> externalDeployment) {
         externalDeployments.add(externalDeployment);
-        addDeploymentScenarioListener(new DeploymentScenarioListener<T>() {
-
-            @Override
-            public void beforeDeploymentStarted(T deploymentScenario) {
-                Deployment deployment = externalDeployment.deploy(project);
-                deployment.waitForScheduled();
-                configureWithExternalDeployment(externalDeployment);
-            }
-
-            @Override
-            public void afterScenarioFinished(T deploymentScenario) {
-                removeConfigurationFromExternalDeployment(externalDeployment);
-            }
-
-        });
+        addRemoveConfigurationListener(externalDeployment);
     }
 
     /**
@@ -234,20 +396,18 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
      * and undeployed when scenario is over, in a synchronized manner, meaning that it is waiting
      * that the deployment is ready to going further.
      *
-     * This implements and add a deployment scenario listener to the scenario to be launched accordingly.
+     * External deployments are deployed concurrently before deployment scenario listeners are invoked.
      *
      * @param externalDeployment External deployment to add to the scenario
      */
     public void addExtraDeploymentSynchronized(ExternalDeployment<?, ?> externalDeployment) {
         externalDeployments.add(externalDeployment);
-        addDeploymentScenarioListener(new DeploymentScenarioListener<T>() {
+        synchronizedExternalDeployments.add(externalDeployment);
+        addRemoveConfigurationListener(externalDeployment);
+    }
 
-            @Override
-            public void beforeDeploymentStarted(T deploymentScenario) {
-                Deployment deployment = externalDeployment.deploy(project);
-                deployment.waitForScale();
-                configureWithExternalDeployment(externalDeployment);
-            }
+    private void addRemoveConfigurationListener(ExternalDeployment<?, ?> externalDeployment) {
+        addDeploymentScenarioListener(new DeploymentScenarioListener<T>() {
 
             @Override
             public void afterScenarioFinished(T deploymentScenario) {
@@ -266,7 +426,12 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
                 .orElseThrow(() -> new RuntimeException("Maven repository deployment not found."));
     }
 
-    private void deploySecretConfig() {
+    @Override
+    public RouterConfiguration configureRouter() {
+        return new RouteConfigurationTransaction();
+    }
+
+    static void deploySecretConfig(Project project) {
         if (OpenShiftConstants.getTrustedKeystoreFile() == null) {
             throw new RuntimeException("Trusted keystore file is not set!");
         }
@@ -285,7 +450,7 @@ public abstract class OpenShiftScenario<T extends DeploymentScenario<T>> impleme
         }
     }
 
-    private void deploySecretAppUser() {
+    static void deploySecretAppUser(Project project) {
         logger.info("Creating user secret '{}'", DeploymentConstants.getAppCredentialsSecretName());
         Map<String, String> data = new HashMap<>();
         data.put(OpenShiftConstants.KIE_ADMIN_USER, DeploymentConstants.getAppUser());
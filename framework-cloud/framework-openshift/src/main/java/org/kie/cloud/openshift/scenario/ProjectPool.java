@@ -0,0 +1,235 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.scenario;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kie.cloud.openshift.OpenShiftController;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.kie.cloud.openshift.constants.images.imagestream.ImageStreamProvider;
+import org.kie.cloud.openshift.resource.Project;
+import org.kie.cloud.openshift.util.NamespaceReaper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of pre-provisioned projects. Projects are created in background together with the secrets and image streams
+ * every scenario needs, so scenario deployment can claim a ready project instead of provisioning it.
+ *
+ * Number of kept projects follows recent demand: it is the number of projects claimed while one project is being
+ * provisioned, plus one spare, limited by {@link OpenShiftConstants#getProjectPoolSize()}. Projects above the target
+ * size or unclaimed for too long are deleted asynchronously by {@link NamespaceReaper}.
+ *
+ * The pool is disabled when the maximal size is 0 (default).
+ */
+public class ProjectPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectPool.class);
+
+    private static final Duration DEMAND_WINDOW = Duration.ofMinutes(10);
+    private static final Duration MAX_IDLE_TIME = Duration.ofMinutes(30);
+    private static final long MAINTENANCE_INTERVAL_IN_SECONDS = 10L;
+    private static final int PROVISIONING_THREADS = 2;
+
+    private static ProjectPool instance;
+
+    private final int maxSize;
+    private final Deque<WarmProject> warmProjects = new ArrayDeque<>();
+    private final Deque<Instant> claims = new ArrayDeque<>();
+    private final ScheduledExecutorService maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("project-pool-maintenance"));
+    private final ExecutorService provisioningExecutor = Executors.newFixedThreadPool(PROVISIONING_THREADS, new DaemonThreadFactory("project-pool-provisioner"));
+    private int provisioning;
+    private long averageProvisioningMillis = TimeUnit.MINUTES.toMillis(1);
+
+    private ProjectPool(int maxSize) {
+        this.maxSize = maxSize;
+        maintenanceExecutor.scheduleWithFixedDelay(this::maintain, 0, MAINTENANCE_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "project-pool-shutdown"));
+    }
+
+    /**
+     * Claim a pre-provisioned project.
+     *
+     * @return Project with secrets and image streams created, null if the pool is disabled or has no project ready.
+     */
+    public static Project claim() {
+        ProjectPool pool = getInstance();
+        return pool == null ? null : pool.claimProject();
+    }
+
+    private static synchronized ProjectPool getInstance() {
+        int maxSize = OpenShiftConstants.getProjectPoolSize();
+        if (instance == null && maxSize > 0) {
+            logger.info("Starting project pool with maximal size {}", maxSize);
+            instance = new ProjectPool(maxSize);
+        }
+        return instance;
+    }
+
+    private Project claimProject() {
+        synchronized (this) {
+            claims.addLast(Instant.now());
+        }
+        maintenanceExecutor.execute(this::maintain);
+
+        WarmProject warmProject;
+        while ((warmProject = pollWarmProject()) != null) {
+            Project project = warmProject.project;
+            if (project.getOpenShift().projects().withName(project.getName()).get() != null) {
+                logger.info("Claimed pre-provisioned project {}", project.getName());
+                return project;
+            }
+            logger.warn("Pre-provisioned project {} doesn't exist anymore.", project.getName());
+            reap(project);
+        }
+        logger.info("No pre-provisioned project available.");
+        return null;
+    }
+
+    private synchronized WarmProject pollWarmProject() {
+        return warmProjects.pollFirst();
+    }
+
+    private synchronized void maintain() {
+        Instant now = Instant.now();
+        while (!claims.isEmpty() && claims.peekFirst().isBefore(now.minus(DEMAND_WINDOW))) {
+            claims.pollFirst();
+        }
+        int targetSize = getTargetSize();
+
+        Iterator<WarmProject> iterator = warmProjects.descendingIterator();
+        while (iterator.hasNext()) {
+            WarmProject warmProject = iterator.next();
+            if (warmProjects.size() > targetSize || warmProject.provisionedAt.isBefore(now.minus(MAX_IDLE_TIME))) {
+                logger.info("Recycling unused pre-provisioned project {}", warmProject.project.getName());
+                iterator.remove();
+                reap(warmProject.project);
+            }
+        }
+
+        while (warmProjects.size() + provisioning < targetSize) {
+            provisioning++;
+            provisioningExecutor.execute(this::provisionProject);
+        }
+    }
+
+    /**
+     * @return Number of projects claimed during provisioning of one project, based on claims in the demand window, plus
+     * one spare project.
+     */
+    private int getTargetSize() {
+        double claimsPerMillisecond = (double) claims.size() / DEMAND_WINDOW.toMillis();
+        int targetSize = 1 + (int) Math.ceil(claimsPerMillisecond * averageProvisioningMillis);
+        return Math.min(maxSize, targetSize);
+    }
+
+    private void provisionProject() {
+        Instant start = Instant.now();
+        Project project = null;
+        try {
+            // OpenShift restriction: Hostname must be shorter than 63 characters
+            String projectName = UUID.randomUUID().toString().substring(0, 4);
+            projectName = OpenShiftConstants.getNamespacePrefix().map(p -> p + "-").orElse("") + projectName;
+
+            logger.info("Pre-provisioning project {}", projectName);
+            project = OpenShiftController.createProject(projectName);
+            Project createdProject = project;
+            new DeploymentGraph().addStep("config secret", () -> OpenShiftScenario.deploySecretConfig(createdProject))
+                                 .addStep("app user secret", () -> OpenShiftScenario.deploySecretAppUser(createdProject))
+                                 .addStep("image streams", () -> ImageStreamProvider.createImageStreamsInProject(createdProject))
+                                 .execute();
+
+            synchronized (this) {
+                long provisioningMillis = Duration.between(start, Instant.now()).toMillis();
+                averageProvisioningMillis = (averageProvisioningMillis + provisioningMillis) / 2;
+                warmProjects.addLast(new WarmProject(project));
+            }
+            logger.info("Project {} pre-provisioned in {} ms", projectName, Duration.between(start, Instant.now()).toMillis());
+        } catch (Exception e) {
+            logger.error("Error pre-provisioning project", e);
+            if (project != null) {
+                reap(project);
+            }
+        } finally {
+            synchronized (this) {
+                provisioning--;
+            }
+        }
+    }
+
+    private void reap(Project project) {
+        NamespaceReaper.reap(project, () -> {});
+    }
+
+    private static void deleteProject(Project project) {
+        try {
+            project.delete();
+            project.close();
+        } catch (Exception e) {
+            logger.error("Error deleting project {}", project.getName(), e);
+        }
+    }
+
+    private void shutdown() {
+        maintenanceExecutor.shutdownNow();
+        provisioningExecutor.shutdownNow();
+        List<WarmProject> remainingProjects;
+        synchronized (this) {
+            remainingProjects = new ArrayList<>(warmProjects);
+            warmProjects.clear();
+        }
+        remainingProjects.forEach(warmProject -> deleteProject(warmProject.project));
+    }
+
+    private static class WarmProject {
+
+        private final Project project;
+        private final Instant provisionedAt = Instant.now();
+
+        private WarmProject(Project project) {
+            this.project = project;
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private DaemonThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.template;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResource;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.fabric8.openshift.api.model.Parameter;
+import io.fabric8.openshift.api.model.Template;
+
+/**
+ * Processes OpenShift template in the JVM, producing the same objects as <code>oc process --local --ignore-unknown-parameters=true</code>
+ * without forking the oc binary and writing the result into temporary file.
+ */
+public class LocalTemplateProcessor {
+
+    private static final Pattern STRING_PARAMETER = Pattern.compile("\\$\\{([a-zA-Z0-9_]+)\\}");
+    private static final Pattern NON_STRING_PARAMETER = Pattern.compile("^\\$\\{\\{([a-zA-Z0-9_]+)\\}\\}$");
+
+    private static final String GENERATE_EXPRESSION = "expression";
+
+    private final ParameterValueGenerator generator;
+
+    public LocalTemplateProcessor() {
+        this(new ParameterValueGenerator());
+    }
+
+    LocalTemplateProcessor(ParameterValueGenerator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * @param templateUrl URL of the template in JSON or YAML format.
+     * @param parameterValues Values overriding template parameters, values of parameters not defined by the template are ignored.
+     * @return Objects defined by the template with all parameters substituted and template labels applied.
+     */
+    public List<HasMetadata> process(URL templateUrl, Map<String, String> parameterValues) {
+        JsonNode templateNode;
+        try {
+            // YAML mapper reads JSON templates too
+            templateNode = Serialization.yamlMapper().readTree(templateUrl);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading template " + templateUrl, e);
+        }
+        return process(templateNode, parameterValues);
+    }
+
+    /**
+     * @param template Template to be processed. Typed template can't contain non-string parameters like
+     * <code>replicas: ${{REPLICAS}}</code>, use {@link #process(URL, Map)} for such templates.
+     * @param parameterValues Values overriding template parameters, values of parameters not defined by the template are ignored.
+     * @return Objects defined by the template with all parameters substituted and template labels applied.
+     */
+    public List<HasMetadata> process(Template template, Map<String, String> parameterValues) {
+        return process(Serialization.jsonMapper().valueToTree(template), parameterValues);
+    }
+
+    /**
+     * Process raw template, objects are deserialized after substitution so non-string parameters get their type.
+     *
+     * @param templateNode Template as JSON tree.
+     * @param parameterValues Values overriding template parameters, values of parameters not defined by the template are ignored.
+     * @return Objects defined by the template with all parameters substituted and template labels applied.
+     */
+    List<HasMetadata> process(JsonNode templateNode, Map<String, String> parameterValues) {
+        ObjectMapper mapper = Serialization.jsonMapper();
+        String templateName = templateNode.path("metadata").path("name").asText();
+        Map<String, String> resolvedParameters;
+        Map<String, String> templateLabels;
+        try {
+            resolvedParameters = resolveParameters(templateName, readParameters(templateNode, mapper), parameterValues);
+            templateLabels = templateNode.hasNonNull("labels") ? mapper.convertValue(templateNode.get("labels"), new TypeReference<Map<String, String>>() {}) : null;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RuntimeException("Error while reading parameters of template " + templateName, e);
+        }
+
+        List<HasMetadata> processedObjects = new ArrayList<>();
+        for (JsonNode object : templateNode.path("objects")) {
+            JsonNode objectNode = substitute(object.deepCopy(), resolvedParameters, mapper);
+            HasMetadata processedObject;
+            try {
+                processedObject = (HasMetadata) mapper.treeToValue(objectNode, KubernetesResource.class);
+            } catch (IOException e) {
+                throw new RuntimeException("Error while processing " + object.path("kind").asText() + " " + object.path("metadata").path("name").asText() + " from template " + templateName, e);
+            }
+            applyLabels(processedObject, templateLabels, resolvedParameters);
+            processedObjects.add(processedObject);
+        }
+        return processedObjects;
+    }
+
+    private static List<Parameter> readParameters(JsonNode templateNode, ObjectMapper mapper) throws IOException {
+        List<Parameter> parameters = new ArrayList<>();
+        for (JsonNode parameter : templateNode.path("parameters")) {
+            parameters.add(mapper.treeToValue(parameter, Parameter.class));
+        }
+        return parameters;
+    }
+
+    private Map<String, String> resolveParameters(String templateName, List<Parameter> parameters, Map<String, String> parameterValues) {
+        Map<String, String> resolvedParameters = new HashMap<>();
+        for (Parameter parameter : parameters) {
+            String value = parameter.getValue();
+            if (parameterValues.containsKey(parameter.getName())) {
+                value = parameterValues.get(parameter.getName());
+            } else if (isEmpty(value) && GENERATE_EXPRESSION.equals(parameter.getGenerate())) {
+                value = generator.generate(parameter.getFrom());
+            }
+            if (isEmpty(value) && Boolean.TRUE.equals(parameter.getRequired())) {
+                throw new RuntimeException("Template " + templateName + " requires value for parameter " + parameter.getName());
+            }
+            resolvedParameters.put(parameter.getName(), value == null ? "" : value);
+        }
+        return resolvedParameters;
+    }
+
+    private JsonNode substitute(JsonNode node, Map<String, String> parameters, ObjectMapper mapper) {
+        if (node.isTextual()) {
+            return substituteText(node.asText(), parameters, mapper);
+        } else if (node.isObject()) {
+            ObjectNode objectNode = (ObjectNode) node;
+            Iterator<Entry<String, JsonNode>> fields = objectNode.fields();
+            while (fields.hasNext()) {
+                Entry<String, JsonNode> field = fields.next();
+                field.setValue(substitute(field.getValue(), parameters, mapper));
+            }
+        } else if (node.isArray()) {
+            ArrayNode arrayNode = (ArrayNode) node;
+            for (int i = 0; i < arrayNode.size(); i++) {
+                arrayNode.set(i, substitute(arrayNode.get(i), parameters, mapper));
+            }
+        }
+        return node;
+    }
+
+    private JsonNode substituteText(String text, Map<String, String> parameters, ObjectMapper mapper) {
+        Matcher nonStringMatcher = NON_STRING_PARAMETER.matcher(text);
+        if (nonStringMatcher.matches() && parameters.containsKey(nonStringMatcher.group(1))) {
+            String value = parameters.get(nonStringMatcher.group(1));
+            try {
+                return mapper.readTree(value);
+            } catch (IOException e) {
+                // Not a JSON value, keep it as a string same as oc does
+                return TextNode.valueOf(value);
+            }
+        }
+        return TextNode.valueOf(substituteString(text, parameters));
+    }
+
+    private static String substituteString(String text, Map<String, String> parameters) {
+        Matcher matcher = STRING_PARAMETER.matcher(text);
+        StringBuffer result = new StringBuffer();
+        while (matcher.find()) {
+            String parameterName = matcher.group(1);
+            String replacement = parameters.containsKey(parameterName) ? parameters.get(parameterName) : matcher.group();
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static void applyLabels(HasMetadata object, Map<String, String> templateLabels, Map<String, String> parameters) {
+        if (templateLabels == null || templateLabels.isEmpty()) {
+            return;
+        }
+        Map<String, String> labels = object.getMetadata().getLabels() == null ? new HashMap<>() : new HashMap<>(object.getMetadata().getLabels());
+        templateLabels.forEach((key, value) -> labels.put(substituteString(key, parameters), substituteString(value, parameters)));
+        object.getMetadata().setLabels(labels);
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
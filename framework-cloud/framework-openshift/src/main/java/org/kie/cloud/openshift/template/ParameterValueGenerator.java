@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.template;
+
+import java.security.SecureRandom;
+import java.util.Random;
+
+/**
+ * Generator of template parameter values defined by expression, following the subset of expression syntax supported by
+ * OpenShift template processing, for example <code>[a-zA-Z0-9]{8}</code> or <code>\w{16}</code>.
+ * Supported are character ranges in brackets, <code>\w</code>, <code>\d</code>, <code>\a</code> (alphabetic) and
+ * <code>\A</code> (punctuation) classes and literal characters, each optionally followed by <code>{count}</code>.
+ */
+public class ParameterValueGenerator {
+
+    private static final String ALPHABETIC = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String NUMERALS = "0123456789";
+    private static final String WORD = ALPHABETIC + NUMERALS + "_";
+    private static final String SYMBOLS = "~!@#$%^&*()-_+={}[]\\|<,>.?/\"';:`";
+
+    private final Random random;
+
+    public ParameterValueGenerator() {
+        this(new SecureRandom());
+    }
+
+    ParameterValueGenerator(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * @param expression Generator expression.
+     * @return Random value matching the expression.
+     */
+    public String generate(String expression) {
+        StringBuilder result = new StringBuilder();
+        int position = 0;
+        while (position < expression.length()) {
+            String characters;
+            char current = expression.charAt(position);
+            if (current == '[') {
+                int end = expression.indexOf(']', position);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed character range in expression " + expression);
+                }
+                characters = expandRange(expression.substring(position + 1, end), expression);
+                position = end + 1;
+            } else if (current == '\\' && position + 1 < expression.length()) {
+                characters = characterClass(expression.charAt(position + 1));
+                position += 2;
+            } else {
+                characters = String.valueOf(current);
+                position++;
+            }
+
+            int count = 1;
+            if (position < expression.length() && expression.charAt(position) == '{') {
+                int end = expression.indexOf('}', position);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed count in expression " + expression);
+                }
+                count = Integer.parseInt(expression.substring(position + 1, end));
+                position = end + 1;
+            }
+
+            for (int i = 0; i < count; i++) {
+                result.append(characters.charAt(random.nextInt(characters.length())));
+            }
+        }
+        return result.toString();
+    }
+
+    private static String expandRange(String range, String expression) {
+        StringBuilder characters = new StringBuilder();
+        int i = 0;
+        while (i < range.length()) {
+            char current = range.charAt(i);
+            if (current == '\\' && i + 1 < range.length()) {
+                characters.append(characterClass(range.charAt(i + 1)));
+                i += 2;
+            } else if (i + 2 < range.length() && range.charAt(i + 1) == '-') {
+                char last = range.charAt(i + 2);
+                if (last < current) {
+                    throw new IllegalArgumentException("Invalid character range " + current + "-" + last + " in expression " + expression);
+                }
+                for (char c = current; c <= last; c++) {
+                    characters.append(c);
+                }
+                i += 3;
+            } else {
+                characters.append(current);
+                i++;
+            }
+        }
+        if (characters.length() == 0) {
+            throw new IllegalArgumentException("Empty character range in expression " + expression);
+        }
+        return characters.toString();
+    }
+
+    private static String characterClass(char classIdentifier) {
+        switch (classIdentifier) {
+            case 'w':
+                return WORD;
+            case 'd':
+                return NUMERALS;
+            case 'a':
+                return ALPHABETIC;
+            case 'A':
+                return SYMBOLS;
+            default:
+                return String.valueOf(classIdentifier);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import cz.xtf.core.openshift.OpenShift;
+import cz.xtf.core.waiting.SimpleWaiter;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.ContainerBuilder;
+import io.fabric8.kubernetes.api.model.ContainerState;
+import io.fabric8.kubernetes.api.model.ContainerStatus;
+import io.fabric8.kubernetes.api.model.ObjectReference;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.apps.DaemonSet;
+import io.fabric8.kubernetes.api.model.apps.DaemonSetBuilder;
+import io.fabric8.kubernetes.api.model.apps.DaemonSetStatus;
+import io.fabric8.openshift.api.model.ImageStream;
+import io.fabric8.openshift.api.model.TagReference;
+import org.kie.cloud.api.deployment.DeploymentTimeoutException;
+import org.kie.cloud.common.logs.InstanceLogUtil;
+import org.kie.cloud.openshift.OpenShiftController;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.kie.cloud.openshift.constants.images.Image;
+import org.kie.cloud.openshift.constants.images.imagestream.ImageStreamProvider;
+import org.kie.cloud.openshift.resource.Project;
+import org.kie.cloud.openshift.util.NodeImageReport.PullStatus;
+import org.kie.cloud.openshift.watch.CacheWaiter;
+import org.kie.cloud.openshift.watch.ProjectResourceCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pulls Kie images on all cluster nodes before scenarios are deployed, so deployment timings don't include image pulls
+ * of a fresh node. Images are pulled by a daemon set running every image in a temporary project, the project is deleted
+ * once all nodes report the images as pulled or failed.
+ */
+public class ImagePrePuller {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImagePrePuller.class);
+
+    private static final String DAEMON_SET_NAME = "kie-image-prepull";
+    private static final String APP_LABEL = "app";
+    private static final String CONTAINER_NAME_PREFIX = "image-";
+    private static final String REPORT_FILE_NAME = "image-pre-pull-report.json";
+    private static final Duration DAEMON_SET_SCHEDULING_TIMEOUT = Duration.ofMinutes(1);
+    private static final Set<String> PULL_FAILURE_REASONS = new HashSet<>(Arrays.asList("ErrImagePull", "ImagePullBackOff", "InvalidImageName",
+                                                                                        "ErrImageNeverPull", "RegistryUnavailable"));
+
+    private static NodeImageReport suiteReport;
+
+    private ImagePrePuller() {
+        // Util class
+    }
+
+    /**
+     * Pull configured images on all nodes just once per JVM, further calls return the first report.
+     *
+     * @return Pull status of images on nodes.
+     */
+    public static synchronized NodeImageReport prePullOnce() {
+        if (suiteReport == null) {
+            suiteReport = prePull();
+        }
+        return suiteReport;
+    }
+
+    /**
+     * Pull configured images on all nodes.
+     *
+     * @return Pull status of images on nodes.
+     * @see #getConfiguredImages()
+     */
+    public static NodeImageReport prePull() {
+        return prePull(getConfiguredImages());
+    }
+
+    /**
+     * Pull images on all nodes the project pods can be scheduled to. Images which fail to be pulled are reported as
+     * failed, they don't fail the pre-pull.
+     *
+     * @param images Docker image references.
+     * @return Pull status of images on nodes.
+     */
+    public static NodeImageReport prePull(Collection<String> images) {
+        if (images.isEmpty()) {
+            logger.info("No images configured, skipping image pre-pull.");
+            return new NodeImageReport();
+        }
+        String projectName = OpenShiftConstants.getNamespacePrefix().map(prefix -> prefix + "-").orElse("") + "prepull-" + UUID.randomUUID().toString().substring(0, 4);
+        logger.info("Pre-pulling {} images on all nodes in project {}", images.size(), projectName);
+
+        Project project = OpenShiftController.createProject(projectName);
+        try {
+            List<String> imageList = new ArrayList<>(images);
+            project.getOpenShift().apps().daemonSets().create(createDaemonSet(imageList));
+            int desiredPods = waitForDesiredPods(project);
+            NodeImageReport report = waitForImages(project, imageList, desiredPods);
+            logger.info("Image pre-pull report:{}{}", System.lineSeparator(), report);
+            writeReport(report, projectName);
+            return report;
+        } finally {
+            NamespaceReaper.reap(project, () -> {});
+        }
+    }
+
+    /**
+     * @return Images defined by image tag system properties and Docker images referenced by the Kie image streams file,
+     * except image streams overridden by image tags.
+     */
+    public static Set<String> getConfiguredImages() {
+        Set<String> images = new TreeSet<>();
+        Set<String> overriddenImageStreams = new HashSet<>();
+        for (Image image : Image.values()) {
+            image.getTag().ifPresent(tag -> {
+                images.add(tag);
+                overriddenImageStreams.add(ImageStreamProvider.getImageStreamNaming(image.getImageName()));
+            });
+        }
+        String kieImageStreams = OpenShiftConstants.getKieImageStreams();
+        if (kieImageStreams != null && !kieImageStreams.isEmpty()) {
+            images.addAll(getImageStreamImages(kieImageStreams, overriddenImageStreams));
+        }
+        return images;
+    }
+
+    private static Set<String> getImageStreamImages(String imageStreamsLocation, Set<String> excludedImageStreams) {
+        try (InputStream imageStreams = openLocation(imageStreamsLocation);
+             OpenShift openShift = OpenShiftController.getOpenShift()) {
+            return openShift.load(imageStreams)
+                            .get()
+                            .stream()
+                            .filter(ImageStream.class::isInstance)
+                            .map(ImageStream.class::cast)
+                            .filter(imageStream -> !excludedImageStreams.contains(imageStream.getMetadata().getName()))
+                            .flatMap(imageStream -> imageStream.getSpec().getTags().stream())
+                            .map(TagReference::getFrom)
+                            .filter(Objects::nonNull)
+                            .filter(from -> "DockerImage".equals(from.getKind()))
+                            .map(ObjectReference::getName)
+                            .collect(Collectors.toSet());
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading image streams from " + imageStreamsLocation, e);
+        }
+    }
+
+    private static InputStream openLocation(String location) throws IOException {
+        try {
+            return new URL(location).openStream();
+        } catch (MalformedURLException e) {
+            return new FileInputStream(location);
+        }
+    }
+
+    private static DaemonSet createDaemonSet(List<String> images) {
+        List<Container> containers = new ArrayList<>();
+        for (int i = 0; i < images.size(); i++) {
+            // Containers just keep running, the image is pulled once the container is created
+            containers.add(new ContainerBuilder().withName(CONTAINER_NAME_PREFIX + i)
+                                                 .withImage(images.get(i))
+                                                 .withImagePullPolicy("IfNotPresent")
+                                                 .withCommand("sleep", "infinity")
+                                                 .withNewResources()
+                                                 .addToRequests("cpu", new Quantity("1m"))
+                                                 .addToRequests("memory", new Quantity("16Mi"))
+                                                 .addToLimits("memory", new Quantity("32Mi"))
+                                                 .endResources()
+                                                 .build());
+        }
+        return new DaemonSetBuilder().withNewMetadata()
+                                     .withName(DAEMON_SET_NAME)
+                                     .endMetadata()
+                                     .withNewSpec()
+                                     .withNewSelector()
+                                     .addToMatchLabels(APP_LABEL, DAEMON_SET_NAME)
+                                     .endSelector()
+                                     .withNewTemplate()
+                                     .withNewMetadata()
+                                     .addToLabels(APP_LABEL, DAEMON_SET_NAME)
+                                     .endMetadata()
+                                     .withNewSpec()
+                                     .withContainers(containers)
+                                     .withTerminationGracePeriodSeconds(0L)
+                                     .endSpec()
+                                     .endTemplate()
+                                     .endSpec()
+                                     .build();
+    }
+
+    private static int waitForDesiredPods(Project project) {
+        new SimpleWaiter(() -> getDesiredPods(project) > 0).timeout(TimeUnit.MILLISECONDS, DAEMON_SET_SCHEDULING_TIMEOUT.toMillis())
+                                                            .reason("Waiting for image pre-pull daemon set to be scheduled to nodes.")
+                                                            .waitFor();
+        return getDesiredPods(project);
+    }
+
+    private static int getDesiredPods(Project project) {
+        DaemonSet daemonSet = project.getOpenShift().apps().daemonSets().withName(DAEMON_SET_NAME).get();
+        return Optional.ofNullable(daemonSet)
+                       .map(DaemonSet::getStatus)
+                       .map(DaemonSetStatus::getDesiredNumberScheduled)
+                       .orElse(0);
+    }
+
+    private static NodeImageReport waitForImages(Project project, List<String> images, int desiredPods) {
+        ProjectResourceCache resourceCache = project.getResourceCache();
+        Duration timeout = OpenShiftConstants.getImagePrePullTimeout();
+        try {
+            new CacheWaiter(resourceCache, () -> {
+                List<Pod> pods = getScheduledPods(resourceCache);
+                return pods.size() >= desiredPods && createReport(pods, images).isFinished();
+            }).timeout(timeout.toMillis())
+              .reason("Waiting for " + images.size() + " images to be pulled on " + desiredPods + " nodes.")
+              .waitFor();
+        } catch (DeploymentTimeoutException e) {
+            logger.warn("Images weren't pulled on all nodes within {} minutes.", timeout.toMinutes());
+        }
+        return createReport(getScheduledPods(resourceCache), images);
+    }
+
+    private static List<Pod> getScheduledPods(ProjectResourceCache resourceCache) {
+        return resourceCache.getPods()
+                            .stream()
+                            .filter(pod -> pod.getSpec().getNodeName() != null)
+                            .collect(Collectors.toList());
+    }
+
+    static NodeImageReport createReport(List<Pod> pods, List<String> images) {
+        NodeImageReport report = new NodeImageReport();
+        for (Pod pod : pods) {
+            String node = pod.getSpec().getNodeName();
+            images.forEach(image -> report.setStatus(node, image, PullStatus.PENDING));
+            List<ContainerStatus> containerStatuses = pod.getStatus() == null ? null : pod.getStatus().getContainerStatuses();
+            if (containerStatuses == null) {
+                continue;
+            }
+            for (ContainerStatus containerStatus : containerStatuses) {
+                if (containerStatus.getName().startsWith(CONTAINER_NAME_PREFIX)) {
+                    String image = images.get(Integer.parseInt(containerStatus.getName().substring(CONTAINER_NAME_PREFIX.length())));
+                    report.setStatus(node, image, getPullStatus(containerStatus));
+                }
+            }
+        }
+        return report;
+    }
+
+    private static PullStatus getPullStatus(ContainerStatus containerStatus) {
+        // Image ID is known once the image is present on the node, even if the container fails to start
+        if (containerStatus.getImageID() != null && !containerStatus.getImageID().isEmpty()) {
+            return PullStatus.PULLED;
+        }
+        boolean pullFailed = Stream.of(containerStatus.getState(), containerStatus.getLastState())
+                                   .filter(Objects::nonNull)
+                                   .map(ContainerState::getWaiting)
+                                   .filter(Objects::nonNull)
+                                   .anyMatch(waiting -> PULL_FAILURE_REASONS.contains(waiting.getReason()));
+        return pullFailed ? PullStatus.FAILED : PullStatus.PENDING;
+    }
+
+    private static void writeReport(NodeImageReport report, String projectName) {
+        File reportFile = new File(InstanceLogUtil.getLogDirectory(projectName), REPORT_FILE_NAME);
+        try {
+            report.writeJson(reportFile);
+            logger.info("Image pre-pull report stored in {}", reportFile.getAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Error storing image pre-pull report", e);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cz.xtf.core.openshift.OpenShift;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import org.kie.cloud.openshift.OpenShiftController;
+import org.kie.cloud.openshift.client.ApiCallMetrics;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.kie.cloud.openshift.resource.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deletes projects in background. Project teardown (log flushing, event recording, project deletion) is handed over to
+ * the reaper, so the next scenario can be deployed while the previous project is being deleted. Pending teardowns are
+ * finished on JVM shutdown.
+ *
+ * Every project created by the framework holds a lease config map renewed by the reaper while the project is in use.
+ * When the namespace prefix is configured (see {@link OpenShiftConstants#getNamespacePrefix()}), projects with the
+ * prefix whose lease expired, e.g. projects left behind by a crashed JVM or a failed deletion, are deleted too.
+ */
+public class NamespaceReaper {
+
+    private static final Logger logger = LoggerFactory.getLogger(NamespaceReaper.class);
+
+    private static final String LEASE_CONFIG_MAP = "kie-cloud-tests-lease";
+    private static final String LEASE_RENEWED_AT = "renewedAt";
+    private static final Duration LEASE_RENEWAL_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration LEASE_TIMEOUT = Duration.ofMinutes(10);
+    private static final Duration LEAKED_PROJECTS_SCAN_INTERVAL = Duration.ofMinutes(10);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofMinutes(5);
+    private static final int REAPER_THREADS = 4;
+    private static final int DELETE_ATTEMPTS = 3;
+
+    private static final Map<String, Project> activeProjects = new ConcurrentHashMap<>();
+    private static final Map<String, Boolean> reapedProjects = new ConcurrentHashMap<>();
+    private static final ExecutorService reaperExecutor = Executors.newFixedThreadPool(REAPER_THREADS, new DaemonThreadFactory("namespace-reaper"));
+    private static final ScheduledExecutorService leaseExecutor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("namespace-lease"));
+
+    static {
+        leaseExecutor.scheduleWithFixedDelay(NamespaceReaper::renewLeases, LEASE_RENEWAL_INTERVAL.toMillis(), LEASE_RENEWAL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        leaseExecutor.scheduleWithFixedDelay(NamespaceReaper::reapLeakedProjects, 0, LEAKED_PROJECTS_SCAN_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(NamespaceReaper::awaitPendingTeardowns, "namespace-reaper-shutdown"));
+    }
+
+    private NamespaceReaper() {
+    }
+
+    /**
+     * Start holding lease for a newly created project.
+     *
+     * @param project Created project.
+     */
+    public static void register(Project project) {
+        activeProjects.put(project.getName(), project);
+        renewLease(project);
+    }
+
+    /**
+     * Tear the project down in background.
+     *
+     * @param project Project to be deleted.
+     * @param beforeDeletion Action executed before the project is deleted, e.g. storing logs and events.
+     */
+    public static void reap(Project project, Runnable beforeDeletion) {
+        Runnable teardown = () -> teardown(project, beforeDeletion);
+        try {
+            reaperExecutor.execute(teardown);
+        } catch (RejectedExecutionException e) {
+            // Reaper is already shutting down, tear the project down directly
+            teardown.run();
+        }
+    }
+
+    private static void teardown(Project project, Runnable beforeDeletion) {
+        try {
+            beforeDeletion.run();
+        } catch (Exception e) {
+            logger.error("Error during teardown of project {}", project.getName(), e);
+        }
+        activeProjects.remove(project.getName());
+        deleteProject(project);
+        try {
+            project.close();
+        } catch (Exception e) {
+            logger.warn("Error closing project {}", project.getName(), e);
+        }
+        ApiCallMetrics.discard(project.getName());
+    }
+
+    private static void deleteProject(Project project) {
+        for (int attempt = 1; attempt <= DELETE_ATTEMPTS; attempt++) {
+            try {
+                project.delete();
+                logger.info("Project {} deleted.", project.getName());
+                return;
+            } catch (Exception e) {
+                logger.warn("Attempt {} to delete project {} failed.", attempt, project.getName(), e);
+                sleep(Duration.ofSeconds(5L * attempt));
+            }
+        }
+        logger.error("Project {} wasn't deleted, it will be deleted once its lease expires.", project.getName());
+    }
+
+    private static void renewLeases() {
+        activeProjects.values().forEach(NamespaceReaper::renewLease);
+    }
+
+    private static void renewLease(Project project) {
+        try {
+            ConfigMap lease = new ConfigMapBuilder().withNewMetadata()
+                                                    .withName(LEASE_CONFIG_MAP)
+                                                    .endMetadata()
+                                                    .addToData(LEASE_RENEWED_AT, Instant.now().toString())
+                                                    .build();
+            project.getOpenShift().configMaps().inNamespace(project.getName()).createOrReplace(lease);
+        } catch (Exception e) {
+            logger.warn("Error renewing lease of project {}", project.getName(), e);
+        }
+    }
+
+    private static void reapLeakedProjects() {
+        Optional<String> namespacePrefix = OpenShiftConstants.getNamespacePrefix();
+        if (!namespacePrefix.isPresent()) {
+            return;
+        }
+        try (OpenShift openShift = OpenShiftController.getOpenShift()) {
+            for (io.fabric8.openshift.api.model.Project project : openShift.projects().list().getItems()) {
+                String projectName = project.getMetadata().getName();
+                if (projectName.startsWith(namespacePrefix.get() + "-") && !activeProjects.containsKey(projectName) &&
+                        !"Terminating".equals(project.getStatus().getPhase()) && isLeaseExpired(openShift, project) &&
+                        reapedProjects.putIfAbsent(projectName, Boolean.TRUE) == null) {
+                    logger.info("Deleting leaked project {}", projectName);
+                    reaperExecutor.execute(() -> deleteLeakedProject(projectName));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Error looking for leaked projects.", e);
+        }
+    }
+
+    private static boolean isLeaseExpired(OpenShift openShift, io.fabric8.openshift.api.model.Project project) {
+        ConfigMap lease = openShift.configMaps().inNamespace(project.getMetadata().getName()).withName(LEASE_CONFIG_MAP).get();
+        String renewedAt = lease != null && lease.getData() != null ? lease.getData().get(LEASE_RENEWED_AT) : project.getMetadata().getCreationTimestamp();
+        return renewedAt == null || Instant.parse(renewedAt).isBefore(Instant.now().minus(LEASE_TIMEOUT));
+    }
+
+    private static void deleteLeakedProject(String projectName) {
+        try {
+            OpenShiftController.deleteProject(projectName);
+            OpenShiftBinaryPool.release(projectName);
+            ApiCallMetrics.discard(projectName);
+        } catch (Exception e) {
+            logger.warn("Error deleting leaked project {}", projectName, e);
+            reapedProjects.remove(projectName);
+        }
+    }
+
+    private static void awaitPendingTeardowns() {
+        leaseExecutor.shutdownNow();
+        reaperExecutor.shutdown();
+        try {
+            if (!reaperExecutor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Project teardowns didn't finish in {} seconds, remaining projects will be deleted once their lease expires.", SHUTDOWN_TIMEOUT.getSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for project deletion retry.", e);
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private DaemonThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Pull status of images on cluster nodes, as observed by {@link ImagePrePuller}.
+ */
+public class NodeImageReport {
+
+    public enum PullStatus {
+        PULLED,
+        FAILED,
+        PENDING
+    }
+
+    private final Map<String, Map<String, PullStatus>> statusByNode = new TreeMap<>();
+
+    void setStatus(String node, String image, PullStatus status) {
+        statusByNode.computeIfAbsent(node, n -> new TreeMap<>()).put(image, status);
+    }
+
+    /**
+     * @return Nodes the images were pulled on.
+     */
+    public List<String> getNodes() {
+        return new ArrayList<>(statusByNode.keySet());
+    }
+
+    /**
+     * @return Pull status of images on the node by image, empty map for unknown node.
+     */
+    public Map<String, PullStatus> getImageStatus(String node) {
+        return Collections.unmodifiableMap(statusByNode.getOrDefault(node, Collections.emptyMap()));
+    }
+
+    /**
+     * @return Nodes which don't have all images pulled.
+     */
+    public List<String> getColdNodes() {
+        return statusByNode.entrySet()
+                           .stream()
+                           .filter(node -> node.getValue().values().stream().anyMatch(status -> status != PullStatus.PULLED))
+                           .map(Map.Entry::getKey)
+                           .collect(Collectors.toList());
+    }
+
+    /**
+     * @return True if there is at least one node and all nodes have all images pulled.
+     */
+    public boolean isWarm() {
+        return !statusByNode.isEmpty() && getColdNodes().isEmpty();
+    }
+
+    /**
+     * @return True if no image is waiting for pull anymore.
+     */
+    boolean isFinished() {
+        return statusByNode.values().stream().flatMap(images -> images.values().stream()).noneMatch(PullStatus.PENDING::equals);
+    }
+
+    public void writeJson(File reportFile) throws IOException {
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, statusByNode);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        statusByNode.forEach((node, images) -> {
+            report.append(node).append(':');
+            images.forEach((image, status) -> report.append(System.lineSeparator()).append("    ").append(status).append(' ').append(image));
+            report.append(System.lineSeparator());
+        });
+        return report.toString();
+    }
+}
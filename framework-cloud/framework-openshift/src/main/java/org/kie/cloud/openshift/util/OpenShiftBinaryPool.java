@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.util;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import cz.xtf.core.openshift.OpenShiftBinary;
+import cz.xtf.core.openshift.OpenShifts;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of logged in oc binary contexts, one per namespace and user. Every context has its own oc configuration, it is
+ * logged in once on first use and then reused by all subsequent commands. Commands for the same context are serialized,
+ * commands for different contexts (e.g. different projects) run in parallel.
+ */
+public class OpenShiftBinaryPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenShiftBinaryPool.class);
+
+    private static final Map<ContextKey, BinaryContext> contexts = new ConcurrentHashMap<>();
+
+    // Creation of the binary prepares oc configuration folder shared by xtf, keep it serialized
+    private static final Object binaryCreationLock = new Object();
+
+    private OpenShiftBinaryPool() {
+    }
+
+    /**
+     * Execute oc command in the namespace as the regular user.
+     *
+     * @param namespace Namespace the command is executed in.
+     * @param args Command arguments.
+     * @return Command output.
+     */
+    public static String execute(String namespace, String... args) {
+        return getContext(namespace, OpenShiftConstants.getOpenShiftUserName(), OpenShiftConstants.getOpenShiftPassword()).execute(args);
+    }
+
+    /**
+     * Execute oc command in the namespace as the admin user.
+     *
+     * @param namespace Namespace the command is executed in.
+     * @param args Command arguments.
+     * @return Command output.
+     */
+    public static String executeAsAdmin(String namespace, String... args) {
+        return getContext(namespace, OpenShiftConstants.getOpenShiftAdminUserName(), OpenShiftConstants.getOpenShiftAdminPassword()).execute(args);
+    }
+
+    /**
+     * Drop all contexts of the namespace, to be called once the namespace is deleted.
+     *
+     * @param namespace Namespace name.
+     */
+    public static void release(String namespace) {
+        contexts.keySet().removeIf(key -> key.namespace.equals(namespace));
+    }
+
+    private static BinaryContext getContext(String namespace, String userName, String password) {
+        return contexts.computeIfAbsent(new ContextKey(namespace, userName), key -> new BinaryContext(namespace, userName, password));
+    }
+
+    private static class BinaryContext {
+
+        private final String namespace;
+        private final String userName;
+        private final String password;
+        private OpenShiftBinary binary;
+
+        private BinaryContext(String namespace, String userName, String password) {
+            this.namespace = namespace;
+            this.userName = userName;
+            this.password = password;
+        }
+
+        private synchronized String execute(String... args) {
+            if (binary == null) {
+                binary = login();
+            }
+            try {
+                return binary.execute(args);
+            } catch (RuntimeException e) {
+                // Log in again on next use in case the failure was caused by expired session
+                binary = null;
+                throw e;
+            }
+        }
+
+        private OpenShiftBinary login() {
+            logger.debug("Logging oc binary into namespace {} as user {}.", namespace, userName);
+            OpenShiftBinary newBinary;
+            synchronized (binaryCreationLock) {
+                newBinary = OpenShifts.masterBinary(namespace);
+            }
+            newBinary.login(OpenShiftConstants.getOpenShiftUrl(), userName, password);
+            return newBinary;
+        }
+    }
+
+    private static class ContextKey {
+
+        private final String namespace;
+        private final String userName;
+
+        private ContextKey(String namespace, String userName) {
+            this.namespace = namespace;
+            this.userName = userName;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            ContextKey other = (ContextKey) obj;
+            return namespace.equals(other.namespace) && userName.equals(other.userName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(namespace, userName);
+        }
+    }
+}
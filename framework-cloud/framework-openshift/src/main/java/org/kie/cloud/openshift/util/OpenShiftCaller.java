@@ -16,20 +16,26 @@
 
 package org.kie.cloud.openshift.util;
 
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
 import io.fabric8.kubernetes.client.KubernetesClientException;
+import org.kie.cloud.openshift.client.ApiCallMetrics;
 
 public class OpenShiftCaller {
 
+    private static final long BASE_BACKOFF_IN_MS = 50L;
+    private static final long MAX_BACKOFF_IN_MS = 2000L;
+
     private OpenShiftCaller() {
         // Util class
     }
 
     /**
      * Make repeatable calls to OpenShift.
-     * Sometimes the call can fail due to marshalling error, this happens when object is deleted while marshalling is in progress. In this case retry the call.
+     * Sometimes the call can fail due to marshalling error, this happens when object is deleted while marshalling is in progress. In this case retry the call
+     * after jittered exponential backoff.
      *
      * @param supplier Supplier of OpenShift calls
      * @return Object returned by supplier.
@@ -38,10 +44,11 @@ public class OpenShiftCaller {
         // Allow 10 calls at maximum, if the call still fails then return error
         for (int i = 0; i < 10; i++) {
             try {
-                return supplier.get();
+                return i == 0 ? supplier.get() : ApiCallMetrics.callAsRetry(supplier);
             } catch (KubernetesClientException e) {
                 if (e.getCause() instanceof JsonMappingException) {
                     // OpenShift instability, possibly the resource was deleted while unmarshalling the result, continue with another call
+                    backoff(i);
                 } else {
                     // Unexpected exception, throw it
                     throw e;
@@ -50,4 +57,14 @@ public class OpenShiftCaller {
         }
         throw new RuntimeException("Repeated calls hit the JsonMappingException.");
     }
+
+    private static void backoff(int attempt) {
+        long maxBackoff = Math.min(MAX_BACKOFF_IN_MS, BASE_BACKOFF_IN_MS << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(BASE_BACKOFF_IN_MS, maxBackoff + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for repeated OpenShift call.", e);
+        }
+    }
 }
@@ -1,11 +1,17 @@
 package org.kie.cloud.openshift.util;
 
+import java.util.Optional;
+
 import cz.xtf.core.openshift.OpenShift;
 import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodStatus;
 import org.kie.cloud.openshift.deployment.OpenShiftInstance;
 
 public class OpenshiftInstanceUtil {
 
+    private static final String POD_PHASE_RUNNING = "Running";
+    private static final String POD_CONDITION_READY = "Ready";
+
     /**
      * Create an instance 
      * @param openShift
@@ -17,4 +23,26 @@ public class OpenshiftInstanceUtil {
         String instanceName = pod.getMetadata().getName();
         return new OpenShiftInstance(openShift, namespace, instanceName);
     }
+
+    /**
+     * @param pod Pod to check
+     * @return True if the pod reports Ready condition.
+     */
+    public static boolean isPodReady(Pod pod) {
+        return Optional.ofNullable(pod.getStatus())
+                       .map(PodStatus::getConditions)
+                       .map(conditions -> conditions.stream().anyMatch(c -> POD_CONDITION_READY.equals(c.getType()) && Boolean.parseBoolean(c.getStatus())))
+                       .orElse(false);
+    }
+
+    /**
+     * @param pod Pod to check
+     * @return True if the pod is in Running phase.
+     */
+    public static boolean isPodRunning(Pod pod) {
+        return Optional.ofNullable(pod.getStatus())
+                       .map(PodStatus::getPhase)
+                       .map(POD_PHASE_RUNNING::equals)
+                       .orElse(false);
+    }
 }
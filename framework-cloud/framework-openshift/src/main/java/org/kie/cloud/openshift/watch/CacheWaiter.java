@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.watch;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.kie.cloud.api.deployment.DeploymentTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Event driven replacement of polling waiters. The condition is evaluated against {@link ProjectResourceCache} content
+ * every time a cached resource changes, so the wait completes as soon as the watch event arrives.
+ * Waiting doesn't occupy a thread, all waiters share one scheduler used for timeouts and periodic safety re-checks.
+ *
+ * The condition should only read from the cache, it is evaluated on the watch thread.
+ */
+public class CacheWaiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWaiter.class);
+
+    private static final long DEFAULT_TIMEOUT_IN_MS = 5 * 60 * 1000L; // 5 minutes
+    private static final long RECHECK_INTERVAL_IN_SECONDS = 30L;
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-waiter-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ProjectResourceCache resourceCache;
+    private final BooleanSupplier condition;
+    private long timeoutInMs = DEFAULT_TIMEOUT_IN_MS;
+    private String reason = "Waiting for condition to be met.";
+
+    public CacheWaiter(ProjectResourceCache resourceCache, BooleanSupplier condition) {
+        this.resourceCache = resourceCache;
+        this.condition = condition;
+    }
+
+    public CacheWaiter timeout(long timeoutInMs) {
+        this.timeoutInMs = timeoutInMs;
+        return this;
+    }
+
+    public CacheWaiter timeout(TimeUnit timeUnit, long timeout) {
+        return timeout(timeUnit.toMillis(timeout));
+    }
+
+    public CacheWaiter reason(String reason) {
+        this.reason = reason;
+        return this;
+    }
+
+    /**
+     * @return Future completed when the condition is met, completed exceptionally with {@link DeploymentTimeoutException} on timeout.
+     */
+    public CompletableFuture<Void> waitAsync() {
+        logger.debug(reason);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Runnable check = () -> evaluate(result);
+
+        resourceCache.addChangeListener(check);
+        ScheduledFuture<?> timeoutTask = scheduler.schedule(() -> result.completeExceptionally(new DeploymentTimeoutException("Timeout: " + reason)),
+                                                            timeoutInMs, TimeUnit.MILLISECONDS);
+        // Safety net in case an event is lost during watch reconnect
+        ScheduledFuture<?> recheckTask = scheduler.scheduleWithFixedDelay(check, RECHECK_INTERVAL_IN_SECONDS, RECHECK_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+
+        result.whenComplete((r, e) -> {
+            resourceCache.removeChangeListener(check);
+            timeoutTask.cancel(false);
+            recheckTask.cancel(false);
+        });
+
+        check.run();
+        return result;
+    }
+
+    /**
+     * Block until the condition is met.
+     *
+     * @throws DeploymentTimeoutException if the condition isn't met in time.
+     */
+    public void waitFor() {
+        try {
+            waitAsync().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void evaluate(CompletableFuture<Void> result) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            if (condition.getAsBoolean()) {
+                result.complete(null);
+            }
+        } catch (Exception e) {
+            logger.debug("Evaluation of condition failed, waiting for next change.", e);
+        }
+    }
+}
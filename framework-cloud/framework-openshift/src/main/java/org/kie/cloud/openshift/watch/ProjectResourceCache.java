@@ -0,0 +1,269 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.watch;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import cz.xtf.core.openshift.OpenShift;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.Route;
+import org.kie.cloud.openshift.resource.OpenShiftResourceConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Informer-like cache of project resources. Pods, deployment configs, services, routes and config maps are listed once
+ * and then kept up to date by a single watch per resource kind, so reads don't hit the API server.
+ * Pods are indexed by deployment config label, routes by name of the service they lead to.
+ */
+public class ProjectResourceCache implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectResourceCache.class);
+
+    private final String namespace;
+    private final ScheduledExecutorService reconnectExecutor;
+
+    private final ResourceStore<Pod> pods;
+    private final ResourceStore<DeploymentConfig> deploymentConfigs;
+    private final ResourceStore<Service> services;
+    private final ResourceStore<Route> routes;
+    private final ResourceStore<ConfigMap> configMaps;
+
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean started;
+    private volatile boolean closed;
+
+    public ProjectResourceCache(OpenShift openShift) {
+        namespace = openShift.getNamespace();
+        reconnectExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "resource-cache-" + openShift.getNamespace());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        pods = new ResourceStore<>("Pod",
+                                   () -> openShift.pods().list(),
+                                   (resourceVersion, watcher) -> openShift.pods().withResourceVersion(resourceVersion).watch(watcher),
+                                   pod -> pod.getMetadata().getLabels() == null ? null : pod.getMetadata().getLabels().get(OpenShiftResourceConstants.DEPLOYMENT_CONFIG_LABEL),
+                                   reconnectExecutor);
+        deploymentConfigs = new ResourceStore<>("DeploymentConfig",
+                                                () -> openShift.deploymentConfigs().list(),
+                                                (resourceVersion, watcher) -> openShift.deploymentConfigs().withResourceVersion(resourceVersion).watch(watcher),
+                                                deploymentConfig -> null,
+                                                reconnectExecutor);
+        services = new ResourceStore<>("Service",
+                                       () -> openShift.services().list(),
+                                       (resourceVersion, watcher) -> openShift.services().withResourceVersion(resourceVersion).watch(watcher),
+                                       service -> null,
+                                       reconnectExecutor);
+        routes = new ResourceStore<>("Route",
+                                     () -> openShift.routes().list(),
+                                     (resourceVersion, watcher) -> openShift.routes().withResourceVersion(resourceVersion).watch(watcher),
+                                     route -> route.getSpec() == null || route.getSpec().getTo() == null ? null : route.getSpec().getTo().getName(),
+                                     reconnectExecutor);
+        configMaps = new ResourceStore<>("ConfigMap",
+                                         () -> openShift.configMaps().list(),
+                                         (resourceVersion, watcher) -> openShift.configMaps().withResourceVersion(resourceVersion).watch(watcher),
+                                         configMap -> null,
+                                         reconnectExecutor);
+
+        pods.addListener(this::notifyChangeListeners);
+        deploymentConfigs.addListener(this::notifyChangeListeners);
+        services.addListener(this::notifyChangeListeners);
+        routes.addListener(this::notifyChangeListeners);
+        configMaps.addListener(this::notifyChangeListeners);
+    }
+
+    /**
+     * @param deploymentConfigName Deployment config name.
+     * @return All pods labeled by the deployment config name.
+     */
+    public List<Pod> getPods(String deploymentConfigName) {
+        return pods().listByIndex(deploymentConfigName);
+    }
+
+    public List<Pod> getPods() {
+        return pods().list();
+    }
+
+    public Optional<Pod> getPod(String podName) {
+        return pods().get(podName);
+    }
+
+    public Optional<DeploymentConfig> getDeploymentConfig(String deploymentConfigName) {
+        return deploymentConfigs().get(deploymentConfigName);
+    }
+
+    public List<DeploymentConfig> getDeploymentConfigs() {
+        return deploymentConfigs().list();
+    }
+
+    public Optional<Service> getService(String serviceName) {
+        return services().get(serviceName);
+    }
+
+    public List<Service> getServices() {
+        return services().list();
+    }
+
+    public List<Route> getRoutes() {
+        return routes().list();
+    }
+
+    public Optional<Route> getRoute(String routeName) {
+        return routes().get(routeName);
+    }
+
+    /**
+     * @param serviceName Service name.
+     * @return All routes leading to the service.
+     */
+    public List<Route> getRoutes(String serviceName) {
+        return routes().listByIndex(serviceName);
+    }
+
+    public Optional<ConfigMap> getConfigMap(String configMapName) {
+        return configMaps().get(configMapName);
+    }
+
+    public List<ConfigMap> getConfigMaps() {
+        return configMaps().list();
+    }
+
+    /**
+     * Register listener invoked after every change of any cached resource.
+     *
+     * @param listener Listener to be invoked, it is called from the watch thread so it should return quickly.
+     */
+    public void addChangeListener(Runnable listener) {
+        ensureStarted();
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Runnable listener) {
+        changeListeners.remove(listener);
+    }
+
+    public void addPodListener(ResourceEventListener<Pod> listener) {
+        pods().addListener(listener);
+    }
+
+    public void removePodListener(ResourceEventListener<Pod> listener) {
+        pods.removeListener(listener);
+    }
+
+    public void addServiceListener(ResourceEventListener<Service> listener) {
+        services().addListener(listener);
+    }
+
+    public void removeServiceListener(ResourceEventListener<Service> listener) {
+        services.removeListener(listener);
+    }
+
+    public void addDeploymentConfigListener(ResourceEventListener<DeploymentConfig> listener) {
+        deploymentConfigs().addListener(listener);
+    }
+
+    public void removeDeploymentConfigListener(ResourceEventListener<DeploymentConfig> listener) {
+        deploymentConfigs.removeListener(listener);
+    }
+
+    /**
+     * Start watching all cached resources. Called lazily on first access, can be called explicitly to warm up the cache.
+     *
+     * @throws IllegalStateException If the cache is closed.
+     */
+    public synchronized void start() {
+        checkNotClosed();
+        if (!started) {
+            pods.start();
+            deploymentConfigs.start();
+            services.start();
+            routes.start();
+            configMaps.start();
+            started = true;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        pods.close();
+        deploymentConfigs.close();
+        services.close();
+        routes.close();
+        configMaps.close();
+        changeListeners.clear();
+        reconnectExecutor.shutdownNow();
+    }
+
+    private ResourceStore<Pod> pods() {
+        ensureStarted();
+        return pods;
+    }
+
+    private ResourceStore<DeploymentConfig> deploymentConfigs() {
+        ensureStarted();
+        return deploymentConfigs;
+    }
+
+    private ResourceStore<Service> services() {
+        ensureStarted();
+        return services;
+    }
+
+    private ResourceStore<Route> routes() {
+        ensureStarted();
+        return routes;
+    }
+
+    private ResourceStore<ConfigMap> configMaps() {
+        ensureStarted();
+        return configMaps;
+    }
+
+    private <T extends HasMetadata> void notifyChangeListeners(Action action, T resource) {
+        for (Runnable listener : changeListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                logger.warn("Change listener failed to process {} event.", action, e);
+            }
+        }
+    }
+
+    private void ensureStarted() {
+        checkNotClosed();
+        if (!started) {
+            start();
+        }
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("Resource cache of project " + namespace + " is closed.");
+        }
+    }
+}
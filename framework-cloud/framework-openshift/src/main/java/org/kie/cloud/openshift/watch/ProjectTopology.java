@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.watch;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.Route;
+import org.kie.cloud.openshift.resource.OpenShiftResourceConstants;
+
+/**
+ * Index of project services by their {@link ServiceRole}, kept current by service events of {@link ProjectResourceCache}.
+ * Each service is classified once when it is added or modified, so resolving service, routes and deployment config of a
+ * role doesn't need any API call and reflects routes recreated in the meantime.
+ */
+public class ProjectTopology implements ResourceEventListener<Service> {
+
+    // Templates and operator select pods by "deploymentConfig", OpenShift itself labels pods by "deploymentconfig"
+    private static final String[] DEPLOYMENT_CONFIG_SELECTORS = {"deploymentConfig", OpenShiftResourceConstants.DEPLOYMENT_CONFIG_LABEL};
+
+    private final ProjectResourceCache resourceCache;
+    private final Map<ServiceRole, NavigableMap<String, Service>> servicesByRole = new EnumMap<>(ServiceRole.class);
+
+    public ProjectTopology(ProjectResourceCache resourceCache) {
+        this.resourceCache = resourceCache;
+        for (ServiceRole role : ServiceRole.values()) {
+            servicesByRole.put(role, new ConcurrentSkipListMap<>());
+        }
+        resourceCache.addServiceListener(this);
+        synchronized (this) {
+            // Cache may have been started before, its initial events were missed
+            resourceCache.getServices().forEach(this::index);
+        }
+    }
+
+    @Override
+    public synchronized void onEvent(Action action, Service service) {
+        if (action == Action.DELETED) {
+            String serviceName = service.getMetadata().getName();
+            servicesByRole.values().forEach(services -> services.remove(serviceName));
+        } else {
+            index(service);
+        }
+    }
+
+    private void index(Service service) {
+        String serviceName = service.getMetadata().getName();
+        servicesByRole.forEach((role, services) -> {
+            if (role.isCandidate(serviceName)) {
+                services.put(serviceName, service);
+            } else {
+                services.remove(serviceName);
+            }
+        });
+    }
+
+    /**
+     * @return All services of the role ordered by name, including services with name suffix.
+     */
+    public List<Service> getServices(ServiceRole role) {
+        return new ArrayList<>(servicesByRole.get(role).values());
+    }
+
+    public Optional<Service> findService(ServiceRole role) {
+        return findService(role, "");
+    }
+
+    /**
+     * @param role Service role.
+     * @param suffix Suffix distinguishing several services of the same role, empty if there is just one.
+     * @return First service of the role by name.
+     */
+    public Optional<Service> findService(ServiceRole role, String suffix) {
+        Pattern pattern = role.withSuffix(suffix);
+        return servicesByRole.get(role).values()
+                             .stream()
+                             .filter(service -> pattern.matcher(service.getMetadata().getName()).matches())
+                             .findFirst();
+    }
+
+    public Service getService(ServiceRole role) {
+        return getService(role, "");
+    }
+
+    public Service getService(ServiceRole role, String suffix) {
+        return findService(role, suffix).orElseThrow(() -> {
+            String serviceNames = resourceCache.getServices().stream().map(s -> s.getMetadata().getName()).sorted().collect(Collectors.joining(", "));
+            return new RuntimeException("Service defined by regexp " + role.withSuffix(suffix) + " not found. Available services: " + serviceNames);
+        });
+    }
+
+    public String getServiceName(ServiceRole role) {
+        return getServiceName(role, "");
+    }
+
+    public String getServiceName(ServiceRole role, String suffix) {
+        return getService(role, suffix).getMetadata().getName();
+    }
+
+    /**
+     * @return All routes leading to the service of the role, empty if there is no such service.
+     */
+    public List<Route> getRoutes(ServiceRole role, String suffix) {
+        return findService(role, suffix).map(service -> resourceCache.getRoutes(service.getMetadata().getName()))
+                                        .orElseGet(ArrayList::new);
+    }
+
+    /**
+     * @return Deployment config whose pods are selected by the service of the role.
+     */
+    public Optional<DeploymentConfig> getDeploymentConfig(ServiceRole role, String suffix) {
+        return findService(role, suffix).flatMap(this::getDeploymentConfig);
+    }
+
+    private Optional<DeploymentConfig> getDeploymentConfig(Service service) {
+        Map<String, String> selector = service.getSpec() == null ? null : service.getSpec().getSelector();
+        if (selector != null) {
+            for (String selectorKey : DEPLOYMENT_CONFIG_SELECTORS) {
+                if (selector.containsKey(selectorKey)) {
+                    return resourceCache.getDeploymentConfig(selector.get(selectorKey));
+                }
+            }
+        }
+        // Deployment configs are named after their service by templates and operator
+        return resourceCache.getDeploymentConfig(service.getMetadata().getName());
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.watch;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+/**
+ * Listener notified about every change of a resource kept in {@link ResourceStore}.
+ * Listeners are invoked from the watch thread, they should return quickly.
+ */
+@FunctionalInterface
+public interface ResourceEventListener<T extends HasMetadata> {
+
+    /**
+     * @param action Type of the change.
+     * @param resource Resource state after the change, last known state for deleted resources.
+     */
+    void onEvent(Action action, T resource);
+}
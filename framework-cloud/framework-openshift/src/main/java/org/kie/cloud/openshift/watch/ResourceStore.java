@@ -0,0 +1,279 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.watch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import org.kie.cloud.openshift.client.ApiCallMetrics;
+import org.kie.cloud.openshift.util.OpenShiftCaller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory copy of all resources of one kind in a namespace. The store is filled by an initial list call and then kept
+ * up to date by a watch started from the resource version of that list. If the watch is closed unexpectedly the store
+ * re-lists the resources and opens a new watch, firing synthetic events for everything which changed in the meantime.
+ *
+ * Resources can be indexed by a key (for example deployment config label of a pod), the index lookup is O(1).
+ */
+public class ResourceStore<T extends HasMetadata> implements Watcher<T>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceStore.class);
+
+    private static final long RECONNECT_DELAY_IN_SECONDS = 1L;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int MAX_START_ATTEMPTS = 10;
+
+    private final String kind;
+    private final Supplier<? extends KubernetesResourceList<T>> lister;
+    private final BiFunction<String, Watcher<T>, Watch> watchFactory;
+    private final Function<T, String> indexFunction;
+    private final ScheduledExecutorService reconnectExecutor;
+
+    private final Map<String, T> resources = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> index = new ConcurrentHashMap<>();
+    private final List<ResourceEventListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Watch watch;
+    private volatile boolean started;
+    private volatile boolean closed;
+
+    /**
+     * @param kind Resource kind, used for logging.
+     * @param lister Supplier listing all resources of the kind.
+     * @param watchFactory Function opening a watch from the resource version (first argument) for the watcher (second argument).
+     * @param indexFunction Function returning index key of a resource, can return null if the resource shouldn't be indexed.
+     * @param reconnectExecutor Executor used to re-establish closed watch.
+     */
+    public ResourceStore(String kind, Supplier<? extends KubernetesResourceList<T>> lister, BiFunction<String, Watcher<T>, Watch> watchFactory,
+                         Function<T, String> indexFunction, ScheduledExecutorService reconnectExecutor) {
+        this.kind = kind;
+        this.lister = lister;
+        this.watchFactory = watchFactory;
+        this.indexFunction = indexFunction;
+        this.reconnectExecutor = reconnectExecutor;
+    }
+
+    /**
+     * List all resources and start watching them. Calling the method on already started store does nothing.
+     * Watch rejected by the client rate limiter (HTTP 429) is retried the same way as a reconnect.
+     */
+    public synchronized void start() {
+        if (started || closed) {
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                synchronize();
+                break;
+            } catch (KubernetesClientException e) {
+                if (e.getCode() != HTTP_TOO_MANY_REQUESTS || attempt >= MAX_START_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Watch of {} resources throttled, retrying.", kind, e);
+                waitBeforeRetry(e);
+                if (closed) {
+                    return;
+                }
+            }
+        }
+        started = true;
+    }
+
+    public Optional<T> get(String name) {
+        return Optional.ofNullable(resources.get(name));
+    }
+
+    public List<T> list() {
+        return new ArrayList<>(resources.values());
+    }
+
+    /**
+     * @param indexKey Index key.
+     * @return All resources having the index key.
+     */
+    public List<T> listByIndex(String indexKey) {
+        Set<String> names = index.getOrDefault(indexKey, Collections.emptySet());
+        List<T> indexed = new ArrayList<>(names.size());
+        for (String name : names) {
+            T resource = resources.get(name);
+            if (resource != null) {
+                indexed.add(resource);
+            }
+        }
+        return indexed;
+    }
+
+    public void addListener(ResourceEventListener<T> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ResourceEventListener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void eventReceived(Action action, T resource) {
+        switch (action) {
+            case ADDED:
+            case MODIFIED:
+                store(resource);
+                break;
+            case DELETED:
+                remove(resource.getMetadata().getName());
+                break;
+            case ERROR:
+            default:
+                logger.warn("Received {} event for {} {}", action, kind, resource.getMetadata().getName());
+                return;
+        }
+        notifyListeners(action, resource);
+    }
+
+    @Override
+    public void onClose(KubernetesClientException cause) {
+        if (closed || cause == null) {
+            return;
+        }
+        logger.debug("Watch of {} resources closed unexpectedly, reconnecting.", kind, cause);
+        scheduleReconnect();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        listeners.clear();
+        if (watch != null) {
+            watch.close();
+            watch = null;
+        }
+        // Wake up start waiting for retry
+        notifyAll();
+    }
+
+    private synchronized void synchronize() {
+        if (closed) {
+            return;
+        }
+        KubernetesResourceList<T> resourceList = OpenShiftCaller.repeatableCall(lister);
+        replaceAll(resourceList.getItems());
+        watch = watchFactory.apply(resourceList.getMetadata().getResourceVersion(), this);
+    }
+
+    /**
+     * Wait releasing the lock, so the store can be closed meanwhile.
+     */
+    private void waitBeforeRetry(KubernetesClientException cause) {
+        try {
+            wait(TimeUnit.SECONDS.toMillis(RECONNECT_DELAY_IN_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private void scheduleReconnect() {
+        reconnectExecutor.schedule(() -> {
+            try {
+                ApiCallMetrics.callAsWatchReconnect(() -> {
+                    synchronize();
+                    return null;
+                });
+            } catch (Exception e) {
+                logger.debug("Reconnect of {} watch failed, retrying.", kind, e);
+                scheduleReconnect();
+            }
+        }, RECONNECT_DELAY_IN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Replace content of the store by freshly listed resources, firing events for every difference.
+     */
+    private void replaceAll(Collection<T> listedResources) {
+        Map<String, T> listed = new HashMap<>();
+        listedResources.forEach(resource -> listed.put(resource.getMetadata().getName(), resource));
+
+        for (T existing : list()) {
+            if (!listed.containsKey(existing.getMetadata().getName())) {
+                remove(existing.getMetadata().getName());
+                notifyListeners(Action.DELETED, existing);
+            }
+        }
+        for (T resource : listed.values()) {
+            Action action = resources.containsKey(resource.getMetadata().getName()) ? Action.MODIFIED : Action.ADDED;
+            store(resource);
+            notifyListeners(action, resource);
+        }
+    }
+
+    private void store(T resource) {
+        String name = resource.getMetadata().getName();
+        T previous = resources.put(name, resource);
+        String previousKey = previous == null ? null : indexFunction.apply(previous);
+        String newKey = indexFunction.apply(resource);
+        if (!Objects.equals(previousKey, newKey)) {
+            removeFromIndex(previousKey, name);
+        }
+        if (newKey != null) {
+            index.computeIfAbsent(newKey, key -> ConcurrentHashMap.newKeySet()).add(name);
+        }
+    }
+
+    private void remove(String name) {
+        T previous = resources.remove(name);
+        if (previous != null) {
+            removeFromIndex(indexFunction.apply(previous), name);
+        }
+    }
+
+    private void removeFromIndex(String indexKey, String name) {
+        if (indexKey != null) {
+            index.computeIfPresent(indexKey, (key, names) -> {
+                names.remove(name);
+                return names.isEmpty() ? null : names;
+            });
+        }
+    }
+
+    private void notifyListeners(Action action, T resource) {
+        for (ResourceEventListener<T> listener : listeners) {
+            try {
+                listener.onEvent(action, resource);
+            } catch (Exception e) {
+                logger.warn("Listener of {} resources failed to process event.", kind, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.watch;
+
+import java.util.regex.Pattern;
+
+/**
+ * Role of a service within a deployed scenario, recognized by the service name used by templates and operator.
+ */
+public enum ServiceRole {
+
+    CONTROLLER("(?!secure-).*-controller"),
+    WORKBENCH("(?!secure-).*(-rhpamcentr|-rhdmcentr)"),
+    WORKBENCH_MONITORING("(?!secure-).*-rhpamcentrmon"),
+    KIE_SERVER("(?!secure-).*(-execserv|-kieserver)"),
+    SMART_ROUTER("(?!secure-).*-smartrouter"),
+    DATABASE("(.*-mysql|.*-postgresql)"),
+    SSO("(?!secure-).*sso"),
+    SECURE_SSO("secure-sso"),
+    AMQ_JOLOKIA("(?!secure-).*amq-jolokia"),
+    AMQ_TCP_SSL("(?!secure-).*amq-tcp-ssl"),
+    DOCKER_REGISTRY("registry"),
+    MAVEN_NEXUS("nexus"),
+    LDAP(".*ldap.*"),
+    GOGS(".*gogs.*"),
+    PROMETHEUS("prometheus-operated"),
+    PROCESS_MIGRATION("(?!secure-).*-process-migration"),
+    EMPLOYEE_ROSTERING(".*-optaweb-employee-rostering");
+
+    private final Pattern pattern;
+    // Any suffix may follow the role specific part of the name, see withSuffix(String)
+    private final Pattern candidatePattern;
+
+    private ServiceRole(String regexp) {
+        this.pattern = Pattern.compile(regexp);
+        this.candidatePattern = Pattern.compile(regexp + ".*");
+    }
+
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @param serviceName Service name.
+     * @return True if service with such name has this role, possibly with a suffix.
+     */
+    boolean isCandidate(String serviceName) {
+        return candidatePattern.matcher(serviceName).matches();
+    }
+
+    /**
+     * @param suffix Suffix distinguishing several services of the same role, e.g. two Kie servers in one scenario.
+     * @return Pattern matching service of this role with the suffix.
+     */
+    public Pattern withSuffix(String suffix) {
+        return suffix.isEmpty() ? pattern : Pattern.compile(pattern.pattern() + suffix);
+    }
+}
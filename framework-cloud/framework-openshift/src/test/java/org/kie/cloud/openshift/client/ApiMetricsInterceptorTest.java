@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.client;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.junit.Test;
+import org.kie.cloud.openshift.client.ApiMetricsInterceptor.ApiCall;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ApiMetricsInterceptorTest {
+
+    private static final String MASTER_URL = "https://master:8443";
+
+    @Test
+    public void testParseNamespacedList() {
+        ApiCall apiCall = ApiCall.parse(get("/api/v1/namespaces/abc/pods?labelSelector=app%3Dmyapp"));
+
+        assertCall(apiCall, "abc", "list", "pods");
+    }
+
+    @Test
+    public void testParseNamedGetOfGroupResource() {
+        ApiCall apiCall = ApiCall.parse(get("/apis/apps.openshift.io/v1/namespaces/abc/deploymentconfigs/myapp-kieserver"));
+
+        assertCall(apiCall, "abc", "get", "deploymentconfigs");
+    }
+
+    @Test
+    public void testParseSubresource() {
+        ApiCall apiCall = ApiCall.parse(get("/api/v1/namespaces/abc/pods/myapp-kieserver-1-abcde/log?follow=true"));
+
+        assertCall(apiCall, "abc", "get", "pods/log");
+    }
+
+    @Test
+    public void testParseWatch() {
+        ApiCall apiCall = ApiCall.parse(get("/api/v1/namespaces/abc/events?watch=true&resourceVersion=10"));
+
+        assertCall(apiCall, "abc", "watch", "events");
+    }
+
+    @Test
+    public void testParseProject() {
+        Request request = new Request.Builder().url(MASTER_URL + "/apis/project.openshift.io/v1/projects/abc").delete().build();
+
+        assertCall(ApiCall.parse(request), "abc", "delete", "projects");
+    }
+
+    @Test
+    public void testParseCreate() {
+        Request request = new Request.Builder().url(MASTER_URL + "/api/v1/namespaces/abc/secrets")
+                                               .post(RequestBody.create(MediaType.parse("application/json"), "{}"))
+                                               .build();
+
+        assertCall(ApiCall.parse(request), "abc", "create", "secrets");
+    }
+
+    @Test
+    public void testParseClusterScoped() {
+        assertCall(ApiCall.parse(get("/api/v1/nodes")), ApiCallMetrics.CLUSTER_SCOPE, "list", "nodes");
+        assertCall(ApiCall.parse(get("/version")), ApiCallMetrics.CLUSTER_SCOPE, "get", "/version");
+    }
+
+    private static Request get(String path) {
+        return new Request.Builder().url(MASTER_URL + path).build();
+    }
+
+    private static void assertCall(ApiCall apiCall, String namespace, String verb, String resource) {
+        assertThat(apiCall.namespace).isEqualTo(namespace);
+        assertThat(apiCall.verb).isEqualTo(verb);
+        assertThat(apiCall.resource).isEqualTo(resource);
+    }
+}
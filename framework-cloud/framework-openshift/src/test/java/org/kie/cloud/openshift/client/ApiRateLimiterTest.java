@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.client;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ApiRateLimiterTest {
+
+    // Refill is negligible during the test
+    private static final double SLOW_RATE = 0.001;
+
+    @Test
+    public void testUnlimitedRate() {
+        ApiRateLimiter cut = new ApiRateLimiter(0, 1);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(cut.tryAcquire(ApiPriority.DIAGNOSTICS)).isZero();
+        }
+    }
+
+    @Test
+    public void testBurstCapacity() {
+        ApiRateLimiter cut = new ApiRateLimiter(SLOW_RATE, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cut.tryAcquire(ApiPriority.DEPLOYMENT)).isZero();
+        }
+        assertThat(cut.tryAcquire(ApiPriority.DEPLOYMENT)).isPositive();
+    }
+
+    @Test
+    public void testReservedCapacity() {
+        ApiRateLimiter cut = new ApiRateLimiter(SLOW_RATE, 10);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(cut.tryAcquire(ApiPriority.DIAGNOSTICS)).isZero();
+        }
+        assertThat(cut.tryAcquire(ApiPriority.DIAGNOSTICS)).isPositive();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cut.tryAcquire(ApiPriority.WAITER)).isZero();
+        }
+        assertThat(cut.tryAcquire(ApiPriority.WAITER)).isPositive();
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(cut.tryAcquire(ApiPriority.DEPLOYMENT)).isZero();
+        }
+        assertThat(cut.tryAcquire(ApiPriority.DEPLOYMENT)).isPositive();
+    }
+
+    @Test
+    public void testLowPriorityNotStarvedBySmallBurst() {
+        ApiRateLimiter cut = new ApiRateLimiter(SLOW_RATE, 1);
+
+        assertThat(cut.tryAcquire(ApiPriority.DIAGNOSTICS)).isZero();
+    }
+
+    @Test
+    public void testPause() {
+        ApiRateLimiter cut = new ApiRateLimiter(0, 1);
+
+        cut.pause(Duration.ofMinutes(1));
+
+        assertThat(cut.tryAcquire(ApiPriority.DEPLOYMENT)).isGreaterThan(Duration.ofSeconds(59).toNanos());
+    }
+}
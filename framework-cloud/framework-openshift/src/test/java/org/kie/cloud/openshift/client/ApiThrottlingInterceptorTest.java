@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.client;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ApiThrottlingInterceptorTest {
+
+    // Refill is negligible during the test
+    private static final double SLOW_RATE = 0.001;
+
+    private static final Request REQUEST = new Request.Builder().url("https://openshift:8443/api/v1/namespaces/test/events").build();
+
+    @Test
+    public void testPriorityCarriedByRequest() throws IOException {
+        Interceptor.Chain chain = mockChain(REQUEST, 200);
+
+        ApiPriority.DIAGNOSTICS.marker().intercept(chain);
+
+        ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+        Mockito.verify(chain).proceed(requestCaptor.capture());
+        assertThat(ApiPriority.of(requestCaptor.getValue())).isEqualTo(ApiPriority.DIAGNOSTICS);
+        assertThat(ApiPriority.of(REQUEST)).isEqualTo(ApiPriority.DEPLOYMENT);
+    }
+
+    @Test
+    public void testAsynchronousRequestRejectedWithoutCapacity() throws Exception {
+        ApiThrottlingInterceptor cut = new ApiThrottlingInterceptor(new ApiRateLimiter(SLOW_RATE, 1));
+        Interceptor.Chain chain = mockChain(REQUEST, 200);
+
+        assertThat(interceptOnDispatcherThread(cut, chain).code()).isEqualTo(200);
+        Response rejected = interceptOnDispatcherThread(cut, chain);
+
+        assertThat(rejected.code()).isEqualTo(429);
+        assertThat(rejected.header("Retry-After")).isNotEmpty();
+        assertThat(rejected.body().string()).contains("TooManyRequests");
+        Mockito.verify(chain, Mockito.times(1)).proceed(Mockito.any(Request.class));
+    }
+
+    @Test
+    public void testAsynchronousThrottledRequestNotRetried() throws Exception {
+        ApiRateLimiter rateLimiter = new ApiRateLimiter(0, 1);
+        ApiThrottlingInterceptor cut = new ApiThrottlingInterceptor(rateLimiter);
+        Interceptor.Chain chain = mockChain(REQUEST, 429);
+
+        assertThat(interceptOnDispatcherThread(cut, chain).code()).isEqualTo(429);
+
+        Mockito.verify(chain, Mockito.times(1)).proceed(Mockito.any(Request.class));
+        // Retry-After of the server response pauses all calls
+        assertThat(rateLimiter.tryAcquire(ApiPriority.DEPLOYMENT)).isPositive();
+    }
+
+    @Test
+    public void testSynchronousThrottledRequestRetried() throws IOException {
+        ApiThrottlingInterceptor cut = new ApiThrottlingInterceptor(new ApiRateLimiter(0, 1));
+        Interceptor.Chain chain = Mockito.mock(Interceptor.Chain.class);
+        Mockito.when(chain.request()).thenReturn(REQUEST);
+        Mockito.when(chain.proceed(Mockito.any(Request.class))).thenReturn(createResponse(REQUEST, 429, null), createResponse(REQUEST, 200, null));
+
+        assertThat(cut.intercept(chain).code()).isEqualTo(200);
+
+        Mockito.verify(chain, Mockito.times(2)).proceed(Mockito.any(Request.class));
+    }
+
+    private static Response interceptOnDispatcherThread(ApiThrottlingInterceptor cut, Interceptor.Chain chain) throws Exception {
+        AtomicReference<Response> response = new AtomicReference<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        // Name OkHttp gives to dispatcher thread running an asynchronous call
+        Thread dispatcherThread = new Thread(() -> {
+            try {
+                response.set(cut.intercept(chain));
+            } catch (Exception e) {
+                error.set(e);
+            }
+        }, "OkHttp " + REQUEST.url().redact());
+        dispatcherThread.start();
+        dispatcherThread.join();
+        if (error.get() != null) {
+            throw error.get();
+        }
+        return response.get();
+    }
+
+    private static Interceptor.Chain mockChain(Request request, int code) throws IOException {
+        Interceptor.Chain chain = Mockito.mock(Interceptor.Chain.class);
+        Mockito.when(chain.request()).thenReturn(request);
+        Mockito.when(chain.proceed(Mockito.any(Request.class))).then(invocation -> createResponse((Request) invocation.getArguments()[0], code, code == 429 ? "1" : null));
+        return chain;
+    }
+
+    private static Response createResponse(Request request, int code, String retryAfter) {
+        Response.Builder builder = new Response.Builder().request(request)
+                                                         .protocol(Protocol.HTTP_1_1)
+                                                         .code(code)
+                                                         .message("")
+                                                         .body(ResponseBody.create(null, ""));
+        if (retryAfter != null) {
+            builder.header("Retry-After", retryAfter);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.deployment;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.kie.cloud.openshift.constants.OpenShiftConstants;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RouteConfigurationTransactionTest {
+
+    @Test
+    public void annotationsAreSetByMergePatch() throws IOException {
+        Map<String, String> annotations = new LinkedHashMap<>();
+        annotations.put(OpenShiftConstants.HAPROXY_ROUTER_TIMEOUT, "60s");
+        annotations.put(OpenShiftConstants.HAPROXY_ROUTER_BALANCE, "roundrobin");
+
+        JsonNode patch = new ObjectMapper().readTree(RouteConfigurationTransaction.toMergePatch(annotations));
+
+        assertThat(patch.size()).isEqualTo(1);
+        JsonNode patchedAnnotations = patch.path("metadata").path("annotations");
+        assertThat(patchedAnnotations.size()).isEqualTo(2);
+        assertThat(patchedAnnotations.get(OpenShiftConstants.HAPROXY_ROUTER_TIMEOUT).asText()).isEqualTo("60s");
+        assertThat(patchedAnnotations.get(OpenShiftConstants.HAPROXY_ROUTER_BALANCE).asText()).isEqualTo("roundrobin");
+    }
+
+    @Test
+    public void nullValueRemovesAnnotation() throws IOException {
+        Map<String, String> annotations = new LinkedHashMap<>();
+        annotations.put(OpenShiftConstants.HAPROXY_ROUTER_TIMEOUT, null);
+        annotations.put(OpenShiftConstants.HAPROXY_ROUTER_DISABLE_COOKIES, "true");
+
+        JsonNode patchedAnnotations = new ObjectMapper().readTree(RouteConfigurationTransaction.toMergePatch(annotations))
+                                                        .path("metadata")
+                                                        .path("annotations");
+
+        // Merge patch removes keys with explicit null value, so the null has to be kept in the patch
+        assertThat(patchedAnnotations.has(OpenShiftConstants.HAPROXY_ROUTER_TIMEOUT)).isTrue();
+        assertThat(patchedAnnotations.get(OpenShiftConstants.HAPROXY_ROUTER_TIMEOUT).isNull()).isTrue();
+        assertThat(patchedAnnotations.get(OpenShiftConstants.HAPROXY_ROUTER_DISABLE_COOKIES).asText()).isEqualTo("true");
+    }
+}
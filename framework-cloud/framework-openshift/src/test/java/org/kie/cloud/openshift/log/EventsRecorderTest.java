@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.cloud.common.trace.Span;
+import org.kie.cloud.common.trace.Tracer;
+import org.kie.cloud.openshift.log.EventsRecorder.TimelineEntry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventsRecorderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void recordsAreMergedWithPhasesChronologically() throws IOException {
+        Span deploymentSpan = Tracer.startTrace("deploy scenario");
+        long deploymentStart = deploymentSpan.getStartMicros() / 1000;
+        deploymentSpan.close();
+
+        File eventsFile = temporaryFolder.newFile("project-events.tsv");
+        Files.write(eventsFile.toPath(), Arrays.asList((deploymentStart + 2000) + "\tevent\tPod/myapp-kieserver-1-abcde\tNormal Pulled: image pulled",
+                                                       (deploymentStart - 1000) + "\tpod\tmyapp-kieserver-1-abcde\tPending",
+                                                       "malformed line"),
+                    StandardCharsets.UTF_8);
+
+        List<TimelineEntry> timeline = EventsRecorder.mergeTimeline(EventsRecorder.readEntries(eventsFile), deploymentSpan.getTrace());
+
+        assertThat(timeline).extracting(TimelineEntry::getSource)
+                            .containsExactly(EventsRecorder.SOURCE_POD, EventsRecorder.SOURCE_PHASE, EventsRecorder.SOURCE_EVENT);
+        assertThat(timeline.get(1).getObject()).isEqualTo("deploy scenario");
+        assertThat(timeline.get(2).getTime()).isEqualTo(Instant.ofEpochMilli(deploymentStart + 2000));
+        assertThat(timeline.get(2).getMessage()).isEqualTo("Normal Pulled: image pulled");
+    }
+
+    @Test
+    public void podStateContainsContainerStates() {
+        Pod pod = new PodBuilder().withNewSpec()
+                                  .withNodeName("node-1")
+                                  .endSpec()
+                                  .withNewStatus()
+                                  .withPhase("Pending")
+                                  .addNewContainerStatus()
+                                  .withName("kieserver")
+                                  .withNewState()
+                                  .withNewWaiting()
+                                  .withReason("ContainerCreating")
+                                  .endWaiting()
+                                  .endState()
+                                  .endContainerStatus()
+                                  .endStatus()
+                                  .build();
+
+        assertThat(EventsRecorder.getPodState(pod)).isEqualTo("Pending on node-1, kieserver waiting ContainerCreating");
+    }
+}
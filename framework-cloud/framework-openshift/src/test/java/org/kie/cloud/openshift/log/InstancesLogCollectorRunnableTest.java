@@ -1,30 +1,36 @@
 package org.kie.cloud.openshift.log;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
 
+import io.fabric8.kubernetes.client.dsl.LogWatch;
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kie.cloud.api.deployment.Instance;
+import org.kie.cloud.openshift.client.ApiPriority;
 import org.kie.cloud.openshift.deployment.OpenShiftInstance;
 import org.kie.cloud.openshift.resource.Project;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
-import rx.Observable;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -141,8 +147,13 @@ public class InstancesLogCollectorRunnableTest {
     @Test
     public void killBeforeFinishedAndFlush() {
         List<OpenShiftInstance> instances = setInstanceMocks("BONJOUR");
-        setObserveLogCallable(instances, 2000);
-        instances.forEach(inst -> Mockito.when(inst.exists()).thenReturn(true));
+        OpenShiftInstance instance = instances.get(0);
+        // First line is received right away, next one is still in flight when the collector is closed
+        LogWatch logWatch = Mockito.mock(LogWatch.class);
+        Mockito.when(logWatch.getOutput()).thenReturn(new SequenceInputStream(toInputStream("BONJOUR\n"), new DelayedInputStream("AU REVOIR\n", 10_000)));
+        Mockito.when(instance.getContainerNames()).thenReturn(Collections.singletonList(CONTAINER_NAME));
+        Mockito.when(instance.watchContainerLog(Mockito.eq(CONTAINER_NAME), Mockito.any())).thenReturn(logWatch);
+        Mockito.when(instance.isRunning()).thenReturn(true);
         ExecutorService executorService = retrieveExecutorService();
 
         cut.run();
@@ -157,6 +168,68 @@ public class InstancesLogCollectorRunnableTest {
         checkObservedInstances();
 
         checkLog("BONJOUR", true);
+        Mockito.verify(logWatch).close();
+    }
+
+    @Test
+    public void logStreamIsResumedAfterConnectionFailure() throws InterruptedException {
+        List<OpenShiftInstance> instances = setInstanceMocks("BONJOUR");
+        OpenShiftInstance instance = instances.get(0);
+        LogWatch failedWatch = Mockito.mock(LogWatch.class);
+        Mockito.when(failedWatch.getOutput()).thenReturn(new SequenceInputStream(toInputStream("2020-05-04T10:15:30.123456789Z BONJOUR\n"), new FailingInputStream()));
+        LogWatch resumedWatch = createLogWatchMock("2020-05-04T10:15:30.123456789Z BONJOUR\n2020-05-04T10:15:30.5Z BONSOIR", null);
+        Mockito.when(instance.getContainerNames()).thenReturn(Collections.singletonList(CONTAINER_NAME));
+        Mockito.when(instance.watchContainerLog(Mockito.eq(CONTAINER_NAME), Mockito.any())).then((invocation) -> {
+            return invocation.getArguments()[1] == null ? failedWatch : resumedWatch;
+        });
+        Mockito.when(instance.isRunning()).thenReturn(true, false);
+
+        cut.run();
+        for (int i = 0; i < 50 && !cut.observedInstances.isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+        cut.closeAndFlushRemainingInstanceCollectors(DEFAULT_WAIT_FOR_COMPLETION_IN_MS);
+
+        checkObservedInstances();
+        assertEquals("BONJOUR" + System.lineSeparator() + "BONSOIR", readLog("BONJOUR"));
+        Mockito.verify(failedWatch).close();
+        // Time of the line received before the failure is kept
+        Mockito.verify(instance).watchContainerLog(CONTAINER_NAME, Instant.parse("2020-05-04T10:15:30.123456789Z"));
+    }
+
+    @Test
+    public void logStreamIsResumedWhileInstanceIsRunning() throws InterruptedException {
+        List<OpenShiftInstance> instances = setInstanceMocks("BONJOUR");
+        OpenShiftInstance instance = instances.get(0);
+        LogWatch firstWatch = createLogWatchMock("2020-05-04T10:15:30.123456789Z BONJOUR", null);
+        // Server streams again the lines written in the same second as the last received line
+        LogWatch resumedWatch = createLogWatchMock("2020-05-04T10:15:30.123456789Z BONJOUR\n2020-05-04T10:15:30.5Z BONSOIR", null);
+        Mockito.when(instance.getContainerNames()).thenReturn(Collections.singletonList(CONTAINER_NAME));
+        // Resumed stream starts from the server time of the last received line
+        Mockito.when(instance.watchContainerLog(Mockito.eq(CONTAINER_NAME), Mockito.any())).then((invocation) -> {
+            return invocation.getArguments()[1] == null ? firstWatch : resumedWatch;
+        });
+        Mockito.when(instance.isRunning()).thenReturn(true, false);
+
+        cut.run();
+        // Collector finishes once the instance isn't running anymore
+        for (int i = 0; i < 50 && !cut.observedInstances.isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+        cut.closeAndFlushRemainingInstanceCollectors(DEFAULT_WAIT_FOR_COMPLETION_IN_MS);
+
+        checkObservedInstances();
+        assertEquals("BONJOUR" + System.lineSeparator() + "BONSOIR", readLog("BONJOUR"));
+        Mockito.verify(firstWatch).close();
+        Mockito.verify(resumedWatch).close();
+        Mockito.verify(instance).watchContainerLog(CONTAINER_NAME, Instant.parse("2020-05-04T10:15:30.123456789Z"));
+    }
+
+    @Test
+    public void lineWithoutTimestampHasNoTime() {
+        assertEquals(Instant.parse("2020-05-04T10:15:30.5Z"), InstancesLogCollectorRunnable.parseTimestamp("2020-05-04T10:15:30.5Z BONSOIR"));
+        assertNull(InstancesLogCollectorRunnable.parseTimestamp("BONSOIR"));
+        assertNull(InstancesLogCollectorRunnable.parseTimestamp("Caused by: java.lang.RuntimeException"));
     }
 
     private List<OpenShiftInstance> setInstanceMocks(String... messages) {
@@ -165,7 +238,7 @@ public class InstancesLogCollectorRunnableTest {
                                                   .map(this::createInstanceMock)
                                                   .collect(Collectors.toList());
 
-        Mockito.when(projectMock.getAllInstances())
+        Mockito.when(projectMock.getAllInstances(ApiPriority.DIAGNOSTICS))
                .thenReturn(instances.stream()
                                     .map(inst -> (Instance) inst)
                                     .collect(Collectors.toList()));
@@ -181,24 +254,23 @@ public class InstancesLogCollectorRunnableTest {
 
     private void setObserveLogCallable(List<OpenShiftInstance> instances, Integer waitForMessage) {
         instances.forEach(instance -> {
-            Mockito.when(instance.observeAllContainersLogs()).then((invocation) -> {
-                Map<String, Observable<String>> observes = new HashMap<>();
-                observes.put(CONTAINER_NAME, Observable.fromCallable(() -> {
-                    if (Objects.nonNull(waitForMessage)) {
-                        Thread.sleep(waitForMessage);
-                    }
-                    return instance.getName();
-                }));
-                return observes;
-            });
-            Mockito.when(instance.getAllContainerLogs()).then((invocation) -> {
-                Map<String, String> observes = new HashMap<>();
-                observes.put(CONTAINER_NAME, instance.getName());
-                return observes;
+            Mockito.when(instance.getContainerNames()).thenReturn(Collections.singletonList(CONTAINER_NAME));
+            Mockito.when(instance.watchContainerLog(Mockito.eq(CONTAINER_NAME), Mockito.any())).then((invocation) -> {
+                return createLogWatchMock(instance.getName(), waitForMessage);
             });
         });
     }
 
+    private static LogWatch createLogWatchMock(String message, Integer waitForMessage) {
+        LogWatch logWatchMock = Mockito.mock(LogWatch.class);
+        Mockito.when(logWatchMock.getOutput()).thenReturn(new DelayedInputStream(message + "\n", waitForMessage));
+        return logWatchMock;
+    }
+
+    private static InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
     private ExecutorService retrieveExecutorService() {
         return cut.executorService;
     }
@@ -234,4 +306,43 @@ public class InstancesLogCollectorRunnableTest {
         outputDirectory.mkdirs();
         return new File(outputDirectory, instanceName + "-" + CONTAINER_NAME + LOG_SUFFIX);
     }
+
+    /**
+     * Log stream delivering the content after a delay, returns end of stream if interrupted while waiting.
+     */
+    private static class DelayedInputStream extends ByteArrayInputStream {
+
+        private final Integer delayInMs;
+        private boolean delayed;
+
+        private DelayedInputStream(String content, Integer delayInMs) {
+            super(content.getBytes(StandardCharsets.UTF_8));
+            this.delayInMs = delayInMs;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            if (!delayed && Objects.nonNull(delayInMs)) {
+                delayed = true;
+                try {
+                    Thread.sleep(delayInMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return -1;
+                }
+            }
+            return super.read(b, off, len);
+        }
+    }
+
+    /**
+     * Log stream of a dropped connection.
+     */
+    private static class FailingInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            throw new IOException("Connection reset");
+        }
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.scenario;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.kie.cloud.common.trace.Span;
+import org.kie.cloud.common.trace.Tracer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DeploymentGraphTest {
+
+    @Test
+    public void independentStepsRunConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        List<String> finished = new CopyOnWriteArrayList<>();
+
+        new DeploymentGraph().addStep("database", () -> awaitAndRecord(bothStarted, finished, "database"))
+                             .addStep("workbench", () -> awaitAndRecord(bothStarted, finished, "workbench"))
+                             .addStep("kie-server", () -> finished.add("kie-server"), "database")
+                             .execute();
+
+        assertThat(finished).containsExactlyInAnyOrder("database", "workbench", "kie-server");
+        assertThat(finished.indexOf("kie-server")).isGreaterThan(finished.indexOf("database"));
+    }
+
+    @Test
+    public void failedStepSkipsDependentSteps() {
+        List<String> finished = new CopyOnWriteArrayList<>();
+
+        DeploymentGraph graph = new DeploymentGraph().addStep("database", () -> {
+            throw new IllegalStateException("Database failed");
+        }).addStep("kie-server", () -> finished.add("kie-server"), "database");
+
+        assertThatThrownBy(graph::execute).isInstanceOf(IllegalStateException.class).hasMessage("Database failed");
+        assertThat(finished).isEmpty();
+    }
+
+    @Test
+    public void stepsAreTracedAsChildSpans() {
+        Span deploymentSpan = Tracer.startTrace("deploy");
+        try {
+            new DeploymentGraph().addStep("database", () -> Tracer.run("wait for pods", () -> {}))
+                                 .addStep("kie-server", () -> {}, "database")
+                                 .execute();
+        } finally {
+            deploymentSpan.close();
+        }
+
+        Map<String, Span> spans = deploymentSpan.getTrace().getSpans().stream().collect(Collectors.toMap(Span::getName, Function.identity()));
+        assertThat(spans).containsOnlyKeys("deploy", "database", "wait for pods", "kie-server");
+        assertThat(spans.get("database").getParent()).isSameAs(deploymentSpan);
+        assertThat(spans.get("kie-server").getParent()).isSameAs(deploymentSpan);
+        assertThat(spans.get("wait for pods").getParent()).isSameAs(spans.get("database"));
+        assertThat(spans.values()).allMatch(Span::isFinished);
+    }
+
+    @Test
+    public void unknownDependencyIsRejected() {
+        assertThatThrownBy(() -> new DeploymentGraph().addStep("kie-server", () -> {}, "database")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void awaitAndRecord(CountDownLatch latch, List<String> finished, String name) {
+        latch.countDown();
+        try {
+            // Both independent steps have to be running at the same time to pass the latch
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finished.add(name);
+    }
+}
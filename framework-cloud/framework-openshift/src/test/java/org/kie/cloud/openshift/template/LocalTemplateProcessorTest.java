@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.template;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.Template;
+import io.fabric8.openshift.api.model.TemplateBuilder;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LocalTemplateProcessorTest {
+
+    @Test
+    public void parametersAreSubstituted() {
+        Map<String, String> parameterValues = new HashMap<>();
+        parameterValues.put("APPLICATION_NAME", "myapp");
+        parameterValues.put("PORT", "8080");
+        parameterValues.put("UNKNOWN", "ignored");
+
+        List<HasMetadata> objects = new LocalTemplateProcessor().process(template(), parameterValues);
+
+        assertThat(objects).hasSize(1);
+        Service service = (Service) objects.get(0);
+        assertThat(service.getMetadata().getName()).isEqualTo("myapp-kieserver");
+        assertThat(service.getMetadata().getLabels()).containsEntry("application", "myapp").containsEntry("template", "test");
+        assertThat(service.getSpec().getPorts().get(0).getTargetPort().getStrVal()).isEqualTo("8080");
+        assertThat(service.getMetadata().getAnnotations().get("secret")).matches("[a-z]{8}");
+    }
+
+    @Test
+    public void missingRequiredParameterIsRejected() {
+        assertThatThrownBy(() -> new LocalTemplateProcessor().process(template(), Collections.singletonMap("PORT", "8080")))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("APPLICATION_NAME");
+    }
+
+    @Test
+    public void nonStringParametersAreTyped() throws IOException {
+        JsonNode template = Serialization.jsonMapper().readTree("{\"kind\": \"Template\", \"metadata\": {\"name\": \"test\"}," +
+                                                                "\"objects\": [{\"apiVersion\": \"v1\", \"kind\": \"DeploymentConfig\"," +
+                                                                "\"metadata\": {\"name\": \"myapp\"}," +
+                                                                "\"spec\": {\"replicas\": \"${{REPLICAS}}\", \"paused\": \"${{PAUSED}}\"}}]," +
+                                                                "\"parameters\": [{\"name\": \"REPLICAS\", \"value\": \"1\"}, {\"name\": \"PAUSED\"}]}");
+        Map<String, String> parameterValues = new HashMap<>();
+        parameterValues.put("REPLICAS", "3");
+        parameterValues.put("PAUSED", "true");
+
+        List<HasMetadata> objects = new LocalTemplateProcessor().process(template, parameterValues);
+
+        DeploymentConfig deploymentConfig = (DeploymentConfig) objects.get(0);
+        assertThat(deploymentConfig.getSpec().getReplicas()).isEqualTo(3);
+        assertThat(deploymentConfig.getSpec().getPaused()).isTrue();
+    }
+
+    private static Template template() {
+        Service service = new ServiceBuilder().withNewMetadata()
+                                                  .withName("${APPLICATION_NAME}-kieserver")
+                                                  .addToLabels("application", "${APPLICATION_NAME}")
+                                                  .addToAnnotations("secret", "${SECRET}")
+                                              .endMetadata()
+                                              .withNewSpec()
+                                                  .addNewPort()
+                                                      .withNewTargetPort("${PORT}")
+                                                  .endPort()
+                                              .endSpec()
+                                              .build();
+        return new TemplateBuilder().withNewMetadata()
+                                          .withName("test")
+                                      .endMetadata()
+                                      .addToObjects(service)
+                                      .addNewParameter()
+                                          .withName("APPLICATION_NAME")
+                                          .withRequired(true)
+                                      .endParameter()
+                                      .addNewParameter()
+                                          .withName("PORT")
+                                      .endParameter()
+                                      .addNewParameter()
+                                          .withName("SECRET")
+                                          .withGenerate("expression")
+                                          .withFrom("[a-z]{8}")
+                                      .endParameter()
+                                      .addToLabels("template", "test")
+                                      .build();
+    }
+}
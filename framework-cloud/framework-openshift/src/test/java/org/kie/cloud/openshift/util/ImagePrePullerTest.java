@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.model.ContainerStatus;
+import io.fabric8.kubernetes.api.model.ContainerStatusBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import org.junit.Test;
+import org.kie.cloud.openshift.util.NodeImageReport.PullStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ImagePrePullerTest {
+
+    private static final List<String> IMAGES = Arrays.asList("registry/rhpam/kieserver:7.9", "registry/rhpam/businesscentral:7.9");
+
+    @Test
+    public void nodesWithAllImagesPulledAreWarm() {
+        NodeImageReport report = ImagePrePuller.createReport(Arrays.asList(pod("node-1", pulled(0), pulled(1)),
+                                                                           pod("node-2", pulled(0), pulled(1))),
+                                                             IMAGES);
+
+        assertThat(report.getNodes()).containsExactly("node-1", "node-2");
+        assertThat(report.isFinished()).isTrue();
+        assertThat(report.isWarm()).isTrue();
+    }
+
+    @Test
+    public void pullFailureFinishesNodeAsCold() {
+        NodeImageReport report = ImagePrePuller.createReport(Arrays.asList(pod("node-1", pulled(0), waiting(1, "ImagePullBackOff")),
+                                                                           pod("node-2", pulled(0), pulled(1))),
+                                                             IMAGES);
+
+        assertThat(report.isFinished()).isTrue();
+        assertThat(report.isWarm()).isFalse();
+        assertThat(report.getColdNodes()).containsExactly("node-1");
+        assertThat(report.getImageStatus("node-1")).containsEntry(IMAGES.get(1), PullStatus.FAILED);
+    }
+
+    @Test
+    public void imagesBeingPulledArePending() {
+        NodeImageReport report = ImagePrePuller.createReport(Collections.singletonList(pod("node-1", waiting(0, "ContainerCreating"))), IMAGES);
+
+        assertThat(report.isFinished()).isFalse();
+        assertThat(report.getImageStatus("node-1")).containsEntry(IMAGES.get(0), PullStatus.PENDING)
+                                                   .containsEntry(IMAGES.get(1), PullStatus.PENDING);
+    }
+
+    private static Pod pod(String node, ContainerStatus... containerStatuses) {
+        return new PodBuilder().withNewSpec()
+                               .withNodeName(node)
+                               .endSpec()
+                               .withNewStatus()
+                               .withContainerStatuses(containerStatuses)
+                               .endStatus()
+                               .build();
+    }
+
+    private static ContainerStatus pulled(int imageIndex) {
+        return new ContainerStatusBuilder().withName("image-" + imageIndex)
+                                           .withImageID("docker-pullable://" + IMAGES.get(imageIndex))
+                                           .build();
+    }
+
+    private static ContainerStatus waiting(int imageIndex, String reason) {
+        return new ContainerStatusBuilder().withName("image-" + imageIndex)
+                                           .withNewState()
+                                           .withNewWaiting()
+                                           .withReason(reason)
+                                           .endWaiting()
+                                           .endState()
+                                           .build();
+    }
+}
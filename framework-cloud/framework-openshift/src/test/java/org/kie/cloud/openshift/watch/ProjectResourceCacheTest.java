@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.watch;
+
+import cz.xtf.core.openshift.OpenShift;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+public class ProjectResourceCacheTest {
+
+    @Test
+    public void closedCacheCantBeRead() {
+        OpenShift openShift = Mockito.mock(OpenShift.class);
+        when(openShift.getNamespace()).thenReturn("my-project");
+        ProjectResourceCache cut = new ProjectResourceCache(openShift);
+
+        cut.close();
+
+        assertThatThrownBy(cut::start).isInstanceOf(IllegalStateException.class).hasMessageContaining("my-project");
+        assertThatThrownBy(cut::getPods).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.watch;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.DeploymentConfigBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+public class ProjectTopologyTest {
+
+    private ProjectResourceCache resourceCache;
+
+    private ProjectTopology cut;
+
+    @Before
+    public void setUp() {
+        resourceCache = Mockito.mock(ProjectResourceCache.class);
+        when(resourceCache.getServices()).thenReturn(Arrays.asList(service("myapp-kieserver", "myapp-kieserver"),
+                                                                   service("secure-myapp-kieserver", "myapp-kieserver"),
+                                                                   service("myapp-rhpamcentr", "myapp-rhpamcentr")));
+        cut = new ProjectTopology(resourceCache);
+    }
+
+    @Test
+    public void servicesAreResolvedByRole() {
+        assertThat(cut.getServiceName(ServiceRole.KIE_SERVER)).isEqualTo("myapp-kieserver");
+        assertThat(cut.getServiceName(ServiceRole.WORKBENCH)).isEqualTo("myapp-rhpamcentr");
+        assertThat(cut.findService(ServiceRole.WORKBENCH_MONITORING)).isNotPresent();
+        assertThatThrownBy(() -> cut.getService(ServiceRole.SMART_ROUTER)).hasMessageContaining("myapp-kieserver, myapp-rhpamcentr, secure-myapp-kieserver");
+    }
+
+    @Test
+    public void servicesWithSuffixAreResolved() {
+        cut.onEvent(Action.ADDED, service("myapp-kieserver-2", "myapp-kieserver-2"));
+
+        assertThat(cut.getServiceName(ServiceRole.KIE_SERVER, "-2")).isEqualTo("myapp-kieserver-2");
+        assertThat(cut.getServiceName(ServiceRole.KIE_SERVER)).isEqualTo("myapp-kieserver");
+        assertThat(cut.getServices(ServiceRole.KIE_SERVER)).extracting(service -> service.getMetadata().getName())
+                                                           .containsExactly("myapp-kieserver", "myapp-kieserver-2");
+    }
+
+    @Test
+    public void deletedServicesAreRemoved() {
+        cut.onEvent(Action.DELETED, service("myapp-kieserver", "myapp-kieserver"));
+
+        assertThat(cut.findService(ServiceRole.KIE_SERVER)).isNotPresent();
+        assertThat(cut.findService(ServiceRole.WORKBENCH)).isPresent();
+    }
+
+    @Test
+    public void deploymentConfigIsResolvedBySelector() {
+        DeploymentConfig deploymentConfig = new DeploymentConfigBuilder().withNewMetadata().withName("myapp-kieserver").endMetadata().build();
+        when(resourceCache.getDeploymentConfig("myapp-kieserver")).thenReturn(Optional.of(deploymentConfig));
+
+        assertThat(cut.getDeploymentConfig(ServiceRole.KIE_SERVER, "")).contains(deploymentConfig);
+    }
+
+    private static Service service(String name, String deploymentConfig) {
+        return new ServiceBuilder().withNewMetadata()
+                                   .withName(name)
+                                   .endMetadata()
+                                   .withNewSpec()
+                                   .addToSelector("deploymentConfig", deploymentConfig)
+                                   .endSpec()
+                                   .build();
+    }
+}
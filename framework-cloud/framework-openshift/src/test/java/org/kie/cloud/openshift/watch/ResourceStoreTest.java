@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.openshift.watch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ResourceStoreTest {
+
+    private static final String DC_LABEL = "deploymentconfig";
+
+    private ScheduledExecutorService executor;
+    private PodList listedPods;
+    private List<String> receivedEvents;
+
+    private ResourceStore<Pod> cut;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        receivedEvents = new ArrayList<>();
+        listedPods = new PodListBuilder().withNewMetadata().withResourceVersion("1").endMetadata()
+                                         .addToItems(pod("pod-a", "dc-1"), pod("pod-b", "dc-2"))
+                                         .build();
+
+        cut = new ResourceStore<>("Pod", () -> listedPods, (resourceVersion, watcher) -> Mockito.mock(Watch.class),
+                                  pod -> pod.getMetadata().getLabels().get(DC_LABEL), executor);
+        cut.addListener((action, pod) -> receivedEvents.add(action + ":" + pod.getMetadata().getName()));
+        cut.start();
+    }
+
+    @After
+    public void tearDown() {
+        cut.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void initialListIsIndexed() {
+        assertThat(cut.list()).hasSize(2);
+        assertThat(cut.listByIndex("dc-1")).extracting(pod -> pod.getMetadata().getName()).containsExactly("pod-a");
+        assertThat(cut.listByIndex("dc-3")).isEmpty();
+        assertThat(receivedEvents).containsExactlyInAnyOrder("ADDED:pod-a", "ADDED:pod-b");
+    }
+
+    @Test
+    public void watchEventsUpdateIndex() {
+        cut.eventReceived(Action.ADDED, pod("pod-c", "dc-1"));
+        cut.eventReceived(Action.MODIFIED, pod("pod-a", "dc-2"));
+        cut.eventReceived(Action.DELETED, pod("pod-b", "dc-2"));
+
+        assertThat(cut.listByIndex("dc-1")).extracting(pod -> pod.getMetadata().getName()).containsExactly("pod-c");
+        assertThat(cut.listByIndex("dc-2")).extracting(pod -> pod.getMetadata().getName()).containsExactly("pod-a");
+        assertThat(cut.get("pod-b")).isNotPresent();
+        assertThat(receivedEvents).endsWith("ADDED:pod-c", "MODIFIED:pod-a", "DELETED:pod-b");
+    }
+
+    @Test
+    public void throttledWatchIsRetriedOnStart() {
+        AtomicInteger watchAttempts = new AtomicInteger();
+        try (ResourceStore<Pod> store = new ResourceStore<>("Pod", () -> listedPods, (resourceVersion, watcher) -> {
+            if (watchAttempts.incrementAndGet() == 1) {
+                throw new KubernetesClientException("Throttled by client rate limiter", 429, null);
+            }
+            return Mockito.mock(Watch.class);
+        }, pod -> null, executor)) {
+            store.start();
+
+            assertThat(watchAttempts.get()).isEqualTo(2);
+            assertThat(store.list()).hasSize(2);
+        }
+    }
+
+    @Test
+    public void failedWatchIsNotRetriedOnStart() {
+        AtomicInteger watchAttempts = new AtomicInteger();
+        try (ResourceStore<Pod> store = new ResourceStore<>("Pod", () -> listedPods, (resourceVersion, watcher) -> {
+            watchAttempts.incrementAndGet();
+            throw new KubernetesClientException("Forbidden", 403, null);
+        }, pod -> null, executor)) {
+            assertThatThrownBy(store::start).isInstanceOf(KubernetesClientException.class);
+            assertThat(watchAttempts.get()).isEqualTo(1);
+        }
+    }
+
+    private static Pod pod(String name, String deploymentConfig) {
+        return new PodBuilder().withNewMetadata()
+                               .withName(name)
+                               .addToLabels(DC_LABEL, deploymentConfig)
+                               .endMetadata()
+                               .build();
+    }
+}
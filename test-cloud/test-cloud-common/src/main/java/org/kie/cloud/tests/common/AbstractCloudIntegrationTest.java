@@ -17,8 +17,10 @@ package org.kie.cloud.tests.common;
 
 import java.util.UUID;
 
+import org.junit.Rule;
 import org.kie.cloud.api.DeploymentScenarioBuilderFactory;
 import org.kie.cloud.api.DeploymentScenarioBuilderFactoryLoader;
+import org.kie.cloud.tests.common.time.TestTimingRule;
 
 public abstract class AbstractCloudIntegrationTest {
 
@@ -55,6 +57,9 @@ public abstract class AbstractCloudIntegrationTest {
 
     protected static final DeploymentScenarioBuilderFactory deploymentScenarioFactory = DeploymentScenarioBuilderFactoryLoader.getInstance();
 
+    @Rule
+    public TestTimingRule testTimingRule = new TestTimingRule();
+
     protected static String generateNameWithPrefix(String prefix) {
         return prefix + "-" + UUID.randomUUID().toString().substring(0, 4);
     }
@@ -21,6 +21,7 @@ import org.junit.Rule;
 import org.junit.rules.TestName;
 import org.kie.cloud.api.DeploymentScenarioBuilderFactory;
 import org.kie.cloud.api.scenario.DeploymentScenario;
+import org.kie.cloud.tests.common.pool.ScenarioPool;
 
 public abstract class AbstractMethodIsolatedCloudIntegrationTest<T extends DeploymentScenario<?>> extends AbstractCloudIntegrationTest {
 
@@ -31,15 +32,15 @@ public abstract class AbstractMethodIsolatedCloudIntegrationTest<T extends Deplo
 
     @Before
     public void initializeDeployment() {
-        deploymentScenario = createDeploymentScenario(AbstractCloudIntegrationTest.deploymentScenarioFactory);
-        deploymentScenario.setLogFolderName(this.getClass().getSimpleName() + "-" + testName.getMethodName());
+        T createdDeploymentScenario = createDeploymentScenario(AbstractCloudIntegrationTest.deploymentScenarioFactory);
+        createdDeploymentScenario.setLogFolderName(this.getClass().getSimpleName() + "-" + testName.getMethodName());
 
-        ScenarioDeployer.deployScenario(deploymentScenario);
+        deploymentScenario = ScenarioPool.acquire(createdDeploymentScenario);
     }
 
     @After
     public void cleanEnvironment() {
-        ScenarioDeployer.undeployScenario(deploymentScenario);
+        ScenarioPool.release(deploymentScenario);
     }
 
     protected abstract T createDeploymentScenario(DeploymentScenarioBuilderFactory deploymentScenarioFactory);
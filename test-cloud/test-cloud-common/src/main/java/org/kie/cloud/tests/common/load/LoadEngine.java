@@ -0,0 +1,220 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.tests.common.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load generator running operations either in closed model (fixed number of workers executing operations back to
+ * back) or in open model (operations started at fixed arrival rate regardless of how fast previous operations finish).
+ * Latency of every operation is recorded into HdrHistogram, see {@link OperationStatistics}.
+ *
+ * Load ends when the duration elapses or when the maximal number of operations is started, what comes first.
+ * Multiple operations are executed in round robin order.
+ *
+ * <pre>
+ * LoadResult result = LoadEngine.openModel(500, 200)
+ *                               .operation("startProcess", () -&gt; processClient.startProcess(containerId, processId))
+ *                               .maxOperations(100_000)
+ *                               .run();
+ * </pre>
+ */
+public class LoadEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadEngine.class);
+
+    private static final long CLOSED_MODEL = -1L;
+    // Longer durations are treated as unlimited, keeps the deadline computation in nanoseconds from overflowing
+    private static final Duration MAX_DURATION = Duration.ofDays(365);
+
+    private final int concurrency;
+    private final long arrivalIntervalInNanos;
+    private final Map<String, Runnable> operations = new LinkedHashMap<>();
+    private final List<LoadListener> listeners = new ArrayList<>();
+    private Duration duration = MAX_DURATION;
+    private long maxOperations = Long.MAX_VALUE;
+
+    private LoadEngine(int concurrency, long arrivalIntervalInNanos) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency has to be at least 1, was " + concurrency);
+        }
+        this.concurrency = concurrency;
+        this.arrivalIntervalInNanos = arrivalIntervalInNanos;
+    }
+
+    /**
+     * @param workers Number of workers executing operations back to back.
+     * @return Closed model load engine.
+     */
+    public static LoadEngine closedModel(int workers) {
+        return new LoadEngine(workers, CLOSED_MODEL);
+    }
+
+    /**
+     * @param arrivalRatePerSecond Number of operations started per second.
+     * @param maxConcurrency Maximal number of operations executed at the same time, operations which can't be executed
+     * immediately wait and their waiting time is part of the recorded response time.
+     * @return Open model load engine.
+     */
+    public static LoadEngine openModel(double arrivalRatePerSecond, int maxConcurrency) {
+        if (arrivalRatePerSecond <= 0) {
+            throw new IllegalArgumentException("Arrival rate has to be positive, was " + arrivalRatePerSecond);
+        }
+        return new LoadEngine(maxConcurrency, Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / arrivalRatePerSecond)));
+    }
+
+    public LoadEngine operation(String name, Runnable operation) {
+        operations.put(name, operation);
+        return this;
+    }
+
+    public LoadEngine listener(LoadListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    public LoadEngine duration(Duration duration) {
+        this.duration = duration.compareTo(MAX_DURATION) > 0 ? MAX_DURATION : duration;
+        return this;
+    }
+
+    public LoadEngine maxOperations(long maxOperations) {
+        this.maxOperations = maxOperations;
+        return this;
+    }
+
+    /**
+     * Run the load and wait until all started operations finish.
+     *
+     * @return Load statistics.
+     */
+    public LoadResult run() {
+        if (operations.isEmpty()) {
+            throw new IllegalStateException("No operation defined for the load.");
+        }
+        Map<String, OperationStatistics> statistics = new LinkedHashMap<>();
+        List<Operation> operationList = new ArrayList<>();
+        operations.forEach((name, runnable) -> {
+            OperationStatistics operationStatistics = new OperationStatistics(name);
+            statistics.put(name, operationStatistics);
+            operationList.add(new Operation(runnable, operationStatistics, listeners));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, new WorkerThreadFactory());
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + duration.toNanos();
+        try {
+            if (arrivalIntervalInNanos == CLOSED_MODEL) {
+                runClosedModel(executor, operationList, deadlineNanos);
+            } else {
+                runOpenModel(executor, operationList, startNanos, deadlineNanos);
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.debug("Waiting for load operations to finish.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Load was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return new LoadResult(statistics, Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private void runClosedModel(ExecutorService executor, List<Operation> operationList, long deadlineNanos) {
+        AtomicLong sequence = new AtomicLong();
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                long current;
+                while ((current = sequence.getAndIncrement()) < maxOperations && System.nanoTime() < deadlineNanos) {
+                    long startNanos = System.nanoTime();
+                    operationList.get((int) (current % operationList.size())).execute(startNanos, startNanos);
+                }
+            });
+        }
+    }
+
+    private void runOpenModel(ExecutorService executor, List<Operation> operationList, long startNanos, long deadlineNanos) {
+        for (long current = 0; current < maxOperations; current++) {
+            long intendedStartNanos = startNanos + current * arrivalIntervalInNanos;
+            if (intendedStartNanos >= deadlineNanos) {
+                break;
+            }
+            long waitNanos;
+            while ((waitNanos = intendedStartNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            Operation operation = operationList.get((int) (current % operationList.size()));
+            executor.execute(() -> operation.execute(intendedStartNanos, System.nanoTime()));
+        }
+    }
+
+    private static class Operation {
+
+        private final Runnable runnable;
+        private final OperationStatistics statistics;
+        private final List<LoadListener> listeners;
+
+        private Operation(Runnable runnable, OperationStatistics statistics, List<LoadListener> listeners) {
+            this.runnable = runnable;
+            this.statistics = statistics;
+            this.listeners = listeners;
+        }
+
+        private void execute(long intendedStartNanos, long startNanos) {
+            boolean success = false;
+            try {
+                runnable.run();
+                success = true;
+            } catch (Exception | AssertionError e) {
+                statistics.recordFailure(e);
+            }
+            long endNanos = System.nanoTime();
+            if (success) {
+                statistics.recordSuccess(intendedStartNanos, startNanos, endNanos);
+            }
+            for (LoadListener listener : listeners) {
+                listener.operationFinished(statistics.getName(), intendedStartNanos, startNanos, endNanos, success);
+            }
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "load-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
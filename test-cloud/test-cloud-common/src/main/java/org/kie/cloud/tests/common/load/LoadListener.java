@@ -0,0 +1,32 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.tests.common.load;
+
+/**
+ * Listener notified about every finished load operation, invoked from the worker thread so it has to be thread safe
+ * and return quickly.
+ */
+@FunctionalInterface
+public interface LoadListener {
+
+    /**
+     * @param operation Operation name.
+     * @param intendedStartNanos Time the operation was supposed to start, from {@link System#nanoTime()}.
+     * @param startNanos Time the operation actually started, from {@link System#nanoTime()}.
+     * @param endNanos Time the operation finished, from {@link System#nanoTime()}.
+     * @param success True if the operation finished without failure.
+     */
+    void operationFinished(String operation, long intendedStartNanos, long startNanos, long endNanos, boolean success);
+}
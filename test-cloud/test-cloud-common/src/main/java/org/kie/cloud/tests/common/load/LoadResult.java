@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.tests.common.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+
+/**
+ * Result of a {@link LoadEngine} run.
+ */
+public class LoadResult {
+
+    private final Map<String, OperationStatistics> operations;
+    private final Duration elapsed;
+
+    LoadResult(Map<String, OperationStatistics> operations, Duration elapsed) {
+        this.operations = Collections.unmodifiableMap(operations);
+        this.elapsed = elapsed;
+    }
+
+    public Collection<OperationStatistics> getOperations() {
+        return operations.values();
+    }
+
+    public OperationStatistics getOperation(String name) {
+        OperationStatistics statistics = operations.get(name);
+        if (statistics == null) {
+            throw new IllegalArgumentException("Operation " + name + " wasn't part of the load.");
+        }
+        return statistics;
+    }
+
+    /**
+     * @return Time from the start of the load until the last operation finished.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public long getSuccessCount() {
+        return operations.values().stream().mapToLong(OperationStatistics::getSuccessCount).sum();
+    }
+
+    public long getFailureCount() {
+        return operations.values().stream().mapToLong(OperationStatistics::getFailureCount).sum();
+    }
+
+    /**
+     * @return Successful operations per second.
+     */
+    public double getThroughput() {
+        long elapsedInMs = Math.max(1, elapsed.toMillis());
+        return getSuccessCount() * 1000.0 / elapsedInMs;
+    }
+
+    /**
+     * @return First failure of each failed operation.
+     */
+    public List<Throwable> getFailures() {
+        List<Throwable> failures = new ArrayList<>();
+        operations.values().stream()
+                  .map(OperationStatistics::getFirstFailure)
+                  .filter(failure -> failure != null)
+                  .forEach(failures::add);
+        return failures;
+    }
+
+    public void logSummary(Logger logger) {
+        logger.info("Load finished in {}, throughput {} operations/s", elapsed, String.format("%.2f", getThroughput()));
+        operations.values().forEach(statistics -> logger.info("{}", statistics));
+        getFailures().forEach(failure -> logger.error("Operation failed", failure));
+    }
+}
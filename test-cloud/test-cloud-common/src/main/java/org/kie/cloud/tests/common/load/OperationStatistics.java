@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.tests.common.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency and outcome statistics of one load operation. Latencies are recorded in nanoseconds.
+ *
+ * Response time is measured from the time the operation was supposed to start, so in open model it includes time spent
+ * waiting for a free worker (corrected for coordinated omission). Service time is measured from the actual start.
+ * In closed model both are the same.
+ */
+public class OperationStatistics {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String name;
+    private final Histogram responseTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final Histogram serviceTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final LongAdder successCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+    OperationStatistics(String name) {
+        this.name = name;
+    }
+
+    void recordSuccess(long intendedStartNanos, long startNanos, long endNanos) {
+        successCount.increment();
+        responseTime.recordValue(endNanos - intendedStartNanos);
+        serviceTime.recordValue(endNanos - startNanos);
+    }
+
+    void recordFailure(Throwable failure) {
+        failureCount.increment();
+        firstFailure.compareAndSet(null, failure);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Histogram getResponseTime() {
+        return responseTime;
+    }
+
+    public Histogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getSuccessCount() {
+        return successCount.sum();
+    }
+
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    /**
+     * @return First failure of the operation, null if all executions succeeded.
+     */
+    public Throwable getFirstFailure() {
+        return firstFailure.get();
+    }
+
+    /**
+     * @param percentile Percentile, e.g. 99.9.
+     * @return Response time at the percentile in milliseconds.
+     */
+    public double getResponseTimePercentileInMs(double percentile) {
+        return toMillis(responseTime.getValueAtPercentile(percentile));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: succeeded %d, failed %d, response time [ms] mean %.2f, p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f",
+                             name, getSuccessCount(), getFailureCount(),
+                             responseTime.getMean() / TimeUnit.MILLISECONDS.toNanos(1),
+                             getResponseTimePercentileInMs(50), getResponseTimePercentileInMs(90),
+                             getResponseTimePercentileInMs(99), getResponseTimePercentileInMs(99.9),
+                             toMillis(responseTime.getMaxValue()));
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
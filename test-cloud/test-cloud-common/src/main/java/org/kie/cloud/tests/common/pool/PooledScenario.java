@@ -0,0 +1,291 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.tests.common.pool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.guvnor.rest.client.ProjectResponse;
+import org.guvnor.rest.client.Space;
+import org.kie.cloud.api.deployment.CommandExecutionResult;
+import org.kie.cloud.api.deployment.ControllerDeployment;
+import org.kie.cloud.api.deployment.DatabaseDeployment;
+import org.kie.cloud.api.deployment.Deployment;
+import org.kie.cloud.api.deployment.KieServerDeployment;
+import org.kie.cloud.api.deployment.WorkbenchDeployment;
+import org.kie.cloud.api.scenario.DeploymentScenario;
+import org.kie.cloud.common.provider.KieServerClientProvider;
+import org.kie.cloud.common.provider.KieServerControllerClientProvider;
+import org.kie.cloud.common.provider.WorkbenchClientProvider;
+import org.kie.server.api.model.KieContainerResource;
+import org.kie.server.api.model.KieContainerResourceList;
+import org.kie.server.api.model.ServiceResponse;
+import org.kie.server.client.KieServicesClient;
+import org.kie.server.controller.api.model.spec.ContainerSpec;
+import org.kie.server.controller.api.model.spec.ServerTemplate;
+import org.kie.server.controller.client.KieServerControllerClient;
+import org.kie.wb.test.rest.client.WorkbenchClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deployed scenario together with the state it had right after deployment. Resetting the scenario removes everything
+ * the tests added on top of that state: Kie containers, controller container specs, workbench spaces and projects
+ * (together with their git repositories) and database content.
+ *
+ * Changes of deployment configuration (router settings, resources, deleted instances) aren't reverted, scenarios with
+ * modified deployments can't be reset, see {@link Deployment#isModified()}. Scenarios with Kie Servers but without
+ * database deployment can't be reset either, their Kie Servers persist into embedded H2 database.
+ */
+class PooledScenario {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledScenario.class);
+
+    // Truncates all tables of the current schema, supports PostgreSQL and MySQL/MariaDB images
+    private static final String TRUNCATE_DATABASE_SCRIPT =
+            "if command -v psql > /dev/null 2>&1; then"
+            + " export PGPASSWORD=\"$2\" PGOPTIONS='--client-min-messages=warning';"
+            + " psql -h 127.0.0.1 -U \"$1\" -d \"$3\" -Atc \"SELECT 'TRUNCATE TABLE \\\"' || tablename || '\\\" CASCADE;' FROM pg_tables WHERE schemaname = current_schema()\""
+            + " | psql -h 127.0.0.1 -U \"$1\" -d \"$3\" -v ON_ERROR_STOP=1 -q;"
+            + " elif command -v mysql > /dev/null 2>&1; then"
+            + " export MYSQL_PWD=\"$2\";"
+            + " mysql -h 127.0.0.1 -u \"$1\" \"$3\" -N -e \"SELECT CONCAT('TRUNCATE TABLE \\`', table_name, '\\`;') FROM information_schema.tables WHERE table_schema = DATABASE()\""
+            + " | (echo 'SET FOREIGN_KEY_CHECKS=0;'; cat) | mysql -h 127.0.0.1 -u \"$1\" \"$3\";"
+            + " else echo 'No supported database client found' >&2; exit 1; fi";
+
+    private final String fingerprint;
+    private final DeploymentScenario<?> deploymentScenario;
+    private final Map<Deployment, Integer> replicas = new HashMap<>();
+    private final Map<KieServerDeployment, Set<String>> containers = new HashMap<>();
+    private final Map<Deployment, Set<String>> containerSpecs = new HashMap<>();
+    // Projects of every workbench space, keyed by space name
+    private final Map<WorkbenchDeployment, Map<String, Set<String>>> spaces = new HashMap<>();
+
+    PooledScenario(String fingerprint, DeploymentScenario<?> deploymentScenario) {
+        this.fingerprint = fingerprint;
+        this.deploymentScenario = deploymentScenario;
+        recordInitialState();
+    }
+
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    DeploymentScenario<?> getDeploymentScenario() {
+        return deploymentScenario;
+    }
+
+    /**
+     * @return True if all deployments are ready and scaled as they were after the scenario deployment.
+     */
+    boolean isHealthy() {
+        try {
+            for (Deployment deployment : deploymentScenario.getDeployments()) {
+                Integer expectedReplicas = replicas.get(deployment);
+                if (expectedReplicas == null || expectedReplicas != deployment.getReplicas() || !deployment.isReady()) {
+                    logger.info("Deployment {} of scenario in namespace {} changed, scenario can't be reused.", deployment, deploymentScenario.getNamespace());
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            logger.warn("Error checking health of scenario in namespace {}", deploymentScenario.getNamespace(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Remove state created by tests.
+     *
+     * @return True if the scenario was reset and can be handed out to another test.
+     */
+    boolean reset() {
+        if (!isHealthy()) {
+            return false;
+        }
+        try {
+            for (Deployment deployment : deploymentScenario.getDeployments()) {
+                if (deployment instanceof WorkbenchDeployment) {
+                    clearContainerSpecs(deployment, KieServerControllerClientProvider.getKieServerControllerClient((WorkbenchDeployment) deployment));
+                    clearSpaces((WorkbenchDeployment) deployment);
+                } else if (deployment instanceof ControllerDeployment) {
+                    clearContainerSpecs(deployment, KieServerControllerClientProvider.getKieServerControllerClient((ControllerDeployment) deployment));
+                }
+            }
+            for (Deployment deployment : deploymentScenario.getDeployments()) {
+                if (deployment instanceof KieServerDeployment) {
+                    disposeContainers((KieServerDeployment) deployment);
+                }
+            }
+            for (Deployment deployment : deploymentScenario.getDeployments()) {
+                if (deployment instanceof DatabaseDeployment) {
+                    truncateDatabase((DatabaseDeployment) deployment);
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            logger.warn("Error resetting scenario in namespace {}, scenario can't be reused.", deploymentScenario.getNamespace(), e);
+            return false;
+        }
+    }
+
+    /**
+     * @return True if the scenario state can be reset by {@link #reset()}.
+     */
+    boolean isResettable() {
+        for (Deployment deployment : deploymentScenario.getDeployments()) {
+            if (deployment.isModified()) {
+                logger.info("Deployment {} of scenario in namespace {} was modified, scenario can't be reused.", deployment, deploymentScenario.getNamespace());
+                return false;
+            }
+        }
+        boolean hasDatabase = deploymentScenario.getDeployments().stream().anyMatch(DatabaseDeployment.class::isInstance);
+        // Embedded H2 database of Kie Server can't be cleared
+        if (!hasDatabase && !containers.isEmpty()) {
+            logger.info("Kie Server of scenario in namespace {} persists into embedded database, scenario can't be reused.", deploymentScenario.getNamespace());
+            return false;
+        }
+        boolean hasInitialContainers = containers.values().stream().anyMatch(ids -> !ids.isEmpty());
+        // Database content belonging to containers existing from the start can't be truncated safely
+        if (hasDatabase && hasInitialContainers) {
+            return false;
+        }
+        // Containers are disposed through the route, which reaches just one of the Kie Server pods
+        return containers.keySet().stream().allMatch(deployment -> replicas.get(deployment) <= 1);
+    }
+
+    private void recordInitialState() {
+        for (Deployment deployment : deploymentScenario.getDeployments()) {
+            replicas.put(deployment, deployment.getReplicas());
+            if (deployment instanceof KieServerDeployment) {
+                containers.put((KieServerDeployment) deployment, getContainerIds((KieServerDeployment) deployment));
+            } else if (deployment instanceof WorkbenchDeployment) {
+                WorkbenchDeployment workbenchDeployment = (WorkbenchDeployment) deployment;
+                containerSpecs.put(deployment, getContainerSpecIds(KieServerControllerClientProvider.getKieServerControllerClient(workbenchDeployment)));
+                spaces.put(workbenchDeployment, getSpaceProjects(WorkbenchClientProvider.getWorkbenchClient(workbenchDeployment)));
+            } else if (deployment instanceof ControllerDeployment) {
+                containerSpecs.put(deployment, getContainerSpecIds(KieServerControllerClientProvider.getKieServerControllerClient((ControllerDeployment) deployment)));
+            }
+        }
+    }
+
+    private void clearContainerSpecs(Deployment deployment, KieServerControllerClient controllerClient) {
+        Set<String> initialContainerSpecs = containerSpecs.get(deployment);
+        for (ServerTemplate serverTemplate : getServerTemplates(controllerClient)) {
+            for (ContainerSpec containerSpec : getContainerSpecs(controllerClient, serverTemplate)) {
+                if (!initialContainerSpecs.contains(serverTemplate.getId() + "/" + containerSpec.getId())) {
+                    logger.info("Deleting container spec {} from server template {}", containerSpec.getId(), serverTemplate.getId());
+                    controllerClient.deleteContainerSpec(serverTemplate.getId(), containerSpec.getId());
+                }
+            }
+        }
+    }
+
+    private void clearSpaces(WorkbenchDeployment workbenchDeployment) {
+        WorkbenchClient workbenchClient = WorkbenchClientProvider.getWorkbenchClient(workbenchDeployment);
+        Map<String, Set<String>> initialSpaces = spaces.get(workbenchDeployment);
+        for (Map.Entry<String, Set<String>> space : getSpaceProjects(workbenchClient).entrySet()) {
+            Set<String> initialProjects = initialSpaces.get(space.getKey());
+            if (initialProjects == null) {
+                logger.info("Deleting workbench space {}", space.getKey());
+                workbenchClient.deleteSpace(space.getKey());
+                continue;
+            }
+            // Projects created or cloned into spaces existing from the start
+            for (String project : space.getValue()) {
+                if (!initialProjects.contains(project)) {
+                    logger.info("Deleting project {} of workbench space {}", project, space.getKey());
+                    workbenchClient.deleteProject(space.getKey(), project);
+                }
+            }
+        }
+    }
+
+    private void disposeContainers(KieServerDeployment kieServerDeployment) {
+        KieServicesClient kieServerClient = KieServerClientProvider.getKieServerClient(kieServerDeployment);
+        Set<String> initialContainers = containers.get(kieServerDeployment);
+        for (String containerId : getContainerIds(kieServerDeployment)) {
+            if (!initialContainers.contains(containerId)) {
+                logger.info("Disposing container {}", containerId);
+                ServiceResponse<Void> response = kieServerClient.disposeContainer(containerId);
+                if (response.getType() != ServiceResponse.ResponseType.SUCCESS) {
+                    throw new RuntimeException("Container " + containerId + " wasn't disposed: " + response.getMsg());
+                }
+            }
+        }
+    }
+
+    private void truncateDatabase(DatabaseDeployment databaseDeployment) {
+        logger.info("Truncating database {}", databaseDeployment.getDatabaseName());
+        CommandExecutionResult result = databaseDeployment.getInstances().get(0)
+                                                          .runCommand("/bin/bash", "-c", TRUNCATE_DATABASE_SCRIPT, "truncate",
+                                                                      databaseDeployment.getUsername(), databaseDeployment.getPassword(), databaseDeployment.getDatabaseName());
+        if (result.getError() != null && !result.getError().trim().isEmpty()) {
+            throw new RuntimeException("Error truncating database " + databaseDeployment.getDatabaseName() + ": " + result.getError());
+        }
+    }
+
+    private static Set<String> getContainerIds(KieServerDeployment kieServerDeployment) {
+        ServiceResponse<KieContainerResourceList> response = KieServerClientProvider.getKieServerClient(kieServerDeployment).listContainers();
+        if (response.getType() != ServiceResponse.ResponseType.SUCCESS) {
+            throw new RuntimeException("Error listing containers: " + response.getMsg());
+        }
+        List<KieContainerResource> containerResources = response.getResult().getContainers();
+        if (containerResources == null) {
+            return new HashSet<>();
+        }
+        return containerResources.stream().map(KieContainerResource::getContainerId).collect(Collectors.toSet());
+    }
+
+    private static Set<String> getContainerSpecIds(KieServerControllerClient controllerClient) {
+        Set<String> ids = new HashSet<>();
+        for (ServerTemplate serverTemplate : getServerTemplates(controllerClient)) {
+            for (ContainerSpec containerSpec : getContainerSpecs(controllerClient, serverTemplate)) {
+                ids.add(serverTemplate.getId() + "/" + containerSpec.getId());
+            }
+        }
+        return ids;
+    }
+
+    private static List<ServerTemplate> getServerTemplates(KieServerControllerClient controllerClient) {
+        ServerTemplate[] serverTemplates = controllerClient.listServerTemplates().getServerTemplates();
+        List<ServerTemplate> result = new ArrayList<>();
+        if (serverTemplates != null) {
+            for (ServerTemplate serverTemplate : serverTemplates) {
+                result.add(serverTemplate);
+            }
+        }
+        return result;
+    }
+
+    private static Collection<ContainerSpec> getContainerSpecs(KieServerControllerClient controllerClient, ServerTemplate serverTemplate) {
+        Collection<ContainerSpec> containerSpecs = controllerClient.getServerTemplate(serverTemplate.getId()).getContainersSpec();
+        return containerSpecs == null ? new ArrayList<>() : containerSpecs;
+    }
+
+    private static Map<String, Set<String>> getSpaceProjects(WorkbenchClient workbenchClient) {
+        Map<String, Set<String>> spaceProjects = new HashMap<>();
+        for (Space space : workbenchClient.getSpaces()) {
+            spaceProjects.put(space.getName(), workbenchClient.getProjects(space.getName()).stream().map(ProjectResponse::getName).collect(Collectors.toSet()));
+        }
+        return spaceProjects;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.tests.common.pool;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import org.kie.cloud.api.scenario.DeploymentScenario;
+import org.slf4j.Logger;
+
+/**
+ * Fingerprint of a scenario configuration. Computed from the fields of a scenario which wasn't deployed yet, so it
+ * reflects everything the scenario builder configured (templates, environment variables, external deployments,
+ * listeners). Scenarios with the same fingerprint deploy the same environment.
+ *
+ * Configuration nested deeper than {@value #MAX_DEPTH} levels can't be fingerprinted, such scenario has no fingerprint
+ * and isn't pooled, as it could otherwise share a fingerprint with a scenario differing just in the deep part.
+ */
+class ScenarioFingerprint {
+
+    static final int MAX_DEPTH = 64;
+    // Fields which don't affect deployed environment
+    private static final Set<String> IGNORED_FIELDS = Collections.singleton("logFolderName");
+
+    private final StringBuilder description = new StringBuilder();
+    private final Map<Object, Boolean> visited = new IdentityHashMap<>();
+    private boolean complete = true;
+
+    private ScenarioFingerprint() {
+    }
+
+    /**
+     * @return Fingerprint of the scenario configuration, null if the configuration is nested too deep to be fingerprinted.
+     */
+    static String of(DeploymentScenario<?> deploymentScenario) {
+        ScenarioFingerprint fingerprint = new ScenarioFingerprint();
+        fingerprint.append(deploymentScenario, 0);
+        return fingerprint.complete ? sha256(fingerprint.description.toString()) : null;
+    }
+
+    private void append(Object value, int depth) {
+        if (value == null) {
+            description.append("null");
+        } else if (isValueType(value)) {
+            description.append(value.getClass().getName()).append(':').append(value);
+        } else if (value instanceof Class) {
+            description.append("class:").append(((Class<?>) value).getName());
+        } else if (isIgnoredType(value)) {
+            description.append(value.getClass().getName());
+        } else if (depth > MAX_DEPTH) {
+            complete = false;
+            description.append(value.getClass().getName());
+        } else if (visited.put(value, Boolean.TRUE) != null) {
+            description.append("cycle:").append(value.getClass().getName());
+        } else if (value instanceof Map) {
+            appendMap((Map<?, ?>) value, depth);
+        } else if (value instanceof Set) {
+            appendSet((Set<?>) value, depth);
+        } else if (value instanceof Collection) {
+            description.append('[');
+            for (Object item : (Collection<?>) value) {
+                append(item, depth + 1);
+                description.append(',');
+            }
+            description.append(']');
+        } else if (value.getClass().isArray()) {
+            description.append('[');
+            for (int i = 0; i < Array.getLength(value); i++) {
+                append(Array.get(value, i), depth + 1);
+                description.append(',');
+            }
+            description.append(']');
+        } else {
+            appendFields(value, depth);
+        }
+    }
+
+    private void appendMap(Map<?, ?> map, int depth) {
+        List<String> entries = new ArrayList<>();
+        map.forEach((key, entryValue) -> entries.add(describe(key, depth) + "=" + describe(entryValue, depth)));
+        Collections.sort(entries);
+        description.append('{').append(String.join(",", entries)).append('}');
+    }
+
+    private void appendSet(Set<?> set, int depth) {
+        List<String> items = new ArrayList<>();
+        set.forEach(item -> items.add(describe(item, depth)));
+        Collections.sort(items);
+        description.append('{').append(String.join(",", items)).append('}');
+    }
+
+    private String describe(Object value, int depth) {
+        int start = description.length();
+        append(value, depth + 1);
+        String itemDescription = description.substring(start);
+        description.setLength(start);
+        return itemDescription;
+    }
+
+    private void appendFields(Object value, int depth) {
+        description.append(value.getClass().getName()).append('{');
+        for (Class<?> type = value.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()) || field.isSynthetic() || IGNORED_FIELDS.contains(field.getName())) {
+                    continue;
+                }
+                description.append(field.getName()).append('=');
+                append(readField(field, value), depth + 1);
+                description.append(';');
+            }
+        }
+        description.append('}');
+    }
+
+    private static Object readField(Field field, Object value) {
+        try {
+            field.setAccessible(true);
+            return field.get(value);
+        } catch (RuntimeException | IllegalAccessException e) {
+            return "inaccessible";
+        }
+    }
+
+    private static boolean isValueType(Object value) {
+        return value instanceof CharSequence || value instanceof Number || value instanceof Boolean || value instanceof Character ||
+                value instanceof Enum || value.getClass().getName().startsWith("java.net.") || value.getClass().getName().startsWith("java.time.") ||
+                value.getClass().getName().startsWith("java.io.File") || value.getClass().getName().startsWith("java.nio.file.");
+    }
+
+    private static boolean isIgnoredType(Object value) {
+        return value instanceof Logger || value instanceof ServiceLoader || value instanceof ExecutorService || value instanceof Thread;
+    }
+
+    private static String sha256(String value) {
+        try {
+            StringBuilder hash = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8))) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+}
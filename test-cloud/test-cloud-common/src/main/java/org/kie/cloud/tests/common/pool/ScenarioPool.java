@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.tests.common.pool;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.cloud.api.scenario.DeploymentScenario;
+import org.kie.cloud.tests.common.ScenarioDeployer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of deployed scenarios reused across tests. A scenario requested by a test is fingerprinted before deployment,
+ * see {@link ScenarioFingerprint}. If there is an idle healthy scenario with the same fingerprint it is handed out
+ * instead of deploying a new one. Released scenarios are reset to their state right after deployment and kept for
+ * following tests, scenarios which can't be reset are undeployed. Reused scenario takes over the log folder of the
+ * requested scenario, so logs of every test are stored separately.
+ *
+ * The pool is disabled by default, it is enabled by setting system property {@value #POOL_SIZE} to the maximal number
+ * of idle scenarios kept. Idle scenarios are undeployed on JVM shutdown.
+ */
+public class ScenarioPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioPool.class);
+
+    public static final String POOL_SIZE = "scenario.pool.size";
+
+    private static final Deque<PooledScenario> idleScenarios = new ArrayDeque<>();
+    private static final Map<DeploymentScenario<?>, PooledScenario> usedScenarios = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ScenarioPool::undeployIdleScenarios, "scenario-pool-shutdown"));
+    }
+
+    private ScenarioPool() {
+    }
+
+    /**
+     * Return deployed scenario matching the scenario configuration. Either an idle pooled scenario or the passed one,
+     * deployed.
+     *
+     * @param deploymentScenario Scenario which wasn't deployed yet.
+     * @return Deployed scenario of the same configuration.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends DeploymentScenario<?>> T acquire(T deploymentScenario) {
+        if (getPoolSize() <= 0) {
+            ScenarioDeployer.deployScenario(deploymentScenario);
+            return deploymentScenario;
+        }
+
+        String fingerprint = ScenarioFingerprint.of(deploymentScenario);
+        if (fingerprint == null) {
+            logger.info("Configuration of scenario {} can't be fingerprinted, scenario won't be pooled.", deploymentScenario.getClass().getSimpleName());
+            ScenarioDeployer.deployScenario(deploymentScenario);
+            return deploymentScenario;
+        }
+        PooledScenario pooledScenario;
+        while ((pooledScenario = pollIdleScenario(fingerprint)) != null) {
+            if (pooledScenario.isHealthy()) {
+                DeploymentScenario<?> reusedScenario = pooledScenario.getDeploymentScenario();
+                if (deploymentScenario.getLogFolderName() != null) {
+                    reusedScenario.setLogFolderName(deploymentScenario.getLogFolderName());
+                }
+                logger.info("Reusing scenario deployed in namespace {}, logs are stored in {}", reusedScenario.getNamespace(), reusedScenario.getLogFolderName());
+                usedScenarios.put(reusedScenario, pooledScenario);
+                return (T) reusedScenario;
+            }
+            ScenarioDeployer.undeployScenario(pooledScenario.getDeploymentScenario());
+        }
+
+        ScenarioDeployer.deployScenario(deploymentScenario);
+        try {
+            usedScenarios.put(deploymentScenario, new PooledScenario(fingerprint, deploymentScenario));
+        } catch (Exception e) {
+            logger.warn("Error recording state of scenario in namespace {}, scenario won't be pooled.", deploymentScenario.getNamespace(), e);
+        }
+        return deploymentScenario;
+    }
+
+    /**
+     * Return scenario to the pool, scenario is reset or undeployed.
+     *
+     * @param deploymentScenario Scenario returned by {@link #acquire(DeploymentScenario)}.
+     */
+    public static void release(DeploymentScenario<?> deploymentScenario) {
+        if (deploymentScenario == null) {
+            return;
+        }
+        PooledScenario pooledScenario = usedScenarios.remove(deploymentScenario);
+        if (pooledScenario != null && pooledScenario.isResettable() && pooledScenario.reset() && offerIdleScenario(pooledScenario)) {
+            logger.info("Scenario in namespace {} returned to pool.", deploymentScenario.getNamespace());
+            return;
+        }
+        ScenarioDeployer.undeployScenario(deploymentScenario);
+    }
+
+    private static synchronized PooledScenario pollIdleScenario(String fingerprint) {
+        Iterator<PooledScenario> iterator = idleScenarios.iterator();
+        while (iterator.hasNext()) {
+            PooledScenario pooledScenario = iterator.next();
+            if (pooledScenario.getFingerprint().equals(fingerprint)) {
+                iterator.remove();
+                return pooledScenario;
+            }
+        }
+        return null;
+    }
+
+    private static synchronized boolean offerIdleScenario(PooledScenario pooledScenario) {
+        if (idleScenarios.size() >= getPoolSize()) {
+            return false;
+        }
+        idleScenarios.addFirst(pooledScenario);
+        return true;
+    }
+
+    private static void undeployIdleScenarios() {
+        List<PooledScenario> scenarios;
+        synchronized (ScenarioPool.class) {
+            scenarios = new ArrayList<>(idleScenarios);
+            idleScenarios.clear();
+        }
+        for (PooledScenario pooledScenario : scenarios) {
+            try {
+                ScenarioDeployer.undeployScenario(pooledScenario.getDeploymentScenario());
+            } catch (Exception e) {
+                logger.error("Error undeploying pooled scenario in namespace {}", pooledScenario.getDeploymentScenario().getNamespace(), e);
+            }
+        }
+    }
+
+    private static int getPoolSize() {
+        return Integer.parseInt(System.getProperty(POOL_SIZE, "0"));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.tests.common.time;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AssumptionViolatedException;
+import org.junit.rules.Stopwatch;
+import org.junit.runner.Description;
+import org.kie.cloud.common.timing.TimingDatabase;
+import org.kie.cloud.common.timing.TimingRecord;
+
+/**
+ * Records duration of every test method into {@link TimingDatabase}. The duration includes scenario deployment done
+ * in @Before methods.
+ */
+public class TestTimingRule extends Stopwatch {
+
+    @Override
+    protected void succeeded(long nanos, Description description) {
+        record(nanos, description, TimingRecord.STATUS_OK);
+    }
+
+    @Override
+    protected void failed(long nanos, Throwable e, Description description) {
+        record(nanos, description, TimingRecord.STATUS_FAILED);
+    }
+
+    @Override
+    protected void skipped(long nanos, AssumptionViolatedException e, Description description) {
+        record(nanos, description, TimingRecord.STATUS_SKIPPED);
+    }
+
+    private static void record(long nanos, Description description, String status) {
+        TimingDatabase.record(TimingRecord.TEST, description.getTestClass().getSimpleName(), description.getMethodName(),
+                              TimeUnit.NANOSECONDS.toMillis(nanos), status);
+    }
+}
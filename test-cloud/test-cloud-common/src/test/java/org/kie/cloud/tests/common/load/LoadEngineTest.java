@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.tests.common.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoadEngineTest {
+
+    private static final String OPERATION = "operation";
+
+    @Test
+    public void closedModelStopsAtMaxOperations() {
+        AtomicInteger executions = new AtomicInteger();
+
+        LoadResult result = LoadEngine.closedModel(4)
+                                      .operation(OPERATION, executions::incrementAndGet)
+                                      .duration(Duration.ofMinutes(1))
+                                      .maxOperations(100)
+                                      .run();
+
+        assertThat(executions.get()).isEqualTo(100);
+        assertThat(result.getSuccessCount()).isEqualTo(100);
+        assertThat(result.getFailureCount()).isZero();
+    }
+
+    @Test
+    public void closedModelStopsAtDurationWithoutMaxOperations() {
+        LoadResult result = LoadEngine.closedModel(2)
+                                      .operation(OPERATION, () -> sleep(10))
+                                      .duration(Duration.ofMillis(200))
+                                      .run();
+
+        assertThat(result.getSuccessCount()).isPositive();
+        assertThat(result.getElapsed()).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void openModelStartsOperationsAtArrivalRate() {
+        List<long[]> starts = Collections.synchronizedList(new ArrayList<>());
+
+        LoadResult result = LoadEngine.openModel(100, 4)
+                                      .operation(OPERATION, () -> {})
+                                      .listener((operation, intendedStartNanos, startNanos, endNanos, success) -> starts.add(new long[] {intendedStartNanos, startNanos}))
+                                      .maxOperations(20)
+                                      .run();
+
+        assertThat(result.getSuccessCount()).isEqualTo(20);
+        // 20 operations at 100 per second are started over 190 ms
+        assertThat(result.getElapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(190));
+        starts.sort((first, second) -> Long.compare(first[0], second[0]));
+        for (int i = 1; i < starts.size(); i++) {
+            assertThat(starts.get(i)[0] - starts.get(i - 1)[0]).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        starts.forEach(start -> assertThat(start[1]).isGreaterThanOrEqualTo(start[0]));
+    }
+
+    @Test
+    public void openModelResponseTimeIncludesWaitingForWorker() {
+        // Single worker needs 50 ms per operation while operations arrive every 10 ms, so they queue up
+        LoadResult result = LoadEngine.openModel(100, 1)
+                                      .operation(OPERATION, () -> sleep(50))
+                                      .maxOperations(10)
+                                      .run();
+
+        OperationStatistics statistics = result.getOperation(OPERATION);
+        assertThat(statistics.getSuccessCount()).isEqualTo(10);
+        // Last operation was intended to start after 90 ms, but started after 450 ms
+        assertThat(TimeUnit.NANOSECONDS.toMillis(statistics.getResponseTime().getMaxValue())).isGreaterThanOrEqualTo(400);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(statistics.getServiceTime().getMaxValue())).isLessThan(400);
+        assertThat(statistics.getResponseTime().getMean()).isGreaterThan(statistics.getServiceTime().getMean());
+    }
+
+    @Test
+    public void failedOperationsAreCounted() {
+        LoadResult result = LoadEngine.closedModel(1)
+                                      .operation(OPERATION, () -> {
+                                          throw new IllegalStateException("Operation failed");
+                                      })
+                                      .maxOperations(3)
+                                      .run();
+
+        assertThat(result.getSuccessCount()).isZero();
+        assertThat(result.getFailureCount()).isEqualTo(3);
+        assertThat(result.getFailures()).hasSize(1).first().isInstanceOf(IllegalStateException.class);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
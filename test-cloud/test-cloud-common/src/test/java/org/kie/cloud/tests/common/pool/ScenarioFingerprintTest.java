@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.tests.common.pool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.kie.cloud.api.deployment.Deployment;
+import org.kie.cloud.api.deployment.MavenRepositoryDeployment;
+import org.kie.cloud.api.deployment.RouterConfiguration;
+import org.kie.cloud.api.scenario.DeploymentScenario;
+import org.kie.cloud.api.scenario.DeploymentScenarioListener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScenarioFingerprintTest {
+
+    @Test
+    public void sameConfigurationHasSameFingerprint() {
+        TestScenario scenario = new TestScenario("kieserver-template", env("KIE_SERVER_ID", "kieserver"), "first-test");
+        TestScenario otherScenario = new TestScenario("kieserver-template", env("KIE_SERVER_ID", "kieserver"), "second-test");
+
+        assertThat(ScenarioFingerprint.of(scenario)).isNotNull()
+                                                    .isEqualTo(ScenarioFingerprint.of(otherScenario));
+    }
+
+    @Test
+    public void mapOrderDoesNotChangeFingerprint() {
+        Map<String, String> env = new LinkedHashMap<>();
+        env.put("FIRST", "1");
+        env.put("SECOND", "2");
+        Map<String, String> reversedEnv = new LinkedHashMap<>();
+        reversedEnv.put("SECOND", "2");
+        reversedEnv.put("FIRST", "1");
+
+        assertThat(ScenarioFingerprint.of(new TestScenario("template", env, "test")))
+                                      .isEqualTo(ScenarioFingerprint.of(new TestScenario("template", reversedEnv, "test")));
+    }
+
+    @Test
+    public void differentConfigurationHasDifferentFingerprint() {
+        String fingerprint = ScenarioFingerprint.of(new TestScenario("kieserver-template", env("KIE_SERVER_ID", "kieserver"), "test"));
+
+        assertThat(ScenarioFingerprint.of(new TestScenario("workbench-template", env("KIE_SERVER_ID", "kieserver"), "test"))).isNotEqualTo(fingerprint);
+        assertThat(ScenarioFingerprint.of(new TestScenario("kieserver-template", env("KIE_SERVER_ID", "other"), "test"))).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    public void differenceDeepInConfigurationChangesFingerprint() {
+        // Nested just within the depth limit
+        int depth = ScenarioFingerprint.MAX_DEPTH - 2;
+        TestScenario scenario = new TestScenario("template", env("KEY", "value"), "test");
+        scenario.nested = nested(depth, "deep value");
+        TestScenario otherScenario = new TestScenario("template", env("KEY", "value"), "test");
+        otherScenario.nested = nested(depth, "other deep value");
+
+        assertThat(ScenarioFingerprint.of(scenario)).isNotNull()
+                                                    .isNotEqualTo(ScenarioFingerprint.of(otherScenario));
+    }
+
+    @Test
+    public void configurationBelowDepthLimitHasNoFingerprint() {
+        TestScenario scenario = new TestScenario("template", env("KEY", "value"), "test");
+        scenario.nested = nested(ScenarioFingerprint.MAX_DEPTH + 1, "deep value");
+
+        assertThat(ScenarioFingerprint.of(scenario)).isNull();
+    }
+
+    @Test
+    public void cyclicConfigurationHasFingerprint() {
+        TestScenario scenario = new TestScenario("template", env("KEY", "value"), "test");
+        Node node = new Node();
+        node.child = node;
+        scenario.nested = node;
+
+        assertThat(ScenarioFingerprint.of(scenario)).isNotNull();
+    }
+
+    private static Map<String, String> env(String name, String value) {
+        Map<String, String> env = new HashMap<>();
+        env.put(name, value);
+        return env;
+    }
+
+    private static Node nested(int depth, String value) {
+        Node root = new Node();
+        Node node = root;
+        for (int i = 1; i < depth; i++) {
+            node.child = new Node();
+            node = node.child;
+        }
+        node.value = value;
+        return root;
+    }
+
+    private static class Node {
+
+        private Node child;
+        private String value;
+    }
+
+    private static class TestScenario implements DeploymentScenario<TestScenario> {
+
+        private final List<String> templates;
+        private final Map<String, String> env;
+        private Node nested;
+        private String logFolderName;
+
+        private TestScenario(String template, Map<String, String> env, String logFolderName) {
+            this.templates = new ArrayList<>(Arrays.asList(template));
+            this.env = env;
+            this.logFolderName = logFolderName;
+        }
+
+        @Override
+        public String getNamespace() {
+            return null;
+        }
+
+        @Override
+        public String getLogFolderName() {
+            return logFolderName;
+        }
+
+        @Override
+        public void setLogFolderName(String logFolderName) {
+            this.logFolderName = logFolderName;
+        }
+
+        @Override
+        public void deploy() {
+        }
+
+        @Override
+        public void undeploy() {
+        }
+
+        @Override
+        public List<Deployment> getDeployments() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void addDeploymentScenarioListener(DeploymentScenarioListener<TestScenario> deploymentScenarioListener) {
+        }
+
+        @Override
+        public MavenRepositoryDeployment getMavenRepositoryDeployment() {
+            return null;
+        }
+
+        @Override
+        public RouterConfiguration configureRouter() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.integrationtests.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.kie.cloud.integrationtests.metrics.MetricsSummary.EndpointSummary;
+
+/**
+ * Compares run summary with a stored baseline summary. Regression is reported when p99 or p99.9 latency grows or
+ * mean throughput drops by more than the tolerance, or when error rate grows by more than tolerance percentage points.
+ */
+public class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    /**
+     * @param current Summary of the current run.
+     * @param baseline Summary of the baseline run.
+     * @param tolerancePercent Allowed difference in percent.
+     * @return Human readable descriptions of regressions, empty if there is none.
+     */
+    public static List<String> findRegressions(MetricsSummary current, MetricsSummary baseline, double tolerancePercent) {
+        List<String> regressions = new ArrayList<>();
+        double tolerance = tolerancePercent / 100;
+        for (Entry<String, EndpointSummary> entry : current.getEndpoints().entrySet()) {
+            String endpoint = entry.getKey();
+            EndpointSummary currentEndpoint = entry.getValue();
+            EndpointSummary baselineEndpoint = baseline.getEndpoints().get(endpoint);
+            if (baselineEndpoint == null) {
+                continue;
+            }
+            if (currentEndpoint.getP99Latency() > baselineEndpoint.getP99Latency() * (1 + tolerance)) {
+                regressions.add(describe(endpoint, "p99 latency [ms]", baselineEndpoint.getP99Latency(), currentEndpoint.getP99Latency()));
+            }
+            if (currentEndpoint.getP999Latency() > baselineEndpoint.getP999Latency() * (1 + tolerance)) {
+                regressions.add(describe(endpoint, "p99.9 latency [ms]", baselineEndpoint.getP999Latency(), currentEndpoint.getP999Latency()));
+            }
+            if (currentEndpoint.getMeanThroughput() < baselineEndpoint.getMeanThroughput() * (1 - tolerance)) {
+                regressions.add(describe(endpoint, "mean throughput [requests/s]", baselineEndpoint.getMeanThroughput(), currentEndpoint.getMeanThroughput()));
+            }
+            if (currentEndpoint.getErrorRate() > baselineEndpoint.getErrorRate() + tolerance) {
+                regressions.add(describe(endpoint, "error rate", baselineEndpoint.getErrorRate(), currentEndpoint.getErrorRate()));
+            }
+        }
+        return regressions;
+    }
+
+    private static String describe(String endpoint, String metric, double baselineValue, double currentValue) {
+        return String.format("%s: %s changed from %.3f to %.3f", endpoint, metric, baselineValue, currentValue);
+    }
+}
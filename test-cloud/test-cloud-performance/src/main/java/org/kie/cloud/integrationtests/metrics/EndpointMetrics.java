@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.integrationtests.metrics;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Metrics of one endpoint. Recording is thread safe, sampling and summarizing is done by {@link PerformanceMetrics}
+ * from a single thread at a time. Latencies of failed requests are recorded separately, so fast failures don't make
+ * the latency percentiles look better.
+ */
+class EndpointMetrics {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double NANOS_IN_MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Recorder errorRecorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram errorTotal = new Histogram(SIGNIFICANT_DIGITS);
+    private final List<Long> requestsPerSecond = new ArrayList<>();
+    private final List<Long> errorsPerSecond = new ArrayList<>();
+    private final PrintStream logStream;
+    private final HistogramLogWriter logWriter;
+    private Histogram intervalHistogram;
+    private Histogram intervalErrorHistogram;
+
+    EndpointMetrics(File histogramLogFile, long startTimeInMs) {
+        try {
+            logStream = new PrintStream(histogramLogFile, "UTF-8");
+        } catch (FileNotFoundException | UnsupportedEncodingException e) {
+            throw new RuntimeException("Error creating histogram log " + histogramLogFile, e);
+        }
+        logWriter = new HistogramLogWriter(logStream);
+        logWriter.outputLogFormatVersion();
+        logWriter.setBaseTime(startTimeInMs);
+        logWriter.outputStartTime(startTimeInMs);
+        logWriter.outputBaseTime(startTimeInMs);
+        logWriter.outputLegend();
+    }
+
+    void record(long latencyInNanos, boolean success) {
+        if (success) {
+            recorder.recordValue(latencyInNanos);
+        } else {
+            errorRecorder.recordValue(latencyInNanos);
+        }
+    }
+
+    /**
+     * Sample interval histograms, only latencies of successful requests are written to the histogram log.
+     */
+    void sample() {
+        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+        intervalErrorHistogram = errorRecorder.getIntervalHistogram(intervalErrorHistogram);
+        total.add(intervalHistogram);
+        errorTotal.add(intervalErrorHistogram);
+        long errors = intervalErrorHistogram.getTotalCount();
+        requestsPerSecond.add(intervalHistogram.getTotalCount() + errors);
+        errorsPerSecond.add(errors);
+        logWriter.outputIntervalHistogram(intervalHistogram);
+    }
+
+    MetricsSummary.EndpointSummary summarize() {
+        long errorCount = errorTotal.getTotalCount();
+        long requestCount = total.getTotalCount() + errorCount;
+        return new MetricsSummary.EndpointSummary(requestCount,
+                                                  errorCount,
+                                                  requestCount == 0 ? 0 : (double) errorCount / requestCount,
+                                                  total.getMean() / NANOS_IN_MS,
+                                                  total.getValueAtPercentile(50) / NANOS_IN_MS,
+                                                  total.getValueAtPercentile(90) / NANOS_IN_MS,
+                                                  total.getValueAtPercentile(99) / NANOS_IN_MS,
+                                                  total.getValueAtPercentile(99.9) / NANOS_IN_MS,
+                                                  total.getMaxValue() / NANOS_IN_MS,
+                                                  errorTotal.getMean() / NANOS_IN_MS,
+                                                  requestsPerSecond,
+                                                  errorsPerSecond);
+    }
+
+    void close() {
+        logStream.close();
+    }
+}
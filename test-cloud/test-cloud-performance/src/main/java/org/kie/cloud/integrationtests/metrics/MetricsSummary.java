@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.integrationtests.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON summary of a performance test run. Latencies are in milliseconds, throughput in requests per second.
+ * Latency statistics cover successful requests only, failed requests have their own mean latency.
+ */
+public class MetricsSummary {
+
+    private final String runName;
+    private final long startTime;
+    private final long endTime;
+    private final Map<String, EndpointSummary> endpoints;
+
+    MetricsSummary(String runName, long startTime, long endTime, Map<String, EndpointSummary> endpoints) {
+        this.runName = runName;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * @param summaryFile JSON summary written by {@link PerformanceMetrics}.
+     * @return Loaded summary.
+     */
+    public static MetricsSummary load(File summaryFile) {
+        try (Reader reader = Files.newBufferedReader(summaryFile.toPath(), StandardCharsets.UTF_8)) {
+            return PerformanceMetrics.createGson().fromJson(reader, MetricsSummary.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading metrics summary " + summaryFile, e);
+        }
+    }
+
+    public String getRunName() {
+        return runName;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public Map<String, EndpointSummary> getEndpoints() {
+        return endpoints;
+    }
+
+    public static class EndpointSummary {
+
+        private final long requestCount;
+        private final long errorCount;
+        private final double errorRate;
+        private final double meanLatency;
+        private final double p50Latency;
+        private final double p90Latency;
+        private final double p99Latency;
+        private final double p999Latency;
+        private final double maxLatency;
+        private final double meanErrorLatency;
+        private final double meanThroughput;
+        private final long peakThroughput;
+        private final List<Long> requestsPerSecond;
+        private final List<Long> errorsPerSecond;
+
+        EndpointSummary(long requestCount, long errorCount, double errorRate, double meanLatency, double p50Latency, double p90Latency,
+                        double p99Latency, double p999Latency, double maxLatency, double meanErrorLatency, List<Long> requestsPerSecond,
+                        List<Long> errorsPerSecond) {
+            this.requestCount = requestCount;
+            this.errorCount = errorCount;
+            this.errorRate = errorRate;
+            this.meanLatency = meanLatency;
+            this.p50Latency = p50Latency;
+            this.p90Latency = p90Latency;
+            this.p99Latency = p99Latency;
+            this.p999Latency = p999Latency;
+            this.maxLatency = maxLatency;
+            this.meanErrorLatency = meanErrorLatency;
+            this.meanThroughput = requestsPerSecond.isEmpty() ? 0 : (double) requestCount / requestsPerSecond.size();
+            this.peakThroughput = requestsPerSecond.stream().mapToLong(Long::longValue).max().orElse(0);
+            this.requestsPerSecond = requestsPerSecond;
+            this.errorsPerSecond = errorsPerSecond;
+        }
+
+        public long getRequestCount() {
+            return requestCount;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public double getMeanLatency() {
+            return meanLatency;
+        }
+
+        public double getP50Latency() {
+            return p50Latency;
+        }
+
+        public double getP90Latency() {
+            return p90Latency;
+        }
+
+        public double getP99Latency() {
+            return p99Latency;
+        }
+
+        public double getP999Latency() {
+            return p999Latency;
+        }
+
+        public double getMaxLatency() {
+            return maxLatency;
+        }
+
+        public double getMeanErrorLatency() {
+            return meanErrorLatency;
+        }
+
+        public double getMeanThroughput() {
+            return meanThroughput;
+        }
+
+        public long getPeakThroughput() {
+            return peakThroughput;
+        }
+
+        public List<Long> getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public List<Long> getErrorsPerSecond() {
+            return errorsPerSecond;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.integrationtests.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects per endpoint request latencies and outcomes of a performance test run. Every second the recorded latencies
+ * are sampled into an interval histogram which is appended to the endpoint HdrHistogram log file
+ * (<code>&lt;endpoint&gt;.hlog</code> in the output directory) and the request and error counts form the throughput time
+ * series. On close a JSON summary is written, see {@link MetricsSummary}.
+ */
+public class PerformanceMetrics implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceMetrics.class);
+
+    public static final String SUMMARY_FILE_NAME = "summary.json";
+
+    private static final long SAMPLING_INTERVAL_IN_MS = 1000L;
+
+    private final File outputDirectory;
+    private final String runName;
+    private final long startTimeInMs = System.currentTimeMillis();
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "performance-metrics-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private MetricsSummary summary;
+
+    /**
+     * @param outputDirectory Directory for histogram logs and JSON summary, created if needed.
+     * @param runName Name of the run, stored in the summary.
+     */
+    public PerformanceMetrics(File outputDirectory, String runName) {
+        this.outputDirectory = outputDirectory;
+        this.runName = runName;
+        outputDirectory.mkdirs();
+        sampler.scheduleAtFixedRate(this::sample, SAMPLING_INTERVAL_IN_MS, SAMPLING_INTERVAL_IN_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Record one request. Thread safe.
+     *
+     * @param endpoint Name of the endpoint or operation.
+     * @param latencyInNanos Request latency in nanoseconds.
+     * @param success False if the request failed.
+     */
+    public void record(String endpoint, long latencyInNanos, boolean success) {
+        endpoints.computeIfAbsent(endpoint, this::createEndpointMetrics).record(latencyInNanos, success);
+    }
+
+    /**
+     * @return Summary of the run, available after close.
+     */
+    public MetricsSummary getSummary() {
+        if (summary == null) {
+            throw new IllegalStateException("Metrics summary is available once the metrics are closed.");
+        }
+        return summary;
+    }
+
+    /**
+     * Stop sampling, write remaining interval histograms and the JSON summary.
+     */
+    @Override
+    public synchronized void close() {
+        if (summary != null) {
+            return;
+        }
+        sampler.shutdownNow();
+        sample();
+
+        Map<String, MetricsSummary.EndpointSummary> endpointSummaries = new TreeMap<>();
+        endpoints.forEach((name, metrics) -> {
+            endpointSummaries.put(name, metrics.summarize());
+            metrics.close();
+        });
+        summary = new MetricsSummary(runName, startTimeInMs, System.currentTimeMillis(), endpointSummaries);
+
+        File summaryFile = new File(outputDirectory, SUMMARY_FILE_NAME);
+        try (Writer writer = Files.newBufferedWriter(summaryFile.toPath(), StandardCharsets.UTF_8)) {
+            createGson().toJson(summary, writer);
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing metrics summary " + summaryFile, e);
+        }
+        logger.info("Performance metrics written to {}", outputDirectory);
+    }
+
+    static Gson createGson() {
+        return new GsonBuilder().setPrettyPrinting().create();
+    }
+
+    private synchronized void sample() {
+        endpoints.values().forEach(EndpointMetrics::sample);
+    }
+
+    private EndpointMetrics createEndpointMetrics(String endpoint) {
+        return new EndpointMetrics(new File(outputDirectory, endpoint.replaceAll("[^A-Za-z0-9_.-]", "_") + ".hlog"), startTimeInMs);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.integrationtests.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.kie.cloud.integrationtests.metrics.MetricsSummary.EndpointSummary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BaselineComparisonTest {
+
+    private static final String ENDPOINT = "start-process";
+    private static final double TOLERANCE_PERCENT = 10;
+
+    private final MetricsSummary baseline = summary(ENDPOINT, endpoint(0.01, 100, 200, 1000));
+
+    @Test
+    public void differenceWithinToleranceIsNoRegression() {
+        MetricsSummary current = summary(ENDPOINT, endpoint(0.05, 109, 219, 901));
+
+        assertThat(BaselineComparison.findRegressions(current, baseline, TOLERANCE_PERCENT)).isEmpty();
+    }
+
+    @Test
+    public void latencyAboveToleranceIsRegression() {
+        MetricsSummary current = summary(ENDPOINT, endpoint(0.01, 111, 200, 1000));
+
+        List<String> regressions = BaselineComparison.findRegressions(current, baseline, TOLERANCE_PERCENT);
+
+        assertThat(regressions).hasSize(1);
+        assertThat(regressions.get(0)).contains(ENDPOINT + ": p99 latency");
+    }
+
+    @Test
+    public void throughputBelowToleranceIsRegression() {
+        MetricsSummary current = summary(ENDPOINT, endpoint(0.01, 100, 200, 899));
+
+        List<String> regressions = BaselineComparison.findRegressions(current, baseline, TOLERANCE_PERCENT);
+
+        assertThat(regressions).hasSize(1);
+        assertThat(regressions.get(0)).contains("mean throughput");
+    }
+
+    @Test
+    public void errorRateIsComparedInPercentagePoints() {
+        MetricsSummary current = summary(ENDPOINT, endpoint(0.12, 100, 200, 1000));
+
+        List<String> regressions = BaselineComparison.findRegressions(current, baseline, TOLERANCE_PERCENT);
+
+        assertThat(regressions).hasSize(1);
+        assertThat(regressions.get(0)).contains("error rate");
+    }
+
+    @Test
+    public void endpointMissingInBaselineIsSkipped() {
+        MetricsSummary current = summary("complete-task", endpoint(0.5, 1000, 2000, 1));
+
+        assertThat(BaselineComparison.findRegressions(current, baseline, TOLERANCE_PERCENT)).isEmpty();
+    }
+
+    private static MetricsSummary summary(String endpointName, EndpointSummary endpoint) {
+        return new MetricsSummary("run", 0, 1000, Collections.singletonMap(endpointName, endpoint));
+    }
+
+    /**
+     * @return Endpoint summary of one second run, the request count is the mean throughput.
+     */
+    private static EndpointSummary endpoint(double errorRate, double p99Latency, double p999Latency, long requestCount) {
+        long errorCount = Math.round(requestCount * errorRate);
+        return new EndpointSummary(requestCount, errorCount, errorRate, 10, 20, 50, p99Latency, p999Latency, p999Latency, 5,
+                                   Arrays.asList(requestCount), Arrays.asList(errorCount));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.cloud.integrationtests.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.cloud.integrationtests.metrics.MetricsSummary.EndpointSummary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class MetricsSummaryTest {
+
+    private static final String ENDPOINT = "start-process";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void summaryIsLoadedAsWritten() throws IOException {
+        File outputDirectory = temporaryFolder.newFolder("metrics");
+        PerformanceMetrics metrics = new PerformanceMetrics(outputDirectory, "run-1");
+        metrics.record(ENDPOINT, TimeUnit.MILLISECONDS.toNanos(10), true);
+        metrics.record(ENDPOINT, TimeUnit.MILLISECONDS.toNanos(30), true);
+        metrics.record(ENDPOINT, TimeUnit.MILLISECONDS.toNanos(2), false);
+        metrics.close();
+
+        MetricsSummary loaded = MetricsSummary.load(new File(outputDirectory, PerformanceMetrics.SUMMARY_FILE_NAME));
+
+        MetricsSummary written = metrics.getSummary();
+        assertThat(loaded.getRunName()).isEqualTo("run-1");
+        assertThat(loaded.getStartTime()).isEqualTo(written.getStartTime());
+        assertThat(loaded.getEndTime()).isEqualTo(written.getEndTime());
+        assertThat(loaded.getEndpoints()).containsOnlyKeys(ENDPOINT);
+        assertThat(loaded.getEndpoints().get(ENDPOINT)).isEqualToComparingFieldByField(written.getEndpoints().get(ENDPOINT));
+        assertThat(new File(outputDirectory, ENDPOINT + ".hlog")).exists();
+    }
+
+    @Test
+    public void failedRequestsAreNotInLatencyStatistics() throws IOException {
+        PerformanceMetrics metrics = new PerformanceMetrics(temporaryFolder.newFolder("metrics"), "run-1");
+        metrics.record(ENDPOINT, TimeUnit.MILLISECONDS.toNanos(10), true);
+        metrics.record(ENDPOINT, TimeUnit.MILLISECONDS.toNanos(30), true);
+        metrics.record(ENDPOINT, TimeUnit.MILLISECONDS.toNanos(2), false);
+        metrics.close();
+
+        EndpointSummary endpoint = metrics.getSummary().getEndpoints().get(ENDPOINT);
+        assertThat(endpoint.getRequestCount()).isEqualTo(3);
+        assertThat(endpoint.getErrorCount()).isEqualTo(1);
+        assertThat(endpoint.getErrorRate()).isCloseTo(1.0 / 3, within(0.001));
+        assertThat(endpoint.getMeanLatency()).isCloseTo(20, within(0.1));
+        assertThat(endpoint.getMeanErrorLatency()).isCloseTo(2, within(0.01));
+        assertThat(endpoint.getRequestsPerSecond().stream().mapToLong(Long::longValue).sum()).isEqualTo(3);
+    }
+}
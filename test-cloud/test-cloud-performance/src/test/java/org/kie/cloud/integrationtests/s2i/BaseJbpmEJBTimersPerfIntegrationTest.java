@@ -15,6 +15,7 @@
  */
 package org.kie.cloud.integrationtests.s2i;
 
+import java.io.File;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
@@ -41,10 +42,14 @@ import org.kie.cloud.api.deployment.Instance;
 import org.kie.cloud.api.scenario.WorkbenchRuntimeSmartRouterImmutableKieServerWithDatabaseScenario;
 import org.kie.cloud.common.provider.KieServerClientProvider;
 import org.kie.cloud.integrationtests.category.Performance;
+import org.kie.cloud.integrationtests.metrics.BaselineComparison;
+import org.kie.cloud.integrationtests.metrics.MetricsSummary;
+import org.kie.cloud.integrationtests.metrics.PerformanceMetrics;
 import org.kie.cloud.provider.git.Git;
 import org.kie.cloud.tests.common.AbstractMethodIsolatedCloudIntegrationTest;
 import org.kie.cloud.tests.common.client.util.Kjar;
-import org.kie.cloud.tests.common.client.util.RunnableWrapper;
+import org.kie.cloud.tests.common.load.LoadEngine;
+import org.kie.cloud.tests.common.load.LoadResult;
 import org.kie.cloud.tests.common.time.TimeUtils;
 import org.kie.server.api.exception.KieServicesHttpException;
 import org.kie.server.api.model.KieContainerResource;
@@ -83,6 +88,13 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
     protected static final int REFRESH_INTERVAL = Integer.parseInt(System.getProperty("refreshInterval", "30"));
     protected static final int ROUTER_TIMEOUT = Integer.parseInt(System.getProperty("routerTimeout", "60"));
     protected static final String ROUTER_BALANCE = System.getProperty("routerBalance", "roundrobin");
+    // Processes started per second, 0 means starting threads start processes as fast as they can
+    protected static final double STARTING_RATE = Double.parseDouble(System.getProperty("startingRate", "0"));
+    protected static final String METRICS_OUTPUT = System.getProperty("performance.metrics", "metrics");
+    // Summary of a previous run to compare this run with
+    protected static final String METRICS_BASELINE = System.getProperty("performance.baseline");
+    protected static final double REGRESSION_TOLERANCE = Double.parseDouble(System.getProperty("performance.regression.tolerance", "10"));
+    protected static final boolean FAIL_ON_REGRESSION = Boolean.parseBoolean(System.getProperty("performance.failOnRegression", "false"));
 
     protected static final String ONE_TIMER_DURATION_PROCESS_ID = "timers-testing.OneTimerDate";
 
@@ -132,6 +144,8 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
 
     protected Map<String, Integer> completedHostNameDistribution;
 
+    protected PerformanceMetrics performanceMetrics;
+
     @Override
     protected WorkbenchRuntimeSmartRouterImmutableKieServerWithDatabaseScenario createDeploymentScenario(DeploymentScenarioBuilderFactory deploymentScenarioFactory) {
         return deploymentScenario;
@@ -159,8 +173,10 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
             throw new RuntimeException("wrong scale parameter, should be equal or greater than 1");
         }
 
-        deploymentScenario.getKieServerDeployment().setRouterTimeout(Duration.ofMinutes(ROUTER_TIMEOUT));
-        deploymentScenario.getKieServerDeployment().setRouterBalance(ROUTER_BALANCE);
+        deploymentScenario.configureRouter()
+                          .setTimeout(deploymentScenario.getKieServerDeployment(), Duration.ofMinutes(ROUTER_TIMEOUT))
+                          .setBalance(deploymentScenario.getKieServerDeployment(), ROUTER_BALANCE)
+                          .apply();
 
         kieServicesClient = KieServerClientProvider.getKieServerClient(deploymentScenario.getKieServerDeployment(), Duration.ofMinutes(60).toMillis());
 
@@ -197,8 +213,15 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
         assertThat(containerReleaseId.getVersion()).isNotNull().isEqualTo(DEFINITION_PROJECT_VERSION);
 
         logger.info("============================= STARTING SCENARIO =============================");
-        runSingleScenario();
+        File metricsDirectory = new File(METRICS_OUTPUT, getClass().getSimpleName() + "-" + System.currentTimeMillis());
+        try (PerformanceMetrics metrics = new PerformanceMetrics(metricsDirectory, getClass().getSimpleName())) {
+            performanceMetrics = metrics;
+            runSingleScenario();
+        } finally {
+            performanceMetrics = null;
+        }
         logger.info("============================= SCENARIO COMPLETE =============================");
+        compareWithBaseline(MetricsSummary.load(new File(metricsDirectory, PerformanceMetrics.SUMMARY_FILE_NAME)));
 
         logger.info("============================= GATHERING STATISTICS =============================");
         gatherAndAssertStatistics();
@@ -210,22 +233,26 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
 
     protected abstract void runSingleScenario();
 
-    protected void startAndWaitForStartingThreads(int numberOfThreads, Duration duration, Integer iterations, Runnable runnable) {
-       List<Thread> threads = new ArrayList<>();
-        for (int i = 0; i < numberOfThreads; i++) {
-            Thread t = new Thread(new RunnableWrapper(duration, iterations, runnable));
-            t.start();
-            threads.add(t);
+    protected LoadResult startAndWaitForStartingThreads(int numberOfThreads, Duration duration, Integer iterations, Runnable runnable) {
+        LoadEngine loadEngine = STARTING_RATE > 0 ? LoadEngine.openModel(STARTING_RATE, numberOfThreads) : LoadEngine.closedModel(numberOfThreads);
+        if (performanceMetrics != null) {
+            PerformanceMetrics metrics = performanceMetrics;
+            loadEngine.listener((operation, intendedStartNanos, startNanos, endNanos, success) -> metrics.record(operation, endNanos - intendedStartNanos, success));
         }
-
-        threads.forEach(thread -> {
-            try {
-                thread.join();
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-        });
-
+        if (duration == null && iterations == null) {
+            throw new IllegalArgumentException("Either duration or number of iterations has to be set for the load.");
+        }
+        loadEngine.operation("startProcess", runnable);
+        if (duration != null) {
+            loadEngine.duration(duration);
+        }
+        // Without iterations the load is bound by the duration only
+        if (iterations != null) {
+            loadEngine.maxOperations((long) numberOfThreads * iterations);
+        }
+        LoadResult loadResult = loadEngine.run();
+        loadResult.logSummary(logger);
+        return loadResult;
     }
 
     protected Runnable getStartingRunnable(String containerId, String processId, Map<String, Object> parameters) {
@@ -245,6 +272,17 @@ public abstract class BaseJbpmEJBTimersPerfIntegrationTest extends AbstractMetho
         TimeUtils.wait(waitForCompletionDuration, Duration.of(1, ChronoUnit.SECONDS), completionCondition);
     }
 
+    private void compareWithBaseline(MetricsSummary summary) {
+        if (METRICS_BASELINE == null) {
+            return;
+        }
+        List<String> regressions = BaselineComparison.findRegressions(summary, MetricsSummary.load(new File(METRICS_BASELINE)), REGRESSION_TOLERANCE);
+        regressions.forEach(regression -> logger.warn("Performance regression against baseline {}: {}", METRICS_BASELINE, regression));
+        if (FAIL_ON_REGRESSION) {
+            assertThat(regressions).as("Performance regressions against baseline " + METRICS_BASELINE).isEmpty();
+        }
+    }
+
     private void gatherAndAssertStatistics() {
         int numberOfPages = 1 + (PROCESSES_COUNT / 5000);// including one additional page to check there are no more processes
 